@@ -0,0 +1,252 @@
+package crossway.codec.binary;
+
+import crossway.codec.node.Node;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.impl.codec.node.ArrayNode;
+import crossway.impl.codec.node.FieldNames;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+import crossway.struct.UnsafeByteArrayInputStream;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * 解析 {@link BinaryWriter} 编码的二进制数据，格式见 {@link BinaryTags}
+ * <p>
+ * 直接在输入数组上解析，字符串从输入中直接解码，不复制到中间缓冲区。
+ *
+ * @author iamcyw
+ **/
+public final class BinaryReader extends UnsafeByteArrayInputStream {
+
+    /**
+     * 容器嵌套的最大深度，防止恶意数据导致栈溢出
+     */
+    private static final int MAX_DEPTH = 512;
+
+    private final int         offset;
+    private final NodeFactory factory;
+    private       int         depth;
+
+    private BinaryReader(byte[] buf, int offset, int length, NodeFactory factory) {
+        super(buf, offset, length);
+        this.offset = offset;
+        this.factory = factory;
+    }
+
+    /**
+     * 解析
+     *
+     * @param data
+     *     数据
+     *
+     * @return 根节点
+     */
+    public static Node parse(byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * 解析数组中的一段
+     *
+     * @param data
+     *     数据
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     *
+     * @return 根节点
+     */
+    public static Node parse(byte[] data, int offset, int length) {
+        return parse(data, offset, length, NodeFactory.instance);
+    }
+
+    /**
+     * 解析数组中的一段，容器节点由指定的工厂创建
+     *
+     * @param data
+     *     数据
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     * @param factory
+     *     节点工厂
+     *
+     * @return 根节点
+     */
+    public static Node parse(byte[] data, int offset, int length, NodeFactory factory) {
+        BinaryReader reader = new BinaryReader(data, offset, length, factory);
+        int version = reader.readByte();
+        if (version != BinaryTags.VERSION) {
+            throw reader.error("Unsupported version " + version);
+        }
+        Node node = reader.readNode();
+        if (reader.mPosition != reader.mLimit) {
+            throw reader.error("Unexpected trailing data");
+        }
+        return node;
+    }
+
+    private Node readNode() {
+        byte tag = readByte();
+        switch (tag) {
+            case BinaryTags.NULL:
+                return factory.nullNode();
+            case BinaryTags.MISSING:
+                return factory.missingNode();
+            case BinaryTags.FALSE:
+                return factory.booleanNode(false);
+            case BinaryTags.TRUE:
+                return factory.booleanNode(true);
+            case BinaryTags.INT:
+                int i = readVarInt();
+                return factory.numberNode((i >>> 1) ^ -(i & 1));
+            case BinaryTags.LONG:
+                long l = readVarLong();
+                return factory.numberNode((l >>> 1) ^ -(l & 1));
+            case BinaryTags.DOUBLE:
+                return factory.numberNode(readDouble());
+            case BinaryTags.BIG_INTEGER:
+                return factory.numberNode(readBigInteger());
+            case BinaryTags.DECIMAL:
+                int scale = readVarInt();
+                return factory.numberNode(
+                    new BigDecimal(readBigInteger(), (scale >>> 1) ^ -(scale & 1)));
+            case BinaryTags.STRING:
+                return factory.textNode(readString());
+            case BinaryTags.BINARY:
+                int length = readLength();
+                Node binary = factory.binaryNode(mData, mPosition, length);
+                mPosition += length;
+                return binary;
+            case BinaryTags.DATE:
+                long millis = readVarLong();
+                return factory.dateNode(new Date((millis >>> 1) ^ -(millis & 1)));
+            case BinaryTags.ARRAY:
+                return readArray();
+            case BinaryTags.OBJECT:
+                return readObject();
+            default:
+                mPosition--;
+                throw error("Unknown tag " + tag);
+        }
+    }
+
+    private BigInteger readBigInteger() {
+        int length = readLength();
+        if (length == 0) {
+            throw error("Empty big integer");
+        }
+        BigInteger value = new BigInteger(Arrays.copyOfRange(mData, mPosition, mPosition + length));
+        mPosition += length;
+        return value;
+    }
+
+    private Node readArray() {
+        enter();
+        int size = readVarInt();
+        if (size < 0 || size > mLimit - mPosition) {
+            throw error("Illegal array size " + size);
+        }
+        ArrayNode array = factory.arrayNode(size);
+        for (int i = 0; i < size; i++) {
+            array.add(readNode());
+        }
+        depth--;
+        return array;
+    }
+
+    private Node readObject() {
+        enter();
+        int size = readVarInt();
+        if (size < 0 || size > mLimit - mPosition) {
+            throw error("Illegal object size " + size);
+        }
+        ObjectNode object = factory.objectNode();
+        for (int i = 0; i < size; i++) {
+            object.set(readName(), readNode());
+        }
+        depth--;
+        return object;
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Nesting deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private byte readByte() {
+        if (mPosition >= mLimit) {
+            throw error("Unexpected end of data");
+        }
+        return mData[mPosition++];
+    }
+
+    private int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw error("Malformed varint");
+    }
+
+    private long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw error("Malformed varint");
+    }
+
+    private double readDouble() {
+        if (mLimit - mPosition < 8) {
+            throw error("Unexpected end of data");
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (mData[mPosition++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private int readLength() {
+        int length = readVarInt();
+        if (length < 0 || length > mLimit - mPosition) {
+            throw error("Illegal length " + length);
+        }
+        return length;
+    }
+
+    private String readName() {
+        int length = readLength();
+        String name = FieldNames.of(mData, mPosition, mPosition + length);
+        mPosition += length;
+        return name;
+    }
+
+    private String readString() {
+        int length = readLength();
+        String text = new String(mData, mPosition, length, StandardCharsets.UTF_8);
+        mPosition += length;
+        return text;
+    }
+
+    private CrossWayRuntimeException error(String message) {
+        return new CrossWayRuntimeException("Malformed binary node at " + (mPosition - offset) + ": " + message);
+    }
+}
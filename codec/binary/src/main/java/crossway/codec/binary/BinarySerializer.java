@@ -0,0 +1,40 @@
+package crossway.codec.binary;
+
+import crossway.codec.Serializer;
+import crossway.codec.node.Node;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.ext.api.Extension;
+import crossway.impl.codec.node.NodeArena;
+import crossway.log.LogCodes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * 紧凑的二进制 {@link Node} 编解码，用于 CrossWay 节点之间的转发，省去每一跳的 JSON 文本解析
+ *
+ * @author iamcyw
+ **/
+@Extension("binary")
+public class BinarySerializer implements Serializer {
+
+    @Override
+    public Node encode(Object object, Map<String, Object> context) {
+        if (object instanceof byte[]) {
+            byte[] data = (byte[]) object;
+            return BinaryReader.parse(data, 0, data.length, NodeArena.factory(context));
+        }
+        throw new CrossWayRuntimeException(LogCodes.getLog(LogCodes.ERROR_SERIALIZER_TYPE));
+    }
+
+    @Override
+    public Object decode(Node data, Map<String, Object> context) {
+        return BinaryWriter.toBytes(data);
+    }
+
+    @Override
+    public void decode(Node data, Map<String, Object> context, OutputStream out) throws IOException {
+        BinaryWriter.write(data, out);
+    }
+}
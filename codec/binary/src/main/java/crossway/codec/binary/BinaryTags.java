@@ -0,0 +1,41 @@
+package crossway.codec.binary;
+
+/**
+ * 二进制格式的类型标记
+ * <p>
+ * 格式：一个字节的版本号，后面是根节点。每个节点以一个字节的类型标记开头：
+ * <ul>
+ * <li>int、long、date：zigzag 编码的 varint，date 为 epoch 毫秒</li>
+ * <li>double：8 字节大端 IEEE 754</li>
+ * <li>big integer：varint 长度加大端补码</li>
+ * <li>decimal：zigzag 编码的 scale，后面按 big integer 编码非标度值</li>
+ * <li>string、binary：varint 长度加内容，string 为 UTF-8</li>
+ * <li>array：varint 元素个数加各元素</li>
+ * <li>object：varint 字段个数加各字段，字段名按 string 编码，不带类型标记</li>
+ * </ul>
+ *
+ * @author iamcyw
+ **/
+final class BinaryTags {
+
+    static final byte VERSION = 1;
+
+    static final byte NULL    = 0;
+    static final byte MISSING = 1;
+    static final byte FALSE   = 2;
+    static final byte TRUE    = 3;
+    static final byte INT     = 4;
+    static final byte LONG    = 5;
+    static final byte DOUBLE  = 6;
+    static final byte STRING  = 7;
+    static final byte BINARY  = 8;
+    static final byte DATE    = 9;
+    static final byte ARRAY   = 10;
+    static final byte OBJECT  = 11;
+
+    static final byte BIG_INTEGER = 12;
+    static final byte DECIMAL     = 13;
+
+    private BinaryTags() {
+    }
+}
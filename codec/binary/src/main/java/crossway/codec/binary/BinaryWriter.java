@@ -0,0 +1,230 @@
+package crossway.codec.binary;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import crossway.struct.UnsafeByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 把 {@link Node} 树编码成紧凑的二进制格式，格式见 {@link BinaryTags}
+ * <p>
+ * 直接写入内部缓冲区，varint 和 UTF-8 都在缓冲区上原地编码，不生成中间数组。
+ *
+ * @author iamcyw
+ **/
+public final class BinaryWriter extends UnsafeByteArrayOutputStream {
+
+    private BinaryWriter(int size) {
+        super(size);
+    }
+
+    /**
+     * 编码成字节数组
+     *
+     * @param node
+     *     节点
+     *
+     * @return 编码结果
+     */
+    public static byte[] toBytes(Node node) {
+        return encode(node).toByteArray();
+    }
+
+    /**
+     * 编码后写到输出
+     *
+     * @param node
+     *     节点
+     * @param out
+     *     输出
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    public static void write(Node node, OutputStream out) throws IOException {
+        encode(node).writeTo(out);
+    }
+
+    private static BinaryWriter encode(Node node) {
+        BinaryWriter writer = new BinaryWriter(256);
+        writer.write(BinaryTags.VERSION);
+        writer.writeNode(node);
+        return writer;
+    }
+
+    private void writeNode(Node node) {
+        if (node == null || node.isNull()) {
+            writeTag(BinaryTags.NULL);
+        } else if (node.getNodeType() == NodeType.MISSING) {
+            writeTag(BinaryTags.MISSING);
+        } else if (node.isTextual()) {
+            writeTag(BinaryTags.STRING);
+            writeString(node.textValue());
+        } else if (node.isObject()) {
+            writeTag(BinaryTags.OBJECT);
+            writeVarInt(node.size());
+            Iterator<Map.Entry<String, Node>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, Node> field = fields.next();
+                writeString(field.getKey());
+                writeNode(field.getValue());
+            }
+        } else if (node.isArray()) {
+            writeTag(BinaryTags.ARRAY);
+            int size = node.size();
+            writeVarInt(size);
+            for (int i = 0; i < size; i++) {
+                writeNode(node.get(i));
+            }
+        } else if (node.isInt() || node.isShort()) {
+            writeTag(BinaryTags.INT);
+            writeVarInt((node.intValue() << 1) ^ (node.intValue() >> 31));
+        } else if (node.isLong()) {
+            writeTag(BinaryTags.LONG);
+            writeVarLong((node.longValue() << 1) ^ (node.longValue() >> 63));
+        } else if (node.isBoolean()) {
+            writeTag(node.booleanValue() ? BinaryTags.TRUE : BinaryTags.FALSE);
+        } else if (node.isBinary()) {
+            byte[] data = binaryValue(node);
+            writeTag(BinaryTags.BINARY);
+            writeVarInt(data.length);
+            write(data, 0, data.length);
+        } else if (node.isDate()) {
+            long millis = node.dateValue().getTime();
+            writeTag(BinaryTags.DATE);
+            writeVarLong((millis << 1) ^ (millis >> 63));
+        } else if (node.isBigInteger()) {
+            writeTag(BinaryTags.BIG_INTEGER);
+            writeBigInteger(node.bigIntegerValue());
+        } else if (node.isBigDecimal()) {
+            BigDecimal decimal = node.decimalValue();
+            writeTag(BinaryTags.DECIMAL);
+            writeVarInt((decimal.scale() << 1) ^ (decimal.scale() >> 31));
+            writeBigInteger(decimal.unscaledValue());
+        } else if (node.isNumber()) {
+            writeTag(BinaryTags.DOUBLE);
+            long bits = Double.doubleToRawLongBits(node.doubleValue());
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                mBuffer[mCount++] = (byte) (bits >>> shift);
+            }
+        } else {
+            writeTag(BinaryTags.NULL);
+        }
+    }
+
+    private static byte[] binaryValue(Node node) {
+        try {
+            byte[] data = node.binaryValue();
+            return data == null ? new byte[0] : data;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeTag(byte tag) {
+        ensureCapacity(1);
+        mBuffer[mCount++] = tag;
+    }
+
+    private void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            mBuffer[mCount++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mBuffer[mCount++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            mBuffer[mCount++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mBuffer[mCount++] = (byte) value;
+    }
+
+    private void writeBigInteger(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        writeVarInt(bytes.length);
+        write(bytes, 0, bytes.length);
+    }
+
+    private void writeString(String text) {
+        int length = text.length();
+        int utf8Length = utf8Length(text, length);
+        writeVarInt(utf8Length);
+        ensureCapacity(utf8Length);
+        byte[] buffer = mBuffer;
+        int count = mCount;
+        if (utf8Length == length) {
+            // 纯 ASCII
+            for (int i = 0; i < length; i++) {
+                buffer[count++] = (byte) text.charAt(i);
+            }
+            mCount = count;
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                       && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                buffer[count++] = (byte) (0xF0 | (cp >> 18));
+                buffer[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        mCount = count;
+    }
+
+    /**
+     * 计算 UTF-8 编码后的长度，不成对的代理字符按一个字节计算
+     */
+    private static int utf8Length(String text, int length) {
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    utf8Length += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                           && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    // 两个字符共四个字节
+                    utf8Length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    utf8Length += 2;
+                }
+            }
+        }
+        return utf8Length;
+    }
+
+    private void ensureCapacity(int length) {
+        int required = mCount + length;
+        if (required > mBuffer.length) {
+            mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length << 1, required));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package crossway.codec.binary;
+
+import crossway.codec.node.Node;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+
+class BinarySerializerTest {
+
+    private final BinarySerializer serializer = new BinarySerializer();
+
+    @Test
+    void roundTrip() throws IOException {
+        ObjectNode root = NodeFactory.instance.objectNode();
+        root.put("text", "中文 😀 ascii");
+        root.put("int", -123456);
+        root.put("long", 3000000000L);
+        root.put("double", -1.25);
+        root.put("big", new BigInteger("123456789012345678901234567890"));
+        root.put("decimal", new BigDecimal("-3.14159265358979323846"));
+        root.put("bool", true);
+        root.putNull("null");
+        root.put("bytes", new byte[]{1, 2, (byte) 0xFF});
+        root.set("date", NodeFactory.instance.dateNode(new Date(1600000000000L)));
+        root.putArray("list").add(NodeFactory.instance.numberNode(1)).add(NodeFactory.instance.textNode("x"));
+        root.putObject("child").put("a", 0);
+
+        byte[] data = (byte[]) serializer.decode(root, null);
+        Node node = serializer.encode(data, null);
+
+        Assertions.assertEquals("中文 😀 ascii", node.get("text").textValue());
+        Assertions.assertEquals(-123456, node.get("int").intValue());
+        Assertions.assertEquals(3000000000L, node.get("long").longValue());
+        Assertions.assertEquals(-1.25, node.get("double").doubleValue());
+        Assertions.assertEquals(new BigInteger("123456789012345678901234567890"), node.get("big").bigIntegerValue());
+        Assertions.assertEquals(new BigDecimal("-3.14159265358979323846"), node.get("decimal").decimalValue());
+        Assertions.assertTrue(node.get("bool").booleanValue());
+        Assertions.assertTrue(node.get("null").isNull());
+        Assertions.assertTrue(Arrays.equals(new byte[]{1, 2, (byte) 0xFF}, node.get("bytes").binaryValue()));
+        Assertions.assertEquals(1600000000000L, node.get("date").dateValue().getTime());
+        Assertions.assertEquals(2, node.get("list").size());
+        Assertions.assertEquals("x", node.get("list").get(1).textValue());
+        Assertions.assertEquals(0, node.get("child").get("a").intValue());
+    }
+
+    @Test
+    void malformed() {
+        byte[] data = (byte[]) serializer.decode(NodeFactory.instance.textNode("hello"), null);
+        Assertions.assertThrows(CrossWayRuntimeException.class,
+                                () -> serializer.encode(Arrays.copyOf(data, data.length - 1), null));
+        Assertions.assertThrows(CrossWayRuntimeException.class, () -> serializer.encode(new byte[]{1, 99}, null));
+    }
+}
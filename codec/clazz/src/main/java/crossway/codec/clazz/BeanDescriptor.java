@@ -0,0 +1,243 @@
+package crossway.codec.clazz;
+
+import crossway.utils.ClassUtils;
+import crossway.utils.ReflectUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 类的属性描述，每个类只解析一次
+ * <p>
+ * getter、setter 和无参构造函数通过 {@link LambdaMetafactory} 生成为普通的函数对象，调用时没有反射开销；
+ * 生成失败时（例如类对当前类加载器不可见）退回到 {@link MethodHandle}。
+ *
+ * @author iamcyw
+ **/
+final class BeanDescriptor {
+
+    private static final ConcurrentMap<Class<?>, BeanDescriptor> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Supplier<Object> constructor;
+    private final Reader[]         readers;
+    private final Writer[]         writers;
+
+    private BeanDescriptor(Class<?> type) {
+        this.constructor = constructor(type);
+        List<Reader> readers = new ArrayList<>();
+        List<Writer> writers = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isBridge()) {
+                continue;
+            }
+            if (ReflectUtils.isBeanPropertyReadMethod(method)) {
+                readers.add(new Reader(ReflectUtils.getPropertyNameFromBeanReadMethod(method), getter(method)));
+            } else if (!Modifier.isStatic(method.getModifiers()) && ReflectUtils.isBeanPropertyWriteMethod(method)) {
+                writers.add(new Writer(ReflectUtils.getPropertyNameFromBeanWriteMethod(method),
+                                       method.getGenericParameterTypes()[0], setter(method)));
+            }
+        }
+        this.readers = readers.toArray(new Reader[0]);
+        this.writers = writers.toArray(new Writer[0]);
+    }
+
+    /**
+     * 获取类的属性描述
+     *
+     * @param type
+     *     类
+     *
+     * @return 属性描述
+     */
+    static BeanDescriptor of(Class<?> type) {
+        BeanDescriptor descriptor = CACHE.get(type);
+        return descriptor != null ? descriptor : CACHE.computeIfAbsent(type, BeanDescriptor::new);
+    }
+
+    Object newInstance() {
+        return constructor.get();
+    }
+
+    Reader[] getReaders() {
+        return readers;
+    }
+
+    Writer[] getWriters() {
+        return writers;
+    }
+
+    /**
+     * 可读属性
+     */
+    static final class Reader {
+        final String                   name;
+        final Function<Object, Object> getter;
+
+        private Reader(String name, Function<Object, Object> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * 可写属性，以及解码时需要的目标类型
+     */
+    static final class Writer {
+        final String                     name;
+        final BiConsumer<Object, Object> setter;
+        /**
+         * 属性类型，基本类型已转换成包装类型；泛型的 Map 或 List 为原始类型，不支持解码时为null
+         */
+        final Class<?>                   type;
+        /**
+         * Map 的值类型或 List 的元素类型，其他情况为null
+         */
+        final Class<?>                   elementType;
+
+        private Writer(String name, Type genericType, BiConsumer<Object, Object> setter) {
+            this.name = name;
+            this.setter = setter;
+            if (genericType instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) genericType;
+                Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+                Type[] arguments = parameterizedType.getActualTypeArguments();
+                Type element = null;
+                if (rawType == Map.class) {
+                    element = arguments[1];
+                } else if (rawType == List.class) {
+                    element = arguments[0];
+                }
+                // 其他泛型类型不支持解码
+                this.type = element == null ? null : rawType;
+                if (element == null) {
+                    this.elementType = null;
+                } else {
+                    this.elementType = element instanceof Class ? (Class<?>) element : Object.class;
+                }
+            } else if (genericType instanceof Class) {
+                this.type = ClassUtils.getWrapperClass((Class<?>) genericType);
+                this.elementType = null;
+            } else {
+                this.type = null;
+                this.elementType = null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getConstructor();
+            if (isVisible(type) && !Modifier.isAbstract(type.getModifiers())) {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                                                              MethodType.methodType(Object.class), handle,
+                                                              MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invoke();
+            }
+        } catch (Throwable ignore) { // NOPMD
+            // 没有公共无参构造函数，或者无法生成
+        }
+        return () -> ClassUtils.newInstance(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        Class<?> returnType = ClassUtils.getWrapperClass(method.getReturnType());
+        try {
+            if (!isVisible(type) || !isVisible(returnType)) {
+                throw new IllegalAccessException(method.toString());
+            }
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                                                          MethodType.methodType(Object.class, Object.class), handle,
+                                                          MethodType.methodType(returnType, type));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle handle = unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try {
+                    return handle.invokeExact(bean);
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        Class<?> parameterType = ClassUtils.getWrapperClass(method.getParameterTypes()[0]);
+        try {
+            if (!isVisible(type) || !isVisible(parameterType)) {
+                throw new IllegalAccessException(method.toString());
+            }
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                                                          MethodType.methodType(void.class, Object.class,
+                                                                                Object.class), handle,
+                                                          MethodType.methodType(void.class, type, parameterType));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle handle = unreflect(method).asType(
+                MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * 生成的函数类定义在当前类加载器中，只能引用当前类加载器可见的公共类
+     */
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, BeanDescriptor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            // 公共类的公共方法不需要，非公共类上的公共方法需要
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Can not access " + method, e);
+        }
+    }
+}
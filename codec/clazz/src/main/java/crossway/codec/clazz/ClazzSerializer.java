@@ -4,23 +4,24 @@ import crossway.codec.Serializer;
 import crossway.codec.node.Node;
 import crossway.ext.api.Extension;
 import crossway.impl.codec.node.ArrayNode;
+import crossway.impl.codec.node.NodeArena;
 import crossway.impl.codec.node.NodeFactory;
 import crossway.impl.codec.node.ObjectNode;
-import crossway.utils.BeanUtils;
 import crossway.utils.ClassUtils;
 import crossway.utils.CommonUtils;
 import crossway.utils.ReflectUtils;
 import crossway.utils.StringUtils;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Extension("clazz")
 public class ClazzSerializer implements Serializer {
@@ -33,17 +34,11 @@ public class ClazzSerializer implements Serializer {
             if (object instanceof CharSequence || object instanceof Character) {
                 return NodeFactory.instance.textNode(object.toString());
             } else if (object instanceof Number) {
-                if (object instanceof Integer) {
-                    return NodeFactory.instance.numberNode((Integer) object);
-                } else if (object instanceof Long) {
-                    return NodeFactory.instance.numberNode((Long) object);
-                } else if (object instanceof Double) {
-                    return NodeFactory.instance.numberNode((Double) object);
-                }
+                return encodeNumber((Number) object);
             } else if (object instanceof Date) {
                 return NodeFactory.instance.dateNode((Date) object);
             } else if (object.getClass().isArray()) {
-                ArrayNode arrayNode = NodeFactory.instance.arrayNode();
+                ArrayNode arrayNode = NodeArena.factory(context).arrayNode();
                 Object[] arrayObj = (Object[]) object;
                 for (Object o : arrayObj) {
                     arrayNode.add(encode(o, context));
@@ -51,31 +46,61 @@ public class ClazzSerializer implements Serializer {
                 return arrayNode;
             }
         } else if (object instanceof List) {
-            ArrayNode arrayNode = NodeFactory.instance.arrayNode();
+            ArrayNode arrayNode = NodeArena.factory(context).arrayNode();
             ((List) object).forEach(o -> {
                 arrayNode.add(encode(o, context));
             });
             return arrayNode;
-        } else {
-            Map<String, Object> properties = new HashMap<>();
-            if (object instanceof Map) {
-                properties.putAll((Map<? extends String, ?>) object);
-            } else {
-                properties.putAll(BeanUtils.copyBeanToMap(object));
-            }
-            ObjectNode objectNode = NodeFactory.instance.objectNode();
-            if (CommonUtils.isNotEmpty(properties)) {
-                properties.forEach((s, o) -> {
-                    objectNode.put(s, encode(o, context));
-                });
-                return objectNode;
-            } else {
+        } else if (object instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            if (map.isEmpty()) {
                 return NodeFactory.instance.nullNode();
             }
+            ObjectNode objectNode = NodeArena.factory(context).objectNode();
+            map.forEach((key, value) -> objectNode.put(StringUtils.toString(key), encode(value, context)));
+            return objectNode;
+        } else {
+            ObjectNode objectNode = NodeArena.factory(context).objectNode();
+            for (BeanDescriptor.Reader reader : BeanDescriptor.of(object.getClass()).getReaders()) {
+                Object value;
+                try {
+                    value = reader.getter.apply(object);
+                } catch (Exception ignore) { // NOPMD
+                    continue;
+                }
+                objectNode.put(reader.name, encode(value, context));
+            }
+            return objectNode.size() > 0 ? objectNode : NodeFactory.instance.nullNode();
         }
         return null;
     }
 
+    /**
+     * 按实际类型取基本类型的值，不经过装箱
+     */
+    private static Node encodeNumber(Number number) {
+        if (number instanceof Integer) {
+            return NodeFactory.instance.numberNode(number.intValue());
+        } else if (number instanceof Long) {
+            return NodeFactory.instance.numberNode(number.longValue());
+        } else if (number instanceof Double) {
+            return NodeFactory.instance.numberNode(number.doubleValue());
+        } else if (number instanceof Float) {
+            return NodeFactory.instance.numberNode(number.floatValue());
+        } else if (number instanceof Short) {
+            return NodeFactory.instance.numberNode(number.shortValue());
+        } else if (number instanceof Byte) {
+            return NodeFactory.instance.numberNode(number.byteValue());
+        } else if (number instanceof BigInteger) {
+            return NodeFactory.instance.numberNode((BigInteger) number);
+        } else if (number instanceof BigDecimal) {
+            return NodeFactory.instance.numberNode((BigDecimal) number);
+        } else if (number instanceof AtomicInteger || number instanceof AtomicLong || number instanceof LongAdder) {
+            return NodeFactory.instance.numberNode(number.longValue());
+        }
+        return NodeFactory.instance.numberNode(number.doubleValue());
+    }
+
     @Override
     public Object decode(Node data, Map<String, Object> context) {
         if (CommonUtils.isEmpty(context)) {
@@ -99,58 +124,36 @@ public class ClazzSerializer implements Serializer {
                     return map;
                 }
             } else {
-                Object obj = ClassUtils.newInstance(type);
-                for (Method dstMethod : type.getMethods()) {
-                    if (Modifier.isStatic(dstMethod.getModifiers()) || !ReflectUtils.isBeanPropertyWriteMethod(
-                        dstMethod)) {
-                        // 不是static方法和setter
+                BeanDescriptor descriptor = BeanDescriptor.of(type);
+                Object obj = descriptor.newInstance();
+                for (BeanDescriptor.Writer writer : descriptor.getWriters()) {
+                    Node field = data.get(writer.name);
+                    if (field == null || writer.type == null) {
                         continue;
                     }
-                    String propertyName = ReflectUtils.getPropertyNameFromBeanWriteMethod(dstMethod);
-                    Node field = data.get(propertyName);
-
-                    Type returnType = dstMethod.getGenericParameterTypes()[0];
                     Object value = null;
-                    if (returnType instanceof Class) {
-                        value = decode(field, (Class) returnType);
-                    } else if (returnType instanceof ParameterizedType) {
-                        Class rawType = (Class) ((ParameterizedType) returnType).getRawType();
-                        if (rawType == Map.class) {
-                            Class returnClass = (Class) ((ParameterizedType) returnType).getActualTypeArguments()[1];
-                            Map<Object, Object> map = new HashMap<>();
-                            field.fields().forEachRemaining(nodeEntry -> {
-                                map.put(nodeEntry.getKey(), decode(nodeEntry.getValue(), returnClass));
-                            });
-                            if (CommonUtils.isNotEmpty(map)) {
-                                value = map;
-                            }
-                        } else if (rawType == List.class) {
-                            Class returnClass = (Class) ((ParameterizedType) returnType).getActualTypeArguments()[0];
-                            List<Object> list = new ArrayList<>();
-                            field.forEach(node -> {
-                                list.add(decode(node, returnClass));
-                            });
-                            if (CommonUtils.isNotEmpty(list)) {
-                                value = list;
-                            }
+                    if (writer.elementType == null) {
+                        value = decode(field, writer.type);
+                    } else if (writer.type == Map.class) {
+                        Map<Object, Object> map = new HashMap<>();
+                        field.fields().forEachRemaining(nodeEntry -> {
+                            map.put(nodeEntry.getKey(), decode(nodeEntry.getValue(), writer.elementType));
+                        });
+                        if (CommonUtils.isNotEmpty(map)) {
+                            value = map;
+                        }
+                    } else {
+                        List<Object> list = new ArrayList<>();
+                        field.forEach(node -> {
+                            list.add(decode(node, writer.elementType));
+                        });
+                        if (CommonUtils.isNotEmpty(list)) {
+                            value = list;
                         }
                     }
 
                     if (value != null) {
-                        try {
-                            if (dstMethod.isAccessible()) {
-                                dstMethod.invoke(obj, value);
-                            } else {
-                                try {
-                                    dstMethod.setAccessible(true);
-                                    dstMethod.invoke(obj, value);
-                                } finally {
-                                    dstMethod.setAccessible(false);
-                                }
-                            }
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
+                        writer.setter.accept(obj, value);
                     }
                 }
                 return obj;
@@ -164,6 +167,18 @@ public class ClazzSerializer implements Serializer {
                 return data.asInt();
             } else if (type == Long.class) {
                 return data.asLong();
+            } else if (type == Double.class) {
+                return data.asDouble();
+            } else if (type == Float.class) {
+                return (float) data.asDouble();
+            } else if (type == Short.class) {
+                return (short) data.asInt();
+            } else if (type == Byte.class) {
+                return (byte) data.asInt();
+            } else if (type == BigDecimal.class && data.isNumber()) {
+                return data.decimalValue();
+            } else if (type == BigInteger.class && data.isNumber()) {
+                return data.bigIntegerValue();
             } else if (data.isBoolean() && type == Boolean.class) {
                 return data.booleanValue();
             } else if (data.isDate() && type == Date.class) {
@@ -172,10 +187,8 @@ public class ClazzSerializer implements Serializer {
         } else if (type == Object.class) {
             if (data.isTextual()) {
                 return data.asText();
-            } else if (data.isInt()) {
-                return data.asInt();
-            } else if (data.isLong()) {
-                return data.isLong();
+            } else if (data.isNumber()) {
+                return data.numberValue();
             } else if (data.isBoolean()) {
                 return data.asBoolean();
             } else if (data.isDate()) {
@@ -42,4 +42,21 @@ class ClazzSerializerTest {
         Assertions.assertThat(testObject2).isEqualToComparingFieldByFieldRecursively(testObject);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void primitives() {
+        ClazzSerializer clazzSerializer = new ClazzSerializer();
+        Map<String, Object> context = new HashMap<>();
+        context.put("root", "crossway.codec.clazz.TestObject");
+
+        for (int i = 0; i < 3; i++) {
+            TestObject testObject = new TestObject();
+            testObject.setaLong(i + 5L);
+            testObject.setAnInt(i + 7);
+
+            TestObject decoded = (TestObject) clazzSerializer.decode(clazzSerializer.encode(testObject, null), context);
+            Assertions.assertThat(decoded.getaLong()).isEqualTo(i + 5L);
+            Assertions.assertThat(decoded.getAnInt()).isEqualTo(i + 7);
+        }
+    }
+
+}
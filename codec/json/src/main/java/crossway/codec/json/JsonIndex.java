@@ -0,0 +1,482 @@
+package crossway.codec.json;
+
+import crossway.impl.codec.node.FieldNames;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 JSON 的结构索引
+ * <p>
+ * 一次扫描记录每个值的位置，不创建任何节点：每个值在 tape 中占 {@link #SLOT} 个 int，按文档顺序排列，
+ * 容器的子节点紧跟在容器后面，通过 {@link #NEXT} 跳过整个子树。语法与 {@link JsonReader} 完全一致，
+ * 非法输入在扫描时就抛出 {@link ParseException}。
+ *
+ * @author iamcyw
+ **/
+final class JsonIndex implements Serializable {
+
+    private static final long serialVersionUID = -1938563029745162314L;
+
+    /**
+     * 值的开始位置
+     */
+    static final int START       = 0;
+    /**
+     * 值的结束位置（不含）
+     */
+    static final int END         = 1;
+    /**
+     * 下一个兄弟节点的序号，即跳过整个子树
+     */
+    static final int NEXT        = 2;
+    /**
+     * 对象字段名的开始位置，不是对象字段时为-1
+     */
+    static final int KEY_START   = 3;
+    /**
+     * 对象字段名的结束位置（不含）
+     */
+    static final int KEY_END     = 4;
+    static final int FLAGS       = 5;
+    static final int SLOT        = 6;
+
+    static final int SCALAR      = 0;
+    static final int OBJECT      = 1;
+    static final int ARRAY       = 2;
+    /**
+     * 空容器或数组中的空位，解析为 missing 节点
+     */
+    static final int MISSING     = 3;
+    static final int KIND_MASK   = 3;
+    /**
+     * 子树中用到了宽松语法（注释、单引号、不带引号的文本、尾随逗号等），原始字节不是标准 JSON
+     */
+    static final int LENIENT     = 4;
+    /**
+     * 字段名带引号
+     */
+    static final int KEY_QUOTED  = 8;
+    /**
+     * 字段名中有转义字符
+     */
+    static final int KEY_ESCAPED = 16;
+
+    final byte[] json;
+    final int    offset;
+    final int    end;
+
+    private int[]   tape = new int[SLOT * 16];
+    private int     count;
+    private int     pos;
+    private boolean lenient;
+
+    private JsonIndex(byte[] json, int offset, int end) {
+        this.json = json;
+        this.offset = offset;
+        this.end = end;
+        this.pos = offset;
+    }
+
+    /**
+     * 扫描第一个值并建立索引
+     *
+     * @param json
+     *     UTF-8 编码的 json
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     *
+     * @return 索引，根节点的序号为0
+     */
+    static JsonIndex build(byte[] json, int offset, int length) {
+        JsonIndex index = new JsonIndex(json, offset, offset + length);
+        index.value(-1, -1, 0);
+        return index;
+    }
+
+    int get(int entry, int field) {
+        return tape[entry * SLOT + field];
+    }
+
+    int kind(int entry) {
+        return tape[entry * SLOT + FLAGS] & KIND_MASK;
+    }
+
+    boolean isLenient(int entry) {
+        return (tape[entry * SLOT + FLAGS] & LENIENT) != 0;
+    }
+
+    /**
+     * 解码字段名
+     *
+     * @param entry
+     *     字段值的序号
+     *
+     * @return 字段名
+     */
+    String key(int entry) {
+        int base = entry * SLOT;
+        int start = tape[base + KEY_START];
+        int stop = tape[base + KEY_END];
+        int flags = tape[base + FLAGS];
+        if ((flags & KEY_ESCAPED) != 0) {
+            return JsonReader.of(json, start, stop - start).read().textValue();
+        }
+        if ((flags & KEY_QUOTED) != 0) {
+            return FieldNames.of(json, start + 1, stop - 1);
+        }
+        return FieldNames.of(json, start, stop);
+    }
+
+    private int value(int keyStart, int keyEnd, int keyFlags) {
+        int c = nextToken();
+        if (c == -1) {
+            throw error("Unexpected end");
+        }
+        int entry = add(keyStart, keyEnd, keyFlags);
+        int base = entry * SLOT;
+        tape[base + START] = pos;
+        int flags = keyFlags;
+        switch (c) {
+            case '{':
+                flags |= container(true);
+                break;
+            case '[':
+                flags |= container(false);
+                break;
+            case '"':
+            case '\'':
+                pos++;
+                if (scanString(c)) {
+                    lenient = true;
+                }
+                flags |= SCALAR;
+                break;
+            default:
+                scanLiteral(true);
+                flags |= SCALAR;
+        }
+        tape[base + END] = pos;
+        tape[base + NEXT] = count;
+        tape[base + FLAGS] = flags;
+        return entry;
+    }
+
+    /**
+     * 扫描容器，返回类型和是否宽松
+     */
+    private int container(boolean object) {
+        boolean outer = lenient;
+        lenient = false;
+        int kind = object ? scanObject() : scanArray();
+        int flags = lenient ? kind | LENIENT : kind;
+        lenient |= outer;
+        return flags;
+    }
+
+    private int scanObject() {
+        pos++;
+        if (nextToken() == '}') {
+            pos++;
+            lenient = true;
+            return MISSING;
+        }
+        while (true) {
+            int c = nextToken();
+            int keyStart = pos;
+            int keyFlags;
+            if (c == '"' || c == '\'') {
+                pos++;
+                keyFlags = KEY_QUOTED;
+                if (c == '\'') {
+                    lenient = true;
+                }
+                if (scanString(c)) {
+                    lenient = true;
+                }
+                for (int i = keyStart + 1; i < pos - 1; i++) {
+                    if (json[i] == '\\') {
+                        keyFlags |= KEY_ESCAPED;
+                        break;
+                    }
+                }
+            } else {
+                if (c == -1 || c == '{' || c == '[') {
+                    throw error("Expected a key");
+                }
+                keyFlags = 0;
+                if (scanLiteral(false) == keyStart) {
+                    throw error("Expected a key");
+                }
+                lenient = true;
+            }
+            int keyEnd = keyFlags == 0 ? trimmed(keyStart, pos) : pos;
+            if (nextToken() != ':') {
+                throw error("Expected a ':' after a key");
+            }
+            pos++;
+            value(keyStart, keyEnd, keyFlags);
+            c = nextToken();
+            if (c == ',' || c == ';') {
+                if (c == ';') {
+                    lenient = true;
+                }
+                pos++;
+                if (nextToken() == '}') {
+                    pos++;
+                    lenient = true;
+                    return OBJECT;
+                }
+            } else if (c == '}') {
+                pos++;
+                return OBJECT;
+            } else {
+                throw error("Expected a ',' or '}'");
+            }
+        }
+    }
+
+    private int scanArray() {
+        pos++;
+        if (nextToken() == ']') {
+            pos++;
+            lenient = true;
+            return MISSING;
+        }
+        while (true) {
+            if (nextToken() == ',') {
+                // 空位
+                int entry = add(-1, -1, 0);
+                int base = entry * SLOT;
+                tape[base + START] = pos;
+                tape[base + END] = pos;
+                tape[base + NEXT] = count;
+                tape[base + FLAGS] = MISSING | LENIENT;
+                lenient = true;
+            } else {
+                value(-1, -1, 0);
+            }
+            int c = nextToken();
+            if (c == ',') {
+                pos++;
+                if (nextToken() == ']') {
+                    pos++;
+                    lenient = true;
+                    return ARRAY;
+                }
+            } else if (c == ']') {
+                pos++;
+                return ARRAY;
+            } else {
+                throw error("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * 扫描字符串，返回是否用到了宽松语法
+     */
+    private boolean scanString(int quote) {
+        boolean loose = quote == '\'';
+        while (pos < end) {
+            int ch = json[pos++] & 0xFF;
+            if (ch == quote) {
+                return loose;
+            }
+            switch (ch) {
+                case '\n':
+                case '\r':
+                    pos--;
+                    throw error("Unterminated string");
+                case '\\':
+                    if (pos >= end) {
+                        throw error("Unterminated string");
+                    }
+                    ch = json[pos++];
+                    if (ch == 'u') {
+                        if (pos + 4 > end) {
+                            throw error("Illegal hex code");
+                        }
+                        for (int i = 0; i < 4; i++) {
+                            if (Character.digit(json[pos++], 16) < 0) {
+                                throw error("Illegal hex code");
+                            }
+                        }
+                    } else if (ch == '\'') {
+                        loose = true;
+                    } else if ("btnfr\"\\/".indexOf(ch) < 0) {
+                        throw error("Illegal escape.");
+                    }
+                    break;
+                default:
+                    if (ch < ' ') {
+                        loose = true;
+                    }
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * 扫描不带引号的文本
+     *
+     * @param value
+     *     是否为值，值为 true、false、null 或标准的数字时不算宽松语法
+     *
+     * @return 去掉结尾空白后的结束位置
+     */
+    private int scanLiteral(boolean value) {
+        int start = pos;
+        while (pos < end) {
+            int ch = json[pos] & 0xFF;
+            if (ch < ' ' || (ch < 128 && JsonReader.isDelimiter(ch))) {
+                break;
+            }
+            pos++;
+        }
+        int stop = trimmed(start, pos);
+        if (stop == start) {
+            if (value) {
+                throw error("Unexpected token");
+            }
+            return stop;
+        }
+        if (!value || !isStrictLiteral(start, stop)) {
+            lenient = true;
+        }
+        // 值的结束位置不含结尾的空白
+        if (value) {
+            pos = stop;
+        }
+        return stop;
+    }
+
+    private int trimmed(int start, int stop) {
+        while (stop > start && json[stop - 1] == ' ') {
+            stop--;
+        }
+        return stop;
+    }
+
+    private boolean isStrictLiteral(int start, int stop) {
+        int length = stop - start;
+        if (length == 4 && (matches(start, "true") || matches(start, "null"))) {
+            return true;
+        }
+        if (length == 5 && matches(start, "false")) {
+            return true;
+        }
+        // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+        int i = start;
+        if (json[i] == '-') {
+            i++;
+        }
+        if (i == stop || !isDigit(json[i])) {
+            return false;
+        }
+        if (json[i] == '0') {
+            i++;
+        } else {
+            while (i < stop && isDigit(json[i])) {
+                i++;
+            }
+        }
+        if (i < stop && json[i] == '.') {
+            int digits = ++i;
+            while (i < stop && isDigit(json[i])) {
+                i++;
+            }
+            if (i == digits) {
+                return false;
+            }
+        }
+        if (i < stop && (json[i] == 'e' || json[i] == 'E')) {
+            i++;
+            if (i < stop && (json[i] == '-' || json[i] == '+')) {
+                i++;
+            }
+            int digits = i;
+            while (i < stop && isDigit(json[i])) {
+                i++;
+            }
+            if (i == digits) {
+                return false;
+            }
+        }
+        return i == stop;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private boolean matches(int start, String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (json[start + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 跳过空白和注释，与 {@link JsonReader} 一致
+     */
+    private int nextToken() {
+        while (pos < end) {
+            int ch = json[pos] & 0xFF;
+            if (ch == '/') {
+                lenient = true;
+                skipComment();
+            } else if (ch <= ' ') {
+                if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+                    lenient = true;
+                }
+                pos++;
+            } else {
+                return ch;
+            }
+        }
+        return -1;
+    }
+
+    private void skipComment() {
+        pos++;
+        if (pos >= end) {
+            return;
+        }
+        int ch = json[pos++];
+        if (ch == '/') {
+            while (pos < end && json[pos++] != '\n') {
+                // 单行注释
+            }
+        } else if (ch == '*') {
+            while (pos < end) {
+                if (json[pos++] == '*' && pos < end && json[pos] == '/') {
+                    pos++;
+                    return;
+                }
+            }
+        }
+    }
+
+    private int add(int keyStart, int keyEnd, int keyFlags) {
+        int base = count * SLOT;
+        if (base + SLOT > tape.length) {
+            int[] grown = new int[tape.length << 1];
+            System.arraycopy(tape, 0, grown, 0, base);
+            tape = grown;
+        }
+        tape[base + KEY_START] = keyStart;
+        tape[base + KEY_END] = keyEnd;
+        tape[base + FLAGS] = keyFlags;
+        return count++;
+    }
+
+    private ParseException error(String message) {
+        return new ParseException(new String(json, offset, end - offset, StandardCharsets.UTF_8), pos - offset,
+                                  message);
+    }
+}
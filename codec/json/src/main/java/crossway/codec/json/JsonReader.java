@@ -0,0 +1,715 @@
+package crossway.codec.json;
+
+import crossway.codec.node.Node;
+import crossway.impl.codec.node.ArrayNode;
+import crossway.impl.codec.node.FieldNames;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 流式 JSON 解析器
+ * <p>
+ * 直接在 {@link CharSequence} 或 UTF-8 编码的 {@code byte[]} 上解析，不复制输入。没有转义的字符串直接截取，
+ * 数字在原位置上解析，不创建子串也不装箱；只有输入非法时才抛出 {@link ParseException}。
+ * <p>
+ * 兼容原有的宽松语法：单引号字符串、不带引号的文本、注释以及尾随的逗号。空对象和空数组解析为 missing 节点。
+ *
+ * @author iamcyw
+ **/
+public abstract class JsonReader {
+
+    /**
+     * 结束一个不带引号的文本的字符
+     */
+    private static final boolean[] DELIMITERS = new boolean[128];
+
+    /**
+     * 可以精确表示的10的幂
+     */
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13,
+                                           1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final String[] EMPTY_NAMES  = new String[0];
+    private static final Node[]   EMPTY_VALUES = new Node[0];
+
+    static {
+        for (char c : ",:]}/\\\"[{;=#".toCharArray()) {
+            DELIMITERS[c] = true;
+        }
+    }
+
+    /**
+     * 是否为结束不带引号的文本的字符
+     *
+     * @param ch
+     *     ASCII 字符
+     *
+     * @return 是否结束
+     */
+    static boolean isDelimiter(int ch) {
+        return DELIMITERS[ch];
+    }
+
+    protected final int offset;
+    protected final int end;
+
+    protected int pos;
+
+    /**
+     * 创建节点的工厂
+     */
+    private NodeFactory factory = NodeFactory.instance;
+
+    /**
+     * 处理转义字符时复用
+     */
+    private StringBuilder builder;
+
+    /**
+     * 正在解析的容器的字段名和元素，容器结束时按实际数量一次创建节点，不再逐个扩容
+     */
+    private String[] names  = EMPTY_NAMES;
+    private Node[]   values = EMPTY_VALUES;
+    private int      top;
+
+    protected JsonReader(int start, int end) {
+        this.offset = start;
+        this.end = end;
+        this.pos = start;
+    }
+
+    /**
+     * 在字符序列上解析
+     *
+     * @param json
+     *     json 文本
+     *
+     * @return 解析器
+     */
+    public static JsonReader of(CharSequence json) {
+        return new CharSequenceReader(json);
+    }
+
+    /**
+     * 在 UTF-8 字节上解析
+     *
+     * @param json
+     *     json 字节
+     *
+     * @return 解析器
+     */
+    public static JsonReader of(byte[] json) {
+        return new Utf8Reader(json, 0, json.length);
+    }
+
+    /**
+     * 在 UTF-8 字节上解析
+     *
+     * @param json
+     *     json 字节
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     *
+     * @return 解析器
+     */
+    public static JsonReader of(byte[] json, int offset, int length) {
+        return new Utf8Reader(json, offset, offset + length);
+    }
+
+    /**
+     * 设置创建节点的工厂，例如请求的 {@link crossway.impl.codec.node.NodeArena}
+     *
+     * @param factory
+     *     工厂
+     *
+     * @return 解析器
+     */
+    public JsonReader factory(NodeFactory factory) {
+        this.factory = factory;
+        return this;
+    }
+
+    /**
+     * 读取下一个值
+     *
+     * @return 节点
+     */
+    public Node read() {
+        int c = nextToken();
+        switch (c) {
+            case -1:
+                throw error("Unexpected end");
+            case '{':
+                pos++;
+                return readObject();
+            case '[':
+                pos++;
+                return readArray();
+            case '"':
+            case '\'':
+                pos++;
+                return factory.textNode(readString(c, false));
+            default:
+                return readLiteral();
+        }
+    }
+
+    /**
+     * 跳过空白和注释后是否还有内容
+     *
+     * @return 是否还有内容
+     */
+    public boolean hasNext() {
+        return nextToken() != -1;
+    }
+
+    /**
+     * 当前位置
+     *
+     * @return 下一个待读取字符的位置
+     */
+    public int getPosition() {
+        return pos;
+    }
+
+    private Node readObject() {
+        if (nextToken() == '}') {
+            pos++;
+            return factory.missingNode();
+        }
+        int base = top;
+        while (true) {
+            String key = readKey();
+            if (nextToken() != ':') {
+                throw error("Expected a ':' after a key");
+            }
+            pos++;
+            push(key, read());
+            int c = nextToken();
+            if (c == ',' || c == ';') {
+                pos++;
+                if (nextToken() == '}') {
+                    break;
+                }
+            } else if (c == '}') {
+                break;
+            } else {
+                throw error("Expected a ',' or '}'");
+            }
+        }
+        pos++;
+        ObjectNode objectNode = factory.objectNode(top - base);
+        for (int i = base; i < top; i++) {
+            objectNode.set(names[i], values[i]);
+        }
+        top = base;
+        return objectNode;
+    }
+
+    private String readKey() {
+        int c = nextToken();
+        if (c == '"' || c == '\'') {
+            pos++;
+            return readString(c, true);
+        }
+        if (c == -1 || c == '{' || c == '[') {
+            throw error("Expected a key");
+        }
+        int start = pos;
+        int stop = scanLiteral();
+        if (stop == start) {
+            throw error("Expected a key");
+        }
+        return name(start, stop);
+    }
+
+    private Node readArray() {
+        if (nextToken() == ']') {
+            pos++;
+            return factory.missingNode();
+        }
+        int base = top;
+        while (true) {
+            push(null, nextToken() == ',' ? factory.missingNode() : read());
+            int c = nextToken();
+            if (c == ',') {
+                pos++;
+                if (nextToken() == ']') {
+                    break;
+                }
+            } else if (c == ']') {
+                break;
+            } else {
+                throw error("Expected a ',' or ']'");
+            }
+        }
+        pos++;
+        ArrayNode arrayNode = factory.arrayNode(top - base);
+        for (int i = base; i < top; i++) {
+            arrayNode.add(values[i]);
+        }
+        top = base;
+        return arrayNode;
+    }
+
+    private void push(String name, Node value) {
+        if (top == values.length) {
+            // 只读取标量时不分配
+            int capacity = top == 0 ? 16 : top << 1;
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        names[top] = name;
+        values[top++] = value;
+    }
+
+    /**
+     * @param key
+     *     是否为字段名，没有转义字符的字段名从常量池中获取
+     */
+    private String readString(int quote, boolean key) {
+        int start = pos;
+        while (pos < end) {
+            int ch = at(pos);
+            if (ch == quote) {
+                return key ? name(start, pos++) : text(start, pos++);
+            }
+            if (ch == '\\' || ch == '\n' || ch == '\r') {
+                break;
+            }
+            pos++;
+        }
+
+        // 有转义字符时才使用 builder
+        StringBuilder sb = builder();
+        appendRange(sb, start, pos);
+        while (pos < end) {
+            int ch = at(pos);
+            if (ch == quote) {
+                pos++;
+                return sb.toString();
+            }
+            switch (ch) {
+                case '\n':
+                case '\r':
+                    throw error("Unterminated string");
+                case '\\':
+                    if (++pos >= end) {
+                        throw error("Unterminated string");
+                    }
+                    readEscape(sb, at(pos++));
+                    break;
+                default:
+                    pos = appendChar(sb, pos);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void readEscape(StringBuilder sb, int ch) {
+        switch (ch) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 'u':
+                if (pos + 4 > end) {
+                    throw error("Illegal hex code");
+                }
+                int num = 0;
+                for (int i = 0; i < 4; i++) {
+                    int tmp = at(pos++);
+                    if (tmp <= '9' && tmp >= '0') {
+                        tmp = tmp - '0';
+                    } else if (tmp <= 'F' && tmp >= 'A') {
+                        tmp = tmp - ('A' - 10);
+                    } else if (tmp <= 'f' && tmp >= 'a') {
+                        tmp = tmp - ('a' - 10);
+                    } else {
+                        throw error("Illegal hex code");
+                    }
+                    num = (num << 4) | tmp;
+                }
+                sb.append((char) num);
+                break;
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                sb.append((char) ch);
+                break;
+            default:
+                throw error("Illegal escape.");
+        }
+    }
+
+    private Node readLiteral() {
+        int start = pos;
+        int stop = scanLiteral();
+        int length = stop - start;
+        if (length == 0) {
+            throw error("Unexpected token");
+        }
+        if (length == 4 && matches(start, "true")) {
+            return factory.booleanNode(true);
+        }
+        if (length == 5 && matches(start, "false")) {
+            return factory.booleanNode(false);
+        }
+        if (length == 4 && matches(start, "null")) {
+            return factory.nullNode();
+        }
+        Node number = readNumber(start, stop);
+        return number != null ? number : factory.textNode(text(start, stop));
+    }
+
+    /**
+     * 扫描不带引号的文本，结尾的空白不计入
+     *
+     * @return 文本结束位置
+     */
+    private int scanLiteral() {
+        int start = pos;
+        while (pos < end) {
+            int ch = at(pos);
+            if (ch < ' ' || (ch < 128 && DELIMITERS[ch])) {
+                break;
+            }
+            pos++;
+        }
+        int stop = pos;
+        while (stop > start && at(stop - 1) == ' ') {
+            stop--;
+        }
+        return stop;
+    }
+
+    private boolean matches(int start, String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            int ch = at(start + i);
+            if (ch != literal.charAt(i) && Character.toLowerCase(ch) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在原位置上解析数字
+     *
+     * @param start
+     *     开始位置
+     * @param stop
+     *     结束位置
+     *
+     * @return 数字节点，不是数字时返回null
+     */
+    private Node readNumber(int start, int stop) {
+        int i = start;
+        int c = at(i);
+        boolean negative = false;
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+        if (i == stop || (c = at(i)) < '0' || c > '9') {
+            return null;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        boolean overflow = false;
+        while (i < stop && (c = at(i)) >= '0' && c <= '9') {
+            int d = c - '0';
+            if (digits < 18) {
+                mantissa = mantissa * 10 + d;
+            } else if (!overflow && mantissa <= (Long.MAX_VALUE - d) / 10) {
+                mantissa = mantissa * 10 + d;
+            } else {
+                overflow = true;
+            }
+            digits++;
+            i++;
+        }
+        if (i == stop) {
+            if (overflow) {
+                // 超出 long 的整数保留全部精度
+                return factory.numberNode(new BigInteger(text(start, stop)));
+            }
+            long value = negative ? -mantissa : mantissa;
+            if ((int) value == value) {
+                return factory.numberNode((int) value);
+            }
+            return factory.numberNode(value);
+        }
+
+        int exponent = 0;
+        if (c == '.') {
+            i++;
+            while (i < stop && (c = at(i)) >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent--;
+                }
+                digits++;
+                i++;
+            }
+        }
+        if (i < stop && (c == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < stop && ((c = at(i)) == '-' || c == '+')) {
+                negativeExp = c == '-';
+                i++;
+            }
+            if (i == stop) {
+                return null;
+            }
+            int exp = 0;
+            while (i < stop && (c = at(i)) >= '0' && c <= '9') {
+                if (exp < 10000) {
+                    exp = exp * 10 + (c - '0');
+                }
+                i++;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (i != stop) {
+            return null;
+        }
+
+        double value;
+        if (!overflow && digits <= 15 && exponent >= -22 && exponent <= 22) {
+            // 尾数和10的幂都能精确表示，一次运算的结果就是正确舍入的
+            value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            value = Double.parseDouble(text(start, stop));
+        }
+        return factory.numberNode(value);
+    }
+
+    /**
+     * 跳过空白和注释
+     *
+     * @return 下一个字符，不移动位置；没有内容时返回-1
+     */
+    private int nextToken() {
+        while (pos < end) {
+            int ch = at(pos);
+            if (ch == '/') {
+                skipComment();
+            } else if (ch <= ' ') {
+                pos++;
+            } else {
+                return ch;
+            }
+        }
+        return -1;
+    }
+
+    private void skipComment() {
+        pos++;
+        if (pos >= end) {
+            return;
+        }
+        int ch = at(pos++);
+        if (ch == '/') {
+            while (pos < end && at(pos++) != '\n') {
+                // 单行注释
+            }
+        } else if (ch == '*') {
+            while (pos < end) {
+                if (at(pos++) == '*' && pos < end && at(pos) == '/') {
+                    pos++;
+                    return;
+                }
+            }
+        }
+    }
+
+    private StringBuilder builder() {
+        if (builder == null) {
+            builder = new StringBuilder(64);
+        } else {
+            builder.setLength(0);
+        }
+        return builder;
+    }
+
+    private ParseException error(String message) {
+        return new ParseException(source(), pos - offset, message);
+    }
+
+    /**
+     * 读取位置上的字符（或字节）
+     *
+     * @param index
+     *     位置
+     *
+     * @return 字符
+     */
+    protected abstract int at(int index);
+
+    /**
+     * 截取没有转义字符的文本
+     *
+     * @param start
+     *     开始位置
+     * @param stop
+     *     结束位置
+     *
+     * @return 文本
+     */
+    protected abstract String text(int start, int stop);
+
+    /**
+     * 截取没有转义字符的字段名，常用的字段名在所有消息中共用一个实例，见 {@link FieldNames}
+     *
+     * @param start
+     *     开始位置
+     * @param stop
+     *     结束位置
+     *
+     * @return 字段名
+     */
+    protected abstract String name(int start, int stop);
+
+    /**
+     * 追加位置上的一个字符
+     *
+     * @param sb
+     *     目标
+     * @param index
+     *     位置
+     *
+     * @return 下一个字符的位置
+     */
+    protected abstract int appendChar(StringBuilder sb, int index);
+
+    protected void appendRange(StringBuilder sb, int start, int stop) {
+        while (start < stop) {
+            start = appendChar(sb, start);
+        }
+    }
+
+    /**
+     * 原始输入，仅用于错误信息
+     *
+     * @return 输入文本
+     */
+    protected abstract String source();
+
+    private static final class CharSequenceReader extends JsonReader {
+        private final CharSequence json;
+
+        private CharSequenceReader(CharSequence json) {
+            super(0, json.length());
+            this.json = json;
+        }
+
+        @Override
+        protected int at(int index) {
+            return json.charAt(index);
+        }
+
+        @Override
+        protected String text(int start, int stop) {
+            return json instanceof String ? ((String) json).substring(start, stop) :
+                json.subSequence(start, stop).toString();
+        }
+
+        @Override
+        protected String name(int start, int stop) {
+            return FieldNames.of(json, start, stop);
+        }
+
+        @Override
+        protected int appendChar(StringBuilder sb, int index) {
+            sb.append(json.charAt(index));
+            return index + 1;
+        }
+
+        @Override
+        protected void appendRange(StringBuilder sb, int start, int stop) {
+            sb.append(json, start, stop);
+        }
+
+        @Override
+        protected String source() {
+            return json.toString();
+        }
+    }
+
+    private static final class Utf8Reader extends JsonReader {
+        private final byte[] json;
+
+        private Utf8Reader(byte[] json, int start, int end) {
+            super(start, end);
+            this.json = json;
+        }
+
+        @Override
+        protected int at(int index) {
+            return json[index] & 0xFF;
+        }
+
+        @Override
+        protected String text(int start, int stop) {
+            return new String(json, start, stop - start, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected String name(int start, int stop) {
+            return FieldNames.of(json, start, stop);
+        }
+
+        @Override
+        protected int appendChar(StringBuilder sb, int index) {
+            int b = json[index] & 0xFF;
+            if (b < 0x80) {
+                sb.append((char) b);
+                return index + 1;
+            }
+            if ((b & 0xE0) == 0xC0 && index + 1 < end) {
+                sb.append((char) (((b & 0x1F) << 6) | (json[index + 1] & 0x3F)));
+                return index + 2;
+            }
+            if ((b & 0xF0) == 0xE0 && index + 2 < end) {
+                sb.append((char) (((b & 0x0F) << 12) | ((json[index + 1] & 0x3F) << 6) | (json[index + 2] & 0x3F)));
+                return index + 3;
+            }
+            if ((b & 0xF8) == 0xF0 && index + 3 < end) {
+                sb.appendCodePoint(((b & 0x07) << 18) | ((json[index + 1] & 0x3F) << 12)
+                                   | ((json[index + 2] & 0x3F) << 6) | (json[index + 3] & 0x3F));
+                return index + 4;
+            }
+            sb.append('\uFFFD');
+            return index + 1;
+        }
+
+        @Override
+        protected String source() {
+            return new String(json, offset, end - offset, StandardCharsets.UTF_8);
+        }
+    }
+}
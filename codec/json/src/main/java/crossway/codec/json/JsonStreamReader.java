@@ -0,0 +1,388 @@
+package crossway.codec.json;
+
+import crossway.codec.NodeReader;
+import crossway.codec.NodeToken;
+import crossway.codec.node.Node;
+import crossway.impl.codec.node.ArrayNode;
+import crossway.impl.codec.node.FieldNames;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 在 UTF-8 输入流上增量解析 JSON
+ * <p>
+ * 只保留一个缓冲区，已经读过的字节在下次填充时丢弃；缓冲区只在单个字符串或数字比它还长时才扩大。
+ * 语法与 {@link JsonReader} 一致，标量直接交给 {@link JsonReader} 在缓冲区上解析。顶层可以有多个连续的值，
+ * 例如按行分隔的 JSON。错误信息中的位置是相对当前缓冲区的。
+ *
+ * @author iamcyw
+ **/
+final class JsonStreamReader implements NodeReader {
+
+    /**
+     * 期待一个值：顶层或字段名之后
+     */
+    private static final int EXPECT_VALUE   = 0;
+    /**
+     * 期待字段名或 '}'：'{' 或 ',' 之后
+     */
+    private static final int EXPECT_KEY     = 1;
+    /**
+     * 期待元素或 ']'：'[' 或 ',' 之后
+     */
+    private static final int EXPECT_ELEMENT = 2;
+    /**
+     * 一个值结束之后
+     */
+    private static final int AFTER_VALUE    = 3;
+
+    private final InputStream in;
+
+    private byte[]  buffer;
+    private int     pos;
+    private int     limit;
+    /**
+     * 正在扫描的字符串或文本的开始位置，填充缓冲区时保留，没有时为-1
+     */
+    private int     mark = -1;
+    private boolean eof;
+
+    /**
+     * 每层容器是否为对象
+     */
+    private boolean[] objects = new boolean[16];
+    private int       depth;
+    private int       state   = EXPECT_VALUE;
+
+    private NodeToken current;
+    private String    fieldName;
+    private Node      value;
+
+    JsonStreamReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public NodeToken next() throws IOException {
+        fieldName = null;
+        value = null;
+        int c;
+        switch (state) {
+            case EXPECT_KEY:
+                if (nextToken() == '}') {
+                    pos++;
+                    return end();
+                }
+                fieldName = readKey();
+                if (nextToken() != ':') {
+                    throw error("Expected a ':' after a key");
+                }
+                pos++;
+                state = EXPECT_VALUE;
+                return current = NodeToken.FIELD_NAME;
+            case EXPECT_ELEMENT:
+                c = nextToken();
+                if (c == ']') {
+                    pos++;
+                    return end();
+                }
+                if (c == ',') {
+                    // 空位
+                    value = NodeFactory.instance.missingNode();
+                    state = AFTER_VALUE;
+                    return current = NodeToken.VALUE;
+                }
+                return start(c);
+            case AFTER_VALUE:
+                if (depth > 0) {
+                    c = nextToken();
+                    if (objects[depth - 1]) {
+                        if (c == ',' || c == ';') {
+                            pos++;
+                            state = EXPECT_KEY;
+                            return next();
+                        }
+                        if (c == '}') {
+                            pos++;
+                            return end();
+                        }
+                        throw error("Expected a ',' or '}'");
+                    }
+                    if (c == ',') {
+                        pos++;
+                        state = EXPECT_ELEMENT;
+                        return next();
+                    }
+                    if (c == ']') {
+                        pos++;
+                        return end();
+                    }
+                    throw error("Expected a ',' or ']'");
+                }
+                state = EXPECT_VALUE;
+                return next();
+            default:
+                c = nextToken();
+                if (c == -1 && depth == 0) {
+                    return current = null;
+                }
+                return start(c);
+        }
+    }
+
+    private NodeToken start(int c) throws IOException {
+        if (c == -1) {
+            throw error("Unexpected end");
+        }
+        if (c == '{' || c == '[') {
+            pos++;
+            if (nextToken() == (c == '{' ? '}' : ']')) {
+                // 与 JsonReader 一致，空容器为 missing 节点
+                pos++;
+                value = NodeFactory.instance.missingNode();
+                state = AFTER_VALUE;
+                return current = NodeToken.VALUE;
+            }
+            if (depth == objects.length) {
+                objects = Arrays.copyOf(objects, depth << 1);
+            }
+            objects[depth++] = c == '{';
+            state = c == '{' ? EXPECT_KEY : EXPECT_ELEMENT;
+            return current = c == '{' ? NodeToken.START_OBJECT : NodeToken.START_ARRAY;
+        }
+        value = readValue(c);
+        state = AFTER_VALUE;
+        return current = NodeToken.VALUE;
+    }
+
+    private NodeToken end() {
+        state = AFTER_VALUE;
+        return current = objects[--depth] ? NodeToken.END_OBJECT : NodeToken.END_ARRAY;
+    }
+
+    @Override
+    public NodeToken currentToken() {
+        return current;
+    }
+
+    @Override
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public Node getValue() {
+        return value;
+    }
+
+    @Override
+    public Node readTree() throws IOException {
+        if (current == NodeToken.VALUE) {
+            return value;
+        }
+        if (current == NodeToken.START_OBJECT) {
+            ObjectNode object = NodeFactory.instance.objectNode();
+            while (next() != NodeToken.END_OBJECT) {
+                String name = fieldName;
+                next();
+                object.set(name, readTree());
+            }
+            return object;
+        }
+        if (current == NodeToken.START_ARRAY) {
+            ArrayNode array = NodeFactory.instance.arrayNode();
+            while (next() != NodeToken.END_ARRAY) {
+                array.add(readTree());
+            }
+            return array;
+        }
+        throw new IllegalStateException("Current token is not the start of a value: " + current);
+    }
+
+    @Override
+    public void skipChildren() throws IOException {
+        if (current != NodeToken.START_OBJECT && current != NodeToken.START_ARRAY) {
+            return;
+        }
+        int open = depth;
+        while (depth >= open) {
+            next();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readKey() throws IOException {
+        int c = nextToken();
+        if (c == '"' || c == '\'') {
+            boolean escaped = scanString(c);
+            String key = escaped ? parse().textValue() : FieldNames.of(buffer, mark + 1, pos - 1);
+            mark = -1;
+            return key;
+        }
+        if (c == -1 || c == '{' || c == '[') {
+            throw error("Expected a key");
+        }
+        int stop = scanLiteral();
+        if (stop == mark) {
+            throw error("Expected a key");
+        }
+        String key = FieldNames.of(buffer, mark, stop);
+        mark = -1;
+        return key;
+    }
+
+    private Node readValue(int c) throws IOException {
+        if (c == '"' || c == '\'') {
+            scanString(c);
+        } else if (scanLiteral() == mark) {
+            throw error("Unexpected token");
+        }
+        Node node = parse();
+        mark = -1;
+        return node;
+    }
+
+    private Node parse() {
+        return JsonReader.of(buffer, mark, pos - mark).read();
+    }
+
+    /**
+     * 扫描带引号的字符串，完成后字符串位于 [mark, pos)
+     *
+     * @return 是否有转义字符
+     */
+    private boolean scanString(int quote) throws IOException {
+        mark = pos++;
+        boolean escaped = false;
+        while (ensure()) {
+            int ch = buffer[pos++] & 0xFF;
+            if (ch == quote) {
+                return escaped;
+            }
+            if (ch == '\n' || ch == '\r') {
+                pos--;
+                throw error("Unterminated string");
+            }
+            if (ch == '\\') {
+                if (!ensure()) {
+                    break;
+                }
+                pos++;
+                escaped = true;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * 扫描不带引号的文本，从 mark 开始
+     *
+     * @return 去掉结尾空白后的结束位置
+     */
+    private int scanLiteral() throws IOException {
+        mark = pos;
+        while (ensure()) {
+            int ch = buffer[pos] & 0xFF;
+            if (ch < ' ' || (ch < 128 && JsonReader.isDelimiter(ch))) {
+                break;
+            }
+            pos++;
+        }
+        int stop = pos;
+        while (stop > mark && buffer[stop - 1] == ' ') {
+            stop--;
+        }
+        return stop;
+    }
+
+    /**
+     * 跳过空白和注释
+     *
+     * @return 下一个字符，不移动位置；没有内容时返回-1
+     */
+    private int nextToken() throws IOException {
+        while (ensure()) {
+            int ch = buffer[pos] & 0xFF;
+            if (ch == '/') {
+                skipComment();
+            } else if (ch <= ' ') {
+                pos++;
+            } else {
+                return ch;
+            }
+        }
+        return -1;
+    }
+
+    private void skipComment() throws IOException {
+        pos++;
+        if (!ensure()) {
+            return;
+        }
+        int ch = buffer[pos++];
+        if (ch == '/') {
+            while (ensure() && buffer[pos++] != '\n') {
+                // 单行注释
+            }
+        } else if (ch == '*') {
+            while (ensure()) {
+                if (buffer[pos++] == '*' && ensure() && buffer[pos] == '/') {
+                    pos++;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 是否还有未读的字节
+     */
+    private boolean ensure() throws IOException {
+        return pos < limit || fill();
+    }
+
+    /**
+     * 丢弃已经读过的字节（保留 mark 之后的部分）并从输入流读取
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int keep = mark >= 0 ? mark : pos;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            pos -= keep;
+            if (mark >= 0) {
+                mark = 0;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        int n;
+        do {
+            n = in.read(buffer, limit, buffer.length - limit);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private ParseException error(String message) {
+        return new ParseException(new String(buffer, 0, limit, StandardCharsets.UTF_8), pos, message);
+    }
+}
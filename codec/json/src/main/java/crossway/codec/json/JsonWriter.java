@@ -0,0 +1,422 @@
+package crossway.codec.json;
+
+import crossway.codec.NodeWriter;
+import crossway.codec.node.Node;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 流式 JSON 输出
+ * <p>
+ * 一次遍历把 {@link Node} 树直接写到 {@link Appendable} 或 {@link OutputStream}，不为子节点生成中间字符串；
+ * 字符串转义使用查表的方式，只有需要转义的字符才会打断连续的写入。
+ *
+ * @author iamcyw
+ **/
+public abstract class JsonWriter {
+
+    /**
+     * ASCII 字符的转义表，不需要转义的为null
+     */
+    private static final String[] ESCAPES = new String[128];
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = "\\u00" + HEX[i >> 4] + HEX[i & 0xF];
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\r'] = "\\r";
+    }
+
+    /**
+     * 写到字符输出
+     *
+     * @param node
+     *     节点
+     * @param out
+     *     输出，例如 {@link StringBuilder}
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    public static void write(Node node, Appendable out) throws IOException {
+        new AppendableWriter(out).writeValue(node);
+    }
+
+    /**
+     * 以 UTF-8 编码写到字节输出，例如 socket 或 {@link crossway.struct.UnsafeByteArrayOutputStream}
+     *
+     * @param node
+     *     节点
+     * @param out
+     *     输出
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    public static void write(Node node, OutputStream out) throws IOException {
+        Utf8Writer writer = new Utf8Writer(out);
+        writer.writeValue(node);
+        writer.flush();
+    }
+
+    /**
+     * 以 UTF-8 编码流式写到字节输出，顶层的多个值之间以换行分隔
+     *
+     * @param out
+     *     输出
+     *
+     * @return 写出器
+     */
+    public static NodeWriter stream(OutputStream out) {
+        return new StreamWriter(new Utf8Writer(out), out);
+    }
+
+    /**
+     * 转成字符串
+     *
+     * @param node
+     *     节点
+     *
+     * @return json 文本
+     */
+    public static String toString(Node node) {
+        StringBuilder sb = new StringBuilder(256);
+        try {
+            write(node, sb);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    protected void writeValue(Node node) throws IOException {
+        if (node instanceof LazyNode && ((LazyNode) node).isRaw()) {
+            // 没有宽松语法的延迟节点直接复制原始字节
+            LazyNode lazy = (LazyNode) node;
+            writeRaw(lazy.rawBuffer(), lazy.rawStart(), lazy.rawEnd());
+        } else if (node == null || node.isNull()) {
+            writeRaw("null");
+        } else if (node.isTextual()) {
+            writeString(node.textValue());
+        } else if (node.isObject()) {
+            writeObject(node);
+        } else if (node.isArray()) {
+            writeArray(node);
+        } else if (node.isInt()) {
+            writeRaw(Integer.toString(node.intValue()));
+        } else if (node.isLong()) {
+            writeRaw(Long.toString(node.longValue()));
+        } else if (node.isBoolean() || node.isNumber()) {
+            writeRaw(node.asText());
+        } else {
+            writeRaw("null");
+        }
+    }
+
+    private void writeObject(Node node) throws IOException {
+        writeRaw('{');
+        Iterator<Map.Entry<String, Node>> fields = node.fields();
+        boolean first = true;
+        while (fields.hasNext()) {
+            Map.Entry<String, Node> field = fields.next();
+            if (!first) {
+                writeRaw(',');
+            }
+            first = false;
+            writeString(field.getKey());
+            writeRaw(':');
+            writeValue(field.getValue());
+        }
+        writeRaw('}');
+    }
+
+    private void writeArray(Node node) throws IOException {
+        writeRaw('[');
+        for (int i = 0, size = node.size(); i < size; i++) {
+            if (i > 0) {
+                writeRaw(',');
+            }
+            writeValue(node.get(i));
+        }
+        writeRaw(']');
+    }
+
+    protected void writeString(String text) throws IOException {
+        writeRaw('"');
+        int start = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && ESCAPES[c] != null) {
+                if (i > start) {
+                    writeRaw(text, start, i);
+                }
+                writeRaw(ESCAPES[c]);
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            writeRaw(text, start, text.length());
+        }
+        writeRaw('"');
+    }
+
+    private void writeRaw(String text) throws IOException {
+        writeRaw(text, 0, text.length());
+    }
+
+    protected abstract void writeRaw(char c) throws IOException;
+
+    protected abstract void writeRaw(String text, int start, int end) throws IOException;
+
+    /**
+     * 写入 UTF-8 编码的原始字节
+     *
+     * @param utf8
+     *     字节
+     * @param start
+     *     开始位置
+     * @param end
+     *     结束位置
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    protected abstract void writeRaw(byte[] utf8, int start, int end) throws IOException;
+
+    /**
+     * 按事件写出，记录每层容器的状态以插入分隔符
+     */
+    private static final class StreamWriter implements NodeWriter {
+        private final Utf8Writer   writer;
+        private final OutputStream out;
+
+        /**
+         * 每层容器是否为对象
+         */
+        private boolean[] objects = new boolean[16];
+        /**
+         * 每层容器是否已经有内容
+         */
+        private boolean[] started = new boolean[16];
+        private int       depth;
+        /**
+         * 已经写出字段名，等待值
+         */
+        private boolean   named;
+        private boolean   written;
+
+        private StreamWriter(Utf8Writer writer, OutputStream out) {
+            this.writer = writer;
+            this.out = out;
+        }
+
+        @Override
+        public void writeStartObject() throws IOException {
+            beforeValue();
+            push(true);
+            writer.writeRaw('{');
+        }
+
+        @Override
+        public void writeEndObject() throws IOException {
+            pop(true);
+            writer.writeRaw('}');
+        }
+
+        @Override
+        public void writeStartArray() throws IOException {
+            beforeValue();
+            push(false);
+            writer.writeRaw('[');
+        }
+
+        @Override
+        public void writeEndArray() throws IOException {
+            pop(false);
+            writer.writeRaw(']');
+        }
+
+        @Override
+        public void writeFieldName(String name) throws IOException {
+            if (depth == 0 || !objects[depth - 1] || named) {
+                throw new IllegalStateException("Can not write a field name here");
+            }
+            if (started[depth - 1]) {
+                writer.writeRaw(',');
+            }
+            started[depth - 1] = true;
+            writer.writeString(name);
+            writer.writeRaw(':');
+            named = true;
+        }
+
+        @Override
+        public void writeValue(Node value) throws IOException {
+            beforeValue();
+            writer.writeValue(value);
+        }
+
+        private void beforeValue() throws IOException {
+            if (depth == 0) {
+                if (written) {
+                    writer.writeRaw('\n');
+                }
+                written = true;
+            } else if (objects[depth - 1]) {
+                if (!named) {
+                    throw new IllegalStateException("Expected a field name");
+                }
+                named = false;
+            } else {
+                if (started[depth - 1]) {
+                    writer.writeRaw(',');
+                }
+                started[depth - 1] = true;
+            }
+        }
+
+        private void push(boolean object) {
+            if (depth == objects.length) {
+                objects = Arrays.copyOf(objects, depth << 1);
+                started = Arrays.copyOf(started, depth << 1);
+            }
+            objects[depth] = object;
+            started[depth++] = false;
+        }
+
+        private void pop(boolean object) {
+            if (depth == 0 || objects[depth - 1] != object || named) {
+                throw new IllegalStateException("Not in an " + (object ? "object" : "array"));
+            }
+            depth--;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+            out.close();
+        }
+    }
+
+    private static final class AppendableWriter extends JsonWriter {
+        private final Appendable out;
+
+        private AppendableWriter(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        protected void writeRaw(char c) throws IOException {
+            out.append(c);
+        }
+
+        @Override
+        protected void writeRaw(String text, int start, int end) throws IOException {
+            out.append(text, start, end);
+        }
+
+        @Override
+        protected void writeRaw(byte[] utf8, int start, int end) throws IOException {
+            out.append(new String(utf8, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 直接编码成 UTF-8 字节，写满缓冲区后才写到输出
+     */
+    private static final class Utf8Writer extends JsonWriter {
+        private final OutputStream out;
+        private final byte[]       buffer = new byte[4096];
+        private       int          count;
+
+        private Utf8Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        protected void writeRaw(char c) throws IOException {
+            if (c < 0x80) {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) c;
+            } else {
+                writeRaw(String.valueOf(c), 0, 1);
+            }
+        }
+
+        @Override
+        protected void writeRaw(String text, int start, int end) throws IOException {
+            for (int i = start; i < end; i++) {
+                if (count + 4 > buffer.length) {
+                    flushBuffer();
+                }
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    buffer[count++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[count++] = (byte) (0xC0 | (c >> 6));
+                    buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < end
+                           && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    buffer[count++] = (byte) (0xF0 | (cp >> 18));
+                    buffer[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[count++] = '?';
+                } else {
+                    buffer[count++] = (byte) (0xE0 | (c >> 12));
+                    buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        @Override
+        protected void writeRaw(byte[] utf8, int start, int end) throws IOException {
+            int length = end - start;
+            if (length > buffer.length - count) {
+                flushBuffer();
+                if (length > buffer.length) {
+                    out.write(utf8, start, length);
+                    return;
+                }
+            }
+            System.arraycopy(utf8, start, buffer, count, length);
+            count += length;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        private void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package crossway.codec.json;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import crossway.impl.codec.node.BaseNode;
+import crossway.impl.codec.node.MissingNode;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.PersistentArrayNode;
+import crossway.impl.codec.node.PersistentObjectNode;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 按需解析的只读 JSON 容器节点
+ * <p>
+ * 只保存原始的 UTF-8 字节和 {@link JsonIndex} 结构索引，子节点在 {@link #get}、{@link #path}、{@link #fields}
+ * 等方法第一次访问时才解析，子对象和子数组同样是延迟节点。没有被访问的消息不会创建任何子节点，
+ * 原样转发时 {@link JsonWriter} 直接复制原始字节。
+ * <p>
+ * 与 {@link JsonReader} 构建的树语义一致：重复的字段名保留最后一个值、位置为第一次出现的位置，空容器为 missing 节点。
+ * 唯一的区别是原样输出时不检查重复的字段名，会和输入一样保留所有重复字段。
+ * 首次访问时的缓存没有同步，同一个节点不要在多个线程上并发访问。
+ *
+ * @author iamcyw
+ **/
+public final class LazyNode extends BaseNode {
+
+    private static final long serialVersionUID = 4410370337437409186L;
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 字段数超过这个值时按字段名建立散列表，否则线性查找
+     */
+    private static final int HASH_THRESHOLD = 16;
+
+    private final JsonIndex   index;
+    private final NodeFactory factory;
+    private final int         entry;
+    private final boolean     object;
+
+    /**
+     * 子节点在索引中的序号，对象的重复字段已合并
+     */
+    private int[]    slots;
+    private String[] keys;
+    private Node[]   children;
+
+    /**
+     * 字段名到序号，字段数不超过 {@link #HASH_THRESHOLD} 时为 null
+     */
+    private Map<String, Integer> positions;
+
+    private LazyNode(JsonIndex index, NodeFactory factory, int entry, boolean object) {
+        this.index = index;
+        this.factory = factory;
+        this.entry = entry;
+        this.object = object;
+    }
+
+    /**
+     * 建立索引并返回根节点，根节点是对象或数组时为延迟节点，否则直接解析
+     *
+     * @param json
+     *     UTF-8 编码的 json，之后不能再修改
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     *
+     * @return 根节点
+     */
+    public static Node parse(byte[] json, int offset, int length) {
+        return parse(json, offset, length, NodeFactory.instance);
+    }
+
+    /**
+     * 建立索引并返回根节点，访问时解析出的值节点由指定的工厂创建
+     *
+     * @param json
+     *     UTF-8 编码的 json，之后不能再修改
+     * @param offset
+     *     起始位置
+     * @param length
+     *     长度
+     * @param factory
+     *     节点工厂，例如请求的 {@link crossway.impl.codec.node.NodeArena#factory()}
+     *
+     * @return 根节点
+     */
+    public static Node parse(byte[] json, int offset, int length, NodeFactory factory) {
+        return node(JsonIndex.build(json, offset, length), factory, 0);
+    }
+
+    private static Node node(JsonIndex index, NodeFactory factory, int entry) {
+        switch (index.kind(entry)) {
+            case JsonIndex.OBJECT:
+                return new LazyNode(index, factory, entry, true);
+            case JsonIndex.ARRAY:
+                return new LazyNode(index, factory, entry, false);
+            case JsonIndex.MISSING:
+                return MissingNode.getInstance();
+            default:
+                int start = index.get(entry, JsonIndex.START);
+                return JsonReader.of(index.json, start, index.get(entry, JsonIndex.END) - start).factory(factory)
+                                 .read();
+        }
+    }
+
+    /**
+     * 原始字节是否为标准 JSON，是的话可以直接输出
+     */
+    boolean isRaw() {
+        return !index.isLenient(entry);
+    }
+
+    byte[] rawBuffer() {
+        return index.json;
+    }
+
+    int rawStart() {
+        return index.get(entry, JsonIndex.START);
+    }
+
+    int rawEnd() {
+        return index.get(entry, JsonIndex.END);
+    }
+
+    private int[] slots() {
+        int[] current = slots;
+        if (current != null) {
+            return current;
+        }
+        int stop = index.get(entry, JsonIndex.NEXT);
+        int count = 0;
+        current = EMPTY;
+        for (int e = entry + 1; e < stop; e = index.get(e, JsonIndex.NEXT)) {
+            if (count == current.length) {
+                current = Arrays.copyOf(current, Math.max(8, count << 1));
+            }
+            current[count++] = e;
+        }
+        if (object) {
+            count = decodeKeys(current, count);
+        }
+        current = count == current.length ? current : Arrays.copyOf(current, count);
+        children = new Node[count];
+        slots = current;
+        return current;
+    }
+
+    /**
+     * 解码字段名并合并重复的字段
+     *
+     * @return 合并后的字段数
+     */
+    private int decodeKeys(int[] entries, int count) {
+        String[] names = new String[count];
+        Map<String, Integer> positions = count > HASH_THRESHOLD ? new HashMap<>(count * 2) : null;
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            String name = index.key(entries[i]);
+            int existing = -1;
+            if (positions != null) {
+                Integer position = positions.putIfAbsent(name, size);
+                existing = position == null ? -1 : position;
+            } else {
+                for (int j = 0; j < size; j++) {
+                    if (names[j].equals(name)) {
+                        existing = j;
+                        break;
+                    }
+                }
+            }
+            if (existing >= 0) {
+                entries[existing] = entries[i];
+            } else {
+                names[size] = name;
+                entries[size++] = entries[i];
+            }
+        }
+        keys = size == count ? names : Arrays.copyOf(names, size);
+        this.positions = positions;
+        return size;
+    }
+
+    private Node child(int i) {
+        Node child = children[i];
+        if (child == null) {
+            child = node(index, factory, slots[i]);
+            children[i] = child;
+        }
+        return child;
+    }
+
+    private int indexOf(String fieldName) {
+        if (!object) {
+            return -1;
+        }
+        String[] names = keysArray();
+        if (positions != null) {
+            Integer position = positions.get(fieldName);
+            return position == null ? -1 : position;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String[] keysArray() {
+        slots();
+        return keys;
+    }
+
+    @Override
+    public Node snapshot() {
+        return object ? PersistentObjectNode.copyOf(this) : PersistentArrayNode.copyOf(this);
+    }
+
+    @Override
+    public NodeType getNodeType() {
+        return object ? NodeType.OBJECT : NodeType.ARRAY;
+    }
+
+    @Override
+    public boolean isObject() {
+        return object;
+    }
+
+    @Override
+    public boolean isArray() {
+        return !object;
+    }
+
+    @Override
+    public int size() {
+        return slots().length;
+    }
+
+    @Override
+    public String asText() {
+        return "";
+    }
+
+    @Override
+    public Node get(int index) {
+        if (object || index < 0 || index >= slots().length) {
+            return null;
+        }
+        return child(index);
+    }
+
+    @Override
+    public Node get(String fieldName) {
+        int i = indexOf(fieldName);
+        return i >= 0 ? child(i) : null;
+    }
+
+    @Override
+    public Node path(String fieldName) {
+        Node node = get(fieldName);
+        return node != null ? node : MissingNode.getInstance();
+    }
+
+    @Override
+    public Node path(int index) {
+        Node node = get(index);
+        return node != null ? node : MissingNode.getInstance();
+    }
+
+    @Override
+    public Node required(String fieldName) {
+        Node node = get(fieldName);
+        if (node != null) {
+            return node;
+        }
+        return reportRequiredViolation("No value for property '%s' of `LazyNode`", fieldName);
+    }
+
+    @Override
+    public Iterator<Node> elements() {
+        int size = size();
+        return new Iterator<Node>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Node next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return child(cursor++);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<String> fieldNames() {
+        return object ? Arrays.asList(keysArray()).iterator() : Collections.emptyIterator();
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, Node>> fields() {
+        if (!object) {
+            return Collections.emptyIterator();
+        }
+        String[] names = keysArray();
+        return new Iterator<Map.Entry<String, Node>>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < names.length;
+            }
+
+            @Override
+            public Map.Entry<String, Node> next() {
+                if (cursor >= names.length) {
+                    throw new NoSuchElementException();
+                }
+                int i = cursor++;
+                return new AbstractMap.SimpleImmutableEntry<>(names[i], child(i));
+            }
+        };
+    }
+
+    @Override
+    public Node findValue(String fieldName) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (object && keys[i].equals(fieldName)) {
+                return child(i);
+            }
+            Node value = child(i).findValue(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findValues(String fieldName, List<Node> foundSoFar) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (object && keys[i].equals(fieldName)) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(child(i));
+            } else {
+                foundSoFar = child(i).findValues(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (object && keys[i].equals(fieldName)) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(child(i).asText());
+            } else {
+                foundSoFar = child(i).findValuesAsText(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public Node findParent(String fieldName) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (object && keys[i].equals(fieldName)) {
+                return this;
+            }
+            Node value = child(i).findParent(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findParents(String fieldName, List<Node> foundSoFar) {
+        for (int i = 0, size = size(); i < size; i++) {
+            if (object && keys[i].equals(fieldName)) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(this);
+            } else {
+                foundSoFar = child(i).findParents(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+}
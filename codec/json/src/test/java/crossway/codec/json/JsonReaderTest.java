@@ -0,0 +1,68 @@
+package crossway.codec.json;
+
+import crossway.codec.node.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+class JsonReaderTest {
+
+    @Test
+    void readNumber() {
+        Node node = JsonReader.of("[1, -2 , 3000000000, +7, 12abc, true ]").read();
+        Assertions.assertEquals(1, node.get(0).intValue());
+        Assertions.assertEquals(-2, node.get(1).intValue());
+        Assertions.assertEquals(3000000000L, node.get(2).longValue());
+        Assertions.assertEquals(7, node.get(3).intValue());
+        Assertions.assertEquals("12abc", node.get(4).textValue());
+        Assertions.assertTrue(node.get(5).booleanValue());
+    }
+
+    @Test
+    void readDecimal() {
+        Node node = JsonReader.of("[1.5, -2e-3, 12345678901234567890, 0.1]").read();
+        Assertions.assertTrue(node.get(0).isDouble());
+        Assertions.assertEquals(1.5, node.get(0).doubleValue());
+        Assertions.assertEquals(-0.002, node.get(1).doubleValue());
+        Assertions.assertTrue(node.get(2).isBigInteger());
+        Assertions.assertEquals("12345678901234567890", node.get(2).asText());
+        Assertions.assertEquals("[1.5,-0.002,12345678901234567890,0.1]", JsonWriter.toString(node));
+    }
+
+    @Test
+    void readString() {
+        String json = "{'a': \"x\\ty\\u0041\", /* comment */ b : \"中文\", \"c\": true , \"d\": null,}";
+        for (JsonReader reader : new JsonReader[]{JsonReader.of(json),
+                                                  JsonReader.of(json.getBytes(StandardCharsets.UTF_8))}) {
+            Node node = reader.read();
+            Assertions.assertEquals("x\tyA", node.get("a").textValue());
+            Assertions.assertEquals("中文", node.get("b").textValue());
+            Assertions.assertTrue(node.get("c").booleanValue());
+            Assertions.assertTrue(node.get("d").isNull());
+        }
+    }
+
+    @Test
+    void readNested() {
+        StringBuilder json = new StringBuilder("{\"a\": [1, [2, 3], {\"b\": [,4]}], ");
+        for (int i = 0; i < 40; i++) {
+            json.append("\"f").append(i).append("\": [").append(i).append(", {\"g\": ").append(i).append("}], ");
+        }
+        json.append("\"a\": 5}");
+        Node node = JsonReader.of(json.toString()).read();
+        Assertions.assertEquals(41, node.size());
+        Assertions.assertEquals(5, node.get("a").intValue());
+        Assertions.assertEquals(39, node.get("f39").get(1).get("g").intValue());
+        Assertions.assertEquals("[1,[2,3],{\"b\":[null,4]}]",
+                                JsonWriter.toString(JsonReader.of("[1, [2, 3], {\"b\": [,4]}]").read()));
+    }
+
+    @Test
+    void readIllegal() {
+        Assertions.assertThrows(ParseException.class, () -> JsonReader.of("").read());
+        Assertions.assertThrows(ParseException.class, () -> JsonReader.of("{\"a\" 1}").read());
+        Assertions.assertThrows(ParseException.class, () -> JsonReader.of("[1, 2").read());
+        Assertions.assertThrows(ParseException.class, () -> JsonReader.of("\"abc").read());
+    }
+}
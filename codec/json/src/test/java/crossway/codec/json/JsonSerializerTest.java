@@ -1,5 +1,6 @@
 package crossway.codec.json;
 
+import crossway.codec.Serializer;
 import crossway.impl.codec.node.ArrayNode;
 import crossway.impl.codec.node.ObjectNode;
 import crossway.utils.JsonUtils;
@@ -7,7 +8,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,4 +40,19 @@ class JsonSerializerTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void encodeBytes() {
+        byte[] json = "{\"a\":{\"b\":1}}".getBytes(StandardCharsets.UTF_8);
+        JsonSerializer jsonSerializer = new JsonSerializer();
+
+        // 默认返回可以修改的树
+        ObjectNode node = (ObjectNode) jsonSerializer.encode(json, null);
+        ((ObjectNode) node.get("a")).put("c", 2);
+        Assertions.assertEquals("{\"a\":{\"b\":1,\"c\":2}}", jsonSerializer.decode(node, null));
+
+        // 调用方声明只读时返回延迟节点
+        Map<String, Object> context = Collections.singletonMap(Serializer.CONTEXT_READ_ONLY, Boolean.TRUE);
+        Assertions.assertTrue(jsonSerializer.encode(json, context) instanceof LazyNode);
+    }
+}
@@ -0,0 +1,23 @@
+package crossway.codec.json;
+
+import crossway.codec.node.Node;
+import crossway.struct.UnsafeByteArrayOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class JsonWriterTest {
+
+    @Test
+    void write() throws IOException {
+        String json = "{\"a\":\"x\\ty\\\\\\\"\",\"b\":[1,3000000000,true,null],\"c\":{\"d\":\"中文\"}}";
+        Node node = JsonReader.of(json).read();
+        Assertions.assertEquals(json, JsonWriter.toString(node));
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        JsonWriter.write(node, out);
+        Assertions.assertEquals(json, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package crossway.codec.json;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+class LazyNodeTest {
+
+    @Test
+    void access() {
+        Node node = parse("{\"a\": 1, \"b\": {\"c\": [true, \"x\\ty\", null], \"d\": {}}, \"\\u0065\": \"e\", \"a\": 2}");
+        Assertions.assertTrue(node instanceof LazyNode);
+        Assertions.assertEquals(3, node.size());
+        Assertions.assertEquals(2, node.get("a").intValue());
+        Assertions.assertEquals("e", node.get("e").textValue());
+        Assertions.assertEquals("x\ty", node.get("b").get("c").get(1).textValue());
+        Assertions.assertEquals(NodeType.MISSING, node.path("b").path("d").getNodeType());
+        Assertions.assertEquals(NodeType.MISSING, node.path("x").path(3).getNodeType());
+        Assertions.assertNull(node.get("b").get("c").get(3));
+        Assertions.assertSame(node.get("b"), node.get("b"));
+        Assertions.assertTrue(node.findValue("c").isArray());
+
+        List<String> names = new ArrayList<>();
+        for (Iterator<Map.Entry<String, Node>> it = node.fields(); it.hasNext(); ) {
+            names.add(it.next().getKey());
+        }
+        Assertions.assertEquals("[a, b, e]", names.toString());
+    }
+
+    @Test
+    void sameAsReader() {
+        String[] docs = {"{\"a\":[1,\"x\",{\"b\":false}],\"c\":null}", "{'a': bare, b: [1,,2,], /* c */ \"d\": {};}",
+                         "[{\"a\":1},[],\"\\u4e2d\", TRUE]", "{\"a\":1,\"a\":{\"b\":2},}"};
+        for (String doc : docs) {
+            Assertions.assertEquals(JsonWriter.toString(JsonReader.of(doc).read()), JsonWriter.toString(parse(doc)),
+                                    doc);
+        }
+    }
+
+    @Test
+    void passThrough() {
+        String doc = "{\n  \"a\" : [1, -2.5e3, \"中文\"],\n  \"b\" : {\"c\" : null}\n}";
+        Node node = parse(doc);
+        Assertions.assertEquals(doc, JsonWriter.toString(node));
+        Assertions.assertEquals("{\"c\" : null}", JsonWriter.toString(node.get("b")));
+        Assertions.assertEquals("{\"a\":1,\"a\":2}", JsonWriter.toString(parse("{\"a\":1,\"a\":2}")));
+    }
+
+    @Test
+    void wideObject() {
+        StringBuilder doc = new StringBuilder("{");
+        for (int i = 0; i < 40; i++) {
+            doc.append("\"f").append(i).append("\":").append(i).append(',');
+        }
+        doc.append("\"f7\":\"last\"}");
+        Node node = parse(doc.toString());
+        Assertions.assertEquals(40, node.size());
+        Assertions.assertEquals(39, node.get("f39").intValue());
+        Assertions.assertEquals("last", node.get("f7").textValue());
+        Assertions.assertNull(node.get("f40"));
+        Iterator<String> names = node.fieldNames();
+        for (int i = 0; i < 7; i++) {
+            names.next();
+        }
+        Assertions.assertEquals("f7", names.next());
+    }
+
+    @Test
+    void malformed() {
+        Assertions.assertThrows(ParseException.class, () -> parse("{\"a\": [1, 2}"));
+        Assertions.assertThrows(ParseException.class, () -> parse("{\"a\" 1}"));
+        Assertions.assertThrows(ParseException.class, () -> parse("[\"a\\x\"]"));
+    }
+
+    private static Node parse(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return LazyNode.parse(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,90 @@
+package crossway.codec.json;
+
+import crossway.codec.node.FieldIndex;
+import crossway.codec.node.Node;
+import crossway.codec.node.NodePath;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class NodePathTest {
+
+    private static final String JSON = "{\"order\": {\"id\": 7, \"items\": [{\"sku\": \"a\", \"id\": 1}, {\"sku\": \"b\"}]},"
+                                       + " \"a/b\": {\"~\": true}, \"list\": [[0, 1], [2]], \"id\": {\"id\": 9}}";
+
+    @Test
+    void singular() {
+        for (Node root : roots()) {
+            Assertions.assertEquals(7, NodePath.compile("/order/id").get(root).intValue());
+            Assertions.assertEquals(7, NodePath.compile("$.order.id").get(root).intValue());
+            Assertions.assertEquals("b", NodePath.compile("/order/items/1/sku").get(root).textValue());
+            Assertions.assertEquals("b", NodePath.compile("$['order'].items[1][\"sku\"]").get(root).textValue());
+            Assertions.assertTrue(NodePath.compile("/a~1b/~0").get(root).booleanValue());
+            Assertions.assertEquals(2, NodePath.compile("$.list[1][0]").get(root).intValue());
+            Assertions.assertSame(root, NodePath.compile("").get(root));
+            Assertions.assertNull(NodePath.compile("/order/items/5/sku").get(root));
+            Assertions.assertNull(NodePath.compile("$.order[0]").get(root));
+            Assertions.assertTrue(NodePath.compile("$.order.id").isSingular());
+        }
+    }
+
+    @Test
+    void multiple() {
+        for (Node root : roots()) {
+            Assertions.assertEquals("[a, b]", texts(NodePath.compile("$.order.items[*].sku").getAll(root)));
+            Assertions.assertEquals("[7, 1, {...}, 9]", texts(NodePath.compile("$..id").getAll(root)));
+            Assertions.assertEquals(3, NodePath.compile("$.list.*.*").getAll(root).size());
+            Assertions.assertEquals("a", NodePath.compile("$..sku").get(root).textValue());
+            Assertions.assertFalse(NodePath.compile("$..sku").isSingular());
+        }
+    }
+
+    @Test
+    void canonical() {
+        Assertions.assertEquals(NodePath.compile("/type").canonical(), NodePath.compile("$.type").canonical());
+        Assertions.assertEquals(NodePath.compile("/a/b").canonical(), NodePath.compile("$['a'].b").canonical());
+        Assertions.assertEquals("$['a'][~0]", NodePath.compile("/a/0").canonical());
+        Assertions.assertNotEquals(NodePath.compile("/a/0").canonical(), NodePath.compile("$.a[0]").canonical());
+        Assertions.assertNotEquals(NodePath.compile("$..a").canonical(), NodePath.compile("$.a").canonical());
+    }
+
+    @Test
+    void illegal() {
+        for (String expression : Arrays.asList("order", "$.", "$[x]", "$['a'", "/a~2", "$.a[1")) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> NodePath.compile(expression), expression);
+        }
+    }
+
+    @Test
+    void fieldIndex() {
+        for (Node root : roots()) {
+            FieldIndex index = FieldIndex.of(root);
+            for (String name : Arrays.asList("id", "sku", "~", "items", "absent")) {
+                List<Node> values = root.findValues(name, null);
+                Assertions.assertEquals(values == null ? 0 : values.size(), index.findValues(name).size(), name);
+                Assertions.assertSame(root.findValue(name), index.findValue(name), name);
+                Assertions.assertSame(root.findParent(name), index.findParent(name), name);
+                Assertions.assertEquals(root.findParents(name), index.findParents(name), name);
+            }
+            // 数组中的对象也会被查找
+            Assertions.assertEquals(Arrays.asList("a", "b"), index.findValuesAsText("sku"));
+        }
+    }
+
+    private static List<Node> roots() {
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        return Arrays.asList(JsonReader.of(JSON).read(), LazyNode.parse(bytes, 0, bytes.length));
+    }
+
+    private static String texts(List<Node> nodes) {
+        List<String> texts = new ArrayList<>();
+        for (Node node : nodes) {
+            texts.add(node.isValueNode() ? node.asText() : "{...}");
+        }
+        return texts.toString();
+    }
+}
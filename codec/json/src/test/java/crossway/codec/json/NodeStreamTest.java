@@ -0,0 +1,168 @@
+package crossway.codec.json;
+
+import crossway.codec.NodeReader;
+import crossway.codec.NodeToken;
+import crossway.codec.NodeWriter;
+import crossway.codec.Serializer;
+import crossway.codec.node.Node;
+import crossway.impl.codec.node.IntNode;
+import crossway.impl.codec.node.TextNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class NodeStreamTest {
+
+    private static final String[] DOCS = {"{\"a\":[1,\"x\",{\"b\":false}],\"c\":null}",
+                                          "{'a': bare, b: [1,,2,], /* c */ \"d\": {};}",
+                                          "[{\"a\":1},[],\"\\u4e2d\\\"\", TRUE, 12345678901234567890, -1.5e3]",
+                                          "{\"long_field_name_\\t\":\"" + repeat("中文", 40) + "\"}"};
+
+    @Test
+    void elementByElement() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\"}");
+        }
+        String json = sb.append("]").toString();
+        // 缓冲区远小于输入，需要多次填充
+        NodeReader reader = new JsonStreamReader(stream(json), 16);
+        Assertions.assertEquals(NodeToken.START_ARRAY, reader.next());
+        int count = 0;
+        while (reader.next() != NodeToken.END_ARRAY) {
+            Node element = reader.readTree();
+            Assertions.assertEquals(count, element.get("id").intValue());
+            Assertions.assertEquals("n" + count, element.get("name").textValue());
+            count++;
+        }
+        Assertions.assertEquals(500, count);
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void sameAsReader() throws IOException {
+        for (String doc : DOCS) {
+            for (int size : new int[] {4, 8192}) {
+                NodeReader reader = new JsonStreamReader(stream(doc), size);
+                reader.next();
+                Assertions.assertEquals(JsonWriter.toString(JsonReader.of(doc).read()),
+                                        JsonWriter.toString(reader.readTree()), doc);
+                Assertions.assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void sameAsTree() throws IOException {
+        // 默认实现在解码后的树上产生事件，事件序列应当与增量解析一致
+        Serializer tree = new Serializer() {
+            @Override
+            public Node encode(Object object, Map<String, Object> context) {
+                return JsonReader.of((byte[]) object).read();
+            }
+
+            @Override
+            public Object decode(Node data, Map<String, Object> context) {
+                return null;
+            }
+        };
+        for (String doc : DOCS) {
+            Assertions.assertEquals(events(tree.reader(stream(doc), null)),
+                                    events(new JsonStreamReader(stream(doc), 8)), doc);
+        }
+    }
+
+    @Test
+    void skipAndSequence() throws IOException {
+        NodeReader reader = new JsonSerializer().reader(stream("{\"a\":{\"b\":[1,{\"c\":2}]},\"d\":3}\n[4]\n5"), null);
+        Assertions.assertEquals(NodeToken.START_OBJECT, reader.next());
+        Assertions.assertEquals(NodeToken.FIELD_NAME, reader.next());
+        Assertions.assertEquals(NodeToken.START_OBJECT, reader.next());
+        reader.skipChildren();
+        Assertions.assertEquals(NodeToken.END_OBJECT, reader.currentToken());
+        Assertions.assertEquals(NodeToken.FIELD_NAME, reader.next());
+        Assertions.assertEquals("d", reader.getFieldName());
+        Assertions.assertEquals(NodeToken.VALUE, reader.next());
+        Assertions.assertEquals(3, reader.getValue().intValue());
+        Assertions.assertEquals(NodeToken.END_OBJECT, reader.next());
+        Assertions.assertEquals(NodeToken.START_ARRAY, reader.next());
+        Assertions.assertEquals(4, reader.readTree().get(0).intValue());
+        Assertions.assertEquals(NodeToken.VALUE, reader.next());
+        Assertions.assertEquals(5, reader.getValue().intValue());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void malformed() {
+        for (String doc : new String[] {"[1,2", "{\"a\" 1}", "{\"a\":1]", "\"abc"}) {
+            Assertions.assertThrows(ParseException.class, () -> {
+                NodeReader reader = new JsonStreamReader(stream(doc), 4);
+                while (reader.next() != null) {
+                    // 读到结束
+                }
+            }, doc);
+        }
+    }
+
+    @Test
+    void write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NodeWriter writer = new JsonSerializer().writer(out, null);
+        writer.writeStartObject();
+        writer.writeField("id", IntNode.valueOf(1));
+        writer.writeFieldName("items");
+        writer.writeStartArray();
+        for (int i = 0; i < 3; i++) {
+            writer.writeValue(JsonReader.of("{\"i\":" + i + "}").read());
+        }
+        writer.writeEndArray();
+        writer.writeField("s", new TextNode("a\"b"));
+        writer.writeEndObject();
+        writer.writeValue(IntNode.valueOf(2));
+        Assertions.assertThrows(IllegalStateException.class, writer::writeEndArray);
+        writer.close();
+        Assertions.assertEquals("{\"id\":1,\"items\":[{\"i\":0},{\"i\":1},{\"i\":2}],\"s\":\"a\\\"b\"}\n2",
+                                new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        NodeWriter object = JsonWriter.stream(new ByteArrayOutputStream());
+        object.writeStartObject();
+        Assertions.assertThrows(IllegalStateException.class, () -> object.writeValue(IntNode.valueOf(1)));
+    }
+
+    private static List<String> events(NodeReader reader) throws IOException {
+        List<String> events = new ArrayList<>();
+        NodeToken token;
+        while ((token = reader.next()) != null) {
+            switch (token) {
+                case FIELD_NAME:
+                    events.add(reader.getFieldName());
+                    break;
+                case VALUE:
+                    events.add(JsonWriter.toString(reader.getValue()));
+                    break;
+                default:
+                    events.add(token.name());
+            }
+        }
+        return events;
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package crossway.transport;
+
+import crossway.codec.RawPayload;
+import crossway.codec.json.LazyNode;
+import crossway.codec.node.Node;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.filter.BodyAccess;
+import crossway.filter.Filter;
+import crossway.impl.codec.node.ObjectNode;
+import crossway.impl.filter.NodeArenaFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 以 HTTP 监听器的方式（json 原始字节）经过管道
+ *
+ * @author iamcyw
+ **/
+class JsonPipelineTest {
+
+    @Test
+    void mutatingFilterGetsMutableTree() {
+        Pipeline pipeline = new Pipeline(Collections.singletonList(new PuttingFilter()), null, false,
+                                         ForkJoinPool.commonPool());
+        CrossWayRequest request = request("{\"id\":1,\"user\":{\"name\":\"a\"}}");
+        pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        Assertions.assertNull(request.getPayload());
+        Assertions.assertEquals("yes", request.getData().get("user").get("checked").textValue());
+        Assertions.assertEquals(1, request.getData().get("id").intValue());
+    }
+
+    @Test
+    void arenaRecyclesRawPayloadTree() {
+        Pipeline pipeline = new Pipeline(Arrays.asList(new NodeArenaFilter(), new PuttingFilter()), null, false,
+                                         Runnable::run);
+        CrossWayRequest first = request("{\"id\":1,\"user\":{\"name\":\"a\"}}");
+        pipeline.apply(CompletableFuture.completedFuture(first)).join();
+        List<Node> allocated = Arrays.asList(first.getData(), first.getData().get("user"));
+        first.complete();
+
+        CrossWayRequest second = request("{\"id\":2,\"user\":{\"name\":\"b\"}}");
+        pipeline.apply(CompletableFuture.completedFuture(second)).join();
+        Assertions.assertTrue(allocated.stream().anyMatch(node -> node == second.getData()));
+        Assertions.assertEquals("b", second.getData().get("user").get("name").textValue());
+        second.complete();
+    }
+
+    @Test
+    void readOnlyFilterGetsLazyNode() {
+        List<Node> seen = new ArrayList<>();
+        Pipeline pipeline = new Pipeline(Collections.singletonList(new ReadingFilter(seen)), null, false,
+                                         ForkJoinPool.commonPool());
+        CrossWayRequest request = request("{\"id\":1}");
+        pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        Assertions.assertTrue(seen.get(0) instanceof LazyNode);
+        Assertions.assertNotNull(request.getPayload());
+    }
+
+    @Test
+    void routeLeavesDecodingToPipeline() {
+        SenderConfig orders = new SenderConfig().setId("json-orders");
+        Router router = Router.compile(Arrays.asList(new RouteRule(orders).fieldEquals("/type", "order"),
+                                                     new RouteRule(orders).fieldPrefix("$.type", "ord")), null);
+        CrossWayRequest request = request("{\"type\":\"order\"}");
+        Assertions.assertSame(orders, router.route(request));
+
+        // 路由不保存解码结果，只读的管道仍然得到延迟节点
+        List<Node> seen = new ArrayList<>();
+        Pipeline pipeline = new Pipeline(Collections.singletonList(new ReadingFilter(seen)), null, false,
+                                         ForkJoinPool.commonPool());
+        pipeline.apply(CompletableFuture.completedFuture(request)).join();
+        Assertions.assertTrue(seen.get(0) instanceof LazyNode);
+    }
+
+    private static CrossWayRequest request(String json) {
+        CrossWayRequest request = new CrossWayRequest();
+        request.setPayload(new RawPayload(json.getBytes(StandardCharsets.UTF_8), "json"));
+        return request;
+    }
+
+    @BodyAccess
+    private static class PuttingFilter implements Filter {
+        @Override
+        public void request(CrossWayRequest request) {
+            ObjectNode user = (ObjectNode) request.getData().get("user");
+            user.put("checked", "yes");
+        }
+
+        @Override
+        public void response(CrossWayResponse response) {
+        }
+    }
+
+    @BodyAccess(readOnly = true)
+    private static class ReadingFilter implements Filter {
+        private final List<Node> seen;
+
+        private ReadingFilter(List<Node> seen) {
+            this.seen = seen;
+        }
+
+        @Override
+        public void request(CrossWayRequest request) {
+            seen.add(request.getData());
+        }
+
+        @Override
+        public void response(CrossWayResponse response) {
+        }
+    }
+}
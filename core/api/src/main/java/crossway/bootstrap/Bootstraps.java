@@ -15,8 +15,9 @@ public class Bootstraps {
     public static SenderBootstrap from(SenderConfig senderConfig) {
         String bootstrap = senderConfig.getBootstrap();
         if (StringUtils.isEmpty(bootstrap)) {
-            //使用默认监听器
-            bootstrap = CrossWayConfigs.getStringValue(CrossWayOptions.DEFAULT_BOOTSTRAP_SEND);
+            //集群使用集群启动器，否则使用默认启动器
+            bootstrap = senderConfig.isCluster() ? ClusterSenderBootstrap.ALIAS :
+                        CrossWayConfigs.getStringValue(CrossWayOptions.DEFAULT_BOOTSTRAP_SEND);
             senderConfig.setBootstrap(bootstrap);
         }
         return ExtensionLoaderFactory.getExtensionLoader(SenderBootstrap.class).getExtension(
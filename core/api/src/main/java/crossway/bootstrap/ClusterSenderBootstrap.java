@@ -0,0 +1,95 @@
+package crossway.bootstrap;
+
+import crossway.cluster.ClusterSend;
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.common.CrossWayOptions;
+import crossway.common.WayConstants;
+import crossway.config.SenderConfig;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.ext.ExtensionLoaderFactory;
+import crossway.ext.api.Extension;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 集群启动器，{@link SenderConfig#isCluster()} 为 true 且没有指定启动器时使用
+ * <p>
+ * 每个成员是一个独立的发送配置，通过它自己的启动器创建发送器，权重取成员的 {@link CrossWayOptions#PROVIDER_WEIGHT} 参数。
+ * 负载均衡和摘除的参数从集群的发送配置中读取，没有时使用全局配置。
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+@Extension(ClusterSenderBootstrap.ALIAS)
+public class ClusterSenderBootstrap extends SenderBootstrap {
+
+    public static final String ALIAS = "cluster_bootstrap_send";
+
+    private volatile ClusterSend send;
+
+    public ClusterSenderBootstrap(SenderConfig senderConfig) {
+        super(senderConfig);
+    }
+
+    @Override
+    public ClusterSend refer() {
+        ClusterSend current = send;
+        if (current == null) {
+            synchronized (this) {
+                current = send;
+                if (current == null) {
+                    current = create();
+                    send = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void unRefer() {
+        if (send == null) {
+            return;
+        }
+        try {
+            // 一个成员释放失败不影响其它成员
+            for (SenderConfig member : senderConfig.getMembers()) {
+                try {
+                    member.unRefer();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to unRefer member {} of cluster {}", member.getId(), senderConfig.getId(), e);
+                }
+            }
+        } finally {
+            send = null;
+        }
+    }
+
+    private ClusterSend create() {
+        List<SenderConfig> configs = senderConfig.getMembers();
+        if (configs == null || configs.isEmpty()) {
+            throw new CrossWayRuntimeException("Cluster " + senderConfig.getId() + " has no members");
+        }
+        List<Member> members = new ArrayList<>(configs.size());
+        for (SenderConfig config : configs) {
+            members.add(new Member(config, config.refer(), Integer.parseInt(
+                config.getParameterOrGlobal(CrossWayOptions.PROVIDER_WEIGHT, "100"))));
+        }
+        String alias = senderConfig.getParameterOrGlobal(WayConstants.CONFIG_KEY_LOADBALANCER, null);
+        if (alias == null) {
+            alias = senderConfig.getParameterOrGlobal(CrossWayOptions.CONSUMER_LOAD_BALANCER, "roundRobin");
+        }
+        LoadBalancer balancer = ExtensionLoaderFactory.getExtensionLoader(LoadBalancer.class).getExtension(
+            alias, new Class<?>[] {SenderConfig.class}, new Object[] {senderConfig});
+        return new ClusterSend(senderConfig, members, balancer,
+                               Double.parseDouble(
+                                   senderConfig.getParameterOrGlobal(CrossWayOptions.CLUSTER_EJECT_ERROR_RATE, "0.5")),
+                               Integer.parseInt(
+                                   senderConfig.getParameterOrGlobal(CrossWayOptions.CLUSTER_EJECT_MIN_REQUESTS, "20")),
+                               Long.parseLong(
+                                   senderConfig.getParameterOrGlobal(CrossWayOptions.CLUSTER_EJECT_MILLIS, "30000")));
+    }
+}
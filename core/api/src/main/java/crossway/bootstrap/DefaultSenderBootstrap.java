@@ -3,9 +3,7 @@ package crossway.bootstrap;
 import crossway.api.Destroyable;
 import crossway.config.SenderConfig;
 import crossway.context.CrossWayRuntimeContext;
-import crossway.exception.CrossWayRuntimeException;
 import crossway.ext.api.Extension;
-import crossway.log.LogCodes;
 import crossway.send.Send;
 import crossway.send.SendFactory;
 import crossway.utils.StringUtils;
@@ -33,15 +31,17 @@ public class DefaultSenderBootstrap extends SenderBootstrap {
 
     @Override
     public void unRefer() {
-        if (send == null) {
-
+        Send current = send;
+        if (current == null) {
+            return;
         }
-        Destroyable.DestroyHook hook = CrossWayRuntimeContext.getDestroyHook(StringUtils.toString(send.getId()));
-        if (hook == null) {
-            throw new CrossWayRuntimeException(
-                LogCodes.getLog(LogCodes.ERROR_LOAD_HOOK_NULL, getSenderConfig().getId()));
+        send = null;
+        current.destroy();
+        // 发送器没有注册销毁钩子时只需要 destroy
+        Destroyable.DestroyHook hook = CrossWayRuntimeContext.getDestroyHook(StringUtils.toString(current.getId()));
+        if (hook != null) {
+            hook.preDestroy();
+            hook.postDestroy();
         }
-        hook.preDestroy();
-        hook.postDestroy();
     }
 }
@@ -0,0 +1,190 @@
+package crossway.cluster;
+
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.send.Send;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把请求分发给集群成员的发送器
+ * <p>
+ * 每次发送由 {@link LoadBalancer} 在没有被摘除的成员中选择一个，并记录成员的并发数、延迟和错误。
+ * 统计窗口内错误率达到阈值的成员被摘除一段时间，到期后重新加入；最后一个可用的成员不会被摘除。
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+public final class ClusterSend extends Send {
+
+    private final List<Member> members;
+    private final LoadBalancer balancer;
+    private final boolean      blocking;
+
+    private final double errorRate;
+    private final int    minRequests;
+    private final long   ejectNanos;
+
+    /**
+     * 没有被摘除的成员，成员变化时整体替换
+     */
+    private volatile List<Member> available;
+    /**
+     * 最早的摘除到期时间，没有被摘除的成员时为 {@link Long#MAX_VALUE}
+     */
+    private volatile long         readmitAt = Long.MAX_VALUE;
+    private volatile boolean      anyEjected;
+
+    /**
+     * @param senderConfig
+     *     集群的发送配置
+     * @param members
+     *     成员，不能为空
+     * @param balancer
+     *     负载均衡
+     * @param errorRate
+     *     摘除的错误率
+     * @param minRequests
+     *     判断错误率需要的最少请求数
+     * @param ejectMillis
+     *     摘除的毫秒数
+     */
+    public ClusterSend(SenderConfig senderConfig, List<Member> members, LoadBalancer balancer, double errorRate,
+                       int minRequests, long ejectMillis) {
+        super(senderConfig);
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("Cluster " + senderConfig.getId() + " has no members");
+        }
+        this.members = Collections.unmodifiableList(new ArrayList<>(members));
+        this.available = this.members;
+        this.balancer = balancer;
+        this.errorRate = errorRate;
+        this.minRequests = minRequests;
+        this.ejectNanos = TimeUnit.MILLISECONDS.toNanos(ejectMillis);
+        boolean blocking = false;
+        for (Member member : members) {
+            blocking |= member.getSend().isBlocking();
+        }
+        this.blocking = blocking;
+    }
+
+    @Override
+    protected String getDefaultSerializeType() {
+        // 由成员序列化
+        return null;
+    }
+
+    /**
+     * 任一成员会阻塞时整个集群按阻塞处理
+     */
+    @Override
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    @Override
+    public CrossWayResponse invoke(CrossWayRequest request) throws CrossWayException {
+        Member member = select(request);
+        long start = System.nanoTime();
+        member.begin();
+        CrossWayResponse response;
+        try {
+            response = member.getSend().invoke(request);
+        } catch (RuntimeException e) {
+            finish(member, start, true);
+            throw e;
+        }
+        finish(member, start, response == null || response.isError());
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<CrossWayResponse> invokeAsync(CrossWayRequest request) {
+        Member member = select(request);
+        long start = System.nanoTime();
+        member.begin();
+        CompletableFuture<CrossWayResponse> future;
+        try {
+            future = member.getSend().invokeAsync(request);
+        } catch (RuntimeException e) {
+            finish(member, start, true);
+            throw e;
+        }
+        return future.whenComplete((response, e) -> finish(member, start, e != null || response == null
+                                                                          || response.isError()));
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * @return 没有被摘除的成员
+     */
+    public List<Member> getAvailable() {
+        return available;
+    }
+
+    private Member select(CrossWayRequest request) {
+        if (anyEjected && System.nanoTime() - readmitAt >= 0) {
+            readmit();
+        }
+        return balancer.select(available, request);
+    }
+
+    private void finish(Member member, long start, boolean error) {
+        long now = System.nanoTime();
+        member.finish(now - start, error, now);
+        if (error && !member.isEjected() && member.isUnhealthy(minRequests, errorRate)) {
+            eject(member, now);
+        }
+    }
+
+    private synchronized void eject(Member member, long now) {
+        if (member.isEjected() || available.size() <= 1) {
+            return;
+        }
+        member.eject(now + ejectNanos);
+        log.warn("Eject member {} of cluster {} for {} ms", member.getConfig().getId(), getConfig().getId(),
+                 TimeUnit.NANOSECONDS.toMillis(ejectNanos));
+        refresh();
+    }
+
+    private synchronized void readmit() {
+        long now = System.nanoTime();
+        for (Member member : members) {
+            if (member.isEjected() && now - member.getEjectedUntil() >= 0) {
+                member.readmit(now);
+                log.info("Readmit member {} of cluster {}", member.getConfig().getId(), getConfig().getId());
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * 重新计算可用成员和下一次到期时间，调用时持有锁
+     */
+    private void refresh() {
+        List<Member> current = new ArrayList<>(members.size());
+        long next = 0;
+        boolean ejected = false;
+        for (Member member : members) {
+            if (!member.isEjected()) {
+                current.add(member);
+            } else if (!ejected || member.getEjectedUntil() - next < 0) {
+                next = member.getEjectedUntil();
+                ejected = true;
+            }
+        }
+        available = Collections.unmodifiableList(current);
+        readmitAt = ejected ? next : Long.MAX_VALUE;
+        anyEjected = ejected;
+    }
+}
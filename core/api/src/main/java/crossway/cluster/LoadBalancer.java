@@ -0,0 +1,36 @@
+package crossway.cluster;
+
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.ext.api.Extensible;
+
+import java.util.List;
+
+/**
+ * 负载均衡 SPI，每个集群一个实例
+ * <p>
+ * 集群的发送配置上 {@code loadBalancer} 参数选择实现，没有时使用 {@link crossway.common.CrossWayOptions#CONSUMER_LOAD_BALANCER}。
+ *
+ * @author iamcyw
+ **/
+@Extensible(singleton = false)
+public abstract class LoadBalancer {
+
+    protected final SenderConfig senderConfig;
+
+    public LoadBalancer(SenderConfig senderConfig) {
+        this.senderConfig = senderConfig;
+    }
+
+    /**
+     * 选择成员，可以被多个线程并发调用
+     *
+     * @param members
+     *     没有被摘除的成员，不为空且不可修改；成员不变时每次传入同一个列表，可以按列表缓存计算结果
+     * @param request
+     *     请求
+     *
+     * @return 其中一个成员
+     */
+    public abstract Member select(List<Member> members, CrossWayRequest request);
+}
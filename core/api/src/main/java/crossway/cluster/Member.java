@@ -0,0 +1,143 @@
+package crossway.cluster;
+
+import crossway.config.SenderConfig;
+import crossway.send.Send;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群中的一个成员，记录负载均衡和摘除需要的状态，全部不加锁
+ *
+ * @author iamcyw
+ **/
+public final class Member {
+
+    /**
+     * 错误率的统计窗口
+     */
+    static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final SenderConfig config;
+    private final Send         send;
+    private final int          weight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * 延迟的指数移动平均，纳秒，没有记录时为0
+     */
+    private final AtomicLong    latency  = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors   = new AtomicInteger();
+
+    private volatile long windowStart;
+    /**
+     * 摘除到期的 {@link System#nanoTime()}，只在 {@link #ejected} 为 true 时有效
+     */
+    private volatile long    ejectedUntil;
+    private volatile boolean ejected;
+
+    /**
+     * @param config
+     *     成员的发送配置
+     * @param send
+     *     成员的发送器
+     * @param weight
+     *     权重，至少为1
+     */
+    public Member(SenderConfig config, Send send, int weight) {
+        this.config = config;
+        this.send = send;
+        this.weight = Math.max(weight, 1);
+        this.windowStart = System.nanoTime();
+    }
+
+    public SenderConfig getConfig() {
+        return config;
+    }
+
+    public Send getSend() {
+        return send;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return 正在处理的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return 延迟的移动平均，纳秒，没有请求完成过时为0
+     */
+    public long getLatency() {
+        return latency.get();
+    }
+
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求完成
+     *
+     * @param nanos
+     *     延迟
+     * @param error
+     *     是否失败
+     * @param now
+     *     当前的 {@link System#nanoTime()}
+     */
+    void finish(long nanos, boolean error, long now) {
+        inFlight.decrementAndGet();
+        latency.accumulateAndGet(nanos, (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+        if (now - windowStart > WINDOW) {
+            // 并发时可能丢失少量计数，不影响判断
+            windowStart = now;
+            requests.set(0);
+            errors.set(0);
+        }
+        requests.incrementAndGet();
+        if (error) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * 当前窗口的错误率是否达到阈值
+     */
+    boolean isUnhealthy(int minRequests, double errorRate) {
+        int total = requests.get();
+        return total >= minRequests && total > 0 && errors.get() >= total * errorRate;
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+        ejected = true;
+    }
+
+    long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    void readmit(long now) {
+        windowStart = now;
+        requests.set(0);
+        errors.set(0);
+        ejected = false;
+    }
+
+    @Override
+    public String toString() {
+        return config.getId() + "(weight=" + weight + ", inFlight=" + inFlight.get() + ", ejected=" + ejected + ")";
+    }
+}
@@ -0,0 +1,74 @@
+package crossway.codec;
+
+import crossway.codec.node.Node;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 拉取式的流读取
+ * <p>
+ * 每次调用 {@link #next()} 前进一个事件，不构建整棵树。处理大数组时在 {@link NodeToken#START_ARRAY} 之后逐个调用
+ * {@link #readTree()}，同一时刻只有一个元素在内存中：
+ * <pre>
+ * if (reader.next() == NodeToken.START_ARRAY) {
+ *     while (reader.next() != NodeToken.END_ARRAY) {
+ *         Node element = reader.readTree();
+ *     }
+ * }
+ * </pre>
+ * 实例不是线程安全的。
+ *
+ * @author iamcyw
+ **/
+public interface NodeReader extends Closeable {
+
+    /**
+     * 前进到下一个事件。顶层可以有多个连续的值
+     *
+     * @return 事件，输入结束时返回null
+     * @throws IOException
+     *     读取失败
+     */
+    NodeToken next() throws IOException;
+
+    /**
+     * 当前事件
+     *
+     * @return 事件，还没有开始或已经结束时为null
+     */
+    NodeToken currentToken();
+
+    /**
+     * 当前的字段名
+     *
+     * @return 当前事件为 {@link NodeToken#FIELD_NAME} 时返回字段名，否则返回null
+     */
+    String getFieldName();
+
+    /**
+     * 当前的标量值
+     *
+     * @return 当前事件为 {@link NodeToken#VALUE} 时返回值，否则返回null
+     */
+    Node getValue();
+
+    /**
+     * 读取当前值的整棵子树。当前事件为容器开始时一直读到对应的结束事件，之后的 {@link #next()} 从结束事件之后继续
+     *
+     * @return 当前值
+     * @throws IOException
+     *     读取失败
+     * @throws IllegalStateException
+     *     当前事件不是值的开始
+     */
+    Node readTree() throws IOException;
+
+    /**
+     * 跳过当前容器的内容，当前事件变为对应的结束事件；当前事件不是容器开始时不做任何事
+     *
+     * @throws IOException
+     *     读取失败
+     */
+    void skipChildren() throws IOException;
+}
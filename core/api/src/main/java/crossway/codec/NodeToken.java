@@ -0,0 +1,18 @@
+package crossway.codec;
+
+/**
+ * {@link NodeReader} 读到的事件
+ *
+ * @author iamcyw
+ **/
+public enum NodeToken {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY,
+    /**
+     * 对象的字段名，下一个事件是字段的值
+     */
+    FIELD_NAME,
+    /**
+     * 标量值，包括空容器解析成的 missing 节点
+     */
+    VALUE
+}
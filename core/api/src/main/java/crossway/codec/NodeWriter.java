@@ -0,0 +1,68 @@
+package crossway.codec;
+
+import crossway.codec.node.Node;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * 事件式的流写出
+ * <p>
+ * 按顺序写出容器的开始、字段名、值和结束，已经写出的内容不再保留在内存中。{@link #writeValue(Node)} 可以写出标量，
+ * 也可以一次写出整棵子树。{@link #close()} 刷新缓冲区并关闭输出流。实例不是线程安全的。
+ *
+ * @author iamcyw
+ **/
+public interface NodeWriter extends Closeable, Flushable {
+
+    void writeStartObject() throws IOException;
+
+    void writeEndObject() throws IOException;
+
+    void writeStartArray() throws IOException;
+
+    void writeEndArray() throws IOException;
+
+    /**
+     * 写出字段名，之后必须写出字段的值
+     *
+     * @param name
+     *     字段名
+     *
+     * @throws IOException
+     *     写入失败
+     * @throws IllegalStateException
+     *     当前不在对象中，或者上一个字段还没有值
+     */
+    void writeFieldName(String name) throws IOException;
+
+    /**
+     * 写出值
+     *
+     * @param value
+     *     标量或整棵子树，null 写出为 null
+     *
+     * @throws IOException
+     *     写入失败
+     * @throws IllegalStateException
+     *     在对象中但没有先写出字段名
+     */
+    void writeValue(Node value) throws IOException;
+
+    /**
+     * 写出字段名和值
+     *
+     * @param name
+     *     字段名
+     * @param value
+     *     值
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    default void writeField(String name, Node value) throws IOException {
+        writeFieldName(name);
+        writeValue(value);
+    }
+}
@@ -0,0 +1,87 @@
+package crossway.codec;
+
+import crossway.codec.node.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 消息的原始字节
+ * <p>
+ * 监听器收到的请求体和发送器收到的响应体在解码前先以原始字节保存，第一次读取 Node 时才解码。
+ * 出入两端的序列化类型相同、并且没有过滤器修改消息体时，发送端直接写出这些字节，整个转发过程不解析消息。
+ *
+ * @author iamcyw
+ **/
+public final class RawPayload implements Serializable {
+
+    private static final long serialVersionUID = -3095364750926104467L;
+
+    private final byte[] bytes;
+    private final String serializeType;
+
+    /**
+     * @param bytes
+     *     原始字节，之后不能再修改
+     * @param serializeType
+     *     字节的序列化类型，即 {@link Serializer} 的别名
+     */
+    public RawPayload(byte[] bytes, String serializeType) {
+        this.bytes = bytes;
+        this.serializeType = serializeType;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public String getSerializeType() {
+        return serializeType;
+    }
+
+    /**
+     * 是否可以不经转换直接以指定的序列化类型写出
+     *
+     * @param serializeType
+     *     目标序列化类型
+     *
+     * @return 序列化类型相同时返回 true
+     */
+    public boolean isType(String serializeType) {
+        return this.serializeType.equals(serializeType);
+    }
+
+    /**
+     * 用对应的序列化器解码
+     *
+     * @return 解码后的数据
+     */
+    public Node decode() {
+        return decode(null);
+    }
+
+    /**
+     * 用对应的序列化器解码
+     *
+     * @param context
+     *     序列化上下文，可以为null
+     *
+     * @return 解码后的数据
+     */
+    public Node decode(Map<String, Object> context) {
+        return SerializerFactory.getSerializer(serializeType).encode(bytes, context);
+    }
+
+    /**
+     * 以事件的方式读取，逐个处理很大的数组的元素时不需要先构建整棵树
+     *
+     * @return 读取器
+     * @throws IOException
+     *     读取失败
+     */
+    public NodeReader reader() throws IOException {
+        return SerializerFactory.getSerializer(serializeType).reader(new ByteArrayInputStream(bytes), null);
+    }
+}
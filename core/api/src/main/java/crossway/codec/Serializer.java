@@ -2,14 +2,79 @@ package crossway.codec;
 
 import crossway.codec.node.Node;
 import crossway.ext.api.Extensible;
+import crossway.utils.IOUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 @Extensible
 public interface Serializer {
 
+    /**
+     * 上下文中为 {@link Boolean#TRUE} 时表示调用方只读取、不修改解码出的数据，序列化器可以返回只读的延迟节点；
+     * 没有这个标记时必须返回可以修改的树
+     */
+    String CONTEXT_READ_ONLY = "crossway.codec.readOnly";
+
     Node encode(Object object, Map<String, Object> context);
 
     Object decode(Node data, Map<String, Object> context);
 
+    /**
+     * 直接写到输出流，默认先转换成文本再以 UTF-8 编码写入
+     *
+     * @param data
+     *     数据
+     * @param context
+     *     上下文
+     * @param out
+     *     输出流
+     *
+     * @throws IOException
+     *     写入失败
+     */
+    default void decode(Node data, Map<String, Object> context, OutputStream out) throws IOException {
+        Object value = decode(data, context);
+        if (value != null) {
+            out.write(value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 以事件的方式读取输入流，不需要先构建整棵树。默认读入全部字节后用 {@link #encode(Object, Map)} 解码，
+     * 再在树上产生事件；支持增量解析的序列化器应当覆盖这个方法
+     *
+     * @param in
+     *     输入流
+     * @param context
+     *     上下文
+     *
+     * @return 读取器
+     * @throws IOException
+     *     读取失败
+     */
+    default NodeReader reader(InputStream in, Map<String, Object> context) throws IOException {
+        return new TreeNodeReader(encode(IOUtils.readAll(in), context));
+    }
+
+    /**
+     * 以事件的方式写到输出流，写出的内容不保留在内存中
+     *
+     * @param out
+     *     输出流
+     * @param context
+     *     上下文
+     *
+     * @return 写出器
+     * @throws IOException
+     *     写入失败
+     * @throws UnsupportedOperationException
+     *     序列化器不支持流式写出
+     */
+    default NodeWriter writer(OutputStream out, Map<String, Object> context) throws IOException {
+        throw new UnsupportedOperationException("Streaming output is not supported by " + getClass().getName());
+    }
 }
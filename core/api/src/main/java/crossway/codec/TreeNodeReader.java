@@ -0,0 +1,141 @@
+package crossway.codec;
+
+import crossway.codec.node.Node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 在已经解码的 {@link Node} 上产生事件，供没有实现流式解析的序列化器使用
+ *
+ * @author iamcyw
+ **/
+final class TreeNodeReader implements NodeReader {
+
+    private final Deque<Frame> stack = new ArrayDeque<>();
+
+    /**
+     * 还没有开始读取的根节点
+     */
+    private Node      root;
+    private NodeToken current;
+    private String    fieldName;
+    /**
+     * 当前的值或容器
+     */
+    private Node      node;
+
+    TreeNodeReader(Node root) {
+        this.root = root;
+    }
+
+    @Override
+    public NodeToken next() {
+        fieldName = null;
+        if (root != null) {
+            Node start = root;
+            root = null;
+            return start(start);
+        }
+        Frame frame = stack.peek();
+        if (frame == null) {
+            node = null;
+            return current = null;
+        }
+        if (frame.fields != null) {
+            if (frame.value != null) {
+                Node value = frame.value;
+                frame.value = null;
+                return start(value);
+            }
+            if (frame.fields.hasNext()) {
+                Map.Entry<String, Node> field = frame.fields.next();
+                fieldName = field.getKey();
+                frame.value = field.getValue();
+                node = null;
+                return current = NodeToken.FIELD_NAME;
+            }
+        } else if (frame.elements.hasNext()) {
+            return start(frame.elements.next());
+        }
+        return end();
+    }
+
+    private NodeToken start(Node value) {
+        node = value;
+        if (value.isObject()) {
+            stack.push(new Frame(value, value.fields(), null));
+            return current = NodeToken.START_OBJECT;
+        }
+        if (value.isArray()) {
+            stack.push(new Frame(value, null, value.elements()));
+            return current = NodeToken.START_ARRAY;
+        }
+        return current = NodeToken.VALUE;
+    }
+
+    private NodeToken end() {
+        Frame frame = stack.pop();
+        node = frame.node;
+        return current = frame.fields != null ? NodeToken.END_OBJECT : NodeToken.END_ARRAY;
+    }
+
+    @Override
+    public NodeToken currentToken() {
+        return current;
+    }
+
+    @Override
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public Node getValue() {
+        return current == NodeToken.VALUE ? node : null;
+    }
+
+    @Override
+    public Node readTree() {
+        if (current == NodeToken.VALUE) {
+            return node;
+        }
+        if (current != NodeToken.START_OBJECT && current != NodeToken.START_ARRAY) {
+            throw new IllegalStateException("Current token is not the start of a value: " + current);
+        }
+        Node value = node;
+        end();
+        return value;
+    }
+
+    @Override
+    public void skipChildren() {
+        if (current == NodeToken.START_OBJECT || current == NodeToken.START_ARRAY) {
+            end();
+        }
+    }
+
+    @Override
+    public void close() {
+        root = null;
+        stack.clear();
+    }
+
+    private static final class Frame {
+        private final Node                              node;
+        private final Iterator<Map.Entry<String, Node>> fields;
+        private final Iterator<Node>                    elements;
+        /**
+         * 已经读到字段名、还没有读取的值
+         */
+        private       Node                              value;
+
+        private Frame(Node node, Iterator<Map.Entry<String, Node>> fields, Iterator<Node> elements) {
+            this.node = node;
+            this.fields = fields;
+            this.elements = elements;
+        }
+    }
+}
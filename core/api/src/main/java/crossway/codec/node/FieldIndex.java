@@ -0,0 +1,115 @@
+package crossway.codec.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 字段名索引
+ * <p>
+ * 遍历一次消息，按字段名记录所有匹配的值和所在的对象，之后的查找不再遍历整棵树。结果与在根节点上调用
+ * {@link Node#findValue(String)}、{@link Node#findValues(String, List)} 等方法一致：按文档顺序排列，
+ * 已经匹配的字段的值里不再查找同名字段。
+ * <p>
+ * 索引反映的是建立时的数据，修改数据后需要重新建立。
+ *
+ * @author iamcyw
+ **/
+public final class FieldIndex {
+
+    private final Map<String, Matches> fields = new HashMap<>();
+
+    private FieldIndex() {
+    }
+
+    /**
+     * 建立索引
+     *
+     * @param root
+     *     根节点，可以为null
+     *
+     * @return 索引
+     */
+    public static FieldIndex of(Node root) {
+        FieldIndex index = new FieldIndex();
+        if (root != null) {
+            index.walk(root, new HashSet<>());
+        }
+        return index;
+    }
+
+    /**
+     * @param active
+     *     当前节点所在的、已经匹配的字段名
+     */
+    private void walk(Node node, Set<String> active) {
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, Node>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, Node> entry = it.next();
+                String name = entry.getKey();
+                Node value = entry.getValue();
+                if (active.add(name)) {
+                    fields.computeIfAbsent(name, k -> new Matches()).add(node, value);
+                    walk(value, active);
+                    active.remove(name);
+                } else {
+                    walk(value, active);
+                }
+            }
+        } else if (node.isArray()) {
+            for (Iterator<Node> it = node.elements(); it.hasNext(); ) {
+                walk(it.next(), active);
+            }
+        }
+    }
+
+    public Node findValue(String fieldName) {
+        Matches matches = fields.get(fieldName);
+        return matches == null ? null : matches.values.get(0);
+    }
+
+    public List<Node> findValues(String fieldName) {
+        Matches matches = fields.get(fieldName);
+        return matches == null ? Collections.<Node>emptyList() : Collections.unmodifiableList(matches.values);
+    }
+
+    public List<String> findValuesAsText(String fieldName) {
+        Matches matches = fields.get(fieldName);
+        if (matches == null) {
+            return Collections.emptyList();
+        }
+        List<String> texts = new ArrayList<>(matches.values.size());
+        for (Node value : matches.values) {
+            texts.add(value.asText());
+        }
+        return texts;
+    }
+
+    public Node findParent(String fieldName) {
+        Matches matches = fields.get(fieldName);
+        return matches == null ? null : matches.parents.get(0);
+    }
+
+    public List<Node> findParents(String fieldName) {
+        Matches matches = fields.get(fieldName);
+        return matches == null ? Collections.<Node>emptyList() : Collections.unmodifiableList(matches.parents);
+    }
+
+    /**
+     * 同一个字段名的匹配，两个列表一一对应
+     */
+    private static final class Matches {
+        private final List<Node> parents = new ArrayList<>(2);
+        private final List<Node> values  = new ArrayList<>(2);
+
+        private void add(Node parent, Node value) {
+            parents.add(parent);
+            values.add(value);
+        }
+    }
+}
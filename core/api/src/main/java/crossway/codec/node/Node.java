@@ -528,6 +528,16 @@ public abstract class Node implements Iterable<Node> {
         return get(fieldName) != null;
     }
 
+    /**
+     * 获取不可变的快照，快照可以在多个线程上共享，不需要复制和加锁。值节点本身不可变，返回自身；容器节点返回深复制的不可变节点，
+     * 之后修改原节点不影响快照
+     *
+     * @return 快照
+     */
+    public Node snapshot() {
+        return this;
+    }
+
     @Override
     public final Iterator<Node> iterator() {
         return elements();
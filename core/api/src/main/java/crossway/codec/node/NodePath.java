@@ -0,0 +1,382 @@
+package crossway.codec.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的路径表达式
+ * <p>
+ * 表达式只解析一次，之后在每条消息上按层级直接取值，不遍历整棵树。支持两种写法：
+ * <ul>
+ * <li>JSON Pointer：{@code /a/0/b}，{@code ~1} 表示 {@code /}，{@code ~0} 表示 {@code ~}；数字在数组上是下标，在对象上是字段名</li>
+ * <li>JSONPath 子集：{@code $.a[0].b}、{@code $['a']}、通配符 {@code $.a[*]}、{@code $.a.*} 以及递归查找 {@code $..b}</li>
+ * </ul>
+ * 只包含字段和下标的路径取值为 O(深度)。实例不可变，可以在多个线程上共享。
+ *
+ * @author iamcyw
+ **/
+public final class NodePath {
+
+    private static final int FIELD    = 0;
+    private static final int INDEX    = 1;
+    /**
+     * JSON Pointer 中的数字，数组上是下标，对象上是字段名
+     */
+    private static final int POINTER  = 2;
+    private static final int WILDCARD = 3;
+    private static final int DEEP     = 4;
+
+    private final String  expression;
+    private final Step[]  steps;
+    private final boolean singular;
+    private final String  canonical;
+
+    private NodePath(String expression, List<Step> steps) {
+        this.expression = expression;
+        this.steps = steps.toArray(new Step[0]);
+        boolean singular = true;
+        for (Step step : steps) {
+            if (step.kind == WILDCARD || step.kind == DEEP) {
+                singular = false;
+                break;
+            }
+        }
+        this.singular = singular;
+        this.canonical = canonical(this.steps);
+    }
+
+    /**
+     * 编译路径表达式
+     *
+     * @param expression
+     *     以 {@code /} 开头的 JSON Pointer，或以 {@code $} 开头的 JSONPath，空字符串表示根节点
+     *
+     * @return 路径
+     * @throws IllegalArgumentException
+     *     表达式不合法
+     */
+    public static NodePath compile(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Path expression is null");
+        }
+        if (expression.isEmpty() || expression.charAt(0) == '/') {
+            return new NodePath(expression, parsePointer(expression));
+        }
+        if (expression.charAt(0) == '$') {
+            return new NodePath(expression, parsePath(expression));
+        }
+        throw new IllegalArgumentException("Path must start with '/' or '$': " + expression);
+    }
+
+    /**
+     * 取第一个匹配的节点
+     *
+     * @param root
+     *     根节点
+     *
+     * @return 匹配的节点，没有时返回null
+     */
+    public Node get(Node root) {
+        if (!singular) {
+            List<Node> found = getAll(root);
+            return found.isEmpty() ? null : found.get(0);
+        }
+        Node node = root;
+        for (Step step : steps) {
+            if (node == null) {
+                return null;
+            }
+            node = step.select(node);
+        }
+        return node;
+    }
+
+    /**
+     * 取全部匹配的节点，按文档顺序排列
+     *
+     * @param root
+     *     根节点
+     *
+     * @return 匹配的节点
+     */
+    public List<Node> getAll(Node root) {
+        if (singular) {
+            Node node = get(root);
+            return node == null ? Collections.<Node>emptyList() : Collections.singletonList(node);
+        }
+        List<Node> found = new ArrayList<>();
+        if (root != null) {
+            collect(root, 0, found);
+        }
+        return found;
+    }
+
+    /**
+     * 是否最多只匹配一个节点
+     *
+     * @return 不含通配符和递归查找时返回 true
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+
+    private void collect(Node node, int i, List<Node> found) {
+        if (i == steps.length) {
+            found.add(node);
+            return;
+        }
+        Step step = steps[i];
+        if (step.kind == WILDCARD) {
+            Iterator<Node> children = node.isObject() ? values(node) : node.elements();
+            while (children.hasNext()) {
+                collect(children.next(), i + 1, found);
+            }
+        } else if (step.kind == DEEP) {
+            deep(node, step.name, i + 1, found);
+        } else {
+            Node child = step.select(node);
+            if (child != null) {
+                collect(child, i + 1, found);
+            }
+        }
+    }
+
+    private void deep(Node node, String name, int next, List<Node> found) {
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, Node>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, Node> entry = it.next();
+                if (name.equals(entry.getKey())) {
+                    collect(entry.getValue(), next, found);
+                }
+                deep(entry.getValue(), name, next, found);
+            }
+        } else if (node.isArray()) {
+            for (Iterator<Node> it = node.elements(); it.hasNext(); ) {
+                deep(it.next(), name, next, found);
+            }
+        }
+    }
+
+    private static Iterator<Node> values(Node node) {
+        Iterator<Map.Entry<String, Node>> fields = node.fields();
+        return new Iterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return fields.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                return fields.next().getValue();
+            }
+        };
+    }
+
+    private static List<Step> parsePointer(String expression) {
+        List<Step> steps = new ArrayList<>();
+        int start = 1;
+        while (start <= expression.length()) {
+            int stop = expression.indexOf('/', start);
+            if (stop < 0) {
+                stop = expression.length();
+            }
+            String token = expression.substring(start, stop);
+            if (token.indexOf('~') >= 0) {
+                token = unescape(expression, token);
+            }
+            steps.add(isIndex(token) ? new Step(POINTER, token, Integer.parseInt(token)) : new Step(FIELD, token, -1));
+            start = stop + 1;
+        }
+        return steps;
+    }
+
+    private static String unescape(String expression, String token) {
+        StringBuilder sb = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '~') {
+                sb.append(c);
+            } else if (i + 1 < token.length() && token.charAt(i + 1) == '0') {
+                sb.append('~');
+                i++;
+            } else if (i + 1 < token.length() && token.charAt(i + 1) == '1') {
+                sb.append('/');
+                i++;
+            } else {
+                throw new IllegalArgumentException("Illegal escape in path: " + expression);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 不带前导零的非负整数
+     */
+    private static boolean isIndex(String token) {
+        int length = token.length();
+        if (length == 0 || length > 9 || (length > 1 && token.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Step> parsePath(String expression) {
+        List<Step> steps = new ArrayList<>();
+        int length = expression.length();
+        int i = 1;
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == '.') {
+                boolean deep = i + 1 < length && expression.charAt(i + 1) == '.';
+                i += deep ? 2 : 1;
+                if (!deep && i < length && expression.charAt(i) == '*') {
+                    steps.add(new Step(WILDCARD, null, -1));
+                    i++;
+                    continue;
+                }
+                int stop = i;
+                while (stop < length && expression.charAt(stop) != '.' && expression.charAt(stop) != '[') {
+                    stop++;
+                }
+                if (stop == i) {
+                    throw new IllegalArgumentException("Expected a field name at " + i + ": " + expression);
+                }
+                steps.add(new Step(deep ? DEEP : FIELD, expression.substring(i, stop), -1));
+                i = stop;
+            } else if (c == '[') {
+                i = parseBracket(expression, i + 1, steps);
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at " + i + ": " + expression);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * 解析方括号中的内容
+     *
+     * @return 右括号之后的位置
+     */
+    private static int parseBracket(String expression, int i, List<Step> steps) {
+        int length = expression.length();
+        if (i >= length) {
+            throw new IllegalArgumentException("Unterminated '[' in path: " + expression);
+        }
+        char c = expression.charAt(i);
+        int stop;
+        if (c == '*') {
+            steps.add(new Step(WILDCARD, null, -1));
+            stop = i + 1;
+        } else if (c == '\'' || c == '"') {
+            StringBuilder sb = new StringBuilder();
+            stop = i + 1;
+            while (stop < length && expression.charAt(stop) != c) {
+                char ch = expression.charAt(stop++);
+                if (ch == '\\' && stop < length) {
+                    ch = expression.charAt(stop++);
+                }
+                sb.append(ch);
+            }
+            if (stop >= length) {
+                throw new IllegalArgumentException("Unterminated string in path: " + expression);
+            }
+            steps.add(new Step(FIELD, sb.toString(), -1));
+            stop++;
+        } else {
+            stop = i;
+            while (stop < length && expression.charAt(stop) != ']') {
+                stop++;
+            }
+            String token = expression.substring(i, stop);
+            if (!isIndex(token)) {
+                throw new IllegalArgumentException("Illegal index '" + token + "' in path: " + expression);
+            }
+            steps.add(new Step(INDEX, null, Integer.parseInt(token)));
+        }
+        if (stop >= length || expression.charAt(stop) != ']') {
+            throw new IllegalArgumentException("Expected ']' at " + stop + ": " + expression);
+        }
+        return stop + 1;
+    }
+
+    /**
+     * 规范化的路径，步骤相同的表达式返回相同的文本，例如 {@code /type}、{@code $.type} 和 {@code $['type']}
+     *
+     * @return 可以作为键的文本
+     */
+    public String canonical() {
+        return canonical;
+    }
+
+    private static String canonical(Step[] steps) {
+        StringBuilder sb = new StringBuilder("$");
+        for (Step step : steps) {
+            switch (step.kind) {
+                case INDEX:
+                    sb.append('[').append(step.index).append(']');
+                    break;
+                case POINTER:
+                    // 在数组上是下标，在对象上是字段名，与前两者都不同
+                    sb.append("[~").append(step.index).append(']');
+                    break;
+                case WILDCARD:
+                    sb.append("[*]");
+                    break;
+                default:
+                    sb.append(step.kind == DEEP ? ".." : "").append("['");
+                    for (int i = 0; i < step.name.length(); i++) {
+                        char c = step.name.charAt(i);
+                        if (c == '\\' || c == '\'') {
+                            sb.append('\\');
+                        }
+                        sb.append(c);
+                    }
+                    sb.append("']");
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * 路径中的一级
+     */
+    private static final class Step {
+        private final int    kind;
+        private final String name;
+        private final int    index;
+
+        private Step(int kind, String name, int index) {
+            this.kind = kind;
+            this.name = name;
+            this.index = index;
+        }
+
+        /**
+         * 单值步骤取值
+         */
+        private Node select(Node node) {
+            switch (kind) {
+                case FIELD:
+                    return node.get(name);
+                case INDEX:
+                    return node.isArray() ? node.get(index) : null;
+                default:
+                    return node.isArray() ? node.get(index) : node.get(name);
+            }
+        }
+    }
+}
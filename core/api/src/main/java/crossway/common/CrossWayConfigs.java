@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author iamcyw
@@ -343,7 +344,8 @@ public class CrossWayConfigs {
     public static synchronized void subscribe(String key, CrossWayConfigListener listener) {
         List<CrossWayConfigListener> listeners = CFG_LISTENER.get(key);
         if (listeners == null) {
-            listeners = new ArrayList<CrossWayConfigListener>();
+            // 通知时可能有 Transport 同时取消订阅
+            listeners = new CopyOnWriteArrayList<CrossWayConfigListener>();
             CFG_LISTENER.put(key, listeners);
         }
         listeners.add(listener);
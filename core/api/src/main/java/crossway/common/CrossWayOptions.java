@@ -75,6 +75,49 @@ public class CrossWayOptions {
 
     public static final String DEFAULT_BOOTSTRAP_LISTENER = "default.bootstrap_listener";
 
+    /**
+     * 默认过滤器别名列表
+     */
+    public static final String DEFAULT_FILTERS = "default.filters";
+
+    /**
+     * 日志过滤器：随机记录 N 个请求中的1个
+     */
+    public static final String LOG_FILTER_SAMPLE_RATE       = "log.filter.sample.rate";
+    /**
+     * 日志过滤器：每秒最多记录的请求数，大于0时代替随机抽样
+     */
+    public static final String LOG_FILTER_SAMPLE_PER_SECOND = "log.filter.sample.per.second";
+    /**
+     * 日志过滤器：每条记录的最大字节数，小于等于0时不截断
+     */
+    public static final String LOG_FILTER_MAX_BYTES         = "log.filter.max.bytes";
+    /**
+     * 日志过滤器：等待写出的最大条数
+     */
+    public static final String LOG_FILTER_BUFFER_SIZE       = "log.filter.buffer.size";
+
+    /**
+     * 限流过滤器：每秒允许的请求数，小于等于0时不限流。发送配置的同名参数优先
+     */
+    public static final String RATE_LIMIT_RATE      = "ratelimit.rate";
+    /**
+     * 限流过滤器：允许的突发请求数，小于等于0时等于每秒请求数
+     */
+    public static final String RATE_LIMIT_BURST     = "ratelimit.burst";
+    /**
+     * 限流过滤器：按该字段的值分别限流，为空时整个路由共用一个令牌桶
+     */
+    public static final String RATE_LIMIT_KEY       = "ratelimit.key";
+    /**
+     * 限流过滤器：超出限制时 reject 直接失败，delay 推迟请求
+     */
+    public static final String RATE_LIMIT_MODE      = "ratelimit.mode";
+    /**
+     * 限流过滤器：delay 模式下最多推迟的毫秒数，超过时仍然失败
+     */
+    public static final String RATE_LIMIT_MAX_DELAY = "ratelimit.max.delay";
+
     /**
      * 默认启动端口，包括不配置或者随机，都从此端口开始计算
      */
@@ -103,6 +146,10 @@ public class CrossWayOptions {
      * 默认服务端业务线程池最大
      */
     public static final String SERVER_POOL_MAX       = "server.pool.max";
+    /**
+     * 默认服务端业务线程池队列大小，小于等于0时不排队
+     */
+    public static final String SERVER_POOL_QUEUE     = "server.pool.queue";
     /**
      * 默认服务端业务线程池是否初始化核心线程池
      */
@@ -142,6 +189,23 @@ public class CrossWayOptions {
      */
     public static final String CONSUMER_LAZY          = "consumer.lazy";
 
+    /**
+     * 集群：一致性哈希使用的字段路径，见 {@link crossway.codec.node.NodePath}
+     */
+    public static final String CLUSTER_HASH_KEY           = "cluster.hash.key";
+    /**
+     * 集群：统计窗口内错误率达到该值时摘除成员
+     */
+    public static final String CLUSTER_EJECT_ERROR_RATE   = "cluster.eject.error.rate";
+    /**
+     * 集群：统计窗口内至少有这么多请求才判断错误率
+     */
+    public static final String CLUSTER_EJECT_MIN_REQUESTS = "cluster.eject.min.requests";
+    /**
+     * 集群：摘除的毫秒数，到期后重新加入
+     */
+    public static final String CLUSTER_EJECT_MILLIS       = "cluster.eject.millis";
+
     /**
      * 自定义设置：序列化是否检测循环引用类型
      */
@@ -37,6 +37,16 @@ public class WayConstants {
      */
     public static final String THREADPOOL_TYPE_CACHED = "cached";
 
+    /**
+     * 线程池类型：不使用线程池，在调用线程上直接执行
+     */
+    public static final String THREADPOOL_TYPE_DIRECT = "direct";
+
+    /**
+     * 线程池类型：每个消息一个虚拟线程（JDK 21+）
+     */
+    public static final String THREADPOOL_TYPE_VIRTUAL = "virtual";
+
     /**
      * 事件分发类型：all 所有消息都派发到业务线程池，包括请求，响应，连接事件，断开事件，心跳等。
      */
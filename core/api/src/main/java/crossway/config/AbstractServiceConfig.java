@@ -1,5 +1,6 @@
 package crossway.config;
 
+import crossway.common.CrossWayConfigs;
 import crossway.filter.Filter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -98,5 +99,24 @@ public class AbstractServiceConfig<S extends AbstractServiceConfig> extends Abst
         return parameters == null ? null : parameters.get(key);
     }
 
+    /**
+     * 参数，没有时使用同名的全局配置
+     *
+     * @param key
+     *     参数名，同时也是全局配置的关键字
+     * @param defaultValue
+     *     都没有时的默认值
+     *
+     * @return the value
+     */
+    public String getParameterOrGlobal(String key, String defaultValue) {
+        String value = getParameter(key);
+        if (value == null || value.isEmpty()) {
+            Object global = CrossWayConfigs.getOrDefaultValue(key, null);
+            value = global != null ? global.toString() : null;
+        }
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
 
 }
@@ -49,6 +49,9 @@ public class ListenerConfig extends AbstractServiceConfig<ListenerConfig> implem
     }
 
     public void unRegistry() {
+        if (this.transport != null) {
+            this.transport.destroy();
+        }
         if (this.listenerBootstrap != null) {
             this.listenerBootstrap.unRegistry();
         }
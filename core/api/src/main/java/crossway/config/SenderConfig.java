@@ -6,10 +6,10 @@ import crossway.common.CrossWayConfigs;
 import crossway.common.CrossWayOptions;
 import crossway.send.Send;
 import crossway.transport.Transport;
+import crossway.transport.TransportExecutor;
 import crossway.utils.StringUtils;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -19,7 +19,10 @@ public class SenderConfig extends AbstractServiceConfig<SenderConfig> implements
 
     private static final long serialVersionUID = 8117151692206736207L;
 
-    protected List<String> filters = Arrays.asList("log");
+    /**
+     * 过滤器别名，为空时使用全局配置
+     */
+    protected List<String> filters;
 
     /**
      * 实际代理协议类型
@@ -39,6 +42,22 @@ public class SenderConfig extends AbstractServiceConfig<SenderConfig> implements
 
     protected boolean isCluster;
 
+    /**
+     * 集群的成员，每个成员是一个独立的发送配置，见 {@link crossway.bootstrap.ClusterSenderBootstrap}
+     */
+    protected List<SenderConfig> members;
+
+    /**
+     * 业务线程池类型：fixed、direct、virtual
+     */
+    protected String  poolType     = CrossWayConfigs.getStringValue(CrossWayOptions.SERVER_POOL_TYPE);
+    protected int     poolCore     = CrossWayConfigs.getIntValue(CrossWayOptions.SERVER_POOL_CORE);
+    protected int     poolMax      = CrossWayConfigs.getIntValue(CrossWayOptions.SERVER_POOL_MAX);
+    protected int     poolQueue    = CrossWayConfigs.getIntValue(CrossWayOptions.SERVER_POOL_QUEUE);
+    protected boolean poolPreStart = CrossWayConfigs.getBooleanValue(CrossWayOptions.SERVER_POOL_PRE_START);
+
+    protected transient volatile TransportExecutor executor;
+
     public String getBootstrap() {
         return bootstrap;
     }
@@ -63,13 +82,95 @@ public class SenderConfig extends AbstractServiceConfig<SenderConfig> implements
     }
 
     public void unRefer() {
-        if (this.senderBootstrap != null) {
-            this.senderBootstrap.unRefer();
+        if (this.transport != null) {
+            this.transport.destroy();
+        }
+        try {
+            if (this.senderBootstrap != null) {
+                this.senderBootstrap.unRefer();
+            }
+        } finally {
+            shutdownExecutor();
         }
     }
 
+    /**
+     * 关闭业务线程池，再次使用时重新创建
+     */
+    private synchronized void shutdownExecutor() {
+        TransportExecutor current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * 当前配置独占的业务线程池，第一次使用时创建
+     *
+     * @return 线程池
+     */
+    public TransportExecutor getExecutor() {
+        TransportExecutor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    current = TransportExecutor.create(getId(), poolType, poolCore, poolMax, poolQueue, poolPreStart);
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public String getPoolType() {
+        return poolType;
+    }
+
+    public void setPoolType(String poolType) {
+        this.poolType = poolType;
+    }
+
+    public int getPoolCore() {
+        return poolCore;
+    }
+
+    public void setPoolCore(int poolCore) {
+        this.poolCore = poolCore;
+    }
+
+    public int getPoolMax() {
+        return poolMax;
+    }
+
+    public void setPoolMax(int poolMax) {
+        this.poolMax = poolMax;
+    }
+
+    public int getPoolQueue() {
+        return poolQueue;
+    }
+
+    public void setPoolQueue(int poolQueue) {
+        this.poolQueue = poolQueue;
+    }
+
+    public boolean isPoolPreStart() {
+        return poolPreStart;
+    }
+
+    public void setPoolPreStart(boolean poolPreStart) {
+        this.poolPreStart = poolPreStart;
+    }
+
+    @SuppressWarnings("unchecked")
     public List<String> getFilters() {
-        return filters;
+        return filters != null ? filters : CrossWayConfigs.getListValue(CrossWayOptions.DEFAULT_FILTERS);
+    }
+
+    public void setFilters(List<String> filters) {
+        this.filters = filters;
     }
 
     public Transport getTransport() {
@@ -80,6 +181,22 @@ public class SenderConfig extends AbstractServiceConfig<SenderConfig> implements
         this.transport = transport;
     }
 
+    public boolean isCluster() {
+        return isCluster;
+    }
+
+    public void setCluster(boolean cluster) {
+        isCluster = cluster;
+    }
+
+    public List<SenderConfig> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<SenderConfig> members) {
+        this.members = members;
+    }
+
     public String getSerializerType() {
         return serializerType;
     }
@@ -16,9 +16,15 @@
  */
 package crossway.core.request;
 
+import crossway.codec.RawPayload;
+import crossway.codec.Serializer;
+import crossway.codec.node.FieldIndex;
 import crossway.codec.node.Node;
+import crossway.config.SenderConfig;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,6 +49,42 @@ public class CrossWayRequest extends RequestBase {
 
     private Node data;
 
+    /**
+     * 原始字节
+     */
+    private RawPayload payload;
+
+    /**
+     * 字段名索引，第一次使用时建立
+     */
+    private transient FieldIndex fieldIndex;
+
+    /**
+     * 解码数据时传给序列化器的上下文，只在本节点内有效
+     */
+    private transient Map<String, Object> context;
+
+    /**
+     * 请求处理完成后的回调
+     */
+    private transient List<Runnable> completions;
+
+    /**
+     * 发送配置和它的 id（路由），由管道设置
+     */
+    private transient SenderConfig senderConfig;
+    private transient String       route;
+    /**
+     * 管道开始、发送开始和收到响应时的 {@link System#nanoTime()}，没有经过的阶段为0
+     */
+    private transient long         startNanos;
+    private transient long         sendNanos;
+    private transient long         receiveNanos;
+    /**
+     * 收到的响应是否为错误
+     */
+    private transient boolean      failed;
+
     /**
      * Gets request prop.
      *
@@ -113,11 +155,200 @@ public class CrossWayRequest extends RequestBase {
         return requestProps;
     }
 
+    /**
+     * 获取数据，只有原始字节时在第一次调用时解码
+     *
+     * @return 数据
+     */
     public Node getData() {
-        return data;
+        Node current = data;
+        if (current == null && payload != null) {
+            current = payload.decode(context);
+            data = current;
+        }
+        return current;
     }
 
+    /**
+     * 只读地查看数据，用于管道开始之前（例如路由）读取字段。已经解码时返回数据；否则以只读方式（见
+     * {@link Serializer#CONTEXT_READ_ONLY}）解码原始字节但不保存，之后 {@link #getData()} 仍然按管道设置的上下文解码
+     *
+     * @return 数据，不能修改
+     */
+    public Node viewData() {
+        Node current = data;
+        if (current != null || payload == null) {
+            return current;
+        }
+        Map<String, Object> view = context == null ? new HashMap<>(2) : new HashMap<>(context);
+        view.put(Serializer.CONTEXT_READ_ONLY, Boolean.TRUE);
+        return payload.decode(view);
+    }
+
+    /**
+     * 设置数据，原来的原始字节不再有效
+     *
+     * @param data
+     *     数据
+     */
     public void setData(Node data) {
         this.data = data;
+        this.payload = null;
+        this.fieldIndex = null;
+    }
+
+    /**
+     * 原始字节，解码前或者数据没有被修改时可以直接转发
+     *
+     * @return 原始字节，没有或已释放时为null
+     */
+    public RawPayload getPayload() {
+        return payload;
+    }
+
+    /**
+     * 设置原始字节，数据在第一次读取时再解码
+     *
+     * @param payload
+     *     原始字节
+     */
+    public void setPayload(RawPayload payload) {
+        this.payload = payload;
+        this.data = null;
+        this.fieldIndex = null;
+    }
+
+    /**
+     * 数据的字段名索引，同一条消息上多次按字段名查找时使用。原地修改数据后需要调用 {@link #setData(Node)} 使索引失效
+     *
+     * @return 字段名索引
+     */
+    public FieldIndex getFieldIndex() {
+        FieldIndex current = fieldIndex;
+        if (current == null) {
+            current = FieldIndex.of(getData());
+            fieldIndex = current;
+        }
+        return current;
+    }
+
+    /**
+     * 解码并释放原始字节，之后发送端按数据重新序列化。修改数据之前需要调用
+     */
+    public void releasePayload() {
+        if (payload != null) {
+            getData();
+            payload = null;
+        }
+    }
+
+    /**
+     * 解码数据时传给序列化器的上下文，发送器收到的响应使用同一个上下文
+     *
+     * @return 上下文，没有设置过时为null
+     */
+    public Map<String, Object> getContext() {
+        return context;
+    }
+
+    /**
+     * 设置解码上下文中的值，需要在数据解码之前设置
+     *
+     * @param key
+     *     the key
+     * @param value
+     *     the value
+     */
+    public void putContext(String key, Object value) {
+        if (context == null) {
+            context = new HashMap<>(4);
+        }
+        context.put(key, value);
+    }
+
+    /**
+     * 注册请求处理完成后的回调，在监听器写出响应之后执行
+     *
+     * @param callback
+     *     回调
+     */
+    public void onComplete(Runnable callback) {
+        if (completions == null) {
+            completions = new ArrayList<>(2);
+        }
+        completions.add(callback);
+    }
+
+    /**
+     * 请求处理完成，按注册顺序执行回调，由监听器在写出响应后调用。之后不能再访问请求和响应的数据
+     */
+    public void complete() {
+        List<Runnable> callbacks = completions;
+        if (callbacks == null) {
+            return;
+        }
+        completions = null;
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+    }
+
+    /**
+     * 管道开始处理请求，由管道调用
+     *
+     * @param senderConfig
+     *     发送配置，可以为null
+     */
+    public void markStart(SenderConfig senderConfig) {
+        this.senderConfig = senderConfig;
+        this.route = senderConfig != null ? senderConfig.getId() : null;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 开始发送，由管道调用
+     */
+    public void markSend() {
+        this.sendNanos = System.nanoTime();
+    }
+
+    /**
+     * 收到响应，由管道调用
+     *
+     * @param failed
+     *     响应是否为错误
+     */
+    public void markReceive(boolean failed) {
+        this.receiveNanos = System.nanoTime();
+        this.failed = failed;
+    }
+
+    public SenderConfig getSenderConfig() {
+        return senderConfig;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    public long getReceiveNanos() {
+        return receiveNanos;
+    }
+
+    /**
+     * 请求是否失败：没有收到响应或者响应为错误
+     *
+     * @return 失败时为 true
+     */
+    public boolean isFailed() {
+        return failed || receiveNanos == 0;
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@
  */
 package crossway.core.response;
 
+import crossway.codec.RawPayload;
 import crossway.codec.node.Node;
 import crossway.exception.CrossWayException;
 
@@ -49,6 +50,11 @@ public final class CrossWayResponse implements Serializable {
      */
     private Node data;
 
+    /**
+     * 业务返回的原始字节
+     */
+    private RawPayload payload;
+
     /**
      * extensional properties
      */
@@ -61,6 +67,11 @@ public final class CrossWayResponse implements Serializable {
      */
     private transient byte serializeType;
 
+    /**
+     * 解码数据时传给序列化器的上下文，与请求的相同
+     */
+    private transient Map<String, Object> context;
+
     /**
      * Is error boolean.
      *
@@ -184,11 +195,66 @@ public final class CrossWayResponse implements Serializable {
         this.error = error;
     }
 
+    /**
+     * 获取数据，只有原始字节时在第一次调用时解码
+     *
+     * @return 数据
+     */
     public Node getData() {
-        return data;
+        Node current = data;
+        if (current == null && payload != null) {
+            current = payload.decode(context);
+            data = current;
+        }
+        return current;
     }
 
+    /**
+     * 设置数据，原来的原始字节不再有效
+     *
+     * @param data
+     *     数据
+     */
     public void setData(Node data) {
         this.data = data;
+        this.payload = null;
+    }
+
+    /**
+     * 原始字节，解码前或者数据没有被修改时可以直接转发
+     *
+     * @return 原始字节，没有或已释放时为null
+     */
+    public RawPayload getPayload() {
+        return payload;
+    }
+
+    /**
+     * 设置原始字节，数据在第一次读取时再解码
+     *
+     * @param payload
+     *     原始字节
+     */
+    public void setPayload(RawPayload payload) {
+        this.payload = payload;
+        this.data = null;
+    }
+
+    /**
+     * 解码并释放原始字节，之后发送端按数据重新序列化。修改数据之前需要调用
+     */
+    public void releasePayload() {
+        if (payload != null) {
+            getData();
+            payload = null;
+        }
+    }
+
+    public Map<String, Object> getContext() {
+        return context;
+    }
+
+    public void setContext(Map<String, Object> context) {
+        this.context = context;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package crossway.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明过滤器会读取或修改消息体
+ * <p>
+ * 没有声明的过滤器不应访问消息体。管道中有修改消息体的过滤器时，请求和响应在进入过滤器之前解码并释放原始字节，
+ * 发送端按修改后的数据重新序列化；否则原始字节原样转发，只读的过滤器读取时才解码。
+ *
+ * @author iamcyw
+ **/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface BodyAccess {
+
+    /**
+     * 是否只读取消息体
+     *
+     * @return 只读时原始字节仍然原样转发
+     */
+    boolean readOnly() default false;
+}
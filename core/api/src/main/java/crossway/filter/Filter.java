@@ -12,6 +12,28 @@ import crossway.ext.api.Extensible;
 @Extensible(singleton = true)
 public interface Filter {
 
+    /**
+     * 在所有过滤器和请求体解码之前调用，用于设置解码上下文等准备工作，不能读取数据
+     *
+     * @param request
+     *     请求
+     */
+    default void prepare(CrossWayRequest request) {
+    }
+
+    /**
+     * 在 {@link #request(CrossWayRequest)} 之前调用，返回请求需要推迟的时间。推迟期间不占用线程，到期后在管道的线程池上继续；
+     * 拒绝请求时抛出 {@link crossway.exception.CrossWayException}
+     *
+     * @param request
+     *     请求
+     *
+     * @return 纳秒，小于等于0时不推迟
+     */
+    default long delay(CrossWayRequest request) {
+        return 0;
+    }
+
     public abstract void request(CrossWayRequest request);
 
     public abstract void response(CrossWayResponse response);
@@ -0,0 +1,168 @@
+package crossway.filter;
+
+import crossway.ext.ExtensionClass;
+import crossway.ext.ExtensionLoader;
+import crossway.ext.ExtensionLoaderFactory;
+import crossway.struct.OrderedComparator;
+import crossway.utils.CommonUtils;
+import crossway.utils.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 解析后的过滤器链，构造后不可变
+ * <p>
+ * 别名支持 {@code *} 表示全部已注册的过滤器，{@code -alias} 表示排除该过滤器。
+ * 过滤器按 {@link crossway.ext.api.Extension#order()} 从小到大排序，并根据 {@link Only} 和 {@link Exclude} 过滤目标。
+ *
+ * @author iamcyw
+ **/
+public final class FilterChain {
+
+    private final List<String> aliases;
+    private final List<Filter> filters;
+
+    private FilterChain(List<String> aliases, List<Filter> filters) {
+        this.aliases = aliases;
+        this.filters = filters;
+    }
+
+    /**
+     * 构建过滤器链
+     *
+     * @param aliases
+     *     过滤器别名
+     * @param targetName
+     *     目标名称，一般是协议别名
+     * @param targetClass
+     *     目标类型，一般是发送器的实现类
+     *
+     * @return 过滤器链
+     */
+    public static FilterChain build(List<String> aliases, String targetName, Class<?> targetClass) {
+        return build(aliases, Collections.singletonList(targetName), Collections.<Class<?>>singletonList(targetClass));
+    }
+
+    /**
+     * 构建作用于多个目标的过滤器链，例如集群的各个成员，只保留作用于每一个目标的过滤器
+     *
+     * @param aliases
+     *     过滤器别名
+     * @param targetNames
+     *     各个目标的名称，与 targetClasses 一一对应
+     * @param targetClasses
+     *     各个目标的类型
+     *
+     * @return 过滤器链
+     */
+    public static FilterChain build(List<String> aliases, List<String> targetNames, List<Class<?>> targetClasses) {
+        ExtensionLoader<Filter> loader = ExtensionLoaderFactory.getExtensionLoader(Filter.class);
+        Map<String, ExtensionClass<Filter>> selected = new LinkedHashMap<>();
+        List<String> excludes = new ArrayList<>();
+        if (CommonUtils.isNotEmpty(aliases)) {
+            for (String alias : aliases) {
+                if (StringUtils.isEmpty(alias)) {
+                    continue;
+                }
+                alias = alias.trim();
+                if (StringUtils.ALL.equals(alias)) {
+                    selected.putAll(loader.getAllExtensions());
+                } else if (alias.startsWith("-")) {
+                    excludes.add(alias.substring(1));
+                } else if (!selected.containsKey(alias)) {
+                    // 不存在时抛出异常
+                    loader.getExtension(alias);
+                    selected.put(alias, loader.getExtensionClass(alias));
+                }
+            }
+        }
+        for (String exclude : excludes) {
+            selected.remove(exclude);
+        }
+
+        List<ExtensionClass<Filter>> sorted = new ArrayList<>(selected.values());
+        Collections.sort(sorted, new OrderedComparator<ExtensionClass<Filter>>());
+        List<Filter> filters = new ArrayList<>(sorted.size());
+        for (ExtensionClass<Filter> extensionClass : sorted) {
+            Filter filter = loader.getExtension(extensionClass.getAlias());
+            if (accept(filter.getClass(), targetNames, targetClasses)) {
+                filters.add(filter);
+            }
+        }
+        List<String> copy = aliases == null ? Collections.<String>emptyList() : new ArrayList<>(aliases);
+        return new FilterChain(Collections.unmodifiableList(copy), Collections.unmodifiableList(filters));
+    }
+
+    /**
+     * 过滤器是否作用于目标
+     *
+     * @param filterClass
+     *     过滤器类型
+     * @param targetName
+     *     目标名称
+     * @param targetClass
+     *     目标类型
+     *
+     * @return 是否作用于目标
+     */
+    static boolean accept(Class<?> filterClass, String targetName, Class<?> targetClass) {
+        Only only = filterClass.getAnnotation(Only.class);
+        if (only != null && !matches(only.name(), only.classes(), targetName, targetClass)) {
+            return false;
+        }
+        Exclude exclude = filterClass.getAnnotation(Exclude.class);
+        return exclude == null || !matches(exclude.name(), exclude.classes(), targetName, targetClass);
+    }
+
+    /**
+     * 过滤器是否作用于每一个目标
+     */
+    static boolean accept(Class<?> filterClass, List<String> targetNames, List<Class<?>> targetClasses) {
+        for (int i = 0; i < targetNames.size(); i++) {
+            if (!accept(filterClass, targetNames.get(i), targetClasses.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String[] names, Class<?>[] classes, String targetName, Class<?> targetClass) {
+        if (targetName != null) {
+            for (String name : names) {
+                if (targetName.equals(name)) {
+                    return true;
+                }
+            }
+        }
+        if (targetClass != null) {
+            for (Class<?> clazz : classes) {
+                if (clazz.isAssignableFrom(targetClass)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构建时使用的别名
+     *
+     * @return 别名
+     */
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    /**
+     * 有序的过滤器
+     *
+     * @return 不可变的过滤器列表
+     */
+    public List<Filter> getFilters() {
+        return filters;
+    }
+}
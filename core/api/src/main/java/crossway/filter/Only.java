@@ -16,7 +16,7 @@ import java.lang.annotation.Target;
 @Target({ElementType.TYPE})
 public @interface Only {
 
-    String[] name();
+    String[] name() default {};
 
-    Class[] classes();
+    Class[] classes() default {};
 }
@@ -7,14 +7,18 @@ import crossway.core.request.CrossWayRequest;
 import crossway.core.response.CrossWayResponse;
 import crossway.exception.CrossWayException;
 import crossway.ext.api.Extensible;
+import crossway.transport.Blocking;
 import crossway.utils.StringUtils;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
+ * 发送器，每个发送配置单独创建一个实例，见 {@link crossway.bootstrap.SenderBootstrap}
+ *
  * @author iamcyw
  **/
-@Extensible
+@Extensible(singleton = false)
 public abstract class Send {
 
     private final SenderConfig senderConfig;
@@ -44,6 +48,21 @@ public abstract class Send {
         return id;
     }
 
+    /**
+     * 是否会阻塞调用线程，管道据此决定发送前是否切换到线程池
+     *
+     * @return 默认看实现类是否标注了 {@link Blocking}
+     */
+    public boolean isBlocking() {
+        return getClass().isAnnotationPresent(Blocking.class);
+    }
+
+    /**
+     * 释放连接等资源，在 {@link crossway.bootstrap.SenderBootstrap#unRefer()} 时调用，之后不再使用
+     */
+    public void destroy() {
+    }
+
     /**
      * 执行调用
      *
@@ -55,4 +74,25 @@ public abstract class Send {
      *     rpc异常
      */
     public abstract CrossWayResponse invoke(CrossWayRequest request) throws CrossWayException;
+
+    /**
+     * 异步执行调用
+     * <p>
+     * 默认在当前线程上调用 {@link #invoke(CrossWayRequest)}。基于非阻塞 IO 的发送器应覆盖此方法，
+     * 返回的 future 不要在 IO 线程上完成，以免后续的过滤器占用 IO 线程。
+     *
+     * @param request
+     *     请求
+     *
+     * @return 响应
+     */
+    public CompletableFuture<CrossWayResponse> invokeAsync(CrossWayRequest request) {
+        CompletableFuture<CrossWayResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(invoke(request));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
@@ -0,0 +1,212 @@
+package crossway.transport;
+
+import crossway.codec.NodeReader;
+import crossway.codec.NodeToken;
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 把一个消息体中的多条记录拆成单独的请求，并行经过管道，按原顺序交出响应
+ * <p>
+ * 顶层的每个值是一条记录，顶层数组展开为它的元素，因此按行分隔的 JSON 和一个很大的数组都可以处理；空位和空容器不产生记录。
+ * 记录在读取器上逐条解析，已经读取但还没有交出响应的记录最多 window 条，超过时暂停读取，内存占用与消息体大小无关。
+ * 前面的记录没有完成时，后面已经完成的响应在窗口中等待。
+ * <p>
+ * 读取只在调用 {@link #start()} 的线程（监听器的线程）上进行，窗口满时该线程等待空出的位置，处理响应的线程不会因为读取而阻塞。
+ * 响应按顺序交给结果回调，回调在锁外执行，同一时间只有一个线程执行回调。
+ *
+ * @author iamcyw
+ **/
+final class BatchDispatcher {
+
+    private final Function<CrossWayRequest, CompletableFuture<CrossWayResponse>> pipeline;
+    private final NodeReader                                                     reader;
+    private final Consumer<CrossWayResponse>                                     results;
+
+    private final CrossWayRequest[]  requests;
+    private final CrossWayResponse[] responses;
+    /**
+     * 窗口中的空位，交出响应后释放
+     */
+    private final Semaphore          permits;
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * 以下字段由 this 保护
+     */
+    private long    submitted;
+    private long    emitted;
+    private boolean exhausted;
+    /**
+     * 是否有线程正在执行结果回调
+     */
+    private boolean emitting;
+
+    /**
+     * 是否在顶层数组中，只由读取的线程访问
+     */
+    private boolean inArray;
+
+    BatchDispatcher(Function<CrossWayRequest, CompletableFuture<CrossWayResponse>> pipeline, NodeReader reader,
+                    int window, Consumer<CrossWayResponse> results) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Batch window must be positive: " + window);
+        }
+        this.pipeline = pipeline;
+        this.reader = reader;
+        this.results = results;
+        this.requests = new CrossWayRequest[window];
+        this.responses = new CrossWayResponse[window];
+        this.permits = new Semaphore(window);
+    }
+
+    /**
+     * 在当前线程上读取全部记录并提交，返回时记录已经读完，响应可能还没有全部交出
+     *
+     * @return 所有响应都交出后完成，读取失败或结果回调抛出异常时异常完成
+     */
+    CompletableFuture<Void> start() {
+        try {
+            while (true) {
+                permits.acquire();
+                if (done.isDone()) {
+                    break;
+                }
+                Node record = nextRecord();
+                if (record == null) {
+                    break;
+                }
+                CrossWayRequest request = new CrossWayRequest();
+                request.setData(record);
+                long sequence;
+                synchronized (this) {
+                    sequence = submitted++;
+                    requests[slot(sequence)] = request;
+                }
+                submit(request, sequence);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(e);
+        } catch (Throwable e) {
+            done.completeExceptionally(e);
+        }
+        synchronized (this) {
+            exhausted = true;
+            if (!emitting && emitted == submitted) {
+                done.complete(null);
+            }
+        }
+        return done;
+    }
+
+    private void submit(CrossWayRequest request, long sequence) {
+        CompletableFuture<CrossWayResponse> future;
+        try {
+            future = pipeline.apply(request);
+        } catch (Throwable e) {
+            complete(sequence, null, e);
+            return;
+        }
+        future.whenComplete((response, e) -> complete(sequence, response, e));
+    }
+
+    private void complete(long sequence, CrossWayResponse response, Throwable error) {
+        if (response == null) {
+            response = error(error);
+        }
+        synchronized (this) {
+            responses[slot(sequence)] = response;
+            if (emitting) {
+                // 正在交出响应的线程会继续处理
+                return;
+            }
+            emitting = true;
+        }
+        emit();
+    }
+
+    /**
+     * 按顺序交出已经完成的响应，直到下一个响应还没有完成
+     */
+    private void emit() {
+        while (true) {
+            CrossWayRequest request;
+            CrossWayResponse result;
+            synchronized (this) {
+                int slot = slot(emitted);
+                if (emitted == submitted || responses[slot] == null) {
+                    emitting = false;
+                    if (exhausted && emitted == submitted) {
+                        done.complete(null);
+                    }
+                    return;
+                }
+                request = requests[slot];
+                result = responses[slot];
+                requests[slot] = null;
+                responses[slot] = null;
+                emitted++;
+            }
+            try {
+                if (!done.isDone()) {
+                    results.accept(result);
+                }
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            } finally {
+                request.complete();
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * @return 下一条记录，没有更多记录时返回null
+     */
+    private Node nextRecord() throws Exception {
+        while (true) {
+            NodeToken token = reader.next();
+            if (token == null) {
+                return null;
+            }
+            if (inArray && token == NodeToken.END_ARRAY) {
+                inArray = false;
+                continue;
+            }
+            if (!inArray && token == NodeToken.START_ARRAY) {
+                inArray = true;
+                continue;
+            }
+            Node record = reader.readTree();
+            if (record != null && record.getNodeType() != NodeType.MISSING) {
+                return record;
+            }
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % requests.length);
+    }
+
+    private static CrossWayResponse error(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg(String.valueOf(e.getMessage()));
+        response.setError(new CrossWayException(WayErrorType.SERVER_SEND, e));
+        return response;
+    }
+}
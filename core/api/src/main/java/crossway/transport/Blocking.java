@@ -0,0 +1,19 @@
+package crossway.transport;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记过滤器或发送器可能阻塞当前线程（例如同步IO）
+ * <p>
+ * {@link Transport} 编译管道时，只有在遇到带此标记的过滤器或发送器时才会切换线程，其余阶段都在同一线程上顺序执行。
+ *
+ * @author iamcyw
+ **/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Blocking {}
@@ -0,0 +1,482 @@
+package crossway.transport;
+
+import crossway.codec.Serializer;
+import crossway.common.WayConstants;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+import crossway.filter.BodyAccess;
+import crossway.filter.Filter;
+import crossway.send.Send;
+import crossway.struct.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 编译后的消息管道
+ * <p>
+ * 请求过滤器、发送、响应过滤器在构造时被编译成若干个 stage，相邻的非阻塞步骤合并在同一个 stage 里同步执行；
+ * 只有标注了 {@link Blocking} 的步骤才会切换到 executor 上执行，并且之后的步骤继续留在该线程上。
+ * <p>
+ * 非阻塞的发送器通过 {@link crossway.send.Send#invokeAsync(CrossWayRequest)} 组合，等待响应期间不占用线程，
+ * 响应过滤器在完成 future 的线程上继续执行。
+ * <p>
+ * 只有存在修改消息体的过滤器（见 {@link BodyAccess}）时，才在过滤器之前解码并释放原始字节，解码出的是可以修改的树；
+ * 否则原始字节原样转发，并在上下文中设置 {@link Serializer#CONTEXT_READ_ONLY}，读取数据时可以使用只读的延迟节点。
+ * 解码之前先执行各个过滤器的 {@link Filter#prepare(CrossWayRequest)}；发送器返回的响应使用请求的解码上下文。
+ * <p>
+ * 覆盖了 {@link Filter#delay(CrossWayRequest)} 的过滤器在请求步骤之前可以推迟请求：由一个共享的定时线程到期后把请求交回 executor，
+ * 等待期间不占用线程。拒绝请求时抛出的 {@link CrossWayException} 作为错误响应，跳过之后的请求过滤器和发送，直接进入响应过滤器。
+ * <p>
+ * executor 已满时不在调用线程上执行，而是返回 {@link WayErrorType#SERVER_LIMIT} 错误响应。
+ * <p>
+ * 管道在开始、发送和收到响应时在请求上记录时间，见 {@link CrossWayRequest#markStart(SenderConfig)}。
+ *
+ * @author iamcyw
+ **/
+final class Pipeline {
+
+    private static final Function<Object, Object> RELEASE_REQUEST = request -> {
+        ((CrossWayRequest) request).releasePayload();
+        return request;
+    };
+
+    private static final Function<Object, Object> RELEASE_RESPONSE = response -> {
+        ((CrossWayResponse) response).releasePayload();
+        return response;
+    };
+
+    private static volatile ScheduledExecutorService delayer;
+    private static volatile ExecutorService          resumer;
+
+    private final Stage[] stages;
+
+    private final Executor executor;
+
+    /**
+     * 编译管道
+     *
+     * @param filters
+     *     有序的过滤器
+     * @param senderConfig
+     *     发送配置
+     * @param sendBlocking
+     *     发送器是否会阻塞
+     * @param executor
+     *     阻塞步骤使用的线程池
+     */
+    Pipeline(List<Filter> filters, SenderConfig senderConfig, boolean sendBlocking, Executor executor) {
+        this.executor = executor;
+        boolean mutating = isMutating(filters);
+        Function<Object, Object> start = request -> {
+            CrossWayRequest crossWayRequest = (CrossWayRequest) request;
+            crossWayRequest.markStart(senderConfig);
+            if (!mutating) {
+                // 没有过滤器修改消息体，序列化器可以返回只读的延迟节点
+                crossWayRequest.putContext(Serializer.CONTEXT_READ_ONLY, Boolean.TRUE);
+            }
+            return request;
+        };
+
+        List<Stage> compiled = new ArrayList<>();
+        Stage current = new Stage(false);
+        compiled.add(current);
+        current.steps.add(start);
+        for (Filter filter : filters) {
+            if (isPreparing(filter)) {
+                current.steps.add(new PrepareStep(filter));
+            }
+        }
+        if (mutating) {
+            current.steps.add(RELEASE_REQUEST);
+        }
+        for (Filter filter : filters) {
+            if (isDelaying(filter)) {
+                current = new Stage(false, new DelayStep(filter, resumeExecutor(executor)));
+                compiled.add(current);
+            }
+            current = append(compiled, current, isBlocking(filter), new RequestStep(filter));
+        }
+        if (sendBlocking) {
+            current = append(compiled, current, true, new SendStep(senderConfig));
+        } else {
+            current = new Stage(false, new AsyncSendStep(senderConfig));
+            compiled.add(current);
+        }
+        if (mutating) {
+            current.steps.add(RELEASE_RESPONSE);
+        }
+        for (Filter filter : filters) {
+            current = append(compiled, current, isBlocking(filter), new ResponseStep(filter));
+        }
+        this.stages = compiled.toArray(new Stage[0]);
+    }
+
+    private static Stage append(List<Stage> compiled, Stage current, boolean blocking, Function<Object, Object> step) {
+        if (blocking) {
+            current = new Stage(true);
+            compiled.add(current);
+        }
+        current.steps.add(step);
+        return current;
+    }
+
+    static boolean isBlocking(Object target) {
+        if (target instanceof Send) {
+            return ((Send) target).isBlocking();
+        }
+        return target != null && target.getClass().isAnnotationPresent(Blocking.class);
+    }
+
+    /**
+     * 是否有过滤器会修改消息体
+     *
+     * @param filters
+     *     过滤器
+     *
+     * @return 有一个声明了非只读的 {@link BodyAccess} 就返回 true
+     */
+    static boolean isMutating(List<Filter> filters) {
+        for (Filter filter : filters) {
+            BodyAccess access = filter.getClass().getAnnotation(BodyAccess.class);
+            if (access != null && !access.readOnly()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 过滤器是否覆盖了 {@link Filter#prepare(CrossWayRequest)}
+     */
+    static boolean isPreparing(Filter filter) {
+        return overrides(filter, "prepare");
+    }
+
+    /**
+     * 过滤器是否覆盖了 {@link Filter#delay(CrossWayRequest)}
+     */
+    static boolean isDelaying(Filter filter) {
+        return overrides(filter, "delay");
+    }
+
+    private static boolean overrides(Filter filter, String method) {
+        try {
+            return filter.getClass().getMethod(method, CrossWayRequest.class).getDeclaringClass() != Filter.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在请求上运行整个管道
+     *
+     * @param future
+     *     请求
+     *
+     * @return 响应
+     */
+    @SuppressWarnings("unchecked")
+    CompletableFuture<CrossWayResponse> apply(CompletableFuture<CrossWayRequest> future) {
+        CompletableFuture<Object> result = (CompletableFuture) future;
+        for (Stage stage : stages) {
+            if (stage.compose != null) {
+                result = result.thenCompose(stage.compose);
+            }
+            if (stage.steps.isEmpty()) {
+                continue;
+            }
+            result = stage.async ? result.thenApplyAsync(stage, executor) : result.thenApply(stage);
+        }
+        return (CompletableFuture) result.exceptionally(Pipeline::rejected);
+    }
+
+    /**
+     * executor 已满拒绝了某个 stage 时返回 {@link WayErrorType#SERVER_LIMIT} 错误响应，其它异常原样抛出
+     */
+    private static Object rejected(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (!(cause instanceof RejectedExecutionException)) {
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        }
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg("Executor is full");
+        response.setError(new CrossWayException(WayErrorType.SERVER_LIMIT, response.getErrorMsg(), cause));
+        return response;
+    }
+
+    /**
+     * 阶段数
+     *
+     * @return 编译后非空的 stage 数量
+     */
+    int stageCount() {
+        int count = 0;
+        for (Stage stage : stages) {
+            if (stage.compose != null || !stage.steps.isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 一组在同一线程上顺序执行的步骤，可以以一个异步步骤（发送或推迟）开始
+     */
+    private static final class Stage implements Function<Object, Object> {
+        private final boolean                                     async;
+        private final Function<Object, CompletableFuture<Object>> compose;
+        private final List<Function<Object, Object>>              steps = new ArrayList<>();
+
+        private Stage(boolean async) {
+            this(async, null);
+        }
+
+        private Stage(boolean async, Function<Object, CompletableFuture<Object>> compose) {
+            this.async = async;
+            this.compose = compose;
+        }
+
+        @Override
+        public Object apply(Object value) {
+            for (Function<Object, Object> step : steps) {
+                value = step.apply(value);
+            }
+            return value;
+        }
+    }
+
+    private static final class PrepareStep implements Function<Object, Object> {
+        private final Filter filter;
+
+        private PrepareStep(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Object apply(Object request) {
+            filter.prepare((CrossWayRequest) request);
+            return request;
+        }
+    }
+
+    private static final class DelayStep implements Function<Object, CompletableFuture<Object>> {
+        private final Filter   filter;
+        private final Executor executor;
+
+        private DelayStep(Filter filter, Executor executor) {
+            this.filter = filter;
+            this.executor = executor;
+        }
+
+        @Override
+        public CompletableFuture<Object> apply(Object request) {
+            if (request instanceof CrossWayResponse) {
+                return CompletableFuture.completedFuture(request);
+            }
+            long nanos;
+            try {
+                nanos = filter.delay((CrossWayRequest) request);
+            } catch (CrossWayException e) {
+                return CompletableFuture.completedFuture(bind((CrossWayRequest) request, rejected(e)));
+            }
+            if (nanos <= 0) {
+                return CompletableFuture.completedFuture(request);
+            }
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            delayer().schedule(() -> {
+                try {
+                    executor.execute(() -> future.complete(request));
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                }
+            }, nanos, TimeUnit.NANOSECONDS);
+            return future;
+        }
+    }
+
+    /**
+     * 推迟到期后继续处理请求的线程池。direct 线程池会在定时线程上执行之后的所有步骤，包括阻塞的发送，
+     * 所有路由的推迟请求都会排在一个线程上，因此改用 {@link #resumer()}
+     *
+     * @param executor
+     *     管道的线程池
+     *
+     * @return 线程池
+     */
+    static Executor resumeExecutor(Executor executor) {
+        if (executor instanceof TransportExecutor
+            && WayConstants.THREADPOOL_TYPE_DIRECT.equals(((TransportExecutor) executor).getType())) {
+            return resumer();
+        }
+        return executor;
+    }
+
+    /**
+     * 所有管道共享的定时线程，只负责把到期的请求交回各自的 executor
+     */
+    private static ScheduledExecutorService delayer() {
+        ScheduledExecutorService current = delayer;
+        if (current == null) {
+            synchronized (Pipeline.class) {
+                current = delayer;
+                if (current == null) {
+                    ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(
+                        "pipeline-delay", true));
+                    created.setRemoveOnCancelPolicy(true);
+                    current = created;
+                    delayer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * direct 线程池的管道推迟到期后使用的线程池，与 direct 一样不限制线程数，空闲线程60秒后回收
+     */
+    private static ExecutorService resumer() {
+        ExecutorService current = resumer;
+        if (current == null) {
+            synchronized (Pipeline.class) {
+                current = resumer;
+                if (current == null) {
+                    current = Executors.newCachedThreadPool(new NamedThreadFactory("pipeline-delay-resume", true));
+                    resumer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class RequestStep implements Function<Object, Object> {
+        private final Filter filter;
+
+        private RequestStep(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Object apply(Object request) {
+            if (request instanceof CrossWayRequest) {
+                filter.request((CrossWayRequest) request);
+            }
+            return request;
+        }
+    }
+
+    private static final class SendStep implements Function<Object, Object> {
+        private final SenderConfig senderConfig;
+
+        private SendStep(SenderConfig senderConfig) {
+            this.senderConfig = senderConfig;
+        }
+
+        @Override
+        public Object apply(Object request) {
+            if (request instanceof CrossWayResponse) {
+                return request;
+            }
+            CrossWayResponse response;
+            ((CrossWayRequest) request).markSend();
+            try {
+                response = refer(senderConfig).invoke((CrossWayRequest) request);
+            } catch (Throwable e) {
+                response = error(e);
+            }
+            return bind((CrossWayRequest) request, response);
+        }
+    }
+
+    private static final class AsyncSendStep implements Function<Object, CompletableFuture<Object>> {
+        private final SenderConfig senderConfig;
+
+        private AsyncSendStep(SenderConfig senderConfig) {
+            this.senderConfig = senderConfig;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Object> apply(Object request) {
+            if (request instanceof CrossWayResponse) {
+                return CompletableFuture.completedFuture(request);
+            }
+            CrossWayRequest crossWayRequest = (CrossWayRequest) request;
+            CompletableFuture<CrossWayResponse> future;
+            crossWayRequest.markSend();
+            try {
+                future = refer(senderConfig).invokeAsync(crossWayRequest);
+            } catch (Throwable e) {
+                return CompletableFuture.completedFuture(bind(crossWayRequest, error(e)));
+            }
+            return (CompletableFuture) future.exceptionally(e -> error(
+                e instanceof CompletionException && e.getCause() != null ? e.getCause() : e))
+                                             .thenApply(response -> bind(crossWayRequest, response));
+        }
+    }
+
+    /**
+     * 没有发送配置时（例如路由没有命中）在发送阶段返回错误响应
+     */
+    private static Send refer(SenderConfig senderConfig) {
+        if (senderConfig == null) {
+            throw new IllegalStateException("No sender config to send the request to");
+        }
+        return senderConfig.refer();
+    }
+
+    /**
+     * 响应使用请求的解码上下文，并记录收到响应的时间
+     */
+    private static CrossWayResponse bind(CrossWayRequest request, CrossWayResponse response) {
+        request.markReceive(response == null || response.isError());
+        if (response != null && response.getContext() == null) {
+            response.setContext(request.getContext());
+        }
+        return response;
+    }
+
+    private static CrossWayResponse error(Throwable e) {
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg(e.getMessage());
+        response.setError(new CrossWayException(WayErrorType.SERVER_SEND, e));
+        return response;
+    }
+
+    /**
+     * 过滤器拒绝请求时的错误响应，保留过滤器给出的错误类型
+     */
+    private static CrossWayResponse rejected(CrossWayException e) {
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg(e.getMessage());
+        response.setError(e);
+        return response;
+    }
+
+    private static final class ResponseStep implements Function<Object, Object> {
+        private final Filter filter;
+
+        private ResponseStep(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Object apply(Object response) {
+            filter.response((CrossWayResponse) response);
+            return response;
+        }
+    }
+}
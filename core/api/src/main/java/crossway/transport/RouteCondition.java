@@ -0,0 +1,148 @@
+package crossway.transport;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodePath;
+import crossway.core.request.CrossWayRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 路由规则中的一个条件，取请求上的一个值（数据中的路径或请求属性）做比较
+ * <p>
+ * 值统一按文本比较：数据中只取标量节点的文本，请求属性取 {@link Object#toString()}；范围条件把文本解析为数字。
+ *
+ * @author iamcyw
+ **/
+final class RouteCondition {
+
+    static final int EQUALS = 0;
+    static final int PREFIX = 1;
+    static final int RANGE  = 2;
+
+    /**
+     * 取值的位置，相同时可以共用一次取值；路径使用规范化的形式，{@code /type} 和 {@code $.type} 是同一个位置
+     */
+    final String key;
+    final int    op;
+
+    private final String   prop;
+    private final NodePath path;
+
+    final         Set<String> values;
+    private final String      prefix;
+    private final double      min;
+    private final double      max;
+
+    private RouteCondition(String prop, NodePath path, int op, Set<String> values, String prefix, double min,
+                           double max) {
+        this.key = prop != null ? "prop:" + prop : "path:" + path.canonical();
+        this.op = op;
+        this.prop = prop;
+        this.path = path;
+        this.values = values;
+        this.prefix = prefix;
+        this.min = min;
+        this.max = max;
+    }
+
+    static RouteCondition equals(String prop, NodePath path, String... values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Route condition needs at least one value");
+        }
+        Set<String> set = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values)));
+        return new RouteCondition(prop, path, EQUALS, set, null, 0, 0);
+    }
+
+    static RouteCondition prefix(String prop, NodePath path, String prefix) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Route prefix is null");
+        }
+        return new RouteCondition(prop, path, PREFIX, null, prefix, 0, 0);
+    }
+
+    static RouteCondition range(String prop, NodePath path, double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("Route range is empty: [" + min + ", " + max + ")");
+        }
+        return new RouteCondition(prop, path, RANGE, null, null, min, max);
+    }
+
+    /**
+     * 取请求上的值
+     *
+     * @param input
+     *     路由的输入
+     *
+     * @return 文本，没有或不是标量时返回null
+     */
+    String extract(Input input) {
+        if (prop != null) {
+            Object value = input.request.getRequestProp(prop);
+            return value != null ? value.toString() : null;
+        }
+        Node data = input.data();
+        Node node = data != null ? path.get(data) : null;
+        return node != null && node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+
+    boolean test(Input input) {
+        return test(extract(input));
+    }
+
+    boolean test(String text) {
+        if (text == null) {
+            return false;
+        }
+        switch (op) {
+            case EQUALS:
+                return values.contains(text);
+            case PREFIX:
+                return text.startsWith(prefix);
+            default:
+                double number;
+                try {
+                    number = Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                return number >= min && number < max;
+        }
+    }
+
+    /**
+     * 一次路由的输入，数据只在第一个数据条件上取一次只读视图，见 {@link CrossWayRequest#viewData()}
+     */
+    static final class Input {
+        final CrossWayRequest request;
+
+        private Node    data;
+        private boolean viewed;
+
+        Input(CrossWayRequest request) {
+            this.request = request;
+        }
+
+        Node data() {
+            if (!viewed) {
+                data = request.viewData();
+                viewed = true;
+            }
+            return data;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (op) {
+            case EQUALS:
+                return key + " in " + values;
+            case PREFIX:
+                return key + " startsWith " + prefix;
+            default:
+                return key + " in [" + min + ", " + max + ")";
+        }
+    }
+}
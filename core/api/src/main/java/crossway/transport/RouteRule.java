@@ -0,0 +1,142 @@
+package crossway.transport;
+
+import crossway.codec.node.NodePath;
+import crossway.config.SenderConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 路由规则：全部条件满足时请求发往目标发送配置
+ * <p>
+ * 数据上的条件使用 {@link NodePath} 表达式，只编译一次；请求属性上的条件使用 {@link
+ * crossway.core.request.CrossWayRequest#getRequestProps()} 中的名字。规则交给 {@link Router#compile(List, SenderConfig)}
+ * 后不应再修改。
+ *
+ * @author iamcyw
+ **/
+public final class RouteRule {
+
+    private final SenderConfig         target;
+    private final List<RouteCondition> conditions = new ArrayList<>();
+
+    /**
+     * @param target
+     *     目标发送配置
+     */
+    public RouteRule(SenderConfig target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Route target is null");
+        }
+        this.target = target;
+    }
+
+    /**
+     * 数据中路径上的值等于其中一个
+     *
+     * @param path
+     *     路径表达式
+     * @param values
+     *     值
+     *
+     * @return this
+     */
+    public RouteRule fieldEquals(String path, String... values) {
+        return add(RouteCondition.equals(null, NodePath.compile(path), values));
+    }
+
+    /**
+     * 数据中路径上的值以前缀开头
+     *
+     * @param path
+     *     路径表达式
+     * @param prefix
+     *     前缀
+     *
+     * @return this
+     */
+    public RouteRule fieldPrefix(String path, String prefix) {
+        return add(RouteCondition.prefix(null, NodePath.compile(path), prefix));
+    }
+
+    /**
+     * 数据中路径上的数字在 [min, max) 之间
+     *
+     * @param path
+     *     路径表达式
+     * @param min
+     *     最小值，包括
+     * @param max
+     *     最大值，不包括
+     *
+     * @return this
+     */
+    public RouteRule fieldRange(String path, double min, double max) {
+        return add(RouteCondition.range(null, NodePath.compile(path), min, max));
+    }
+
+    /**
+     * 请求属性等于其中一个
+     *
+     * @param name
+     *     属性名
+     * @param values
+     *     值
+     *
+     * @return this
+     */
+    public RouteRule propEquals(String name, String... values) {
+        return add(RouteCondition.equals(checkName(name), null, values));
+    }
+
+    /**
+     * 请求属性以前缀开头
+     *
+     * @param name
+     *     属性名
+     * @param prefix
+     *     前缀
+     *
+     * @return this
+     */
+    public RouteRule propPrefix(String name, String prefix) {
+        return add(RouteCondition.prefix(checkName(name), null, prefix));
+    }
+
+    /**
+     * 请求属性的数字在 [min, max) 之间
+     *
+     * @param name
+     *     属性名
+     * @param min
+     *     最小值，包括
+     * @param max
+     *     最大值，不包括
+     *
+     * @return this
+     */
+    public RouteRule propRange(String name, double min, double max) {
+        return add(RouteCondition.range(checkName(name), null, min, max));
+    }
+
+    public SenderConfig getTarget() {
+        return target;
+    }
+
+    List<RouteCondition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    private RouteRule add(RouteCondition condition) {
+        conditions.add(condition);
+        return this;
+    }
+
+    private static String checkName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Request prop name is null");
+        }
+        return name;
+    }
+}
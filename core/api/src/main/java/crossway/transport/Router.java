@@ -0,0 +1,266 @@
+package crossway.transport;
+
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的路由表，按规则的顺序选出第一个全部条件都满足的目标
+ * <p>
+ * 规则编译成一棵决策树：每一层选出被最多规则用作相等条件的取值位置，按值建立散列表，只把该值可能命中的规则（相等条件包含该值的，
+ * 以及在这个位置上没有相等条件的）留给下一层。一条请求在每一层只取一次值、查一次表，剩下的少量规则再逐条检查前缀和范围等条件，
+ * 因此路由的开销基本不随规则数量增长。
+ * <p>
+ * 路由在目标的管道开始之前进行，这时过滤器的 {@link crossway.filter.Filter#prepare(CrossWayRequest)} 还没有执行。
+ * 数据条件只读取请求体的只读视图（见 {@link CrossWayRequest#viewData()}），不把解码结果留在请求上，
+ * 目标管道仍然按自己的方式（例如从 arena 分配）解码。
+ * <p>
+ * 实例不可变，可以在多个线程上共享。
+ *
+ * @author iamcyw
+ **/
+public final class Router {
+
+    /**
+     * 规则不超过这个数量时不再建表，直接逐条检查
+     */
+    static final int LEAF_SIZE = 4;
+
+    private final Branch             root;
+    private final SenderConfig       fallback;
+    private final List<SenderConfig> targets;
+
+    private Router(Branch root, SenderConfig fallback, List<SenderConfig> targets) {
+        this.root = root;
+        this.fallback = fallback;
+        this.targets = targets;
+    }
+
+    /**
+     * 编译路由表
+     *
+     * @param rules
+     *     有序的规则，前面的优先
+     * @param fallback
+     *     没有规则命中时的目标，可以为null
+     *
+     * @return 路由表
+     */
+    public static Router compile(List<RouteRule> rules, SenderConfig fallback) {
+        List<Candidate> candidates = new ArrayList<>(rules.size());
+        Set<SenderConfig> targets = new LinkedHashSet<>();
+        for (RouteRule rule : rules) {
+            candidates.add(new Candidate(rule.getTarget(), rule.getConditions()));
+            targets.add(rule.getTarget());
+        }
+        if (fallback != null) {
+            targets.add(fallback);
+        }
+        return new Router(build(candidates), fallback,
+                          Collections.unmodifiableList(new ArrayList<>(targets)));
+    }
+
+    /**
+     * 选择请求的目标
+     *
+     * @param request
+     *     请求，数据上的条件只读取请求体的只读视图，不改变请求
+     *
+     * @return 目标发送配置，没有规则命中且没有默认目标时返回null
+     */
+    public SenderConfig route(CrossWayRequest request) {
+        SenderConfig target = root.route(new RouteCondition.Input(request));
+        return target != null ? target : fallback;
+    }
+
+    /**
+     * @return 全部目标，包括默认目标
+     */
+    public List<SenderConfig> getTargets() {
+        return targets;
+    }
+
+    public SenderConfig getFallback() {
+        return fallback;
+    }
+
+    /**
+     * 树的深度，用于检查编译结果
+     */
+    int depth() {
+        return root.depth();
+    }
+
+    private static Branch build(List<Candidate> candidates) {
+        if (candidates.size() <= LEAF_SIZE) {
+            return new Leaf(candidates);
+        }
+        // 选出被最多规则用作相等条件的位置
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, RouteCondition> samples = new HashMap<>();
+        String key = null;
+        int best = 1;
+        for (Candidate candidate : candidates) {
+            for (String conditionKey : candidate.equalsKeys()) {
+                int count = counts.merge(conditionKey, 1, Integer::sum);
+                samples.putIfAbsent(conditionKey, candidate.equalsOn(conditionKey));
+                if (count > best) {
+                    best = count;
+                    key = conditionKey;
+                }
+            }
+        }
+        if (key == null) {
+            return new Leaf(candidates);
+        }
+
+        Set<String> values = new LinkedHashSet<>();
+        List<Candidate> others = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            RouteCondition condition = candidate.equalsOn(key);
+            if (condition == null) {
+                others.add(candidate);
+            } else {
+                values.addAll(condition.values);
+            }
+        }
+        Map<String, Branch> table = new HashMap<>(values.size() * 2);
+        for (String value : values) {
+            List<Candidate> matched = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                RouteCondition condition = candidate.equalsOn(key);
+                if (condition == null) {
+                    matched.add(candidate);
+                } else if (condition.values.contains(value)) {
+                    matched.add(candidate.without(condition));
+                }
+            }
+            table.put(value, build(matched));
+        }
+        return new Dispatch(samples.get(key), table, build(others));
+    }
+
+    /**
+     * 决策树的节点
+     */
+    private interface Branch {
+        SenderConfig route(RouteCondition.Input input);
+
+        int depth();
+    }
+
+    /**
+     * 按一个位置上的值查表
+     */
+    private static final class Dispatch implements Branch {
+        private final RouteCondition      source;
+        private final Map<String, Branch> table;
+        private final Branch              other;
+
+        private Dispatch(RouteCondition source, Map<String, Branch> table, Branch other) {
+            this.source = source;
+            this.table = table;
+            this.other = other;
+        }
+
+        @Override
+        public SenderConfig route(RouteCondition.Input input) {
+            String value = source.extract(input);
+            Branch next = value != null ? table.get(value) : null;
+            return (next != null ? next : other).route(input);
+        }
+
+        @Override
+        public int depth() {
+            int depth = other.depth();
+            for (Branch branch : table.values()) {
+                depth = Math.max(depth, branch.depth());
+            }
+            return depth + 1;
+        }
+    }
+
+    /**
+     * 逐条检查剩下的规则
+     */
+    private static final class Leaf implements Branch {
+        private final Candidate[] candidates;
+
+        private Leaf(List<Candidate> candidates) {
+            this.candidates = candidates.toArray(new Candidate[0]);
+        }
+
+        @Override
+        public SenderConfig route(RouteCondition.Input input) {
+            for (Candidate candidate : candidates) {
+                if (candidate.test(input)) {
+                    return candidate.target;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int depth() {
+            return 1;
+        }
+    }
+
+    /**
+     * 一条规则和它还没有被上层检查过的条件
+     */
+    private static final class Candidate {
+        private final SenderConfig     target;
+        private final RouteCondition[] conditions;
+
+        private Candidate(SenderConfig target, List<RouteCondition> conditions) {
+            this.target = target;
+            this.conditions = conditions.toArray(new RouteCondition[0]);
+        }
+
+        private Set<String> equalsKeys() {
+            Set<String> keys = new LinkedHashSet<>();
+            for (RouteCondition condition : conditions) {
+                if (condition.op == RouteCondition.EQUALS) {
+                    keys.add(condition.key);
+                }
+            }
+            return keys;
+        }
+
+        private RouteCondition equalsOn(String key) {
+            for (RouteCondition condition : conditions) {
+                if (condition.op == RouteCondition.EQUALS && condition.key.equals(key)) {
+                    return condition;
+                }
+            }
+            return null;
+        }
+
+        private Candidate without(RouteCondition removed) {
+            List<RouteCondition> remaining = new ArrayList<>(conditions.length);
+            for (RouteCondition condition : conditions) {
+                if (condition != removed) {
+                    remaining.add(condition);
+                }
+            }
+            return new Candidate(target, remaining);
+        }
+
+        private boolean test(RouteCondition.Input input) {
+            for (RouteCondition condition : conditions) {
+                if (!condition.test(input)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package crossway.transport;
 
+import crossway.cluster.ClusterSend;
+import crossway.cluster.Member;
+import crossway.codec.NodeReader;
+import crossway.common.CrossWayConfigs;
+import crossway.common.CrossWayConfigs.CrossWayConfigListener;
+import crossway.common.CrossWayOptions;
 import crossway.config.ListenerConfig;
 import crossway.config.SenderConfig;
 import crossway.core.request.CrossWayRequest;
 import crossway.core.response.CrossWayResponse;
-import crossway.exception.CrossWayException;
-import crossway.exception.WayErrorType;
-import crossway.ext.ExtensionClass;
-import crossway.ext.ExtensionLoaderFactory;
-import crossway.filter.Filter;
+import crossway.filter.FilterChain;
+import crossway.send.Send;
 import crossway.utils.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -22,10 +34,20 @@ import java.util.function.Supplier;
  * @date: 2020/7/3 16:09
  * @copyright: 2020, FA Software (Shanghai) Co., Ltd. All Rights Reserved.
  */
+@Slf4j
 public class Transport {
-    private final ListenerConfig listenerConfig;
-    private final SenderConfig   senderConfig;
-    private       String[]       filters = new String[]{"log"};
+    private final    ListenerConfig                 listenerConfig;
+    private final    SenderConfig                   senderConfig;
+    private          String[]                       filters;
+    private volatile Pipeline                       pipeline;
+    private volatile Executor                       executor;
+    private volatile Router                         router;
+    private final    CrossWayConfigListener<Object> filterListener = (oldValue, newValue) -> onFiltersChanged();
+
+    /**
+     * 配置了路由表时每个目标的管道
+     */
+    private final ConcurrentMap<SenderConfig, Pipeline> routes = new ConcurrentHashMap<>();
 
     public Transport(ListenerConfig listenerConfig, SenderConfig senderConfig, String... filters) {
         this.listenerConfig = listenerConfig;
@@ -43,44 +65,204 @@ public class Transport {
         if (senderConfig != null) {
             senderConfig.setTransport(this);
         }
+        CrossWayConfigs.subscribe(CrossWayOptions.DEFAULT_FILTERS, filterListener);
     }
 
     public <T> CompletableFuture<CrossWayResponse> apply(Supplier<CrossWayRequest> supplier) {
-        CompletableFuture<CrossWayRequest> future = CompletableFuture.supplyAsync(supplier);
+        CompletableFuture<CrossWayRequest> future;
+        try {
+            future = CompletableFuture.supplyAsync(supplier, getExecutor());
+        } catch (RejectedExecutionException e) {
+            // 交给管道转换为错误响应
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
         return apply(future);
     }
 
     public CompletableFuture<CrossWayResponse> apply(CompletableFuture<CrossWayRequest> future) {
-        for (ExtensionClass<Filter> filterExtensionClass : getFilters()) {
-            Filter filter = filterExtensionClass.getExtInstance();
-            future = future.thenCompose(request -> CompletableFuture.supplyAsync(() -> {
-                filter.request(request);
-                return request;
-            }));
+        Router current = router;
+        if (current == null) {
+            return getPipeline().apply(future);
         }
-        CompletableFuture<CrossWayResponse> responseCompletableFuture = future.thenApplyAsync(request -> {
-            CrossWayResponse response = new CrossWayResponse();
-            try {
-                response = senderConfig.refer().invoke(request);
-            } catch (Throwable e) {
-                response.setErrorMsg(e.getMessage());
-                response.setError(new CrossWayException(WayErrorType.SERVER_SEND, e));
+        // 路由在目标管道之前进行，只读取请求体的只读视图，prepare 和解码仍由目标管道完成
+        return future.thenCompose(request -> getPipeline(current.route(request)).apply(
+            CompletableFuture.completedFuture(request)));
+    }
+
+    /**
+     * 把消息体中的每条记录作为单独的请求并行处理，见 {@link BatchDispatcher}。记录在调用线程上读取，读完后才返回
+     *
+     * @param records
+     *     记录的读取器，顶层数组展开为元素
+     * @param window
+     *     已经读取但还没有交出响应的最大记录数
+     * @param results
+     *     按记录顺序接收响应，不会被并发调用
+     *
+     * @return 所有响应交出后完成
+     */
+    public CompletableFuture<Void> applyBatch(NodeReader records, int window, Consumer<CrossWayResponse> results) {
+        return new BatchDispatcher(request -> apply(CompletableFuture.completedFuture(request)), records, window,
+                                   results).start();
+    }
+
+    /**
+     * 过滤器和发送器在每个 Transport 上只解析一次
+     *
+     * @return 编译后的管道
+     */
+    private Pipeline getPipeline() {
+        Pipeline current = pipeline;
+        if (current == null) {
+            synchronized (this) {
+                current = pipeline;
+                if (current == null) {
+                    current = compile();
+                    pipeline = current;
+                }
             }
-            return response;
-        });
-
-        for (ExtensionClass<Filter> filterExtensionClass : getFilters()) {
-            Filter filter = filterExtensionClass.getExtInstance();
-            responseCompletableFuture = responseCompletableFuture.thenCompose(
-                response -> CompletableFuture.supplyAsync(() -> {
-                    filter.response(response);
-                    return response;
-                }));
         }
-        return responseCompletableFuture;
+        return current;
+    }
+
+    /**
+     * 路由目标的管道，第一次使用时编译
+     *
+     * @param target
+     *     目标发送配置，为null时使用 Transport 自己的发送配置
+     *
+     * @return 管道
+     */
+    private Pipeline getPipeline(SenderConfig target) {
+        if (target == null) {
+            return getPipeline();
+        }
+        Pipeline current = routes.get(target);
+        if (current == null) {
+            current = routes.computeIfAbsent(target, this::compile);
+        }
+        return current;
     }
 
-    private Collection<ExtensionClass<Filter>> getFilters() {
-        return ExtensionLoaderFactory.getExtensionLoader(Filter.class).getAllExtensions().values();
+    /**
+     * 重新解析过滤器链，新的管道构建完成后整体替换，正在处理的消息继续使用旧的管道
+     */
+    public void refresh() {
+        pipeline = compile();
+        routes.clear();
+    }
+
+    /**
+     * 取消配置订阅，监听配置或发送配置停止时调用，见 {@link ListenerConfig#unRegistry()} 和
+     * {@link SenderConfig#unRefer()}
+     */
+    public void destroy() {
+        CrossWayConfigs.unSubscribe(CrossWayOptions.DEFAULT_FILTERS, filterListener);
+    }
+
+    /**
+     * 全局过滤器配置变化时重新编译，配置有误时记录日志并继续使用旧的管道
+     */
+    private void onFiltersChanged() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh filters of transport {}, keep the previous pipeline",
+                      senderConfig != null ? senderConfig.getId() : null, e);
+        }
+    }
+
+    private Pipeline compile() {
+        return compile(senderConfig);
+    }
+
+    private Pipeline compile(SenderConfig senderConfig) {
+        Send send = getSend(senderConfig);
+        List<String> protocols = new ArrayList<>(1);
+        List<Class<?>> sends = new ArrayList<>(1);
+        if (send instanceof ClusterSend) {
+            // 集群按成员的协议和发送器匹配 @Only 和 @Exclude，而不是集群发送器本身
+            for (Member member : ((ClusterSend) send).getMembers()) {
+                protocols.add(member.getConfig().getProtocol());
+                sends.add(member.getSend().getClass());
+            }
+        } else {
+            protocols.add(senderConfig != null ? senderConfig.getProtocol() : null);
+            sends.add(send != null ? send.getClass() : null);
+        }
+        FilterChain chain = FilterChain.build(getFilterAliases(senderConfig), protocols, sends);
+        return new Pipeline(chain.getFilters(), senderConfig, Pipeline.isBlocking(send), getExecutor());
+    }
+
+    /**
+     * 过滤器别名：构造参数优先，其次是发送配置，最后是全局配置
+     *
+     * @param senderConfig
+     *     发送配置
+     *
+     * @return 过滤器别名
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> getFilterAliases(SenderConfig senderConfig) {
+        if (filters != null) {
+            return Arrays.asList(filters);
+        }
+        if (senderConfig != null) {
+            return senderConfig.getFilters();
+        }
+        return CrossWayConfigs.getListValue(CrossWayOptions.DEFAULT_FILTERS);
+    }
+
+    /**
+     * 业务线程池，未单独设置时使用发送配置上的线程池
+     *
+     * @return 线程池
+     */
+    public Executor getExecutor() {
+        Executor current = executor;
+        if (current == null) {
+            current = senderConfig != null ? senderConfig.getExecutor() : ForkJoinPool.commonPool();
+            executor = current;
+        }
+        return current;
+    }
+
+    /**
+     * 为当前 Transport 单独指定线程池，需要在第一次调用之前设置
+     *
+     * @param executor
+     *     线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 按内容在多个发送配置之间路由，没有规则命中时使用路由表的默认目标，没有默认目标时使用 Transport 自己的发送配置。
+     * 每个目标单独编译管道，过滤器按目标的发送配置解析；所有目标共用 Transport 的线程池
+     *
+     * @param router
+     *     路由表，为null时取消路由
+     */
+    public void setRouter(Router router) {
+        this.router = router;
+        routes.clear();
+    }
+
+    public Router getRouter() {
+        return router;
+    }
+
+    private static Send getSend(SenderConfig senderConfig) {
+        if (senderConfig == null) {
+            return null;
+        }
+        try {
+            return senderConfig.refer();
+        } catch (Throwable e) {
+            // 发送器创建失败时在发送阶段统一转换为错误响应
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+package crossway.transport;
+
+import crossway.common.WayConstants;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.struct.NamedThreadFactory;
+import crossway.utils.ExceptionUtils;
+import crossway.utils.StringUtils;
+import crossway.utils.ThreadPoolUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static crossway.common.CrossWayOptions.SERVER_POOL_TYPE;
+
+/**
+ * Transport 的业务线程池
+ * <p>
+ * 支持三种模型：
+ * <ul>
+ * <li>direct：在调用线程上直接执行</li>
+ * <li>fixed：独立的固定大小线程池</li>
+ * <li>virtual：每个消息一个虚拟线程（JDK 21+）</li>
+ * </ul>
+ * 每个线程池都提供队列深度和活跃线程数两个指标。
+ * <p>
+ * 线程池已满时 {@link #execute(Runnable)} 抛出 {@link java.util.concurrent.RejectedExecutionException}，
+ * 不在调用线程（可能是 IO 线程）上执行；通过 {@link java.util.concurrent.CompletableFuture} 的异步方法提交时，
+ * 对应的 future 以该异常完成。
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+public abstract class TransportExecutor implements Executor {
+
+    /**
+     * 已创建且没有关闭的线程池，名称可以重复：同名的配置各自拥有自己的线程池
+     */
+    private static final Set<TransportExecutor> EXECUTORS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private final String name;
+
+    protected TransportExecutor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 创建线程池
+     *
+     * @param name
+     *     名称，一般是配置id
+     * @param type
+     *     线程池类型
+     * @param core
+     *     核心线程数
+     * @param max
+     *     最大线程数
+     * @param queue
+     *     队列大小
+     * @param preStart
+     *     是否初始化核心线程
+     *
+     * @return 线程池
+     */
+    public static TransportExecutor create(String name, String type, int core, int max, int queue,
+                                           boolean preStart) {
+        TransportExecutor executor;
+        if (StringUtils.isEmpty(type) || WayConstants.THREADPOOL_TYPE_FIXED.equals(type)) {
+            executor = new Fixed(name, core, max, queue, preStart);
+        } else if (WayConstants.THREADPOOL_TYPE_DIRECT.equals(type)) {
+            executor = new Direct(name);
+        } else if (WayConstants.THREADPOOL_TYPE_VIRTUAL.equals(type)) {
+            ExecutorService service = ThreadPoolUtils.newVirtualThreadPerTaskExecutor();
+            if (service != null) {
+                executor = new Virtual(name, service);
+            } else {
+                if (log.isWarnEnabled()) {
+                    log.warn("Virtual threads need JDK 21+, executor {} falls back to fixed pool.", name);
+                }
+                executor = new Fixed(name, core, max, queue, preStart);
+            }
+        } else {
+            throw ExceptionUtils.buildRuntime(SERVER_POOL_TYPE, type);
+        }
+        EXECUTORS.add(executor);
+        return executor;
+    }
+
+    /**
+     * 全部已创建的线程池，用于监控
+     *
+     * @return 线程池
+     */
+    public static Collection<TransportExecutor> getExecutors() {
+        return Collections.unmodifiableCollection(EXECUTORS);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 线程池类型
+     *
+     * @return 类型
+     */
+    public abstract String getType();
+
+    /**
+     * 排队中的任务数
+     *
+     * @return 队列深度
+     */
+    public abstract int getQueueSize();
+
+    /**
+     * 正在执行任务的线程数
+     *
+     * @return 活跃线程数
+     */
+    public abstract int getActiveCount();
+
+    /**
+     * 关闭线程池
+     */
+    public void shutdown() {
+        EXECUTORS.remove(this);
+    }
+
+    /**
+     * 调用线程直接执行
+     */
+    private static final class Direct extends TransportExecutor {
+        private final AtomicInteger active = new AtomicInteger();
+
+        private Direct(String name) {
+            super(name);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            active.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String getType() {
+            return WayConstants.THREADPOOL_TYPE_DIRECT;
+        }
+
+        @Override
+        public int getQueueSize() {
+            return 0;
+        }
+
+        @Override
+        public int getActiveCount() {
+            return active.get();
+        }
+    }
+
+    /**
+     * 独立线程池，线程用满且队列满时拒绝任务
+     */
+    private static final class Fixed extends TransportExecutor {
+        private final ThreadPoolExecutor pool;
+
+        private Fixed(String name, int core, int max, int queue, boolean preStart) {
+            super(name);
+            if (core <= 0) {
+                throw new CrossWayRuntimeException("Core size of executor " + name + " must > 0, but was " + core);
+            }
+            this.pool = ThreadPoolUtils.newFixedThreadPool(core, max, queue, new NamedThreadFactory(name, true),
+                                                           new ThreadPoolExecutor.AbortPolicy());
+            if (preStart) {
+                pool.prestartAllCoreThreads();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pool.execute(command);
+        }
+
+        @Override
+        public String getType() {
+            return WayConstants.THREADPOOL_TYPE_FIXED;
+        }
+
+        @Override
+        public int getQueueSize() {
+            return pool.getQueue().size();
+        }
+
+        @Override
+        public int getActiveCount() {
+            return pool.getActiveCount();
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 每个任务一个虚拟线程
+     */
+    private static final class Virtual extends TransportExecutor {
+        private final ExecutorService service;
+        private final AtomicInteger   active = new AtomicInteger();
+
+        private Virtual(String name, ExecutorService service) {
+            super(name);
+            this.service = service;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            service.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public String getType() {
+            return WayConstants.THREADPOOL_TYPE_VIRTUAL;
+        }
+
+        @Override
+        public int getQueueSize() {
+            return 0;
+        }
+
+        @Override
+        public int getActiveCount() {
+            return active.get();
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+            service.shutdown();
+        }
+    }
+}
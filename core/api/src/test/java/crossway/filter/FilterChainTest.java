@@ -0,0 +1,54 @@
+package crossway.filter;
+
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author iamcyw
+ **/
+public class FilterChainTest {
+
+    @Test
+    public void testAccept() {
+        Assertions.assertTrue(FilterChain.accept(NoopFilter.class, "http", String.class));
+
+        Assertions.assertTrue(FilterChain.accept(OnlyHttpFilter.class, "http", Object.class));
+        Assertions.assertFalse(FilterChain.accept(OnlyHttpFilter.class, "default-send", Object.class));
+
+        Assertions.assertFalse(FilterChain.accept(ExcludeStringFilter.class, "http", String.class));
+        Assertions.assertTrue(FilterChain.accept(ExcludeStringFilter.class, "http", Object.class));
+    }
+
+    @Test
+    public void testAcceptAllTargets() {
+        // 例如集群的成员：作用于每一个成员时才保留
+        Assertions.assertTrue(FilterChain.accept(OnlyHttpFilter.class, Arrays.asList("http", "http"),
+                                                 Arrays.<Class<?>>asList(Object.class, Object.class)));
+        Assertions.assertFalse(FilterChain.accept(OnlyHttpFilter.class, Arrays.asList("http", "default-send"),
+                                                  Arrays.<Class<?>>asList(Object.class, Object.class)));
+        Assertions.assertFalse(FilterChain.accept(ExcludeStringFilter.class, Arrays.asList("http", "http"),
+                                                  Arrays.<Class<?>>asList(Object.class, String.class)));
+    }
+
+    private static class NoopFilter implements Filter {
+        @Override
+        public void request(CrossWayRequest request) {
+        }
+
+        @Override
+        public void response(CrossWayResponse response) {
+        }
+    }
+
+    @Only(name = "http")
+    private static class OnlyHttpFilter extends NoopFilter {
+    }
+
+    @Exclude(classes = CharSequence.class)
+    private static class ExcludeStringFilter extends NoopFilter {
+    }
+}
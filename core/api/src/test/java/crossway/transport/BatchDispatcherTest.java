@@ -0,0 +1,246 @@
+package crossway.transport;
+
+import crossway.codec.NodeReader;
+import crossway.codec.NodeToken;
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author iamcyw
+ **/
+public class BatchDispatcherTest {
+
+    @Test
+    public void testOrderedWithinWindow() {
+        // 1, [2, 空位, 3, ..., 199], 200
+        List<Object[]> tokens = new ArrayList<>();
+        tokens.add(value(new Record(1)));
+        tokens.add(new Object[] {NodeToken.START_ARRAY, null});
+        tokens.add(value(new Record(2)));
+        tokens.add(value(new Record(-1, NodeType.MISSING)));
+        for (int i = 3; i < 200; i++) {
+            tokens.add(value(new Record(i)));
+        }
+        tokens.add(new Object[] {NodeToken.END_ARRAY, null});
+        tokens.add(value(new Record(200)));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        BatchDispatcher dispatcher = new BatchDispatcher(request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            request.onComplete(completed::incrementAndGet);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(ThreadLocalRandom.current().nextInt(3));
+                inFlight.decrementAndGet();
+                return echo(request);
+            });
+        }, new ListReader(tokens), 8, response -> results.add(((Record) response.getData()).id));
+
+        dispatcher.start().join();
+        Assertions.assertEquals(200, results.size());
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(i + 1, results.get(i).intValue());
+        }
+        Assertions.assertTrue(maxInFlight.get() <= 8);
+        Assertions.assertEquals(200, completed.get());
+    }
+
+    @Test
+    public void testReadOnlyOnStartingThread() {
+        List<Object[]> tokens = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            tokens.add(value(new Record(i)));
+        }
+        Set<Thread> readers = Collections.synchronizedSet(new HashSet<>());
+        List<Integer> results = new ArrayList<>();
+        AtomicReference<BatchDispatcher> self = new AtomicReference<>();
+        BatchDispatcher dispatcher = new BatchDispatcher(request -> CompletableFuture.supplyAsync(() -> {
+            sleep(1);
+            return echo(request);
+        }), new ListReader(tokens) {
+            @Override
+            public NodeToken next() throws IOException {
+                readers.add(Thread.currentThread());
+                return super.next();
+            }
+        }, 4, response -> {
+            // 回调不持有分发器的锁
+            Assertions.assertFalse(Thread.holdsLock(self.get()));
+            results.add(((Record) response.getData()).id);
+        });
+        self.set(dispatcher);
+
+        dispatcher.start().join();
+        Assertions.assertEquals(Collections.singleton(Thread.currentThread()), readers);
+        Assertions.assertEquals(50, results.size());
+    }
+
+    @Test
+    public void testReaderFailure() {
+        List<Object[]> tokens = new ArrayList<>();
+        tokens.add(value(new Record(1)));
+        tokens.add(null);
+        List<Integer> results = new ArrayList<>();
+        BatchDispatcher dispatcher = new BatchDispatcher(request -> CompletableFuture.completedFuture(echo(request)),
+                                                         new ListReader(tokens), 4,
+                                                         response -> results.add(((Record) response.getData()).id));
+        CompletionException e = Assertions.assertThrows(CompletionException.class, () -> dispatcher.start().join());
+        Assertions.assertTrue(e.getCause() instanceof IOException);
+        Assertions.assertEquals(Collections.singletonList(1), results);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new BatchDispatcher(null, new ListReader(tokens), 0, null));
+    }
+
+    private static CrossWayResponse echo(CrossWayRequest request) {
+        CrossWayResponse response = new CrossWayResponse();
+        response.setData(request.getData());
+        return response;
+    }
+
+    private static Object[] value(Node node) {
+        return new Object[] {NodeToken.VALUE, node};
+    }
+
+    private static void sleep(int millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 按给定的事件读取，null 表示读取失败
+     */
+    private static class ListReader implements NodeReader {
+        private final List<Object[]> tokens;
+        private       int            index = -1;
+
+        private ListReader(List<Object[]> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public NodeToken next() throws IOException {
+            if (++index >= tokens.size()) {
+                return null;
+            }
+            if (tokens.get(index) == null) {
+                throw new IOException("broken");
+            }
+            return currentToken();
+        }
+
+        @Override
+        public NodeToken currentToken() {
+            return index < tokens.size() ? (NodeToken) tokens.get(index)[0] : null;
+        }
+
+        @Override
+        public String getFieldName() {
+            return null;
+        }
+
+        @Override
+        public Node getValue() {
+            return (Node) tokens.get(index)[1];
+        }
+
+        @Override
+        public Node readTree() {
+            return getValue();
+        }
+
+        @Override
+        public void skipChildren() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class Record extends Node {
+        private final int      id;
+        private final NodeType type;
+
+        private Record(int id) {
+            this(id, NodeType.NUMBER);
+        }
+
+        private Record(int id, NodeType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        @Override
+        public NodeType getNodeType() {
+            return type;
+        }
+
+        @Override
+        public Node get(int index) {
+            return null;
+        }
+
+        @Override
+        public String asText() {
+            return String.valueOf(id);
+        }
+
+        @Override
+        public Node path(String fieldName) {
+            return null;
+        }
+
+        @Override
+        public Node path(int index) {
+            return null;
+        }
+
+        @Override
+        public Node findParent(String fieldName) {
+            return null;
+        }
+
+        @Override
+        public List<Node> findValues(String fieldName, List<Node> foundSoFar) {
+            return foundSoFar;
+        }
+
+        @Override
+        public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
+            return foundSoFar;
+        }
+
+        @Override
+        public List<Node> findParents(String fieldName, List<Node> foundSoFar) {
+            return foundSoFar;
+        }
+
+        @Override
+        public Node findValue(String fieldName) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package crossway.transport;
+
+import crossway.codec.RawPayload;
+import crossway.codec.Serializer;
+import crossway.codec.node.Node;
+import crossway.common.WayConstants;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+import crossway.ext.api.Extension;
+import crossway.filter.BodyAccess;
+import crossway.filter.Filter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author iamcyw
+ **/
+public class PipelineTest {
+
+    @Test
+    public void testFusedOnCallerThread() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new ThreadFilter(threads), new ThreadFilter(threads)), null,
+                                         false, ForkJoinPool.commonPool());
+        // 请求过滤器 | 异步发送、响应过滤器
+        Assertions.assertEquals(2, pipeline.stageCount());
+
+        CrossWayResponse response = pipeline.apply(CompletableFuture.completedFuture(new CrossWayRequest())).join();
+        // 没有发送配置，发送阶段返回错误响应
+        Assertions.assertTrue(response.isError());
+        Assertions.assertEquals(4, threads.size());
+        for (Thread thread : threads) {
+            Assertions.assertSame(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void testBlockingFilterSplitsStage() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new ThreadFilter(threads), new BlockingFilter(threads)), null,
+                                         false, ForkJoinPool.commonPool());
+        // 请求过滤器 | 阻塞请求过滤器 | 异步发送、响应过滤器 | 阻塞响应过滤器
+        Assertions.assertEquals(4, pipeline.stageCount());
+
+        pipeline.apply(CompletableFuture.completedFuture(new CrossWayRequest())).join();
+        Assertions.assertEquals(4, threads.size());
+        Assertions.assertSame(Thread.currentThread(), threads.get(0));
+        Assertions.assertNotSame(Thread.currentThread(), threads.get(1));
+    }
+
+    @Test
+    public void testRejectedStageReturnsLimitError() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Collections.singletonList(new BlockingFilter(threads)), null, false,
+                                         command -> {
+                                             throw new RejectedExecutionException("full");
+                                         });
+        CrossWayResponse response = pipeline.apply(CompletableFuture.completedFuture(new CrossWayRequest())).join();
+        Assertions.assertTrue(response.isError());
+        Assertions.assertEquals(WayErrorType.SERVER_LIMIT, ((CrossWayException) response.getError()).getErrorType());
+        Assertions.assertTrue(threads.isEmpty());
+    }
+
+    @Test
+    public void testPayloadPassThrough() {
+        List<RawPayload> seen = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new PayloadFilter(seen), new ReadingFilter(seen)), null, false,
+                                         ForkJoinPool.commonPool());
+        CrossWayRequest request = new CrossWayRequest();
+        RawPayload payload = new RawPayload(new byte[] {'{', '}'}, "counting");
+        request.setPayload(payload);
+        CountingSerializer.ENCODED.set(0);
+        pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        // 没有修改消息体的过滤器，原始字节保留且不解码
+        Assertions.assertSame(payload, seen.get(0));
+        Assertions.assertSame(payload, request.getPayload());
+        Assertions.assertEquals(0, CountingSerializer.ENCODED.get());
+    }
+
+    @Test
+    public void testMutatingFilterReleasesPayload() {
+        List<RawPayload> seen = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new PayloadFilter(seen), new MutatingFilter(seen)), null, false,
+                                         ForkJoinPool.commonPool());
+        CrossWayRequest request = new CrossWayRequest();
+        request.setPayload(new RawPayload(new byte[] {'{', '}'}, "counting"));
+        CountingSerializer.ENCODED.set(0);
+        pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        Assertions.assertNull(seen.get(0));
+        Assertions.assertNull(request.getPayload());
+        Assertions.assertEquals(1, CountingSerializer.ENCODED.get());
+    }
+
+    @Test
+    public void testPrepareBeforeRelease() {
+        List<RawPayload> seen = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new MutatingFilter(seen), new PreparingFilter(seen)), null,
+                                         false, ForkJoinPool.commonPool());
+        CrossWayRequest request = new CrossWayRequest();
+        RawPayload payload = new RawPayload(new byte[] {'{', '}'}, "counting");
+        request.setPayload(payload);
+        CrossWayResponse response = pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        // prepare 在解码释放之前执行，响应使用请求的上下文
+        Assertions.assertSame(payload, seen.get(0));
+        Assertions.assertNull(seen.get(1));
+        Assertions.assertSame(request.getContext(), response.getContext());
+        Assertions.assertEquals("prepared", response.getContext().get("key"));
+    }
+
+    @Test
+    public void testDelayDoesNotHoldThread() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Collections.singletonList(new DelayingFilter(threads)), null, false,
+                                         ForkJoinPool.commonPool());
+        // 开始 | 推迟、请求过滤器 | 异步发送、响应过滤器
+        Assertions.assertEquals(3, pipeline.stageCount());
+
+        long start = System.nanoTime();
+        CompletableFuture<CrossWayResponse> future = pipeline.apply(CompletableFuture.completedFuture(
+            new CrossWayRequest()));
+        // 推迟期间调用线程已经返回
+        Assertions.assertTrue(threads.isEmpty());
+        future.join();
+        Assertions.assertTrue(System.nanoTime() - start >= DelayingFilter.DELAY);
+        Assertions.assertNotSame(Thread.currentThread(), threads.get(0));
+    }
+
+    @Test
+    public void testDelayResumesOffDelayThread() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        TransportExecutor direct = TransportExecutor.create("test-delay-direct", WayConstants.THREADPOOL_TYPE_DIRECT,
+                                                            1, 1, 0, false);
+        try {
+            Pipeline pipeline = new Pipeline(Collections.singletonList(new DelayingFilter(threads)), null, false,
+                                             direct);
+            pipeline.apply(CompletableFuture.completedFuture(new CrossWayRequest())).join();
+            // direct 线程池不能在共享的定时线程上继续执行
+            Assertions.assertTrue(threads.get(0).getName().contains("pipeline-delay-resume"), threads.get(0).getName());
+        } finally {
+            direct.shutdown();
+        }
+    }
+
+    @Test
+    public void testDelayRejectSkipsToResponse() {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(Arrays.asList(new ThreadFilter(threads), new RejectingFilter(threads),
+                                                       new ThreadFilter(threads)), null, false,
+                                         ForkJoinPool.commonPool());
+        CrossWayRequest request = new CrossWayRequest();
+        CrossWayResponse response = pipeline.apply(CompletableFuture.completedFuture(request)).join();
+
+        Assertions.assertTrue(response.isError());
+        Assertions.assertEquals(WayErrorType.SERVER_LIMIT, ((CrossWayException) response.getError()).getErrorType());
+        Assertions.assertTrue(request.isFailed());
+        // 第一个请求过滤器和三个响应过滤器，拒绝之后的请求过滤器和发送被跳过
+        Assertions.assertEquals(4, threads.size());
+    }
+
+    private static class RejectingFilter extends ThreadFilter {
+        private RejectingFilter(List<Thread> threads) {
+            super(threads);
+        }
+
+        @Override
+        public long delay(CrossWayRequest request) {
+            throw new CrossWayException(WayErrorType.SERVER_LIMIT, "limited");
+        }
+    }
+
+    private static class DelayingFilter extends ThreadFilter {
+        private static final long DELAY = 50_000_000L;
+
+        private DelayingFilter(List<Thread> threads) {
+            super(threads);
+        }
+
+        @Override
+        public long delay(CrossWayRequest request) {
+            return DELAY;
+        }
+    }
+
+    private static class PreparingFilter extends PayloadFilter {
+        private PreparingFilter(List<RawPayload> seen) {
+            super(seen);
+        }
+
+        @Override
+        public void prepare(CrossWayRequest request) {
+            request.putContext("key", "prepared");
+            super.request(request);
+        }
+    }
+
+    private static class PayloadFilter implements Filter {
+        private final List<RawPayload> seen;
+
+        private PayloadFilter(List<RawPayload> seen) {
+            this.seen = seen;
+        }
+
+        @Override
+        public void request(CrossWayRequest request) {
+            seen.add(request.getPayload());
+        }
+
+        @Override
+        public void response(CrossWayResponse response) {
+        }
+    }
+
+    @BodyAccess(readOnly = true)
+    private static class ReadingFilter extends PayloadFilter {
+        private ReadingFilter(List<RawPayload> seen) {
+            super(seen);
+        }
+    }
+
+    @BodyAccess
+    private static class MutatingFilter extends PayloadFilter {
+        private MutatingFilter(List<RawPayload> seen) {
+            super(seen);
+        }
+    }
+
+    /**
+     * 只记录解码次数
+     */
+    @Extension("counting")
+    public static class CountingSerializer implements Serializer {
+        static final AtomicInteger ENCODED = new AtomicInteger();
+
+        @Override
+        public Node encode(Object object, Map<String, Object> context) {
+            ENCODED.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        public Object decode(Node data, Map<String, Object> context) {
+            return null;
+        }
+    }
+
+    private static class ThreadFilter implements Filter {
+        private final List<Thread> threads;
+
+        private ThreadFilter(List<Thread> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public void request(CrossWayRequest request) {
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void response(CrossWayResponse response) {
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    @Blocking
+    private static class BlockingFilter extends ThreadFilter {
+        private BlockingFilter(List<Thread> threads) {
+            super(threads);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package crossway.transport;
+
+import crossway.common.WayConstants;
+import crossway.config.SenderConfig;
+import crossway.exception.CrossWayRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author iamcyw
+ **/
+public class TransportExecutorTest {
+
+    @Test
+    public void testDirect() {
+        TransportExecutor executor = TransportExecutor.create("test-direct", WayConstants.THREADPOOL_TYPE_DIRECT, 1,
+                                                              1, 0, false);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        executor.execute(() -> thread.set(Thread.currentThread()));
+        Assertions.assertSame(Thread.currentThread(), thread.get());
+        Assertions.assertEquals(0, executor.getActiveCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFixed() {
+        TransportExecutor executor = TransportExecutor.create("test-fixed", WayConstants.THREADPOOL_TYPE_FIXED, 1, 2,
+                                                              0, true);
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+        Assertions.assertTrue(thread.getName().contains("test-fixed"));
+        Assertions.assertTrue(TransportExecutor.getExecutors().contains(executor));
+        executor.shutdown();
+        Assertions.assertFalse(TransportExecutor.getExecutors().contains(executor));
+    }
+
+    @Test
+    public void testSameName() {
+        TransportExecutor first = TransportExecutor.create("test-same", WayConstants.THREADPOOL_TYPE_FIXED, 1, 1, 0,
+                                                           false);
+        TransportExecutor second = TransportExecutor.create("test-same", WayConstants.THREADPOOL_TYPE_FIXED, 1, 1, 0,
+                                                            false);
+        // 同名的线程池互不影响
+        Assertions.assertEquals("first", CompletableFuture.supplyAsync(() -> "first", first).join());
+        Assertions.assertTrue(TransportExecutor.getExecutors().contains(first));
+        Assertions.assertTrue(TransportExecutor.getExecutors().contains(second));
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void testRejectWhenFull() throws InterruptedException {
+        TransportExecutor executor = TransportExecutor.create("test-full", WayConstants.THREADPOOL_TYPE_FIXED, 1, 1,
+                                                              0, false);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await();
+        try {
+            CompletableFuture<Thread> future = CompletableFuture.completedFuture("").thenApplyAsync(
+                ignore -> Thread.currentThread(), executor);
+            // 不在调用线程上执行，future 以拒绝异常完成
+            CompletionException e = Assertions.assertThrows(CompletionException.class, future::join);
+            Assertions.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnRefer() {
+        SenderConfig config = new SenderConfig().setId("test-unrefer");
+        config.setPoolType(WayConstants.THREADPOOL_TYPE_FIXED);
+        TransportExecutor executor = config.getExecutor();
+        Assertions.assertTrue(TransportExecutor.getExecutors().contains(executor));
+        config.unRefer();
+        Assertions.assertFalse(TransportExecutor.getExecutors().contains(executor));
+        // 再次使用时创建新的线程池
+        TransportExecutor recreated = config.getExecutor();
+        Assertions.assertNotSame(executor, recreated);
+        config.unRefer();
+    }
+
+    @Test
+    public void testUnknownType() {
+        Assertions.assertThrows(CrossWayRuntimeException.class,
+                                () -> TransportExecutor.create("test-unknown", "unknown", 1, 1, 0, false));
+    }
+}
@@ -0,0 +1,58 @@
+package crossway.transport;
+
+import crossway.common.CrossWayConfigs;
+import crossway.common.CrossWayOptions;
+import crossway.config.ListenerConfig;
+import crossway.exception.CrossWayRuntimeException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author iamcyw
+ **/
+public class TransportTest {
+
+    @Test
+    public void testUnsubscribeOnTeardown() {
+        Object filters = CrossWayConfigs.getListValue(CrossWayOptions.DEFAULT_FILTERS);
+        AtomicInteger refreshed = new AtomicInteger();
+        ListenerConfig listenerConfig = new ListenerConfig();
+        new Transport(listenerConfig, null) {
+            @Override
+            public void refresh() {
+                refreshed.incrementAndGet();
+            }
+        };
+        try {
+            CrossWayConfigs.putValue(CrossWayOptions.DEFAULT_FILTERS, Collections.singletonList("a"));
+            Assertions.assertEquals(1, refreshed.get());
+
+            listenerConfig.unRegistry();
+            CrossWayConfigs.putValue(CrossWayOptions.DEFAULT_FILTERS, Arrays.asList("a", "b"));
+            Assertions.assertEquals(1, refreshed.get());
+        } finally {
+            CrossWayConfigs.putValue(CrossWayOptions.DEFAULT_FILTERS, filters);
+        }
+    }
+
+    @Test
+    public void testRefreshFailureKeepsPipeline() {
+        Object filters = CrossWayConfigs.getListValue(CrossWayOptions.DEFAULT_FILTERS);
+        Transport transport = new Transport(null, null) {
+            @Override
+            public void refresh() {
+                throw new CrossWayRuntimeException("Unknown filter alias");
+            }
+        };
+        try {
+            CrossWayConfigs.putValue(CrossWayOptions.DEFAULT_FILTERS, Collections.singletonList("missing"));
+        } finally {
+            transport.destroy();
+            CrossWayConfigs.putValue(CrossWayOptions.DEFAULT_FILTERS, filters);
+        }
+    }
+}
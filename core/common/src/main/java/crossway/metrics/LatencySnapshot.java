@@ -0,0 +1,84 @@
+package crossway.metrics;
+
+/**
+ * {@link LatencyHistogram} 的快照，单位为纳秒
+ * <p>
+ * 分位数返回所在桶的最大值（不超过记录到的最大值），与真实值的相对误差不超过 1/32。
+ *
+ * @author iamcyw
+ **/
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long   count;
+    private final long   sum;
+    private final long   max;
+
+    LatencySnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getP50() {
+        return percentile(50);
+    }
+
+    public long getP90() {
+        return percentile(90);
+    }
+
+    public long getP99() {
+        return percentile(99);
+    }
+
+    public long getP999() {
+        return percentile(99.9);
+    }
+
+    /**
+     * 分位数
+     *
+     * @param percentile
+     *     百分比，0 到 100
+     *
+     * @return 纳秒，没有记录时为0
+     */
+    public long percentile(double percentile) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highest(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + (long) getMean() + ", p50=" + getP50() + ", p99=" + getP99() + ", max="
+               + max;
+    }
+}
@@ -0,0 +1,91 @@
+package crossway.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按路由保存 {@link RouteMetrics}，第一次使用时创建并注册到平台 MBeanServer
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+public final class MetricsRegistry {
+
+    public static final String DOMAIN = "crossway";
+
+    private static final ConcurrentMap<String, RouteMetrics> ROUTES = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * 路由的指标
+     *
+     * @param route
+     *     路由，即发送配置的 id
+     *
+     * @return 指标
+     */
+    public static RouteMetrics route(String route) {
+        RouteMetrics metrics = ROUTES.get(route);
+        if (metrics == null) {
+            metrics = ROUTES.computeIfAbsent(route, key -> {
+                RouteMetrics created = new RouteMetrics(key);
+                register(created);
+                return created;
+            });
+        }
+        return metrics;
+    }
+
+    /**
+     * @return 已经有指标的路由
+     */
+    public static Collection<RouteMetrics> routes() {
+        return Collections.unmodifiableCollection(ROUTES.values());
+    }
+
+    /**
+     * 删除路由的指标并取消 JMX 注册
+     *
+     * @param route
+     *     路由
+     */
+    public static void remove(String route) {
+        if (ROUTES.remove(route) != null) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = objectName(route);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                log.warn("Failed to unregister metrics of route {}", route, e);
+            }
+        }
+    }
+
+    static ObjectName objectName(String route) throws JMException {
+        return new ObjectName(DOMAIN + ":type=RouteMetrics,name=" + ObjectName.quote(route));
+    }
+
+    private static void register(RouteMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(metrics.getRoute());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register metrics of route {}", metrics.getRoute(), e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package crossway.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个路由（发送配置）的吞吐量、错误数和各阶段的延迟
+ *
+ * @author iamcyw
+ **/
+public final class RouteMetrics implements RouteMetricsMXBean {
+
+    private final String route;
+
+    private final LongAdder        requests = new LongAdder();
+    private final LongAdder        errors   = new LongAdder();
+    private final LatencyHistogram filter   = new LatencyHistogram();
+    private final LatencyHistogram send     = new LatencyHistogram();
+    private final LatencyHistogram response = new LatencyHistogram();
+
+    RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    /**
+     * 记录一次请求，没有经过的阶段传入负数
+     *
+     * @param error
+     *     是否失败
+     * @param filterNanos
+     *     过滤阶段
+     * @param sendNanos
+     *     发送阶段
+     * @param responseNanos
+     *     响应阶段
+     */
+    public void record(boolean error, long filterNanos, long sendNanos, long responseNanos) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        if (filterNanos >= 0) {
+            filter.record(filterNanos);
+        }
+        if (sendNanos >= 0) {
+            send.record(sendNanos);
+        }
+        if (responseNanos >= 0) {
+            response.record(responseNanos);
+        }
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public LatencySnapshot getFilterLatency() {
+        return filter.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getSendLatency() {
+        return send.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getResponseLatency() {
+        return response.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        requests.reset();
+        errors.reset();
+        filter.reset();
+        send.reset();
+        response.reset();
+    }
+}
@@ -0,0 +1,32 @@
+package crossway.metrics;
+
+/**
+ * 通过 JMX 读取的路由指标，注册在 {@code crossway:type=RouteMetrics,name=<路由>}
+ *
+ * @author iamcyw
+ **/
+public interface RouteMetricsMXBean {
+
+    String getRoute();
+
+    long getRequests();
+
+    long getErrors();
+
+    /**
+     * @return 管道开始到发送开始，包括请求过滤器和请求体解码
+     */
+    LatencySnapshot getFilterLatency();
+
+    /**
+     * @return 发送开始到收到响应
+     */
+    LatencySnapshot getSendLatency();
+
+    /**
+     * @return 收到响应到请求完成，包括响应过滤器和写出响应
+     */
+    LatencySnapshot getResponseLatency();
+
+    void reset();
+}
@@ -81,6 +81,38 @@ public class ClassUtils {
         }
     }
 
+    /**
+     * 得到基本类型对应的包装类，其他类型原样返回
+     *
+     * @param clazz
+     *     Class类
+     *
+     * @return 包装类
+     */
+    public static Class<?> getWrapperClass(Class<?> clazz) {
+        if (!clazz.isPrimitive()) {
+            return clazz;
+        } else if (clazz == int.class) {
+            return Integer.class;
+        } else if (clazz == boolean.class) {
+            return Boolean.class;
+        } else if (clazz == long.class) {
+            return Long.class;
+        } else if (clazz == byte.class) {
+            return Byte.class;
+        } else if (clazz == double.class) {
+            return Double.class;
+        } else if (clazz == short.class) {
+            return Short.class;
+        } else if (clazz == float.class) {
+            return Float.class;
+        } else if (clazz == char.class) {
+            return Character.class;
+        } else {
+            return Void.class;
+        }
+    }
+
     /**
      * 得到包装类的默认值
      *
@@ -1,6 +1,10 @@
 package crossway.utils;
 
+import crossway.struct.UnsafeByteArrayOutputStream;
+
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 
@@ -56,4 +60,24 @@ public class IOUtils {
             }
         }
     }
+
+    /**
+     * 读取输入流的全部内容，不关闭输入流
+     *
+     * @param in
+     *     输入流
+     *
+     * @return 全部字节
+     * @throws IOException
+     *     读取失败
+     */
+    public static byte[] readAll(InputStream in) throws IOException {
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream(256);
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
 }
@@ -0,0 +1,105 @@
+package crossway.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池工具类
+ *
+ * @author iamcyw
+ **/
+public final class ThreadPoolUtils {
+
+    /**
+     * 空闲线程存活时间（毫秒）
+     */
+    public static final int DEFAULT_KEEP_ALIVE = 60000;
+
+    private ThreadPoolUtils() {
+    }
+
+    /**
+     * 固定大小线程池
+     *
+     * @param corePoolSize
+     *     初始化线程池
+     * @param maximumPoolSize
+     *     最大线程池
+     * @param queueSize
+     *     队列大小，小于等于0时不排队
+     * @param threadFactory
+     *     线程工厂
+     * @param handler
+     *     拒绝策略
+     *
+     * @return 线程池
+     */
+    public static ThreadPoolExecutor newFixedThreadPool(int corePoolSize, int maximumPoolSize, int queueSize,
+                                                        ThreadFactory threadFactory,
+                                                        RejectedExecutionHandler handler) {
+        return new ThreadPoolExecutor(corePoolSize, Math.max(corePoolSize, maximumPoolSize), DEFAULT_KEEP_ALIVE,
+                                      TimeUnit.MILLISECONDS, buildQueue(queueSize), threadFactory, handler);
+    }
+
+    /**
+     * 构建队列
+     *
+     * @param size
+     *     队列大小，小于等于0时为 {@link SynchronousQueue}
+     *
+     * @return 队列
+     */
+    public static BlockingQueue<Runnable> buildQueue(int size) {
+        return size > 0 ? new LinkedBlockingQueue<Runnable>(size) : new SynchronousQueue<Runnable>();
+    }
+
+    /**
+     * 是否支持虚拟线程（JDK 21+）
+     *
+     * @return 是否支持
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.FACTORY != null;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的线程池，仅在 JDK 21+ 上可用
+     *
+     * @return 线程池，不支持时返回null
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (VirtualThreads.FACTORY == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) VirtualThreads.FACTORY.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 目标版本是 1.8，通过反射查找虚拟线程的工厂方法
+     */
+    private static class VirtualThreads {
+        private static final Method FACTORY;
+
+        static {
+            Method method;
+            try {
+                method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                method = null;
+            }
+            FACTORY = method;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package crossway.impl.cluster;
+
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.codec.node.Node;
+import crossway.codec.node.NodePath;
+import crossway.common.CrossWayOptions;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.ext.api.Extension;
+import crossway.struct.PositiveAtomicCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按消息中的字段做一致性哈希，相同的值总是发往同一个成员；成员被摘除或加入时只有它负责的值会移动
+ * <p>
+ * 字段由集群的 {@link CrossWayOptions#CLUSTER_HASH_KEY} 参数指定，消息中没有该字段时轮询。
+ * 每个成员在环上有与权重成正比的虚拟节点，权重为100时 {@link #REPLICAS} 个。
+ *
+ * @author iamcyw
+ **/
+@Extension("consistentHash")
+public class ConsistentHashLoadBalancer extends LoadBalancer {
+
+    static final int REPLICAS = 160;
+
+    private final NodePath              key;
+    private final PositiveAtomicCounter counter = new PositiveAtomicCounter();
+
+    private volatile Ring ring;
+
+    public ConsistentHashLoadBalancer(SenderConfig senderConfig) {
+        super(senderConfig);
+        String path = senderConfig.getParameterOrGlobal(CrossWayOptions.CLUSTER_HASH_KEY, null);
+        this.key = path != null ? NodePath.compile(path) : null;
+    }
+
+    @Override
+    public Member select(List<Member> members, CrossWayRequest request) {
+        String value = key(request);
+        if (value == null) {
+            return members.get(counter.getAndIncrement() % members.size());
+        }
+        Ring current = ring;
+        if (current == null || current.members != members) {
+            current = new Ring(members);
+            ring = current;
+        }
+        return current.select(hash(value));
+    }
+
+    private String key(CrossWayRequest request) {
+        if (key == null) {
+            return null;
+        }
+        Node data = request.getData();
+        Node node = data != null ? key.get(data) : null;
+        return node != null && node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+
+    /**
+     * 64位 FNV-1a，再做一次混合使相近的字符串分散到环上
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * 排好序的虚拟节点
+     */
+    private static final class Ring {
+        private final List<Member> members;
+        private final long[]       points;
+        private final Member[]     owners;
+
+        private Ring(List<Member> members) {
+            this.members = members;
+            List<long[]> nodes = new ArrayList<>();
+            for (int m = 0; m < members.size(); m++) {
+                Member member = members.get(m);
+                int replicas = Math.max(1, REPLICAS * member.getWeight() / 100);
+                for (int i = 0; i < replicas; i++) {
+                    nodes.add(new long[] {hash(member.getConfig().getId() + "#" + i), m});
+                }
+            }
+            nodes.sort((a, b) -> Long.compare(a[0], b[0]));
+            this.points = new long[nodes.size()];
+            this.owners = new Member[nodes.size()];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = nodes.get(i)[0];
+                owners[i] = members.get((int) nodes.get(i)[1]);
+            }
+        }
+
+        private Member select(long hash) {
+            int i = Arrays.binarySearch(points, hash);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return owners[i == points.length ? 0 : i];
+        }
+    }
+}
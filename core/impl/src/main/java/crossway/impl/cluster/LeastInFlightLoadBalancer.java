@@ -0,0 +1,38 @@
+package crossway.impl.cluster;
+
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.ext.api.Extension;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 选择按权重折算后正在处理的请求最少的成员，从随机位置开始比较，相同时不会总是选中第一个
+ *
+ * @author iamcyw
+ **/
+@Extension("leastInFlight")
+public class LeastInFlightLoadBalancer extends LoadBalancer {
+
+    public LeastInFlightLoadBalancer(SenderConfig senderConfig) {
+        super(senderConfig);
+    }
+
+    @Override
+    public Member select(List<Member> members, CrossWayRequest request) {
+        int size = members.size();
+        int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+        Member best = members.get(start);
+        for (int k = 1; k < size; k++) {
+            Member member = members.get((start + k) % size);
+            // inFlight / weight 的比较，交叉相乘避免除法
+            if ((long) member.getInFlight() * best.getWeight() < (long) best.getInFlight() * member.getWeight()) {
+                best = member;
+            }
+        }
+        return best;
+    }
+}
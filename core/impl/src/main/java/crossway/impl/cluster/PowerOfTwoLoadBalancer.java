@@ -0,0 +1,46 @@
+package crossway.impl.cluster;
+
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.ext.api.Extension;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机选两个成员，取代价较低的一个。代价为延迟的移动平均乘以（正在处理的请求数 + 1），再除以权重
+ * <p>
+ * 还没有延迟记录的成员代价为0，会优先得到请求。
+ *
+ * @author iamcyw
+ **/
+@Extension("p2c")
+public class PowerOfTwoLoadBalancer extends LoadBalancer {
+
+    public PowerOfTwoLoadBalancer(SenderConfig senderConfig) {
+        super(senderConfig);
+    }
+
+    @Override
+    public Member select(List<Member> members, CrossWayRequest request) {
+        int size = members.size();
+        if (size == 1) {
+            return members.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(size);
+        int j = random.nextInt(size - 1);
+        if (j >= i) {
+            j++;
+        }
+        Member a = members.get(i);
+        Member b = members.get(j);
+        return cost(a) <= cost(b) ? a : b;
+    }
+
+    static double cost(Member member) {
+        return (double) member.getLatency() * (member.getInFlight() + 1) / member.getWeight();
+    }
+}
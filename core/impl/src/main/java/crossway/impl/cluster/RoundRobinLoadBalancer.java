@@ -0,0 +1,120 @@
+package crossway.impl.cluster;
+
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.ext.api.Extension;
+import crossway.struct.PositiveAtomicCounter;
+
+import java.util.List;
+
+/**
+ * 加权轮询
+ * <p>
+ * 成员变化时按平滑加权轮询预先算出一轮的顺序，之后每次选择只是一次计数器自增和数组下标，权重大的成员在一轮中均匀分布。
+ *
+ * @author iamcyw
+ **/
+@Extension("roundRobin")
+public class RoundRobinLoadBalancer extends LoadBalancer {
+
+    /**
+     * 一轮的最大长度，权重之和超过时按比例缩小
+     */
+    static final int MAX_SCHEDULE = 4096;
+
+    private final PositiveAtomicCounter counter = new PositiveAtomicCounter();
+
+    private volatile Schedule schedule;
+
+    public RoundRobinLoadBalancer(SenderConfig senderConfig) {
+        super(senderConfig);
+    }
+
+    @Override
+    public Member select(List<Member> members, CrossWayRequest request) {
+        Schedule current = schedule;
+        if (current == null || current.members != members) {
+            current = new Schedule(members);
+            schedule = current;
+        }
+        return current.select(counter.getAndIncrement());
+    }
+
+    /**
+     * 一轮的选择顺序
+     */
+    private static final class Schedule {
+        private final List<Member> members;
+        /**
+         * 权重都相同时为null，直接取模
+         */
+        private final int[]        order;
+
+        private Schedule(List<Member> members) {
+            this.members = members;
+            int size = members.size();
+            int[] weights = new int[size];
+            long total = 0;
+            boolean same = true;
+            for (int i = 0; i < size; i++) {
+                weights[i] = members.get(i).getWeight();
+                total += weights[i];
+                same &= weights[i] == weights[0];
+            }
+            if (same) {
+                this.order = null;
+                return;
+            }
+            int gcd = weights[0];
+            for (int weight : weights) {
+                gcd = gcd(gcd, weight);
+            }
+            total = 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] /= gcd;
+                total += weights[i];
+            }
+            if (total > MAX_SCHEDULE) {
+                long scaled = 0;
+                for (int i = 0; i < size; i++) {
+                    weights[i] = (int) Math.max(1, (long) weights[i] * MAX_SCHEDULE / total);
+                    scaled += weights[i];
+                }
+                total = scaled;
+            }
+            // 平滑加权轮询：每步所有成员加上自己的权重，选出当前值最大的，并减去总权重
+            int[] order = new int[(int) total];
+            long[] current = new long[size];
+            for (int k = 0; k < order.length; k++) {
+                int best = 0;
+                for (int i = 0; i < size; i++) {
+                    current[i] += weights[i];
+                    if (current[i] > current[best]) {
+                        best = i;
+                    }
+                }
+                current[best] -= total;
+                order[k] = best;
+            }
+            this.order = order;
+        }
+
+        private Member select(int sequence) {
+            if (order == null) {
+                return members.get(sequence % members.size());
+            }
+            return members.get(order[sequence % order.length]);
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+}
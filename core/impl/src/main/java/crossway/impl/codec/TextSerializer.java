@@ -6,6 +6,7 @@ import crossway.ext.api.Extension;
 import crossway.impl.codec.node.NullNode;
 import crossway.impl.codec.node.TextNode;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 @Extension("string")
@@ -14,6 +15,8 @@ public class TextSerializer implements Serializer {
     public Node encode(Object object, Map<String, Object> context) {
         if (object instanceof String) {
             return new TextNode((String) object);
+        } else if (object instanceof byte[]) {
+            return new TextNode(new String((byte[]) object, StandardCharsets.UTF_8));
         }
         return new NullNode();
     }
@@ -0,0 +1,112 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * {@link NodeArena} 分配的数组节点的元素列表，释放后可以标记为不可访问
+ *
+ * @author iamcyw
+ **/
+final class ArenaList extends ArrayList<Node> {
+
+    private static final long serialVersionUID = 8370219512644409217L;
+
+    private boolean released;
+
+    /**
+     * 标记为已释放，之后的任何访问都抛出 {@link IllegalStateException}
+     */
+    void poison() {
+        clear();
+        released = true;
+    }
+
+    private void check() {
+        if (released) {
+            throw new IllegalStateException("Node used after its arena was released");
+        }
+    }
+
+    @Override
+    public int size() {
+        check();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        check();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Node get(int index) {
+        check();
+        return super.get(index);
+    }
+
+    @Override
+    public Node set(int index, Node element) {
+        check();
+        return super.set(index, element);
+    }
+
+    @Override
+    public boolean add(Node node) {
+        check();
+        return super.add(node);
+    }
+
+    @Override
+    public void add(int index, Node element) {
+        check();
+        super.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Node> c) {
+        check();
+        return super.addAll(c);
+    }
+
+    @Override
+    public Node remove(int index) {
+        check();
+        return super.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        check();
+        super.clear();
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        check();
+        return super.iterator();
+    }
+
+    @Override
+    public ListIterator<Node> listIterator(int index) {
+        check();
+        return super.listIterator(index);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        check();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        check();
+        return super.hashCode();
+    }
+}
@@ -32,6 +32,18 @@ public class ArrayNode extends ContainerNode<ArrayNode> implements Serializable
         children = new ArrayList<Node>(capacity);
     }
 
+    /**
+     * 使用指定的元素列表，列表由调用者提供并保持可修改
+     */
+    public ArrayNode(NodeFactory nf, List<Node> children) {
+        super(nf);
+        this.children = children;
+    }
+
+    List<Node> children() {
+        return children;
+    }
+
     @Override
     public int size() {
         return this.children.size();
@@ -62,34 +74,61 @@ public class ArrayNode extends ContainerNode<ArrayNode> implements Serializable
 
     @Override
     public Node path(int index) {
-        return null;
+        Node node = get(index);
+        return node != null ? node : MissingNode.getInstance();
     }
 
     @Override
     public Node findParent(String fieldName) {
+        for (Node element : children) {
+            Node parent = element.findParent(fieldName);
+            if (parent != null) {
+                return parent;
+            }
+        }
         return null;
     }
 
     @Override
     public List<Node> findValues(String fieldName, List<Node> foundSoFar) {
-        return null;
+        for (Node element : children) {
+            foundSoFar = element.findValues(fieldName, foundSoFar);
+        }
+        return foundSoFar;
     }
 
     @Override
     public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
-        return null;
+        for (Node element : children) {
+            foundSoFar = element.findValuesAsText(fieldName, foundSoFar);
+        }
+        return foundSoFar;
     }
 
     @Override
     public List<Node> findParents(String fieldName, List<Node> foundSoFar) {
-        return null;
+        for (Node element : children) {
+            foundSoFar = element.findParents(fieldName, foundSoFar);
+        }
+        return foundSoFar;
     }
 
     @Override
     public Node findValue(String fieldName) {
+        for (Node element : children) {
+            Node value = element.findValue(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
         return null;
     }
 
+    @Override
+    public Node snapshot() {
+        return PersistentArrayNode.copyOf(this);
+    }
+
     @Override
     public ArrayNode removeAll() {
         return null;
@@ -0,0 +1,103 @@
+package crossway.impl.codec.node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 超出 long 范围的整数
+ *
+ * @author iamcyw
+ **/
+public class BigIntegerNode extends NumericNode {
+    private static final long serialVersionUID = 8143924735710359026L;
+
+    private static final BigInteger MIN_INTEGER = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger MAX_INTEGER = BigInteger.valueOf(Integer.MAX_VALUE);
+    private static final BigInteger MIN_LONG    = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_LONG    = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final BigInteger value;
+
+    public BigIntegerNode(BigInteger value) {
+        this.value = value;
+    }
+
+    public static BigIntegerNode valueOf(BigInteger v) {
+        return new BigIntegerNode(v);
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return value.shortValue();
+    }
+
+    @Override
+    public int intValue() {
+        return value.intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return value.longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return value.floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return value.doubleValue();
+    }
+
+    @Override
+    public BigDecimal decimalValue() {
+        return new BigDecimal(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return value;
+    }
+
+    @Override
+    public String asText() {
+        return value.toString();
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isBigInteger() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToInt() {
+        return value.compareTo(MIN_INTEGER) >= 0 && value.compareTo(MAX_INTEGER) <= 0;
+    }
+
+    @Override
+    public boolean canConvertToLong() {
+        return value.compareTo(MIN_LONG) >= 0 && value.compareTo(MAX_LONG) <= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof BigIntegerNode && ((BigIntegerNode) o).value.equals(value));
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+}
@@ -25,6 +25,11 @@ public class BinaryNode extends ValueNode {
         return NodeType.BINARY;
     }
 
+    @Override
+    public byte[] binaryValue() {
+        return data;
+    }
+
     @Override
     public String asText() {
         return Base64Variants.getDefaultVariant().encode(data, false);
@@ -97,6 +97,18 @@ public abstract class ContainerNode<T extends ContainerNode<T>> extends BaseNode
         return _nodeFactory.objectNode();
     }
 
+    /**
+     * Factory method that constructs and returns an empty {@link ObjectNode} with an initial capacity Construction is
+     * done using registered {@link NodeFactory}
+     *
+     * @param capacity
+     *     the expected number of fields
+     */
+    @Override
+    public final ObjectNode objectNode(int capacity) {
+        return _nodeFactory.objectNode(capacity);
+    }
+
     @Override
     public final ValueNode numberNode(byte v) {
         return _nodeFactory.numberNode(v);
@@ -0,0 +1,106 @@
+package crossway.impl.codec.node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 精确的十进制数
+ *
+ * @author iamcyw
+ **/
+public class DecimalNode extends NumericNode {
+    private static final long serialVersionUID = -2860521339604652795L;
+
+    public static final DecimalNode ZERO = new DecimalNode(BigDecimal.ZERO);
+
+    private static final BigDecimal MIN_INTEGER = BigDecimal.valueOf(Integer.MIN_VALUE);
+    private static final BigDecimal MAX_INTEGER = BigDecimal.valueOf(Integer.MAX_VALUE);
+    private static final BigDecimal MIN_LONG    = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_LONG    = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final BigDecimal value;
+
+    public DecimalNode(BigDecimal value) {
+        this.value = value;
+    }
+
+    public static DecimalNode valueOf(BigDecimal d) {
+        return new DecimalNode(d);
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return value.shortValue();
+    }
+
+    @Override
+    public int intValue() {
+        return value.intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return value.longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return value.floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return value.doubleValue();
+    }
+
+    @Override
+    public BigDecimal decimalValue() {
+        return value;
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return value.toBigInteger();
+    }
+
+    @Override
+    public String asText() {
+        return value.toString();
+    }
+
+    @Override
+    public boolean isFloatingPointNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isBigDecimal() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToInt() {
+        return value.compareTo(MIN_INTEGER) >= 0 && value.compareTo(MAX_INTEGER) <= 0;
+    }
+
+    @Override
+    public boolean canConvertToLong() {
+        return value.compareTo(MIN_LONG) >= 0 && value.compareTo(MAX_LONG) <= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // 与 BigDecimal.equals 不同，1.0 和 1.00 相等
+        return o == this || (o instanceof DecimalNode && ((DecimalNode) o).value.compareTo(value) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(doubleValue());
+    }
+}
@@ -0,0 +1,98 @@
+package crossway.impl.codec.node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * double 数字节点
+ *
+ * @author iamcyw
+ **/
+public class DoubleNode extends NumericNode {
+    private static final long serialVersionUID = -7412716316542402745L;
+
+    private final double value;
+
+    public DoubleNode(double value) {
+        this.value = value;
+    }
+
+    public static DoubleNode valueOf(double d) {
+        return new DoubleNode(d);
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return (short) value;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public BigDecimal decimalValue() {
+        return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return decimalValue().toBigInteger();
+    }
+
+    @Override
+    public String asText() {
+        return Double.toString(value);
+    }
+
+    @Override
+    public boolean isFloatingPointNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isDouble() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToInt() {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean canConvertToLong() {
+        return value >= Long.MIN_VALUE && value <= Long.MAX_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof DoubleNode && Double.compare(((DoubleNode) o).value, value) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+}
@@ -0,0 +1,319 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link ObjectNode} 的字段表
+ * <p>
+ * 字段数不超过 {@link #MAX_FLAT} 时用两个平行数组按插入顺序保存，查找为线性扫描，不为每个字段分配 entry 对象；
+ * 超过后转换成 {@link LinkedHashMap}。两种形式都保持插入顺序。
+ *
+ * @author iamcyw
+ **/
+final class FieldMap extends AbstractMap<String, Node> implements Serializable {
+
+    private static final long serialVersionUID = -2270871392837214516L;
+
+    /**
+     * 平行数组形式的最大字段数
+     */
+    static final int MAX_FLAT = 16;
+
+    private static final String[] EMPTY_KEYS   = new String[0];
+    private static final Node[]   EMPTY_VALUES = new Node[0];
+
+    /**
+     * 已经被 {@link NodeArena} 释放的字段表使用的 map，任何访问都抛出异常
+     */
+    private static final LinkedHashMap<String, Node> RELEASED = new ReleasedMap();
+
+    private String[]                    keys   = EMPTY_KEYS;
+    private Node[]                      values = EMPTY_VALUES;
+    private int                         size;
+    private LinkedHashMap<String, Node> map;
+
+    FieldMap() {
+    }
+
+    /**
+     * @param capacity
+     *     预计的字段数，超过 {@link #MAX_FLAT} 时直接使用 {@link LinkedHashMap}
+     */
+    FieldMap(int capacity) {
+        if (capacity > MAX_FLAT) {
+            map = new LinkedHashMap<>(capacity * 4 / 3 + 1);
+        } else if (capacity > 0) {
+            keys = new String[capacity];
+            values = new Node[capacity];
+        }
+    }
+
+    @Override
+    public int size() {
+        return map != null ? map.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map != null ? map.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    @Override
+    public Node get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Node put(String key, Node value) {
+        if (map != null) {
+            return map.put(key, value);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            Node old = values[index];
+            values[index] = value;
+            return old;
+        }
+        if (size == MAX_FLAT) {
+            promote().put(key, value);
+            return null;
+        }
+        if (size == keys.length) {
+            int capacity = size == 0 ? 4 : Math.min(size << 1, MAX_FLAT);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size++] = value;
+        return null;
+    }
+
+    @Override
+    public Node remove(Object key) {
+        if (map != null) {
+            return map.remove(key);
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Node old = values[index];
+        removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (map == RELEASED) {
+            throw ReleasedMap.released();
+        }
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+        map = null;
+    }
+
+    /**
+     * 清空字段，保留平行数组供下一次使用
+     */
+    void recycle() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        map = null;
+    }
+
+    /**
+     * 标记为已释放，之后的任何访问都抛出 {@link IllegalStateException}
+     */
+    void poison() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+        map = RELEASED;
+    }
+
+    @Override
+    public Set<Entry<String, Node>> entrySet() {
+        return map != null ? map.entrySet() : new FlatEntrySet();
+    }
+
+    private int indexOf(Object key) {
+        String[] keys = this.keys;
+        for (int i = 0, n = size; i < n; i++) {
+            String k = keys[i];
+            if (k == key || (k != null && k.equals(key))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+    }
+
+    private LinkedHashMap<String, Node> promote() {
+        LinkedHashMap<String, Node> promoted = new LinkedHashMap<>(MAX_FLAT * 4);
+        for (int i = 0; i < size; i++) {
+            promoted.put(keys[i], values[i]);
+        }
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+        map = promoted;
+        return promoted;
+    }
+
+    private final class FlatEntrySet extends AbstractSet<Entry<String, Node>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<String, Node>> iterator() {
+            return new Iterator<Entry<String, Node>>() {
+                private int cursor;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < size;
+                }
+
+                @Override
+                public Entry<String, Node> next() {
+                    if (cursor >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = cursor++;
+                    return new FlatEntry(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    cursor = last;
+                    last = -1;
+                }
+            };
+        }
+    }
+
+    /**
+     * 指向数组下标的 entry，只在迭代期间有效
+     */
+    private final class FlatEntry implements Map.Entry<String, Node> {
+        private final int index;
+
+        private FlatEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[index];
+        }
+
+        @Override
+        public Node getValue() {
+            return values[index];
+        }
+
+        @Override
+        public Node setValue(Node value) {
+            Node old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return getKey().equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    private static final class ReleasedMap extends LinkedHashMap<String, Node> {
+
+        private static final long serialVersionUID = 4671537930227542185L;
+
+        private static IllegalStateException released() {
+            return new IllegalStateException("Node used after its arena was released");
+        }
+
+        @Override
+        public int size() {
+            throw released();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            throw released();
+        }
+
+        @Override
+        public Node get(Object key) {
+            throw released();
+        }
+
+        @Override
+        public Node put(String key, Node value) {
+            throw released();
+        }
+
+        @Override
+        public Node remove(Object key) {
+            throw released();
+        }
+
+        @Override
+        public Set<Entry<String, Node>> entrySet() {
+            throw released();
+        }
+    }
+}
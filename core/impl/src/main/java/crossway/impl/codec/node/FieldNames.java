@@ -0,0 +1,144 @@
+package crossway.impl.codec.node;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 字段名常量池
+ * <p>
+ * 解析器直接用输入中的字节或字符查找字段名，命中时返回已有的 {@link String}，不创建新的字符串；同一个字段名在所有消息中
+ * 共用一个实例，hashCode 在放入时已经计算好，{@link ObjectNode} 查找字段时不再重复计算。
+ * <p>
+ * 表的大小固定为 {@link #SIZE}，按 hash 直接映射，冲突时新的字段名覆盖旧的；只缓存不超过 {@link #MAX_LENGTH}
+ * 个字符的 ASCII 字段名。表项不可变，并发读写不需要加锁，最坏情况只是多创建一个字符串。
+ *
+ * @author iamcyw
+ **/
+public final class FieldNames {
+
+    /**
+     * 表的大小，必须是2的幂
+     */
+    static final int SIZE       = 4096;
+    /**
+     * 缓存的字段名的最大长度
+     */
+    static final int MAX_LENGTH = 32;
+
+    private static final Symbol[] TABLE = new Symbol[SIZE];
+
+    private FieldNames() {
+    }
+
+    /**
+     * 获取 UTF-8 字节对应的字段名
+     *
+     * @param utf8
+     *     字节
+     * @param start
+     *     开始位置
+     * @param stop
+     *     结束位置（不含）
+     *
+     * @return 字段名
+     */
+    public static String of(byte[] utf8, int start, int stop) {
+        int length = stop - start;
+        if (length > MAX_LENGTH) {
+            return new String(utf8, start, length, StandardCharsets.UTF_8);
+        }
+        int hash = 0;
+        for (int i = start; i < stop; i++) {
+            byte b = utf8[i];
+            if (b < 0) {
+                return new String(utf8, start, length, StandardCharsets.UTF_8);
+            }
+            hash = 31 * hash + b;
+        }
+        int slot = slot(hash);
+        Symbol symbol = TABLE[slot];
+        if (symbol != null && symbol.hash == hash && symbol.matches(utf8, start, length)) {
+            return symbol.name;
+        }
+        // 都是 ASCII，按 ISO-8859-1 解码最快
+        String name = new String(utf8, start, length, StandardCharsets.ISO_8859_1);
+        TABLE[slot] = new Symbol(name);
+        return name;
+    }
+
+    /**
+     * 获取字符序列中的字段名
+     *
+     * @param chars
+     *     字符序列
+     * @param start
+     *     开始位置
+     * @param stop
+     *     结束位置（不含）
+     *
+     * @return 字段名
+     */
+    public static String of(CharSequence chars, int start, int stop) {
+        int length = stop - start;
+        if (length > MAX_LENGTH) {
+            return chars.subSequence(start, stop).toString();
+        }
+        int hash = 0;
+        for (int i = start; i < stop; i++) {
+            char c = chars.charAt(i);
+            if (c >= 0x80) {
+                return chars.subSequence(start, stop).toString();
+            }
+            hash = 31 * hash + c;
+        }
+        int slot = slot(hash);
+        Symbol symbol = TABLE[slot];
+        if (symbol != null && symbol.hash == hash && symbol.matches(chars, start, length)) {
+            return symbol.name;
+        }
+        String name = chars.subSequence(start, stop).toString();
+        TABLE[slot] = new Symbol(name);
+        return name;
+    }
+
+    private static int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (SIZE - 1);
+    }
+
+    /**
+     * 不可变的表项，通过数据竞争发布也能看到完整的内容
+     */
+    private static final class Symbol {
+        private final String name;
+        private final int    hash;
+
+        private Symbol(String name) {
+            this.name = name;
+            // 同时缓存到字符串中
+            this.hash = name.hashCode();
+        }
+
+        private boolean matches(byte[] utf8, int start, int length) {
+            if (name.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (name.charAt(i) != utf8[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(CharSequence chars, int start, int length) {
+            if (name.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (name.charAt(i) != chars.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package crossway.impl.codec.node;
+
+import java.io.Serializable;
+
+/**
+ * 不可变的字段名到位置的映射
+ * <p>
+ * 按字段名 hash 每次取 5 位的前缀树（HAMT），每层用位图压缩，只为存在的分支分配空间。修改只复制路径上的节点，
+ * 其余节点与原映射共享。hash 在当前层之前完全相同的字段名放在冲突节点中线性查找。
+ *
+ * @author iamcyw
+ **/
+final class FieldTrie implements Serializable {
+
+    private static final long serialVersionUID = -4751953817960219504L;
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    static final FieldTrie EMPTY = new FieldTrie(false, 0, new Object[0]);
+
+    /**
+     * 冲突节点，array 中是线性排列的字段名和位置
+     */
+    private final boolean  collision;
+    private final int      bitmap;
+    /**
+     * 每个分支占两项：字段名和位置，或者 null 和子节点
+     */
+    private final Object[] array;
+
+    private FieldTrie(boolean collision, int bitmap, Object[] array) {
+        this.collision = collision;
+        this.bitmap = bitmap;
+        this.array = array;
+    }
+
+    /**
+     * 查找字段的位置
+     *
+     * @return 位置，不存在时返回-1
+     */
+    int find(String name) {
+        return find(0, name.hashCode(), name);
+    }
+
+    FieldTrie put(String name, int position) {
+        return put(0, name.hashCode(), name, position);
+    }
+
+    /**
+     * 删除字段
+     *
+     * @return 新的映射，删除后为空时返回 {@link #EMPTY}
+     */
+    FieldTrie remove(String name) {
+        FieldTrie trie = remove(0, name.hashCode(), name);
+        return trie == null ? EMPTY : trie;
+    }
+
+    private int find(int shift, int hash, String name) {
+        if (collision) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (name.equals(array[i])) {
+                    return (Integer) array[i + 1];
+                }
+            }
+            return -1;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((bitmap & bit) == 0) {
+            return -1;
+        }
+        int i = slot(bit);
+        Object key = array[i];
+        if (key == null) {
+            return ((FieldTrie) array[i + 1]).find(shift + BITS, hash, name);
+        }
+        return name.equals(key) ? (Integer) array[i + 1] : -1;
+    }
+
+    private FieldTrie put(int shift, int hash, String name, int position) {
+        if (collision) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (name.equals(array[i])) {
+                    return replace(i + 1, position);
+                }
+            }
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, array.length);
+            copy[array.length] = name;
+            copy[array.length + 1] = position;
+            return new FieldTrie(true, 0, copy);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int i = slot(bit);
+        if ((bitmap & bit) == 0) {
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            copy[i] = name;
+            copy[i + 1] = position;
+            System.arraycopy(array, i, copy, i + 2, array.length - i);
+            return new FieldTrie(false, bitmap | bit, copy);
+        }
+        Object key = array[i];
+        Object value = array[i + 1];
+        if (key == null) {
+            return replace(i + 1, ((FieldTrie) value).put(shift + BITS, hash, name, position));
+        }
+        if (name.equals(key)) {
+            return replace(i + 1, position);
+        }
+        String other = (String) key;
+        int otherHash = other.hashCode();
+        FieldTrie sub = otherHash == hash
+                        ? new FieldTrie(true, 0, new Object[] {other, value, name, position})
+                        : EMPTY.put(shift + BITS, otherHash, other, (Integer) value)
+                               .put(shift + BITS, hash, name, position);
+        Object[] copy = array.clone();
+        copy[i] = null;
+        copy[i + 1] = sub;
+        return new FieldTrie(false, bitmap, copy);
+    }
+
+    /**
+     * @return 删除后为空时返回null
+     */
+    private FieldTrie remove(int shift, int hash, String name) {
+        if (collision) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (name.equals(array[i])) {
+                    return array.length == 2 ? null : new FieldTrie(true, 0, without(i));
+                }
+            }
+            return this;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((bitmap & bit) == 0) {
+            return this;
+        }
+        int i = slot(bit);
+        Object key = array[i];
+        if (key == null) {
+            FieldTrie sub = (FieldTrie) array[i + 1];
+            FieldTrie removed = sub.remove(shift + BITS, hash, name);
+            if (removed == sub) {
+                return this;
+            }
+            if (removed != null) {
+                return replace(i + 1, removed);
+            }
+        } else if (!name.equals(key)) {
+            return this;
+        }
+        return bitmap == bit ? null : new FieldTrie(false, bitmap ^ bit, without(i));
+    }
+
+    private int slot(int bit) {
+        return Integer.bitCount(bitmap & (bit - 1)) << 1;
+    }
+
+    private FieldTrie replace(int i, Object value) {
+        Object[] copy = array.clone();
+        copy[i] = value;
+        return new FieldTrie(collision, bitmap, copy);
+    }
+
+    private Object[] without(int i) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, i);
+        System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+        return copy;
+    }
+}
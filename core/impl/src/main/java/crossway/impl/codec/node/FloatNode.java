@@ -0,0 +1,99 @@
+package crossway.impl.codec.node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * float 数字节点
+ *
+ * @author iamcyw
+ **/
+public class FloatNode extends NumericNode {
+    private static final long serialVersionUID = 4869458126043207932L;
+
+    private final float value;
+
+    public FloatNode(float value) {
+        this.value = value;
+    }
+
+    public static FloatNode valueOf(float f) {
+        return new FloatNode(f);
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return (short) value;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public BigDecimal decimalValue() {
+        // 按十进制文本转换，避免 float 转 double 后多出的尾数
+        return new BigDecimal(Float.toString(value));
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return decimalValue().toBigInteger();
+    }
+
+    @Override
+    public String asText() {
+        return Float.toString(value);
+    }
+
+    @Override
+    public boolean isFloatingPointNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isFloat() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToInt() {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean canConvertToLong() {
+        return value >= Long.MIN_VALUE && value <= Long.MAX_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof FloatNode && Float.compare(((FloatNode) o).value, value) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Float.hashCode(value);
+    }
+}
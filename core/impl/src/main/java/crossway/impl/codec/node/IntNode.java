@@ -1,16 +1,17 @@
 package crossway.impl.codec.node;
 
 
-import crossway.codec.node.NodeType;
-import crossway.utils.StringUtils;
-
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public class IntNode extends NumericNode {
+    private static final long serialVersionUID = 3461431546017539393L;
 
-    final static int MIN_CANONICAL = -1;
-    final static int MAX_CANONICAL = 10;
+    /**
+     * 缓存的范围，与 {@link LongNode} 相同
+     */
+    final static int MIN_CANONICAL = -128;
+    final static int MAX_CANONICAL = 1023;
 
     private final static IntNode[] CANONICALS;
 
@@ -22,9 +23,6 @@ public class IntNode extends NumericNode {
         }
     }
 
-    /**
-     * Integer value this node contains
-     */
     protected final int value;
 
     public IntNode(int value) {
@@ -40,7 +38,12 @@ public class IntNode extends NumericNode {
 
     @Override
     public Number numberValue() {
-        return null;
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return (short) value;
     }
 
     @Override
@@ -49,52 +52,62 @@ public class IntNode extends NumericNode {
     }
 
     @Override
-    public int asInt() {
-        return this.intValue();
+    public long longValue() {
+        return value;
     }
 
     @Override
-    public long longValue() {
-        return 0;
+    public float floatValue() {
+        return value;
     }
 
     @Override
     public double doubleValue() {
-        return 0;
+        return value;
     }
 
     @Override
     public BigDecimal decimalValue() {
-        return null;
+        return BigDecimal.valueOf(value);
     }
 
     @Override
     public BigInteger bigIntegerValue() {
-        return null;
+        return BigInteger.valueOf(value);
     }
 
     @Override
     public String asText() {
-        return StringUtils.toString(this.value);
+        return Integer.toString(value);
     }
 
     @Override
-    public boolean isInt() {
+    public boolean isIntegralNumber() {
         return true;
     }
 
     @Override
-    public NodeType getNodeType() {
-        return NodeType.NUMBER;
+    public boolean isInt() {
+        return true;
     }
 
     @Override
     public boolean canConvertToInt() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean canConvertToLong() {
-        return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof IntNode && ((IntNode) o).value == value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
     }
 }
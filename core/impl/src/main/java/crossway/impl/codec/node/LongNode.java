@@ -1,26 +1,47 @@
 package crossway.impl.codec.node;
 
-import crossway.codec.node.NodeType;
-
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public class LongNode extends NumericNode {
+    private static final long serialVersionUID = -6384307236291474734L;
+
+    private final static LongNode[] CANONICALS;
 
-    private final Long value;
+    static {
+        int count = IntNode.MAX_CANONICAL - IntNode.MIN_CANONICAL + 1;
+        CANONICALS = new LongNode[count];
+        for (int i = 0; i < count; ++i) {
+            CANONICALS[i] = new LongNode(IntNode.MIN_CANONICAL + i);
+        }
+    }
 
-    public LongNode(Long value) {
+    private final long value;
+
+    public LongNode(long value) {
         this.value = value;
     }
 
+    public static LongNode valueOf(long l) {
+        if (l > IntNode.MAX_CANONICAL || l < IntNode.MIN_CANONICAL) {
+            return new LongNode(l);
+        }
+        return CANONICALS[(int) l - IntNode.MIN_CANONICAL];
+    }
+
     @Override
     public Number numberValue() {
-        return null;
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return (short) value;
     }
 
     @Override
     public int intValue() {
-        return 0;
+        return (int) value;
     }
 
     @Override
@@ -29,47 +50,57 @@ public class LongNode extends NumericNode {
     }
 
     @Override
-    public long asLong() {
-        return this.longValue();
+    public float floatValue() {
+        return value;
     }
 
     @Override
     public double doubleValue() {
-        return 0;
+        return value;
     }
 
     @Override
     public BigDecimal decimalValue() {
-        return null;
+        return BigDecimal.valueOf(value);
     }
 
     @Override
     public BigInteger bigIntegerValue() {
-        return null;
+        return BigInteger.valueOf(value);
     }
 
     @Override
     public String asText() {
-        return null;
+        return Long.toString(value);
     }
 
     @Override
-    public NodeType getNodeType() {
-        return null;
+    public boolean isIntegralNumber() {
+        return true;
     }
 
     @Override
     public boolean canConvertToInt() {
-        return false;
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
     }
 
     @Override
     public boolean canConvertToLong() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean isLong() {
         return true;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof LongNode && ((LongNode) o).value == value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
 }
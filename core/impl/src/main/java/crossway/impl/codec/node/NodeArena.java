@@ -0,0 +1,195 @@
+package crossway.impl.codec.node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次请求内分配的容器节点，请求处理完后整体回收
+ * <p>
+ * {@link #factory()} 分配的 {@link ObjectNode} 和 {@link ArrayNode} 在 {@link #release()} 时清空，放回当前线程的池中，
+ * 下一次请求在同一线程上分配时直接复用。只回收容器节点：值节点会被快照和缓存共享，不能确定何时不再使用。
+ * <p>
+ * 释放后节点不能再被访问。打开检查模式（系统属性 {@value #CHECK_PROPERTY} 为 true 或
+ * {@link #setChecking(boolean)}）时释放的节点不再复用，之后的任何访问都抛出 {@link IllegalStateException}，
+ * 用于在测试中发现释放后仍然持有节点的代码。
+ * <p>
+ * 一个 arena 同一时间只能在一个线程上使用。
+ *
+ * @author iamcyw
+ **/
+public final class NodeArena {
+
+    /**
+     * 序列化上下文中保存 arena 的键
+     */
+    public static final String CONTEXT_KEY    = NodeArena.class.getName();
+    public static final String CHECK_PROPERTY = "crossway.node.arena.check";
+
+    /**
+     * 每个线程每种容器最多缓存的节点数
+     */
+    static final int MAX_POOLED = 1024;
+    /**
+     * 元素超过此数量的数组不回收，避免池中长期持有很大的数组
+     */
+    static final int MAX_RECYCLED_SIZE = 1024;
+
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
+    private static volatile boolean checking = Boolean.getBoolean(CHECK_PROPERTY);
+
+    private final List<ObjectNode> objects = new ArrayList<>();
+    private final List<ArrayNode>  arrays  = new ArrayList<>();
+    private final Factory          factory = new Factory();
+
+    /**
+     * 最近一次分配所在线程的池
+     */
+    private Pool    pool;
+    private boolean released;
+
+    private NodeArena() {
+    }
+
+    public static NodeArena open() {
+        return new NodeArena();
+    }
+
+    /**
+     * 序列化上下文中的 arena 的工厂
+     *
+     * @param context
+     *     序列化上下文，可以为null
+     *
+     * @return 上下文中有 arena 时返回它的工厂，否则返回 {@link NodeFactory#instance}
+     */
+    public static NodeFactory factory(Map<String, Object> context) {
+        Object arena = context == null ? null : context.get(CONTEXT_KEY);
+        return arena instanceof NodeArena ? ((NodeArena) arena).factory : NodeFactory.instance;
+    }
+
+    public static boolean isChecking() {
+        return checking;
+    }
+
+    public static void setChecking(boolean checking) {
+        NodeArena.checking = checking;
+    }
+
+    /**
+     * @return 从这个 arena 分配容器节点的工厂
+     */
+    public NodeFactory factory() {
+        return factory;
+    }
+
+    /**
+     * 回收分配的所有容器节点，重复调用没有作用
+     */
+    public void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        Pool pool = POOL.get();
+        this.pool = null;
+        boolean poison = checking;
+        for (ObjectNode object : objects) {
+            FieldMap children = (FieldMap) object._children;
+            if (poison) {
+                children.poison();
+            } else if (pool.objects.size() < MAX_POOLED) {
+                children.recycle();
+                pool.objects.push(object);
+            }
+        }
+        for (ArrayNode array : arrays) {
+            ArenaList children = (ArenaList) array.children();
+            if (poison) {
+                children.poison();
+            } else if (pool.arrays.size() < MAX_POOLED && children.size() <= MAX_RECYCLED_SIZE) {
+                children.clear();
+                pool.arrays.push(array);
+            }
+        }
+        objects.clear();
+        arrays.clear();
+    }
+
+    private ObjectNode objectNode(int capacity) {
+        checkOpen();
+        ObjectNode node = pool().objects.poll();
+        if (node == null) {
+            node = new ObjectNode(NodeFactory.instance, new FieldMap(capacity));
+        }
+        objects.add(node);
+        return node;
+    }
+
+    private ArrayNode arrayNode(int capacity) {
+        checkOpen();
+        ArrayNode node = pool().arrays.poll();
+        if (node == null) {
+            ArenaList children = new ArenaList();
+            children.ensureCapacity(capacity);
+            node = new ArrayNode(NodeFactory.instance, children);
+        }
+        arrays.add(node);
+        return node;
+    }
+
+    private Pool pool() {
+        Pool current = pool;
+        if (current == null || current.owner != Thread.currentThread()) {
+            current = POOL.get();
+            pool = current;
+        }
+        return current;
+    }
+
+    private void checkOpen() {
+        if (released) {
+            throw new IllegalStateException("Node arena already released");
+        }
+    }
+
+    /**
+     * 线程的节点池
+     */
+    private static final class Pool {
+        private final Thread                 owner   = Thread.currentThread();
+        private final ArrayDeque<ObjectNode> objects = new ArrayDeque<>();
+        private final ArrayDeque<ArrayNode>  arrays  = new ArrayDeque<>();
+    }
+
+    /**
+     * 容器节点从 arena 分配，值节点与 {@link NodeFactory#instance} 相同。分配的节点自身使用默认工厂，
+     * 通过它们创建的子节点不受 arena 管理
+     */
+    private final class Factory extends NodeFactory {
+
+        private static final long serialVersionUID = -1590356213795402836L;
+
+        @Override
+        public ArrayNode arrayNode() {
+            return NodeArena.this.arrayNode(0);
+        }
+
+        @Override
+        public ArrayNode arrayNode(int capacity) {
+            return NodeArena.this.arrayNode(capacity);
+        }
+
+        @Override
+        public ObjectNode objectNode() {
+            return NodeArena.this.objectNode(0);
+        }
+
+        @Override
+        public ObjectNode objectNode(int capacity) {
+            return NodeArena.this.objectNode(capacity);
+        }
+    }
+}
@@ -56,5 +56,7 @@ public interface NodeCreator {
 
     public ObjectNode objectNode();
 
+    public ObjectNode objectNode(int capacity);
+
 
 }
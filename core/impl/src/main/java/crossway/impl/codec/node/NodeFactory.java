@@ -56,62 +56,71 @@ public class NodeFactory implements NodeCreator, Serializable {
 
     @Override
     public NumericNode numberNode(short v) {
-        return null;
+        return ShortNode.valueOf(v);
     }
 
     @Override
-    public NumericNode numberNode(Short value) {
-        return null;
+    public ValueNode numberNode(Short value) {
+        return (value == null) ? nullNode() : ShortNode.valueOf(value);
     }
 
     @Override
     public IntNode numberNode(int v) {
-        return new IntNode(v);
+        return IntNode.valueOf(v);
     }
 
     @Override
-    public IntNode numberNode(Integer value) {
-        return new IntNode(value);
+    public ValueNode numberNode(Integer value) {
+        return (value == null) ? nullNode() : IntNode.valueOf(value);
     }
 
     @Override
     public NumericNode numberNode(long v) {
-        return new LongNode(v);
+        return LongNode.valueOf(v);
     }
 
     @Override
-    public NumericNode numberNode(Long value) {
-        return new LongNode(value);
+    public ValueNode numberNode(Long value) {
+        return (value == null) ? nullNode() : LongNode.valueOf(value);
     }
 
     @Override
-    public NumericNode numberNode(BigInteger v) {
-        return null;
+    public ValueNode numberNode(BigInteger v) {
+        return (v == null) ? nullNode() : BigIntegerNode.valueOf(v);
     }
 
     @Override
     public NumericNode numberNode(float v) {
-        return null;
+        return FloatNode.valueOf(v);
     }
 
     @Override
-    public NumericNode numberNode(Float value) {
-        return null;
+    public ValueNode numberNode(Float value) {
+        return (value == null) ? nullNode() : FloatNode.valueOf(value);
     }
 
     @Override
     public NumericNode numberNode(double v) {
-        return null;
+        return DoubleNode.valueOf(v);
     }
 
     @Override
-    public NumericNode numberNode(Double value) {
-        return null;
+    public ValueNode numberNode(Double value) {
+        return (value == null) ? nullNode() : DoubleNode.valueOf(value);
     }
 
+    /**
+     * 十进制数节点，没有设置精确保留时去掉结尾的0
+     */
     @Override
-    public NumericNode numberNode(BigDecimal v) {
-        return null;
+    public ValueNode numberNode(BigDecimal v) {
+        if (v == null) {
+            return nullNode();
+        }
+        if (_cfgBigDecimalExact) {
+            return DecimalNode.valueOf(v);
+        }
+        return v.signum() == 0 ? DecimalNode.ZERO : DecimalNode.valueOf(v.stripTrailingZeros());
     }
 
     @Override
@@ -155,6 +164,14 @@ public class NodeFactory implements NodeCreator, Serializable {
         return new ObjectNode(this);
     }
 
+    /**
+     * Factory method for constructing an empty JSON Object node with an initial capacity
+     */
+    @Override
+    public ObjectNode objectNode(int capacity) {
+        return new ObjectNode(this, capacity);
+    }
+
     public DateNode dateNode(Date date) {
         return new DateNode(date);
     }
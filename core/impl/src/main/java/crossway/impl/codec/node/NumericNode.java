@@ -1,11 +1,18 @@
 package crossway.impl.codec.node;
 
+import crossway.codec.node.NodeType;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public abstract class NumericNode extends ValueNode {
     private static final long serialVersionUID = -2520994235104800755L;
 
+    @Override
+    public final NodeType getNodeType() {
+        return NodeType.NUMBER;
+    }
+
     @Override
     public abstract Number numberValue();
 
@@ -29,4 +36,19 @@ public abstract class NumericNode extends ValueNode {
 
     @Override
     public abstract boolean canConvertToLong();
+
+    @Override
+    public final int asInt(int defaultValue) {
+        return intValue();
+    }
+
+    @Override
+    public final long asLong(long defaultValue) {
+        return longValue();
+    }
+
+    @Override
+    public final double asDouble(double defaultValue) {
+        return doubleValue();
+    }
 }
@@ -12,19 +12,27 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ObjectNode extends ContainerNode<ObjectNode> implements Serializable {
     private static final long serialVersionUID = 1L; // since 2.10
 
-    // Note: LinkedHashMap for backwards compatibility
+    // Note: 字段少时为平行数组，字段多时为 LinkedHashMap，都保持插入顺序
     protected final Map<String, Node> _children;
 
     public ObjectNode(NodeFactory nc) {
         super(nc);
-        _children = new LinkedHashMap<String, Node>();
+        _children = new FieldMap();
+    }
+
+    /**
+     * @param capacity
+     *     预计的字段数
+     */
+    public ObjectNode(NodeFactory nc, int capacity) {
+        super(nc);
+        _children = new FieldMap(capacity);
     }
 
     /**
@@ -112,6 +120,11 @@ public class ObjectNode extends ContainerNode<ObjectNode> implements Serializabl
         return _children.entrySet().iterator();
     }
 
+    @Override
+    public Node snapshot() {
+        return PersistentObjectNode.copyOf(this);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public ObjectNode with(String propertyName) {
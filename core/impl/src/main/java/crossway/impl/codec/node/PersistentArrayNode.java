@@ -0,0 +1,242 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 不可变的数组节点
+ * <p>
+ * 元素放在 {@link PersistentVector} 中，{@link #with(int, Node)}、{@link #append(Node)} 返回共享未改动部分的新节点，
+ * 为 O(log n)；{@link #without(int)} 需要移动后面的元素，为 O(n)。
+ *
+ * @author iamcyw
+ **/
+public final class PersistentArrayNode extends BaseNode {
+
+    private static final long serialVersionUID = -2620383313212180447L;
+
+    private static final PersistentArrayNode EMPTY = new PersistentArrayNode(PersistentVector.<Node>empty());
+
+    private final PersistentVector<Node> elements;
+
+    private PersistentArrayNode(PersistentVector<Node> elements) {
+        this.elements = elements;
+    }
+
+    public static PersistentArrayNode empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 复制数组节点，元素通过 {@link Node#snapshot()} 转换为不可变节点
+     *
+     * @param array
+     *     数组节点
+     *
+     * @return 不可变的数组节点
+     */
+    public static PersistentArrayNode copyOf(Node array) {
+        if (array instanceof PersistentArrayNode) {
+            return (PersistentArrayNode) array;
+        }
+        if (!array.isArray()) {
+            throw new IllegalArgumentException("Not an array node: " + array.getNodeType());
+        }
+        List<Node> list = new ArrayList<>(array.size());
+        for (Iterator<Node> it = array.elements(); it.hasNext(); ) {
+            list.add(element(it.next()));
+        }
+        return list.isEmpty() ? EMPTY : new PersistentArrayNode(PersistentVector.of(list));
+    }
+
+    private static Node element(Node value) {
+        return value == null ? NullNode.getInstance() : value.snapshot();
+    }
+
+    /**
+     * 替换元素
+     *
+     * @param index
+     *     下标
+     * @param value
+     *     值，null 表示 null 节点
+     *
+     * @return 新的节点
+     * @throws IndexOutOfBoundsException
+     *     下标越界
+     */
+    public PersistentArrayNode with(int index, Node value) {
+        if (elements.get(index) == value) {
+            return this;
+        }
+        return new PersistentArrayNode(elements.set(index, element(value)));
+    }
+
+    /**
+     * 在末尾追加元素
+     *
+     * @param value
+     *     值，null 表示 null 节点
+     *
+     * @return 新的节点
+     */
+    public PersistentArrayNode append(Node value) {
+        return new PersistentArrayNode(elements.append(element(value)));
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param index
+     *     下标
+     *
+     * @return 新的节点
+     * @throws IndexOutOfBoundsException
+     *     下标越界
+     */
+    public PersistentArrayNode without(int index) {
+        int size = elements.size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        List<Node> list = new ArrayList<>(size - 1);
+        int i = 0;
+        for (Node element : elements) {
+            if (i++ != index) {
+                list.add(element);
+            }
+        }
+        return list.isEmpty() ? EMPTY : new PersistentArrayNode(PersistentVector.of(list));
+    }
+
+    @Override
+    public Node snapshot() {
+        return this;
+    }
+
+    @Override
+    public NodeType getNodeType() {
+        return NodeType.ARRAY;
+    }
+
+    @Override
+    public boolean isArray() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public String asText() {
+        return "";
+    }
+
+    @Override
+    public Node get(int index) {
+        return index >= 0 && index < elements.size() ? elements.get(index) : null;
+    }
+
+    @Override
+    public Node get(String fieldName) {
+        return null;
+    }
+
+    @Override
+    public Node path(String fieldName) {
+        return MissingNode.getInstance();
+    }
+
+    @Override
+    public Node path(int index) {
+        Node node = get(index);
+        return node != null ? node : MissingNode.getInstance();
+    }
+
+    @Override
+    public Iterator<Node> elements() {
+        return elements.iterator();
+    }
+
+    @Override
+    public Node findValue(String fieldName) {
+        for (Node element : elements) {
+            Node value = element.findValue(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findValues(String fieldName, List<Node> foundSoFar) {
+        for (Node element : elements) {
+            foundSoFar = element.findValues(fieldName, foundSoFar);
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
+        for (Node element : elements) {
+            foundSoFar = element.findValuesAsText(fieldName, foundSoFar);
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public Node findParent(String fieldName) {
+        for (Node element : elements) {
+            Node parent = element.findParent(fieldName);
+            if (parent != null) {
+                return parent;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findParents(String fieldName, List<Node> foundSoFar) {
+        for (Node element : elements) {
+            foundSoFar = element.findParents(fieldName, foundSoFar);
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof PersistentArrayNode)) {
+            return false;
+        }
+        PersistentArrayNode other = (PersistentArrayNode) o;
+        if (other.size() != size()) {
+            return false;
+        }
+        Iterator<Node> it = other.elements.iterator();
+        for (Node element : elements) {
+            if (!element.equals(it.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (Node element : elements) {
+            hash = 31 * hash + element.hashCode();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,402 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 不可变的对象节点
+ * <p>
+ * {@link #with(String, Node)}、{@link #without(String)} 不修改当前节点，而是返回新的节点，新旧节点共享没有改动的部分：
+ * 字段按插入顺序放在 {@link PersistentVector} 中，字段数超过 {@link #MAX_LINEAR} 时再用 {@link FieldTrie}
+ * 按字段名定位，单次修改为 O(log n)。子节点都是不可变的，整棵树可以在多个线程上共享，不需要复制和加锁。
+ * <p>
+ * 删除的字段在向量中留空，空位多于字段数时整体重建。
+ *
+ * @author iamcyw
+ **/
+public final class PersistentObjectNode extends BaseNode {
+
+    private static final long serialVersionUID = 3391850744961230466L;
+
+    /**
+     * 不建立字段名映射、线性查找的最大字段数
+     */
+    static final int MAX_LINEAR = 8;
+
+    private static final PersistentObjectNode EMPTY = new PersistentObjectNode(
+        PersistentVector.<Map.Entry<String, Node>>empty(), null, 0);
+
+    /**
+     * 按插入顺序排列的字段，删除的字段为null
+     */
+    private final PersistentVector<Map.Entry<String, Node>> entries;
+    /**
+     * 字段名到位置的映射，向量长度不超过 {@link #MAX_LINEAR} 时为null
+     */
+    private final FieldTrie                                 index;
+    private final int                                       size;
+
+    private PersistentObjectNode(PersistentVector<Map.Entry<String, Node>> entries, FieldTrie index, int size) {
+        this.entries = entries;
+        this.index = index;
+        this.size = size;
+    }
+
+    public static PersistentObjectNode empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 复制对象节点，子节点通过 {@link Node#snapshot()} 转换为不可变节点
+     *
+     * @param object
+     *     对象节点
+     *
+     * @return 不可变的对象节点
+     */
+    public static PersistentObjectNode copyOf(Node object) {
+        if (object instanceof PersistentObjectNode) {
+            return (PersistentObjectNode) object;
+        }
+        if (!object.isObject()) {
+            throw new IllegalArgumentException("Not an object node: " + object.getNodeType());
+        }
+        List<Map.Entry<String, Node>> list = new ArrayList<>(object.size());
+        for (Iterator<Map.Entry<String, Node>> it = object.fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> field = it.next();
+            list.add(entry(field.getKey(), field.getValue()));
+        }
+        return build(list);
+    }
+
+    private static PersistentObjectNode build(List<Map.Entry<String, Node>> list) {
+        if (list.isEmpty()) {
+            return EMPTY;
+        }
+        PersistentVector<Map.Entry<String, Node>> entries = PersistentVector.of(list);
+        return new PersistentObjectNode(entries, index(entries), list.size());
+    }
+
+    private static FieldTrie index(PersistentVector<Map.Entry<String, Node>> entries) {
+        if (entries.size() <= MAX_LINEAR) {
+            return null;
+        }
+        FieldTrie index = FieldTrie.EMPTY;
+        int i = 0;
+        for (Map.Entry<String, Node> entry : entries) {
+            if (entry != null) {
+                index = index.put(entry.getKey(), i);
+            }
+            i++;
+        }
+        return index;
+    }
+
+    private static Map.Entry<String, Node> entry(String fieldName, Node value) {
+        return new AbstractMap.SimpleImmutableEntry<>(fieldName,
+                                                      value == null ? NullNode.getInstance() : value.snapshot());
+    }
+
+    private int indexOf(String fieldName) {
+        if (index != null) {
+            return index.find(fieldName);
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Map.Entry<String, Node> entry = entries.get(i);
+            if (entry != null && entry.getKey().equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 设置字段，已有的字段保持原来的位置，新字段放在最后
+     *
+     * @param fieldName
+     *     字段名
+     * @param value
+     *     值，null 表示 null 节点，可变节点会先转换为不可变节点
+     *
+     * @return 新的节点，值没有变化时返回自身
+     */
+    public PersistentObjectNode with(String fieldName, Node value) {
+        int i = indexOf(fieldName);
+        if (i >= 0 && entries.get(i).getValue() == value) {
+            return this;
+        }
+        Map.Entry<String, Node> entry = entry(fieldName, value);
+        if (i >= 0) {
+            return new PersistentObjectNode(entries.set(i, entry), index, size);
+        }
+        PersistentVector<Map.Entry<String, Node>> appended = entries.append(entry);
+        FieldTrie trie = index != null ? index.put(fieldName, appended.size() - 1) : index(appended);
+        return new PersistentObjectNode(appended, trie, size + 1);
+    }
+
+    /**
+     * 删除字段
+     *
+     * @param fieldName
+     *     字段名
+     *
+     * @return 新的节点，字段不存在时返回自身
+     */
+    public PersistentObjectNode without(String fieldName) {
+        int i = indexOf(fieldName);
+        if (i < 0) {
+            return this;
+        }
+        int holes = entries.size() - size + 1;
+        if (holes > MAX_LINEAR && holes > size - 1) {
+            List<Map.Entry<String, Node>> list = new ArrayList<>(size - 1);
+            for (Map.Entry<String, Node> entry : entries) {
+                if (entry != null && !entry.getKey().equals(fieldName)) {
+                    list.add(entry);
+                }
+            }
+            return build(list);
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        return new PersistentObjectNode(entries.set(i, null), index == null ? null : index.remove(fieldName),
+                                        size - 1);
+    }
+
+    @Override
+    public Node snapshot() {
+        return this;
+    }
+
+    @Override
+    public NodeType getNodeType() {
+        return NodeType.OBJECT;
+    }
+
+    @Override
+    public boolean isObject() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String asText() {
+        return "";
+    }
+
+    @Override
+    public Node get(int index) {
+        return null;
+    }
+
+    @Override
+    public Node get(String fieldName) {
+        int i = indexOf(fieldName);
+        return i >= 0 ? entries.get(i).getValue() : null;
+    }
+
+    @Override
+    public Node path(String fieldName) {
+        Node node = get(fieldName);
+        return node != null ? node : MissingNode.getInstance();
+    }
+
+    @Override
+    public Node path(int index) {
+        return MissingNode.getInstance();
+    }
+
+    @Override
+    public Node required(String fieldName) {
+        Node node = get(fieldName);
+        if (node != null) {
+            return node;
+        }
+        return reportRequiredViolation("No value for property '%s' of `PersistentObjectNode`", fieldName);
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, Node>> fields() {
+        Iterator<Map.Entry<String, Node>> it = entries.iterator();
+        return new Iterator<Map.Entry<String, Node>>() {
+            private Map.Entry<String, Node> next = advance();
+
+            private Map.Entry<String, Node> advance() {
+                while (it.hasNext()) {
+                    Map.Entry<String, Node> entry = it.next();
+                    if (entry != null) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<String, Node> next() {
+                Map.Entry<String, Node> current = next;
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Node> elements() {
+        Iterator<Map.Entry<String, Node>> fields = fields();
+        return new Iterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return fields.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                return fields.next().getValue();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<String> fieldNames() {
+        Iterator<Map.Entry<String, Node>> fields = fields();
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return fields.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return fields.next().getKey();
+            }
+        };
+    }
+
+    @Override
+    public Node findValue(String fieldName) {
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (fieldName.equals(entry.getKey())) {
+                return entry.getValue();
+            }
+            Node value = entry.getValue().findValue(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findValues(String fieldName, List<Node> foundSoFar) {
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (fieldName.equals(entry.getKey())) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(entry.getValue());
+            } else {
+                foundSoFar = entry.getValue().findValues(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (fieldName.equals(entry.getKey())) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(entry.getValue().asText());
+            } else {
+                foundSoFar = entry.getValue().findValuesAsText(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public Node findParent(String fieldName) {
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (fieldName.equals(entry.getKey())) {
+                return this;
+            }
+            Node value = entry.getValue().findParent(fieldName);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Node> findParents(String fieldName, List<Node> foundSoFar) {
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (fieldName.equals(entry.getKey())) {
+                if (foundSoFar == null) {
+                    foundSoFar = new ArrayList<>();
+                }
+                foundSoFar.add(this);
+            } else {
+                foundSoFar = entry.getValue().findParents(fieldName, foundSoFar);
+            }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof PersistentObjectNode)) {
+            return false;
+        }
+        PersistentObjectNode other = (PersistentObjectNode) o;
+        if (other.size != size) {
+            return false;
+        }
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            Map.Entry<String, Node> entry = it.next();
+            if (!entry.getValue().equals(other.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Iterator<Map.Entry<String, Node>> it = fields(); it.hasNext(); ) {
+            hash += it.next().hashCode();
+        }
+        return hash;
+    }
+}
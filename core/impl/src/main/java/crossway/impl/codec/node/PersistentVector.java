@@ -0,0 +1,198 @@
+package crossway.impl.codec.node;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 不可变的向量
+ * <p>
+ * 32 叉的前缀树，最后一段元素单独放在 tail 中。修改只复制从根到叶子路径上的数组，其余部分与原向量共享：
+ * 读写都是 O(log32 n)，追加在 tail 未满时只复制 tail。
+ *
+ * @author iamcyw
+ **/
+final class PersistentVector<E> implements Iterable<E>, Serializable {
+
+    private static final long serialVersionUID = 6412789165013322817L;
+
+    private static final int BITS  = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK  = WIDTH - 1;
+
+    private static final Object[]                 EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<Object> EMPTY      = new PersistentVector<>(0, BITS, EMPTY_NODE,
+                                                                                      new Object[0]);
+
+    private final int      size;
+    private final int      shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * 按顺序构建，每 32 个元素复制一次路径
+     *
+     * @param items
+     *     元素
+     *
+     * @return 向量
+     */
+    static <E> PersistentVector<E> of(List<? extends E> items) {
+        int count = items.size();
+        PersistentVector<E> vector = empty();
+        for (int i = 0; i < count; i += WIDTH) {
+            vector = vector.pushTail(items.subList(i, Math.min(i + WIDTH, count)).toArray());
+        }
+        return vector;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * 替换元素
+     *
+     * @return 新的向量
+     */
+    PersistentVector<E> set(int index, E value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (index >= tailOffset()) {
+            Object[] copy = tail.clone();
+            copy[index & MASK] = value;
+            return new PersistentVector<>(size, shift, root, copy);
+        }
+        return new PersistentVector<>(size, shift, set(shift, root, index, value), tail);
+    }
+
+    /**
+     * 在末尾追加元素
+     *
+     * @return 新的向量
+     */
+    PersistentVector<E> append(E value) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] copy = Arrays.copyOf(tail, tail.length + 1);
+            copy[tail.length] = value;
+            return new PersistentVector<>(size + 1, shift, root, copy);
+        }
+        return pushTail(new Object[] {value});
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static Object[] set(int level, Object[] node, int index, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int sub = (index >>> level) & MASK;
+            copy[sub] = set(level - BITS, (Object[]) node[sub], index, value);
+        }
+        return copy;
+    }
+
+    /**
+     * 把已满的 tail 放入树中，以新的数组作为 tail
+     */
+    private PersistentVector<E> pushTail(Object[] next) {
+        if (size == 0) {
+            return new PersistentVector<>(next.length, shift, root, next);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // 根节点已满，增加一层
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root);
+        }
+        return new PersistentVector<>(size + next.length, newShift, newRoot, next);
+    }
+
+    private Object[] pushTail(int level, Object[] parent) {
+        int sub = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[sub] = tail;
+        } else {
+            Object[] child = (Object[]) parent[sub];
+            copy[sub] = child != null ? pushTail(level - BITS, child) : newPath(level - BITS, tail);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int      cursor;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((cursor & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(cursor);
+                }
+                return (E) leaf[cursor++ & MASK];
+            }
+        };
+    }
+}
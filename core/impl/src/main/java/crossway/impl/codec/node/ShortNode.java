@@ -0,0 +1,98 @@
+package crossway.impl.codec.node;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * short 数字节点
+ *
+ * @author iamcyw
+ **/
+public class ShortNode extends NumericNode {
+    private static final long serialVersionUID = 2240364155312958140L;
+
+    private final short value;
+
+    public ShortNode(short value) {
+        this.value = value;
+    }
+
+    public static ShortNode valueOf(short s) {
+        return new ShortNode(s);
+    }
+
+    @Override
+    public Number numberValue() {
+        return value;
+    }
+
+    @Override
+    public short shortValue() {
+        return value;
+    }
+
+    @Override
+    public int intValue() {
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public BigDecimal decimalValue() {
+        return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+        return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public String asText() {
+        return Short.toString(value);
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isShort() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToInt() {
+        return true;
+    }
+
+    @Override
+    public boolean canConvertToLong() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof ShortNode && ((ShortNode) o).value == value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+}
@@ -1,14 +1,36 @@
 package crossway.impl.filter;
 
+import crossway.codec.RawPayload;
 import crossway.codec.SerializerFactory;
+import crossway.codec.node.Node;
+import crossway.common.CrossWayConfigs;
+import crossway.common.CrossWayOptions;
 import crossway.core.request.CrossWayRequest;
 import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayRuntimeException;
 import crossway.ext.api.Extension;
+import crossway.filter.BodyAccess;
 import crossway.filter.Filter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
- * description:
+ * description: 记录请求体
+ * <p>
+ * 请求线程上只做抽样判断并把原始字节放入 {@link LogRing}，不解码也不格式化；后台线程取出后再格式化、
+ * 截断到 {@link CrossWayOptions#LOG_FILTER_MAX_BYTES} 字节并写出。已经解码的数据在请求线程上序列化，写到上限字节数即停止。
+ * 队列满时丢弃，丢弃的条数在下一次写出时报告。后台线程在队列为空时挂起，由放入元素的请求线程唤醒。
+ * <p>
+ * 抽样：{@link CrossWayOptions#LOG_FILTER_SAMPLE_PER_SECOND} 大于0时记录每秒的前 N 个请求，否则按
+ * {@link CrossWayOptions#LOG_FILTER_SAMPLE_RATE} 随机记录 N 个中的1个。
  *
  * @author: Johnson Wang
  * @date: 2020/7/3 17:14
@@ -16,15 +38,293 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Extension("log")
+@BodyAccess(readOnly = true)
 public class LogFilter implements Filter {
 
+    /**
+     * 把数据格式化为文本时使用的序列化器
+     */
+    private static final String FORMAT = "json";
+
+    private final int     sampleRate;
+    private final int     maxBytes;
+    private final Sampler sampler;
+
+    private final LogRing<Entry> ring;
+    private final AtomicLong     dropped = new AtomicLong();
+
+    private volatile Thread  writer;
+    /**
+     * 后台线程是否已经或即将挂起
+     */
+    private volatile boolean waiting;
+
+    public LogFilter() {
+        this(CrossWayConfigs.getOrDefaultValue(CrossWayOptions.LOG_FILTER_SAMPLE_RATE, 1),
+             CrossWayConfigs.getOrDefaultValue(CrossWayOptions.LOG_FILTER_SAMPLE_PER_SECOND, 0),
+             CrossWayConfigs.getOrDefaultValue(CrossWayOptions.LOG_FILTER_MAX_BYTES, 1024),
+             CrossWayConfigs.getOrDefaultValue(CrossWayOptions.LOG_FILTER_BUFFER_SIZE, 1024));
+    }
+
+    LogFilter(int sampleRate, int samplePerSecond, int maxBytes, int bufferSize) {
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.maxBytes = maxBytes;
+        this.sampler = samplePerSecond > 0 ? new Sampler(samplePerSecond) : null;
+        this.ring = new LogRing<>(bufferSize);
+    }
+
     @Override
     public void request(CrossWayRequest request) {
-        log.info(SerializerFactory.getSerializer("string").decode(request.getData(), null).toString());
+        if (!log.isInfoEnabled() || !sample()) {
+            return;
+        }
+        Entry entry = entry(request);
+        if (entry == null) {
+            return;
+        }
+        if (ring.offer(entry)) {
+            wakeWriter();
+        } else {
+            dropped.incrementAndGet();
+        }
     }
 
     @Override
     public void response(CrossWayResponse response) {
 
     }
-}
\ No newline at end of file
+
+    boolean sample() {
+        if (sampler != null) {
+            return sampler.tryAcquire(System.currentTimeMillis() / 1000);
+        }
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    /**
+     * 原始字节不可修改，直接引用；已经解码的数据可能在写出前被修改或回收，在请求线程上序列化为不超过上限的文本
+     */
+    Entry entry(CrossWayRequest request) {
+        RawPayload payload = request.getPayload();
+        if (payload != null) {
+            return new Entry(payload.getBytes(), payload.getSerializeType(), false);
+        }
+        Node data = request.getData();
+        if (data == null) {
+            return null;
+        }
+        CappedOutputStream out = new CappedOutputStream(maxBytes > 0 ? maxBytes + 1 : Integer.MAX_VALUE);
+        try {
+            SerializerFactory.getSerializer(FORMAT).decode(data, null, out);
+        } catch (CrossWayRuntimeException e) {
+            // 没有加载 json 模块
+            byte[] text = data.asText().getBytes(StandardCharsets.UTF_8);
+            if (maxBytes > 0 && text.length > maxBytes) {
+                return new Entry(Arrays.copyOf(text, maxBytes + 1), "string", true);
+            }
+            return new Entry(text, "string", false);
+        } catch (IOException e) {
+            if (!out.full) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new Entry(out.toByteArray(), FORMAT, out.full);
+    }
+
+    private void wakeWriter() {
+        Thread current = writer;
+        if (current == null) {
+            startWriter();
+        } else if (waiting) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    private void startWriter() {
+        synchronized (this) {
+            if (writer == null) {
+                Thread thread = new Thread(this::drain, "crossway-log-writer");
+                thread.setDaemon(true);
+                thread.start();
+                writer = thread;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Entry entry = ring.poll();
+            if (entry == null) {
+                waiting = true;
+                // 设置标记之后再检查一次，之后放入的元素一定能看到标记并唤醒
+                entry = ring.poll();
+                if (entry == null) {
+                    LockSupport.park(this);
+                    waiting = false;
+                    continue;
+                }
+                waiting = false;
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                log.warn("{} request log entries dropped, log buffer is full", lost);
+            }
+            try {
+                log.info("{}", format(entry));
+            } catch (Throwable e) {
+                log.warn("Failed to format request log entry", e);
+            }
+        }
+    }
+
+    String format(Entry entry) {
+        if (entry.truncated) {
+            return new String(entry.bytes, 0, boundary(entry.bytes, maxBytes), StandardCharsets.UTF_8)
+                   + "...(more than " + maxBytes + " bytes)";
+        }
+        if (FORMAT.equals(entry.serializeType) || "string".equals(entry.serializeType)) {
+            return truncate(entry.bytes, maxBytes);
+        }
+        return truncate(toText(SerializerFactory.getSerializer(entry.serializeType).encode(entry.bytes, null)),
+                        maxBytes);
+    }
+
+    private static byte[] toText(Node data) {
+        Object text;
+        try {
+            text = SerializerFactory.getSerializer(FORMAT).decode(data, null);
+        } catch (CrossWayRuntimeException e) {
+            // 没有加载 json 模块
+            text = data.asText();
+        }
+        if (text instanceof byte[]) {
+            return (byte[]) text;
+        }
+        return String.valueOf(text).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 截断为不超过指定字节数的 UTF-8 文本，不截断多字节字符
+     *
+     * @param bytes
+     *     UTF-8 字节
+     * @param maxBytes
+     *     最大字节数，小于等于0时不截断
+     *
+     * @return 文本
+     */
+    static String truncate(byte[] bytes, int maxBytes) {
+        if (maxBytes <= 0 || bytes.length <= maxBytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new String(bytes, 0, boundary(bytes, maxBytes), StandardCharsets.UTF_8) + "...(" + bytes.length
+               + " bytes)";
+    }
+
+    /**
+     * 不超过 maxBytes 的最后一个字符边界，bytes 的长度需要大于 maxBytes
+     */
+    private static int boundary(byte[] bytes, int maxBytes) {
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+
+    static final class Entry {
+        private final byte[]  bytes;
+        private final String  serializeType;
+        /**
+         * bytes 只是数据的前一部分
+         */
+        private final boolean truncated;
+
+        Entry(byte[] bytes, String serializeType, boolean truncated) {
+            this.bytes = bytes;
+            this.serializeType = serializeType;
+            this.truncated = truncated;
+        }
+    }
+
+    /**
+     * 只保存前 limit 个字节，写满后抛出异常结束序列化
+     */
+    private static final class CappedOutputStream extends OutputStream {
+        private static final IOException FULL = new IOException("Log entry is full");
+
+        private final int     limit;
+        private       byte[]  buffer = new byte[256];
+        private       int     count;
+        private       boolean full;
+
+        private CappedOutputStream(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == limit) {
+                full = true;
+                throw FULL;
+            }
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int room = limit - count;
+            int n = Math.min(len, room);
+            ensureCapacity(count + n);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            if (n < len) {
+                full = true;
+                throw FULL;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(Math.max((long) buffer.length << 1, capacity), limit));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, count);
+        }
+    }
+
+    /**
+     * 每秒最多放行 limit 次，秒数和计数放在同一个 long 中通过 CAS 更新；达到上限后只有一次读
+     */
+    static final class Sampler {
+        private static final int  COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLong state = new AtomicLong();
+        private final int        limit;
+
+        Sampler(int limit) {
+            this.limit = (int) Math.min(limit, COUNT_MASK);
+        }
+
+        boolean tryAcquire(long second) {
+            while (true) {
+                long current = state.get();
+                long next;
+                if (current >>> COUNT_BITS != second) {
+                    next = second << COUNT_BITS | 1;
+                } else if ((current & COUNT_MASK) >= limit) {
+                    return false;
+                } else {
+                    next = current + 1;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package crossway.impl.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多生产者、单消费者的有界环形队列，不加锁
+ * <p>
+ * 每个槽位有一个序号：等于写入位置时可以写，等于写入位置加一时可以读。生产者通过 CAS 抢占写入位置，
+ * 队列满时 {@link #offer(Object)} 立即返回 false，不等待。{@link #poll()} 只能由一个线程调用。
+ *
+ * @author iamcyw
+ **/
+final class LogRing<E> {
+
+    private final Object[]        items;
+    private final AtomicLongArray sequences;
+    private final int             mask;
+    private final AtomicLong      tail = new AtomicLong();
+
+    /**
+     * 只由消费线程访问
+     */
+    private long head;
+
+    /**
+     * @param capacity
+     *     容量，向上取整到2的幂
+     */
+    LogRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        items = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * 放入元素
+     *
+     * @param item
+     *     元素
+     *
+     * @return 队列满时返回 false
+     */
+    boolean offer(E item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    // 不能用 lazySet：消费者挂起前会再检查一次，需要和之后读取挂起标记的顺序保持一致
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // 消费者还没有取走上一轮的元素
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 取出元素，只能由一个线程调用
+     *
+     * @return 队列空或者下一个元素还没有写完时返回null
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E item = (E) items[index];
+        items[index] = null;
+        sequences.lazySet(index, head + items.length);
+        head++;
+        return item;
+    }
+
+    int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,50 @@
+package crossway.impl.filter;
+
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.ext.api.Extension;
+import crossway.filter.Filter;
+import crossway.metrics.MetricsRegistry;
+import crossway.metrics.RouteMetrics;
+
+/**
+ * 按路由统计吞吐量、错误数和各阶段的延迟，见 {@link MetricsRegistry}
+ * <p>
+ * 使用管道在请求上记录的时间，在监听器写出响应后一次性记录：过滤阶段为管道开始到发送开始，发送阶段为发送开始到收到响应，
+ * 响应阶段为收到响应到请求完成。
+ *
+ * @author iamcyw
+ **/
+@Extension("metrics")
+public class MetricsFilter implements Filter {
+
+    /**
+     * 没有发送配置时使用的路由
+     */
+    static final String DEFAULT_ROUTE = "default";
+
+    @Override
+    public void prepare(CrossWayRequest request) {
+        request.onComplete(() -> record(request, System.nanoTime()));
+    }
+
+    @Override
+    public void request(CrossWayRequest request) {
+
+    }
+
+    @Override
+    public void response(CrossWayResponse response) {
+
+    }
+
+    static void record(CrossWayRequest request, long now) {
+        String route = request.getRoute();
+        RouteMetrics metrics = MetricsRegistry.route(route != null ? route : DEFAULT_ROUTE);
+        long start = request.getStartNanos();
+        long send = request.getSendNanos();
+        long receive = request.getReceiveNanos();
+        metrics.record(request.isFailed(), send != 0 ? send - start : -1, receive != 0 ? receive - send : -1,
+                       receive != 0 ? now - receive : -1);
+    }
+}
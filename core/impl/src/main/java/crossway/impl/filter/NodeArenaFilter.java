@@ -0,0 +1,35 @@
+package crossway.impl.filter;
+
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.ext.api.Extension;
+import crossway.filter.Filter;
+import crossway.impl.codec.node.NodeArena;
+
+/**
+ * 为每个请求打开一个 {@link NodeArena}，请求和响应解码时的容器节点从中分配，监听器写出响应后整体回收
+ * <p>
+ * 其它过滤器和发送器不能在请求完成后继续持有解码出的节点，需要保存时使用 {@link crossway.codec.node.Node#snapshot()}。
+ *
+ * @author iamcyw
+ **/
+@Extension("arena")
+public class NodeArenaFilter implements Filter {
+
+    @Override
+    public void prepare(CrossWayRequest request) {
+        NodeArena arena = NodeArena.open();
+        request.putContext(NodeArena.CONTEXT_KEY, arena);
+        request.onComplete(arena::release);
+    }
+
+    @Override
+    public void request(CrossWayRequest request) {
+
+    }
+
+    @Override
+    public void response(CrossWayResponse response) {
+
+    }
+}
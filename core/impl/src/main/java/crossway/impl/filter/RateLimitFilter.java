@@ -0,0 +1,151 @@
+package crossway.impl.filter;
+
+import crossway.codec.node.Node;
+import crossway.common.CrossWayConfigs;
+import crossway.common.CrossWayConfigs.CrossWayConfigListener;
+import crossway.common.CrossWayOptions;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+import crossway.ext.api.Extension;
+import crossway.filter.BodyAccess;
+import crossway.filter.Filter;
+import crossway.utils.StringUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按路由限流，每个发送配置一个 {@link TokenBucket}，配置了 {@link CrossWayOptions#RATE_LIMIT_KEY} 时按该字段的值分别限流
+ * <p>
+ * 限制从发送配置的参数中读取，没有时使用全局配置，参数名见 {@link CrossWayOptions#RATE_LIMIT_RATE} 等。
+ * 发送配置的参数在第一次使用时读取，全局配置变化时全部重新读取。
+ * <p>
+ * 超出限制时 reject 模式抛出 {@link WayErrorType#SERVER_LIMIT}；delay 模式通过 {@link Filter#delay(CrossWayRequest)}
+ * 推迟请求，不占用线程，需要推迟超过 {@link CrossWayOptions#RATE_LIMIT_MAX_DELAY} 时仍然失败。
+ *
+ * @author iamcyw
+ **/
+@Extension("ratelimit")
+@BodyAccess(readOnly = true)
+public class RateLimitFilter implements Filter {
+
+    static final String MODE_DELAY = "delay";
+
+    /**
+     * 按字段值限流时最多保存的令牌桶数，超过后其它值共用路由的令牌桶
+     */
+    static final int MAX_KEYS = 10000;
+
+    private static final String[] OPTIONS = {CrossWayOptions.RATE_LIMIT_RATE, CrossWayOptions.RATE_LIMIT_BURST,
+                                             CrossWayOptions.RATE_LIMIT_KEY, CrossWayOptions.RATE_LIMIT_MODE,
+                                             CrossWayOptions.RATE_LIMIT_MAX_DELAY};
+
+    /**
+     * 不限流的路由
+     */
+    private static final Limiter UNLIMITED = new Limiter(0, 0, null, 0);
+
+    private final ConcurrentMap<String, Limiter>  limiters = new ConcurrentHashMap<>();
+    private final CrossWayConfigListener<Object> reload   = (oldValue, newValue) -> limiters.clear();
+
+    public RateLimitFilter() {
+        for (String option : OPTIONS) {
+            CrossWayConfigs.subscribe(option, reload);
+        }
+    }
+
+    @Override
+    public long delay(CrossWayRequest request) {
+        String route = request.getRoute() != null ? request.getRoute() : "";
+        Limiter limiter = limiters.get(route);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(route, key -> create(request.getSenderConfig()));
+        }
+        if (limiter == UNLIMITED) {
+            return 0;
+        }
+        long wait = limiter.bucket(request).acquire(System.nanoTime(), limiter.maxDelay);
+        if (wait < 0) {
+            throw new CrossWayException(WayErrorType.SERVER_LIMIT, "Rate limit exceeded: " + route);
+        }
+        return wait;
+    }
+
+    @Override
+    public void request(CrossWayRequest request) {
+
+    }
+
+    @Override
+    public void response(CrossWayResponse response) {
+
+    }
+
+    private static Limiter create(SenderConfig config) {
+        double rate = Double.parseDouble(get(config, CrossWayOptions.RATE_LIMIT_RATE, "0"));
+        if (rate <= 0) {
+            return UNLIMITED;
+        }
+        int burst = Integer.parseInt(get(config, CrossWayOptions.RATE_LIMIT_BURST, "0"));
+        String key = get(config, CrossWayOptions.RATE_LIMIT_KEY, "");
+        long maxDelay = MODE_DELAY.equalsIgnoreCase(get(config, CrossWayOptions.RATE_LIMIT_MODE, "")) ?
+            TimeUnit.MILLISECONDS.toNanos(Long.parseLong(get(config, CrossWayOptions.RATE_LIMIT_MAX_DELAY, "1000"))) :
+            0;
+        return new Limiter(rate, burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate)),
+                           StringUtils.isEmpty(key) ? null : key, maxDelay);
+    }
+
+    private static String get(SenderConfig config, String option, String defaultValue) {
+        String value = config != null ? config.getParameter(option) : null;
+        if (StringUtils.isEmpty(value)) {
+            Object global = CrossWayConfigs.getOrDefaultValue(option, null);
+            value = global != null ? global.toString() : null;
+        }
+        return StringUtils.isEmpty(value) ? defaultValue : value;
+    }
+
+    /**
+     * 一个路由的限流设置和令牌桶
+     */
+    private static final class Limiter {
+        private final double                             rate;
+        private final int                                burst;
+        private final String                             key;
+        private final long                               maxDelay;
+        private final TokenBucket                        bucket;
+        private final ConcurrentMap<String, TokenBucket> buckets;
+
+        private Limiter(double rate, int burst, String key, long maxDelay) {
+            this.rate = rate;
+            this.burst = burst;
+            this.key = key;
+            this.maxDelay = maxDelay;
+            this.bucket = rate > 0 ? new TokenBucket(rate, burst, System.nanoTime()) : null;
+            this.buckets = key != null ? new ConcurrentHashMap<>() : null;
+        }
+
+        private TokenBucket bucket(CrossWayRequest request) {
+            if (key == null) {
+                return bucket;
+            }
+            Node data = request.getData();
+            Node value = data != null ? data.get(key) : null;
+            if (value == null) {
+                return bucket;
+            }
+            String text = value.asText();
+            TokenBucket current = buckets.get(text);
+            if (current == null) {
+                if (buckets.size() >= MAX_KEYS) {
+                    return bucket;
+                }
+                current = buckets.computeIfAbsent(text, k -> new TokenBucket(rate, burst, System.nanoTime()));
+            }
+            return current;
+        }
+    }
+}
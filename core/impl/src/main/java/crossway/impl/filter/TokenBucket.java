@@ -0,0 +1,65 @@
+package crossway.impl.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 不加锁的令牌桶
+ * <p>
+ * 按 GCRA 实现：只保存下一个令牌的理论到达时间，取令牌是一次 CAS。与每秒 rate 个令牌、容量 burst 的令牌桶等价，
+ * 不需要定时补充令牌。
+ *
+ * @author iamcyw
+ **/
+final class TokenBucket {
+
+    /**
+     * 每个令牌的间隔，纳秒
+     */
+    private final long       interval;
+    /**
+     * 允许提前的时间，即 burst - 1 个间隔
+     */
+    private final long       tolerance;
+    private final AtomicLong arrival;
+
+    /**
+     * @param rate
+     *     每秒的令牌数
+     * @param burst
+     *     容量
+     * @param now
+     *     当前的 {@link System#nanoTime()}
+     */
+    TokenBucket(double rate, int burst, long now) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        this.interval = Math.max(1, (long) (1_000_000_000d / rate));
+        this.tolerance = Math.max(0, burst - 1) * interval;
+        this.arrival = new AtomicLong(now);
+    }
+
+    /**
+     * 取一个令牌
+     *
+     * @param now
+     *     当前的 {@link System#nanoTime()}
+     * @param maxDelay
+     *     最多等待的纳秒数，0 表示不等待
+     *
+     * @return 需要等待的纳秒数，0 表示立即通过；超过 maxDelay 时返回 -1，不占用令牌
+     */
+    long acquire(long now, long maxDelay) {
+        for (; ; ) {
+            long current = arrival.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - tolerance - now;
+            if (wait > maxDelay) {
+                return -1;
+            }
+            if (arrival.compareAndSet(current, start + interval)) {
+                return wait > 0 ? wait : 0;
+            }
+        }
+    }
+}
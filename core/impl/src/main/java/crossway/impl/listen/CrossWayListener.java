@@ -5,6 +5,7 @@ import crossway.config.ListenerConfig;
 import crossway.core.request.CrossWayRequest;
 import crossway.ext.api.Extension;
 import crossway.listen.Listener;
+import crossway.transport.Transport;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.CompletableFuture;
@@ -29,31 +30,37 @@ public class CrossWayListener extends Listener {
         CrossWayRequest crossWayRequest = new CrossWayRequest();
         crossWayRequest.setData(serializer.encode(request, null));
 
-        return getConfig().getTransport().apply(CompletableFuture.supplyAsync(() -> crossWayRequest)).thenApplyAsync(
-            response -> {
-                if (response.isError()) {
-                    throw (RuntimeException) response.getError();
-                }
+        try {
+            return getConfig().getTransport().apply(CompletableFuture.completedFuture(crossWayRequest)).thenApply(
+                response -> {
+                    if (response.isError()) {
+                        throw (RuntimeException) response.getError();
+                    }
 
-                return serializer.decode(response.getData(), null);
+                    return serializer.decode(response.getData(), null);
 
-            }).join();
+                }).join();
+        } finally {
+            crossWayRequest.complete();
+        }
     }
 
     public CompletableFuture<Object> async(Object request) {
-        return getConfig().getTransport().apply(() -> {
+        Transport transport = getConfig().getTransport();
+        CompletableFuture<CrossWayRequest> crossWayRequest = CompletableFuture.supplyAsync(() -> {
             Serializer serializer = getSerializer();
 
-            CrossWayRequest crossWayRequest = new CrossWayRequest();
-            crossWayRequest.setData(serializer.encode(request, null));
-            return crossWayRequest;
-        }).thenApplyAsync(response -> {
+            CrossWayRequest created = new CrossWayRequest();
+            created.setData(serializer.encode(request, null));
+            return created;
+        }, transport.getExecutor());
+        return transport.apply(crossWayRequest).thenApplyAsync(response -> {
             if (response.isError()) {
                 throw (RuntimeException) response.getError();
             }
 
             return getSerializer().decode(response.getData(), null);
-        });
+        }, transport.getExecutor()).whenComplete((result, e) -> crossWayRequest.thenAccept(CrossWayRequest::complete));
     }
 
     @Override
@@ -0,0 +1,69 @@
+package crossway.bootstrap;
+
+import crossway.cluster.ClusterSend;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.ext.api.Extension;
+import crossway.send.Send;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author iamcyw
+ **/
+public class ClusterSenderBootstrapTest {
+
+    @Test
+    public void testUnReferAllMembers() {
+        SenderConfig cluster = new SenderConfig().setId("test-cluster");
+        cluster.setCluster(true);
+        cluster.setMembers(Arrays.asList(member("fail-a"), member("b"), member("c")));
+        ClusterSend send = (ClusterSend) cluster.refer();
+        MemberSend.DESTROYED.clear();
+
+        cluster.unRefer();
+        // 第一个成员释放失败时其它成员仍然释放
+        Assertions.assertEquals(Arrays.asList("fail-a", "b", "c"), MemberSend.DESTROYED);
+        Assertions.assertNotSame(send, cluster.refer());
+        cluster.unRefer();
+    }
+
+    private static SenderConfig member(String id) {
+        SenderConfig config = new SenderConfig().setId(id);
+        config.setProtocol(MemberSend.ALIAS);
+        return config;
+    }
+
+    @Extension(MemberSend.ALIAS)
+    public static class MemberSend extends Send {
+        static final String       ALIAS     = "test-cluster-member";
+        static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+        public MemberSend(SenderConfig senderConfig) {
+            super(senderConfig);
+        }
+
+        @Override
+        protected String getDefaultSerializeType() {
+            return "string";
+        }
+
+        @Override
+        public CrossWayResponse invoke(CrossWayRequest request) {
+            return new CrossWayResponse();
+        }
+
+        @Override
+        public void destroy() {
+            DESTROYED.add(getConfig().getId());
+            if (getConfig().getId().startsWith("fail")) {
+                throw new IllegalStateException("Failed to close " + getConfig().getId());
+            }
+        }
+    }
+}
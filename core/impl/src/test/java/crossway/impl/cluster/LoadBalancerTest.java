@@ -0,0 +1,174 @@
+package crossway.impl.cluster;
+
+import crossway.cluster.ClusterSend;
+import crossway.cluster.LoadBalancer;
+import crossway.cluster.Member;
+import crossway.common.CrossWayOptions;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+import crossway.send.Send;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+class LoadBalancerTest {
+
+    @Test
+    void weightedRoundRobin() {
+        List<Member> members = Collections.unmodifiableList(Arrays.asList(member("a", 300), member("b", 100)));
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer(new SenderConfig());
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            order.append(balancer.select(members, null).getConfig().getId());
+        }
+        // 权重大的成员在一轮中均匀分布
+        Assertions.assertEquals("aabaaaba", order.toString());
+    }
+
+    @Test
+    void largeWeights() {
+        // 缩小到一轮的长度时不能溢出
+        List<Member> members = Collections.unmodifiableList(Arrays.asList(member("a", 3_000_000),
+                                                                          member("b", 1_000_001)));
+        RoundRobinLoadBalancer balancer = new RoundRobinLoadBalancer(new SenderConfig());
+        int a = 0;
+        for (int i = 0; i < RoundRobinLoadBalancer.MAX_SCHEDULE; i++) {
+            a += "a".equals(balancer.select(members, null).getConfig().getId()) ? 1 : 0;
+        }
+        Assertions.assertEquals(0.75, (double) a / RoundRobinLoadBalancer.MAX_SCHEDULE, 0.01);
+    }
+
+    @Test
+    void leastInFlight() {
+        Member a = member("a", 100);
+        Member b = member("b", 100);
+        LeastInFlightLoadBalancer balancer = new LeastInFlightLoadBalancer(new SenderConfig());
+        ClusterSend cluster = cluster(Arrays.asList(a, b), balancer);
+        StubSend.of(a).hold = true;
+        StubSend.of(b).hold = true;
+        cluster.invokeAsync(new CrossWayRequest());
+        Member idle = a.getInFlight() == 0 ? a : b;
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertSame(idle, balancer.select(cluster.getAvailable(), null));
+        }
+    }
+
+    @Test
+    void consistentHash() {
+        SenderConfig config = new SenderConfig().setParameter(CrossWayOptions.CLUSTER_HASH_KEY, "/user");
+        ConsistentHashLoadBalancer balancer = new ConsistentHashLoadBalancer(config);
+        List<Member> all = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            all.add(member("m" + i, 100));
+        }
+        Map<String, Member> owners = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            owners.put("u" + i, balancer.select(all, request("u" + i)));
+        }
+        Assertions.assertSame(owners.get("u1"), balancer.select(all, request("u1")));
+
+        // 去掉一个成员后只有它负责的值移动
+        Member removed = all.get(2);
+        List<Member> rest = new ArrayList<>(all);
+        rest.remove(removed);
+        int moved = 0;
+        for (Map.Entry<String, Member> entry : owners.entrySet()) {
+            Member owner = balancer.select(rest, request(entry.getKey()));
+            if (entry.getValue() != removed) {
+                Assertions.assertSame(entry.getValue(), owner);
+            } else {
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > 100 && moved < 300, String.valueOf(moved));
+    }
+
+    @Test
+    void ejectAndReadmit() throws InterruptedException {
+        Member bad = member("bad", 100);
+        Member good = member("good", 100);
+        ClusterSend cluster = new ClusterSend(new SenderConfig().setId("cluster"), Arrays.asList(bad, good),
+                                              new RoundRobinLoadBalancer(new SenderConfig()), 0.5, 4, 50);
+        StubSend.of(bad).error = true;
+        for (int i = 0; i < 8; i++) {
+            cluster.invoke(new CrossWayRequest());
+        }
+        Assertions.assertTrue(bad.isEjected());
+        Assertions.assertEquals(Collections.singletonList(good), cluster.getAvailable());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertFalse(cluster.invoke(new CrossWayRequest()).isError());
+        }
+
+        // 最后一个成员不会被摘除
+        StubSend.of(good).error = true;
+        for (int i = 0; i < 8; i++) {
+            cluster.invoke(new CrossWayRequest());
+        }
+        Assertions.assertFalse(good.isEjected());
+
+        Thread.sleep(60);
+        StubSend.of(bad).error = false;
+        cluster.invoke(new CrossWayRequest());
+        Assertions.assertFalse(bad.isEjected());
+        Assertions.assertEquals(2, cluster.getAvailable().size());
+    }
+
+    private static ClusterSend cluster(List<Member> members, LoadBalancer balancer) {
+        return new ClusterSend(new SenderConfig().setId("cluster"), members, balancer, 0.5, 20, 1000);
+    }
+
+    private static CrossWayRequest request(String user) {
+        ObjectNode data = NodeFactory.instance.objectNode();
+        data.put("user", user);
+        CrossWayRequest request = new CrossWayRequest();
+        request.setData(data);
+        return request;
+    }
+
+    private static Member member(String id, int weight) {
+        SenderConfig config = new SenderConfig().setId(id);
+        return new Member(config, new StubSend(config), weight);
+    }
+
+    private static class StubSend extends Send {
+        private volatile boolean error;
+        private volatile boolean hold;
+
+        private StubSend(SenderConfig senderConfig) {
+            super(senderConfig);
+        }
+
+        static StubSend of(Member member) {
+            return (StubSend) member.getSend();
+        }
+
+        @Override
+        protected String getDefaultSerializeType() {
+            return "string";
+        }
+
+        @Override
+        public CrossWayResponse invoke(CrossWayRequest request) {
+            CrossWayResponse response = new CrossWayResponse();
+            if (error) {
+                response.setErrorMsg("failed");
+            }
+            return response;
+        }
+
+        @Override
+        public CompletableFuture<CrossWayResponse> invokeAsync(CrossWayRequest request) {
+            return hold ? new CompletableFuture<>() : super.invokeAsync(request);
+        }
+    }
+}
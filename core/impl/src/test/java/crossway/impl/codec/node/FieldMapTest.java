@@ -0,0 +1,68 @@
+package crossway.impl.codec.node;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author iamcyw
+ **/
+public class FieldMapTest {
+
+    @Test
+    public void testInsertionOrder() {
+        for (int count : new int[]{3, FieldMap.MAX_FLAT, FieldMap.MAX_FLAT + 5}) {
+            ObjectNode node = NodeFactory.instance.objectNode();
+            Map<String, Object> expected = new LinkedHashMap<>();
+            for (int i = count; i > 0; i--) {
+                node.put("f" + i, i);
+                expected.put("f" + i, TextNode.class);
+            }
+            node.put("f1", "replaced");
+            Assertions.assertEquals(count, node.size());
+            Assertions.assertEquals(new ArrayList<>(expected.keySet()), names(node));
+            Assertions.assertEquals("replaced", node.get("f1").textValue());
+            Assertions.assertEquals(2, node.get("f2").intValue());
+            Assertions.assertNull(node.get("missing"));
+
+            node.remove("f2");
+            node.without(Arrays.asList("f3", "missing"));
+            expected.remove("f2");
+            expected.remove("f3");
+            Assertions.assertEquals(new ArrayList<>(expected.keySet()), names(node));
+        }
+    }
+
+    @Test
+    public void testEquals() {
+        ObjectNode small = NodeFactory.instance.objectNode();
+        ObjectNode other = NodeFactory.instance.objectNode();
+        TextNode a = NodeFactory.instance.textNode("a");
+        small.set("a", a);
+        small.set("b", BooleanNode.getTrue());
+        other.set("b", BooleanNode.getTrue());
+        other.set("a", a);
+        Assertions.assertEquals(small, other);
+        Assertions.assertEquals(small.hashCode(), other.hashCode());
+        Assertions.assertEquals(small, new ObjectNode(NodeFactory.instance, new LinkedHashMap<>(small._children)));
+
+        small.retain("a");
+        Assertions.assertEquals(Arrays.asList("a"), names(small));
+        small.removeAll();
+        Assertions.assertTrue(small.isEmpty());
+    }
+
+    private static List<String> names(ObjectNode node) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+            names.add(it.next());
+        }
+        return names;
+    }
+}
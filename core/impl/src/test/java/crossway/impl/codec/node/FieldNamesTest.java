@@ -0,0 +1,40 @@
+package crossway.impl.codec.node;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+class FieldNamesTest {
+
+    @Test
+    void canonical() {
+        byte[] bytes = "{\"timestamp\":1}".getBytes(StandardCharsets.UTF_8);
+        String first = FieldNames.of(bytes, 2, 11);
+        Assertions.assertEquals("timestamp", first);
+        Assertions.assertSame(first, FieldNames.of(bytes.clone(), 2, 11));
+        Assertions.assertSame(first, FieldNames.of("{timestamp:1}", 1, 10));
+    }
+
+    @Test
+    void notCached() {
+        byte[] bytes = "名称".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("名称", FieldNames.of(bytes, 0, bytes.length));
+        Assertions.assertNotSame(FieldNames.of(bytes, 0, bytes.length), FieldNames.of(bytes, 0, bytes.length));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= FieldNames.MAX_LENGTH; i++) {
+            sb.append('a');
+        }
+        Assertions.assertEquals(sb.toString(), FieldNames.of(sb, 0, sb.length()));
+    }
+
+    @Test
+    void collision() {
+        // 两个 hash 相同的字段名交替出现，结果始终正确
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("Aa", FieldNames.of("Aa", 0, 2));
+            Assertions.assertEquals("BB", FieldNames.of("BB", 0, 2));
+        }
+    }
+}
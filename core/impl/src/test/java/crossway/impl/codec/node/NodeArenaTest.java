@@ -0,0 +1,77 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+class NodeArenaTest {
+
+    @AfterEach
+    void reset() {
+        NodeArena.setChecking(false);
+    }
+
+    @Test
+    void recycle() {
+        NodeArena arena = NodeArena.open();
+        ObjectNode object = arena.factory().objectNode();
+        object.put("id", 1);
+        ArrayNode array = arena.factory().arrayNode();
+        array.add(new TextNode("a"));
+        object.set("tags", array);
+        Node snapshot = object.snapshot();
+        arena.release();
+        arena.release();
+        Assertions.assertThrows(IllegalStateException.class, () -> arena.factory().objectNode());
+
+        // 同一线程上的下一次请求复用清空后的节点
+        NodeArena next = NodeArena.open();
+        ObjectNode reused = next.factory().objectNode();
+        Assertions.assertSame(object, reused);
+        Assertions.assertEquals(0, reused.size());
+        Assertions.assertSame(array, next.factory().arrayNode());
+        Assertions.assertEquals(0, array.size());
+        next.release();
+
+        // 快照不受回收影响
+        Assertions.assertEquals(1, snapshot.get("id").intValue());
+        Assertions.assertEquals("a", snapshot.get("tags").get(0).textValue());
+    }
+
+    @Test
+    void checking() {
+        NodeArena.setChecking(true);
+        NodeArena arena = NodeArena.open();
+        ObjectNode object = arena.factory().objectNode();
+        object.put("id", 1);
+        ArrayNode array = arena.factory().arrayNode();
+        arena.release();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> object.get("id"));
+        Assertions.assertThrows(IllegalStateException.class, () -> object.put("id", 2));
+        Assertions.assertThrows(IllegalStateException.class, object::size);
+        Assertions.assertThrows(IllegalStateException.class, object::fields);
+        Assertions.assertThrows(IllegalStateException.class, object::removeAll);
+        Assertions.assertThrows(IllegalStateException.class, () -> array.get(0));
+        Assertions.assertThrows(IllegalStateException.class, () -> array.add(NullNode.getInstance()));
+
+        // 释放的节点不再复用
+        NodeArena next = NodeArena.open();
+        Assertions.assertNotSame(object, next.factory().objectNode());
+        next.release();
+    }
+
+    @Test
+    void context() {
+        Assertions.assertSame(NodeFactory.instance, NodeArena.factory(null));
+        Assertions.assertSame(NodeFactory.instance, NodeArena.factory(Collections.emptyMap()));
+        NodeArena arena = NodeArena.open();
+        Assertions.assertSame(arena.factory(),
+                              NodeArena.factory(Collections.singletonMap(NodeArena.CONTEXT_KEY, arena)));
+        Assertions.assertEquals(12, arena.factory().numberNode(12).intValue());
+        arena.release();
+    }
+}
@@ -0,0 +1,57 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+import crossway.codec.node.NodeType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+class NumericNodeTest {
+
+    private final NodeFactory factory = NodeFactory.instance;
+
+    @Test
+    void factory() {
+        Node[] nodes = {factory.numberNode((short) 3), factory.numberNode(3), factory.numberNode(3L),
+                        factory.numberNode(3f), factory.numberNode(3d), factory.numberNode(BigInteger.valueOf(3)),
+                        factory.numberNode(new BigDecimal("3.00"))};
+        for (Node node : nodes) {
+            Assertions.assertEquals(NodeType.NUMBER, node.getNodeType(), node.getClass().getName());
+            Assertions.assertEquals(3, node.intValue());
+            Assertions.assertEquals(3L, node.asLong());
+            Assertions.assertEquals(3d, node.asDouble());
+            Assertions.assertEquals(0, BigDecimal.valueOf(3).compareTo(node.decimalValue()));
+            Assertions.assertTrue(node.canConvertToInt());
+        }
+        Assertions.assertTrue(nodes[0].isShort());
+        Assertions.assertTrue(nodes[3].isFloat());
+        Assertions.assertTrue(nodes[4].isDouble());
+        Assertions.assertTrue(nodes[5].isBigInteger());
+        Assertions.assertEquals("3", nodes[6].asText());
+        Assertions.assertEquals("3.00", new NodeFactory(true).numberNode(new BigDecimal("3.00")).asText());
+        Assertions.assertTrue(factory.numberNode((Double) null).isNull());
+        Assertions.assertTrue(factory.numberNode((BigDecimal) null).isNull());
+    }
+
+    @Test
+    void canonical() {
+        Assertions.assertSame(factory.numberNode(1000), factory.numberNode(1000));
+        Assertions.assertSame(factory.numberNode(-128L), factory.numberNode(-128L));
+        Assertions.assertNotSame(factory.numberNode(1024L), factory.numberNode(1024L));
+        Assertions.assertEquals(factory.numberNode(1024L), factory.numberNode(1024L));
+        Assertions.assertEquals(factory.numberNode(0.5), factory.numberNode(0.5));
+    }
+
+    @Test
+    void conversion() {
+        Node big = factory.numberNode(Long.MAX_VALUE);
+        Assertions.assertFalse(big.canConvertToInt());
+        Assertions.assertTrue(big.canConvertToLong());
+        Assertions.assertEquals(BigInteger.valueOf(Long.MAX_VALUE), big.bigIntegerValue());
+        Assertions.assertFalse(factory.numberNode(BigInteger.TEN.pow(20)).canConvertToLong());
+        Assertions.assertEquals(new BigDecimal("0.1"), factory.numberNode(0.1f).decimalValue());
+        Assertions.assertEquals(2, factory.numberNode(2.9).intValue());
+    }
+}
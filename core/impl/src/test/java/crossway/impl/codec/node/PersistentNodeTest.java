@@ -0,0 +1,108 @@
+package crossway.impl.codec.node;
+
+import crossway.codec.node.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+class PersistentNodeTest {
+
+    @Test
+    void withAndWithout() {
+        PersistentObjectNode user = PersistentObjectNode.empty().with("name", new TextNode("cyw"));
+        PersistentObjectNode root = PersistentObjectNode.empty().with("id", IntNode.valueOf(1)).with("user", user);
+
+        PersistentObjectNode changed = root.with("id", IntNode.valueOf(2));
+        Assertions.assertEquals(1, root.get("id").intValue());
+        Assertions.assertEquals(2, changed.get("id").intValue());
+        // 没有修改的子树是共享的
+        Assertions.assertSame(root.get("user"), changed.get("user"));
+
+        PersistentObjectNode removed = changed.without("id");
+        Assertions.assertNull(removed.get("id"));
+        Assertions.assertEquals(1, removed.size());
+        Assertions.assertEquals(2, changed.size());
+        Assertions.assertSame(removed, removed.without("id"));
+    }
+
+    @Test
+    void manyFields() {
+        PersistentObjectNode node = PersistentObjectNode.empty();
+        for (int i = 0; i < 100; i++) {
+            node = node.with("f" + i, IntNode.valueOf(i));
+        }
+        // 冲突的 hash
+        node = node.with("Aa", IntNode.valueOf(-1)).with("BB", IntNode.valueOf(-2));
+        for (int i = 0; i < 100; i += 2) {
+            node = node.without("f" + i);
+        }
+        Assertions.assertEquals(52, node.size());
+        Assertions.assertEquals(-1, node.get("Aa").intValue());
+        Assertions.assertEquals(-2, node.without("Aa").get("BB").intValue());
+        Assertions.assertNull(node.get("f10"));
+        Assertions.assertEquals(11, node.get("f11").intValue());
+
+        // 保持插入顺序
+        Iterator<String> names = node.fieldNames();
+        for (int i = 1; i < 100; i += 2) {
+            Assertions.assertEquals("f" + i, names.next());
+        }
+        Assertions.assertEquals("Aa", names.next());
+        Assertions.assertEquals("BB", names.next());
+        Assertions.assertFalse(names.hasNext());
+
+        for (int i = 1; i < 100; i += 2) {
+            node = node.without("f" + i);
+        }
+        Assertions.assertEquals(2, node.size());
+        Assertions.assertEquals(-2, node.get("BB").intValue());
+    }
+
+    @Test
+    void array() {
+        PersistentArrayNode array = PersistentArrayNode.empty();
+        int count = 32 * 32 + 100;
+        for (int i = 0; i < count; i++) {
+            array = array.append(IntNode.valueOf(i));
+        }
+        PersistentArrayNode changed = array.with(500, new TextNode("x"));
+        Assertions.assertEquals(500, array.get(500).intValue());
+        Assertions.assertEquals("x", changed.get(500).textValue());
+        Assertions.assertEquals(count, changed.size());
+        Assertions.assertNull(changed.get(count));
+
+        PersistentArrayNode removed = changed.without(0);
+        Assertions.assertEquals(count - 1, removed.size());
+        Assertions.assertEquals(1, removed.get(0).intValue());
+        Assertions.assertEquals(count - 1, removed.get(count - 2).intValue());
+
+        int i = 0;
+        for (Node element : array) {
+            Assertions.assertEquals(i++, element.intValue());
+        }
+        Assertions.assertEquals(count, i);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> changed.with(count, NullNode.getInstance()));
+    }
+
+    @Test
+    void snapshot() {
+        ObjectNode source = NodeFactory.instance.objectNode();
+        source.put("id", 1);
+        source.putArray("tags").add(new TextNode("a"));
+
+        Node snapshot = source.snapshot();
+        Assertions.assertTrue(snapshot instanceof PersistentObjectNode);
+        Assertions.assertTrue(snapshot.get("tags") instanceof PersistentArrayNode);
+        Assertions.assertSame(snapshot, snapshot.snapshot());
+
+        // 修改原节点不影响快照
+        source.put("id", 2);
+        ((ArrayNode) source.get("tags")).add(new TextNode("b"));
+        Assertions.assertEquals(1, snapshot.get("id").intValue());
+        Assertions.assertEquals(1, snapshot.get("tags").size());
+
+        Assertions.assertEquals(PersistentObjectNode.empty().with("id", IntNode.valueOf(1)),
+                                ((PersistentObjectNode) snapshot).without("tags"));
+    }
+}
@@ -0,0 +1,124 @@
+package crossway.impl.filter;
+
+import crossway.core.request.CrossWayRequest;
+import crossway.impl.codec.node.NodeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+class LogFilterTest {
+
+    @Test
+    void ring() {
+        LogRing<Integer> ring = new LogRing<>(3);
+        Assertions.assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(ring.offer(i));
+        }
+        Assertions.assertFalse(ring.offer(4));
+        Assertions.assertEquals(0, ring.poll().intValue());
+        Assertions.assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertEquals(i, ring.poll().intValue());
+        }
+        Assertions.assertNull(ring.poll());
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        LogRing<Integer> ring = new LogRing<>(64);
+        int producers = 4;
+        int count = 10000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * count;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < count; i++) {
+                    while (!ring.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        // 每个生产者的元素保持自己的顺序，并且不丢失
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * count) {
+            Integer item = ring.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = item / count;
+            Assertions.assertEquals(next[producer]++, item % count);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertNull(ring.poll());
+    }
+
+    @Test
+    void sampling() {
+        LogFilter.Sampler sampler = new LogFilter.Sampler(2);
+        Assertions.assertTrue(sampler.tryAcquire(100));
+        Assertions.assertTrue(sampler.tryAcquire(100));
+        Assertions.assertFalse(sampler.tryAcquire(100));
+        Assertions.assertTrue(sampler.tryAcquire(101));
+
+        LogFilter every = new LogFilter(1, 0, 16, 4);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(every.sample());
+        }
+        LogFilter sampled = new LogFilter(1000, 0, 16, 4);
+        int hits = 0;
+        for (int i = 0; i < 10000; i++) {
+            hits += sampled.sample() ? 1 : 0;
+        }
+        Assertions.assertTrue(hits < 100, String.valueOf(hits));
+    }
+
+    @Test
+    void truncate() {
+        byte[] text = "ab中文".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("ab中文", LogFilter.truncate(text, 8));
+        Assertions.assertEquals("ab中文", LogFilter.truncate(text, 0));
+        // 不截断多字节字符
+        Assertions.assertEquals("ab中...(8 bytes)", LogFilter.truncate(text, 6));
+        Assertions.assertEquals("ab...(8 bytes)", LogFilter.truncate(text, 4));
+
+        LogFilter filter = new LogFilter(1, 0, 4, 4);
+        Assertions.assertEquals("{\"a\"...(9 bytes)",
+                                filter.format(new LogFilter.Entry("{\"a\":123}".getBytes(StandardCharsets.UTF_8),
+                                                                  "json", false)));
+    }
+
+    @Test
+    void captureData() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append('a');
+        }
+        CrossWayRequest request = new CrossWayRequest();
+        request.setData(NodeFactory.instance.textNode(text.toString()));
+        LogFilter filter = new LogFilter(1, 0, 8, 4);
+        // 只序列化到上限字节数
+        String formatted = filter.format(filter.entry(request));
+        Assertions.assertTrue(formatted.endsWith("...(more than 8 bytes)"), formatted);
+        Assertions.assertTrue(formatted.length() <= 8 + "...(more than 8 bytes)".length(), formatted);
+    }
+}
@@ -0,0 +1,76 @@
+package crossway.impl.filter;
+
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.metrics.LatencyHistogram;
+import crossway.metrics.LatencySnapshot;
+import crossway.metrics.MetricsRegistry;
+import crossway.metrics.RouteMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+class MetricsFilterTest {
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(100000, snapshot.getCount());
+        Assertions.assertEquals(100000000, snapshot.getMax());
+        assertClose(50000000, snapshot.getP50());
+        assertClose(99000000, snapshot.getP99());
+        assertClose(99900000, snapshot.getP999());
+        Assertions.assertEquals(50000500, snapshot.getMean(), 1);
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.snapshot().getCount());
+        Assertions.assertEquals(0, histogram.snapshot().getP99());
+    }
+
+    @Test
+    void recordOnComplete() throws Exception {
+        String route = "metrics-test";
+        SenderConfig senderConfig = new SenderConfig().setId(route);
+        MetricsRegistry.remove(route);
+
+        CrossWayRequest request = new CrossWayRequest();
+        new MetricsFilter().prepare(request);
+        request.markStart(senderConfig);
+        request.markSend();
+        request.markReceive(false);
+        request.complete();
+
+        CrossWayRequest failed = new CrossWayRequest();
+        new MetricsFilter().prepare(failed);
+        failed.markStart(senderConfig);
+        failed.complete();
+
+        RouteMetrics metrics = MetricsRegistry.route(route);
+        Assertions.assertEquals(2, metrics.getRequests());
+        Assertions.assertEquals(1, metrics.getErrors());
+        Assertions.assertEquals(1, metrics.getFilterLatency().getCount());
+        Assertions.assertEquals(1, metrics.getSendLatency().getCount());
+        Assertions.assertEquals(1, metrics.getResponseLatency().getCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("crossway:type=RouteMetrics,name=" + ObjectName.quote(route));
+        Assertions.assertEquals(2L, server.getAttribute(name, "Requests"));
+        CompositeData send = (CompositeData) server.getAttribute(name, "SendLatency");
+        Assertions.assertEquals(1L, send.get("count"));
+
+        MetricsRegistry.remove(route);
+        Assertions.assertFalse(server.isRegistered(name));
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 32, expected + " ~ " + actual);
+    }
+}
@@ -0,0 +1,67 @@
+package crossway.impl.filter;
+
+import crossway.common.CrossWayOptions;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class RateLimitFilterTest {
+
+    @Test
+    void bucket() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, bucket.acquire(now, 0));
+        }
+        Assertions.assertEquals(-1, bucket.acquire(now, 0));
+        // 每 100ms 补充一个令牌
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.acquire(now, Long.MAX_VALUE));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.acquire(now, Long.MAX_VALUE));
+        Assertions.assertEquals(-1, bucket.acquire(now, TimeUnit.MILLISECONDS.toNanos(250)));
+        Assertions.assertEquals(0, bucket.acquire(now + TimeUnit.MILLISECONDS.toNanos(600), 0));
+    }
+
+    @Test
+    void reject() {
+        SenderConfig config = new SenderConfig().setId("ratelimit-reject")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_RATE, "1")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_BURST, "2");
+        RateLimitFilter filter = new RateLimitFilter();
+        Assertions.assertEquals(0, filter.delay(request(config)));
+        Assertions.assertEquals(0, filter.delay(request(config)));
+        CrossWayException e = Assertions.assertThrows(CrossWayException.class, () -> filter.delay(request(config)));
+        Assertions.assertEquals(WayErrorType.SERVER_LIMIT, e.getErrorType());
+
+        // 没有配置时不限流
+        SenderConfig unlimited = new SenderConfig().setId("ratelimit-none");
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(0, filter.delay(request(unlimited)));
+        }
+    }
+
+    @Test
+    void delay() {
+        SenderConfig config = new SenderConfig().setId("ratelimit-delay")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_RATE, "10")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_BURST, "1")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_MODE, "delay")
+                                                .setParameter(CrossWayOptions.RATE_LIMIT_MAX_DELAY, "150");
+        RateLimitFilter filter = new RateLimitFilter();
+        Assertions.assertEquals(0, filter.delay(request(config)));
+        long wait = filter.delay(request(config));
+        Assertions.assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), String.valueOf(wait));
+        Assertions.assertThrows(CrossWayException.class, () -> filter.delay(request(config)));
+    }
+
+    private static CrossWayRequest request(SenderConfig config) {
+        CrossWayRequest request = new CrossWayRequest();
+        request.markStart(config);
+        return request;
+    }
+}
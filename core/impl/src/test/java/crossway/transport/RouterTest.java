@@ -0,0 +1,91 @@
+package crossway.transport;
+
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.impl.codec.node.NodeFactory;
+import crossway.impl.codec.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class RouterTest {
+
+    @Test
+    void firstMatchingRule() {
+        SenderConfig orders = new SenderConfig().setId("orders");
+        SenderConfig vip = new SenderConfig().setId("vip");
+        SenderConfig eu = new SenderConfig().setId("eu");
+        SenderConfig fallback = new SenderConfig().setId("fallback");
+        Router router = Router.compile(Arrays.asList(
+            new RouteRule(vip).fieldEquals("/type", "order").fieldRange("$.amount", 1000, Double.POSITIVE_INFINITY),
+            new RouteRule(orders).fieldEquals("/type", "order", "refund"),
+            new RouteRule(eu).fieldPrefix("/region", "eu-"),
+            new RouteRule(orders).propEquals("channel", "web")), fallback);
+
+        Assertions.assertSame(vip, router.route(request("order", 5000, "us")));
+        Assertions.assertSame(orders, router.route(request("order", 10, "eu-west")));
+        Assertions.assertSame(orders, router.route(request("refund", 5000, "us")));
+        Assertions.assertSame(eu, router.route(request("quote", 10, "eu-west")));
+        Assertions.assertSame(fallback, router.route(request("quote", 10, "us")));
+
+        CrossWayRequest web = request("quote", 10, "us");
+        web.addRequestProp("channel", "web");
+        Assertions.assertSame(orders, router.route(web));
+        Assertions.assertEquals(Arrays.asList(vip, orders, eu, fallback), router.getTargets());
+    }
+
+    @Test
+    void dispatchTable() {
+        List<RouteRule> rules = new ArrayList<>();
+        List<SenderConfig> targets = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            SenderConfig target = new SenderConfig().setId("route-" + i);
+            targets.add(target);
+            rules.add(new RouteRule(target).fieldEquals("/type", "t" + (i % 100)).propEquals("tenant", "c" + i / 100));
+        }
+        SenderConfig any = new SenderConfig().setId("any");
+        rules.add(new RouteRule(any).fieldPrefix("/region", "eu-"));
+        Router router = Router.compile(rules, null);
+
+        // 按 type 和 tenant 两层查表，之后最多检查少量规则
+        Assertions.assertTrue(router.depth() <= 3, String.valueOf(router.depth()));
+        for (int i = 0; i < 500; i++) {
+            CrossWayRequest request = request("t" + (i % 100), 1, "us");
+            request.addRequestProp("tenant", "c" + i / 100);
+            Assertions.assertSame(targets.get(i), router.route(request));
+        }
+        Assertions.assertSame(any, router.route(request("unknown", 1, "eu-north")));
+        Assertions.assertNull(router.route(request("unknown", 1, "us")));
+    }
+
+    @Test
+    void equivalentPathsShareKey() {
+        List<RouteRule> rules = new ArrayList<>();
+        List<SenderConfig> targets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            SenderConfig target = new SenderConfig().setId("same-" + i);
+            targets.add(target);
+            rules.add(new RouteRule(target).fieldEquals(i % 2 == 0 ? "/type" : "$.type", "t" + i));
+        }
+        Router router = Router.compile(rules, null);
+
+        // 两种写法在同一张表里
+        Assertions.assertEquals(2, router.depth());
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertSame(targets.get(i), router.route(request("t" + i, 1, "us")));
+        }
+    }
+
+    private static CrossWayRequest request(String type, int amount, String region) {
+        ObjectNode data = NodeFactory.instance.objectNode();
+        data.put("type", type);
+        data.put("amount", amount);
+        data.put("region", region);
+        CrossWayRequest request = new CrossWayRequest();
+        request.setData(data);
+        return request;
+    }
+}
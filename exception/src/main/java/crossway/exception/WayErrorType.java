@@ -11,4 +11,9 @@ public class WayErrorType {
     public static final int SERVER_FILTER = 170;
 
     public static final int SERVER_SEND = 180;
+
+    /**
+     * 服务端限流
+     */
+    public static final int SERVER_LIMIT = 190;
 }
@@ -0,0 +1,283 @@
+package crossway.http.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 到同一个目标地址的 HTTP/1.1 keep-alive 连接池
+ * <p>
+ * 请求在调用线程上编码后交给共用的 IO 线程，返回的 {@link CompletableFuture} 在响应完整后完成，等待期间不占用任何线程。
+ * 同时进行中的请求数不超过最大连接数，其余请求排队，队列满时直接失败。
+ *
+ * @author iamcyw
+ **/
+public class ConnectionPool implements Closeable {
+
+    private final HttpIoLoop        loop;
+    private final InetSocketAddress address;
+    private final String            target;
+    private final String            hostHeader;
+    private final String            path;
+    private final int               maxConnections;
+    private final int               maxPending;
+    private final long              connectTimeout;
+    private final long              idleTimeout;
+
+    // 以下只在 IO 线程上修改
+    private final ArrayDeque<HttpConnection> idle    = new ArrayDeque<>();
+    private final ArrayDeque<HttpExchange>   pending = new ArrayDeque<>();
+    private final Set<HttpConnection>        busy    = new HashSet<>();
+    private       int                        total;
+
+    private volatile int     activeCount;
+    private volatile int     pendingCount;
+    private volatile int     idleCount;
+    private volatile boolean closed;
+
+    /**
+     * 创建连接池
+     *
+     * @param uri
+     *     目标地址，只支持 http
+     * @param maxConnections
+     *     最大连接数，即同时进行中的请求数
+     * @param maxPending
+     *     排队的最大请求数
+     * @param connectTimeout
+     *     建立连接的超时时间（毫秒）
+     * @param idleTimeout
+     *     空闲连接的保持时间（毫秒）
+     */
+    public ConnectionPool(URI uri, int maxConnections, int maxPending, long connectTimeout, long idleTimeout) {
+        if (!"http".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Only http is supported, but was " + uri);
+        }
+        int port = uri.getPort() < 0 ? 80 : uri.getPort();
+        String rawPath = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        this.loop = HttpIoLoop.getInstance();
+        this.address = new InetSocketAddress(uri.getHost(), port);
+        this.target = uri.getHost() + ":" + port;
+        this.hostHeader = port == 80 ? uri.getHost() : target;
+        this.path = uri.getRawQuery() == null ? rawPath : rawPath + "?" + uri.getRawQuery();
+        this.maxConnections = Math.max(1, maxConnections);
+        this.maxPending = Math.max(0, maxPending);
+        this.connectTimeout = connectTimeout;
+        this.idleTimeout = idleTimeout;
+        loop.addPool(this);
+    }
+
+    /**
+     * 发送请求
+     *
+     * @param method
+     *     请求方法
+     * @param body
+     *     请求体，可以为null
+     * @param contentType
+     *     请求体类型
+     * @param timeout
+     *     超时时间（毫秒），包括排队时间
+     *
+     * @return 响应
+     */
+    public CompletableFuture<HttpResponse> send(String method, ByteBuffer body, String contentType, long timeout) {
+        int length = body == null ? 0 : body.remaining();
+        StringBuilder head = new StringBuilder(128).append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                                                   .append("Host: ").append(hostHeader).append("\r\n");
+        if (contentType != null && length > 0) {
+            head.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        head.append("Content-Length: ").append(length).append("\r\n\r\n");
+        ByteBuffer headBuffer = ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        ByteBuffer[] request = length == 0 ? new ByteBuffer[]{headBuffer} : new ByteBuffer[]{headBuffer, body};
+
+        HttpExchange exchange = new HttpExchange(request, "HEAD".equalsIgnoreCase(method),
+                                                 System.currentTimeMillis() + timeout);
+        if (closed) {
+            exchange.fail(new IOException("Connection pool to " + target + " is closed"));
+        } else {
+            loop.execute(() -> enqueue(exchange));
+        }
+        return exchange.getFuture();
+    }
+
+    private void enqueue(HttpExchange exchange) {
+        if (closed) {
+            exchange.fail(new IOException("Connection pool to " + target + " is closed"));
+        } else if (pending.size() >= maxPending && total >= maxConnections && idle.isEmpty()) {
+            exchange.fail(new RejectedExecutionException("Too many pending requests to " + target));
+        } else {
+            pending.add(exchange);
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        while (!pending.isEmpty() && !closed) {
+            HttpConnection connection = idle.pollLast();
+            if (connection != null && !connection.isOpen()) {
+                total--;
+                continue;
+            }
+            if (connection == null) {
+                if (total >= maxConnections) {
+                    break;
+                }
+                try {
+                    connection = HttpConnection.open(this, loop, address, connectTimeout);
+                    total++;
+                } catch (IOException e) {
+                    pending.poll().fail(e);
+                    continue;
+                }
+            }
+            busy.add(connection);
+            connection.start(pending.poll());
+        }
+        updateCounts();
+    }
+
+    /**
+     * 请求完成，连接可以复用时放回空闲队列
+     */
+    void release(HttpConnection connection, boolean keepAlive) {
+        busy.remove(connection);
+        if (keepAlive && !closed) {
+            idle.add(connection);
+        } else {
+            connection.close();
+            total--;
+        }
+        dispatch();
+    }
+
+    /**
+     * 连接失败或被关闭
+     */
+    void onFailure(HttpConnection connection, HttpExchange exchange, Throwable e, boolean retryable) {
+        if (busy.remove(connection) || idle.remove(connection)) {
+            total--;
+        }
+        if (exchange != null) {
+            if (retryable && !exchange.isRetried() && !closed) {
+                // 复用的连接可能已经被服务端关闭，没有收到任何响应时在新连接上重试一次
+                exchange.setRetried();
+                pending.addFirst(exchange);
+            } else {
+                exchange.fail(e);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * 检查超时，由 IO 线程定时调用
+     *
+     * @param now
+     *     当前时间
+     */
+    void expire(long now) {
+        for (Iterator<HttpExchange> it = pending.iterator(); it.hasNext(); ) {
+            HttpExchange exchange = it.next();
+            if (exchange.isExpired(now)) {
+                it.remove();
+                exchange.fail(new TimeoutException("Request to " + target + " timed out while pending"));
+            }
+        }
+        for (HttpConnection connection : new ArrayList<>(busy)) {
+            HttpExchange exchange = connection.getExchange();
+            if (exchange != null && exchange.isExpired(now)) {
+                exchange.setRetried();
+                connection.fail(new TimeoutException("Request to " + target + " timed out"));
+            } else if (connection.isConnectExpired(now)) {
+                if (exchange != null) {
+                    exchange.setRetried();
+                }
+                connection.fail(new TimeoutException("Connect to " + target + " timed out"));
+            }
+        }
+        for (Iterator<HttpConnection> it = idle.iterator(); it.hasNext(); ) {
+            HttpConnection connection = it.next();
+            if (connection.isIdleExpired(now, idleTimeout)) {
+                it.remove();
+                connection.close();
+                total--;
+            }
+        }
+        updateCounts();
+    }
+
+    private void updateCounts() {
+        activeCount = busy.size();
+        pendingCount = pending.size();
+        idleCount = idle.size();
+    }
+
+    /**
+     * 关闭连接池，排队中和进行中的请求都会失败
+     */
+    @Override
+    public void close() {
+        closed = true;
+        loop.execute(() -> {
+            IOException e = new IOException("Connection pool to " + target + " is closed");
+            HttpExchange exchange;
+            while ((exchange = pending.poll()) != null) {
+                exchange.fail(e);
+            }
+            for (HttpConnection connection : new ArrayList<>(busy)) {
+                connection.fail(e);
+            }
+            for (HttpConnection connection : idle) {
+                connection.close();
+            }
+            idle.clear();
+            total = 0;
+            updateCounts();
+            loop.removePool(this);
+        });
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * 进行中的请求数
+     *
+     * @return 请求数
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * 排队中的请求数
+     *
+     * @return 请求数
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * 空闲的连接数
+     *
+     * @return 连接数
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+}
@@ -0,0 +1,193 @@
+package crossway.http.client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 一个 keep-alive 连接，同一时间只处理一个请求
+ * <p>
+ * 只在 {@link HttpIoLoop} 的线程上使用。
+ *
+ * @author iamcyw
+ **/
+final class HttpConnection {
+
+    private final ConnectionPool     pool;
+    private final HttpIoLoop         loop;
+    private final SocketChannel      channel;
+    private final SelectionKey       key;
+    private final HttpResponseParser parser = new HttpResponseParser();
+
+    private boolean      connected;
+    private long         connectDeadline;
+    private long         idleSince;
+    private boolean      reused;
+    private HttpExchange exchange;
+    private ByteBuffer[] writing;
+
+    private HttpConnection(ConnectionPool pool, HttpIoLoop loop, InetSocketAddress address, long connectTimeout)
+        throws IOException {
+        this.pool = pool;
+        this.loop = loop;
+        this.channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            this.connected = channel.connect(address);
+            this.connectDeadline = System.currentTimeMillis() + connectTimeout;
+            this.key = loop.register(channel, connected ? 0 : SelectionKey.OP_CONNECT, this);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static HttpConnection open(ConnectionPool pool, HttpIoLoop loop, InetSocketAddress address, long connectTimeout)
+        throws IOException {
+        return new HttpConnection(pool, loop, address, connectTimeout);
+    }
+
+    /**
+     * 开始一次请求
+     *
+     * @param exchange
+     *     请求
+     */
+    void start(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.writing = exchange.newRequestBuffers();
+        this.parser.reset(exchange.isHeadRequest());
+        if (connected) {
+            try {
+                write();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                fail(new IOException("Connection closed"));
+                return;
+            }
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                connected = true;
+                key.interestOps(0);
+                if (exchange != null) {
+                    write();
+                }
+            }
+            if (key.isValid() && key.isWritable()) {
+                write();
+            }
+            if (key.isValid() && key.isReadable()) {
+                read();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void write() throws IOException {
+        channel.write(writing);
+        if (writing[writing.length - 1].hasRemaining()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            writing = null;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void read() throws IOException {
+        ByteBuffer buffer = loop.getReadBuffer();
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer);
+            if (n < 0) {
+                onClose();
+                return;
+            }
+            if (n == 0) {
+                return;
+            }
+            buffer.flip();
+            if (exchange == null) {
+                // 空闲连接上不应该有数据
+                fail(new IOException("Unexpected data on idle connection"));
+                return;
+            }
+            if (parser.feed(buffer)) {
+                complete();
+                return;
+            }
+        }
+    }
+
+    private void onClose() throws IOException {
+        if (exchange != null && parser.onClose()) {
+            complete();
+        } else {
+            fail(new IOException("Connection closed by peer"));
+        }
+    }
+
+    private void complete() {
+        HttpExchange current = exchange;
+        HttpResponse response = parser.getResponse();
+        boolean keepAlive = parser.isKeepAlive();
+        exchange = null;
+        reused = true;
+        idleSince = System.currentTimeMillis();
+        if (keepAlive) {
+            // 空闲时监听关闭事件
+            key.interestOps(SelectionKey.OP_READ);
+        }
+        pool.release(this, keepAlive);
+        current.complete(response);
+    }
+
+    /**
+     * 关闭连接并把失败交给连接池处理
+     *
+     * @param e
+     *     原因
+     */
+    void fail(Throwable e) {
+        close();
+        HttpExchange current = exchange;
+        exchange = null;
+        pool.onFailure(this, current, e, reused && !parser.isReceived());
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignore) { // NOPMD
+        }
+    }
+
+    HttpExchange getExchange() {
+        return exchange;
+    }
+
+    boolean isConnectExpired(long now) {
+        return !connected && now >= connectDeadline;
+    }
+
+    boolean isIdleExpired(long now, long idleTimeout) {
+        return exchange == null && now - idleSince >= idleTimeout;
+    }
+
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+}
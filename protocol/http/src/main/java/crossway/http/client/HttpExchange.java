@@ -0,0 +1,69 @@
+package crossway.http.client;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 一次请求响应
+ *
+ * @author iamcyw
+ **/
+final class HttpExchange {
+
+    private final ByteBuffer[]                    request;
+    private final boolean                         headRequest;
+    private final long                            deadline;
+    private final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+
+    /**
+     * 是否已经重试过
+     */
+    private boolean retried;
+
+    HttpExchange(ByteBuffer[] request, boolean headRequest, long deadline) {
+        this.request = request;
+        this.headRequest = headRequest;
+        this.deadline = deadline;
+    }
+
+    /**
+     * 待写出的请求，每次发送都从头开始
+     *
+     * @return 请求数据
+     */
+    ByteBuffer[] newRequestBuffers() {
+        ByteBuffer[] buffers = new ByteBuffer[request.length];
+        for (int i = 0; i < request.length; i++) {
+            buffers[i] = request[i].duplicate();
+        }
+        return buffers;
+    }
+
+    boolean isHeadRequest() {
+        return headRequest;
+    }
+
+    boolean isExpired(long now) {
+        return now >= deadline;
+    }
+
+    boolean isRetried() {
+        return retried;
+    }
+
+    void setRetried() {
+        this.retried = true;
+    }
+
+    CompletableFuture<HttpResponse> getFuture() {
+        return future;
+    }
+
+    void complete(HttpResponse response) {
+        future.complete(response);
+    }
+
+    void fail(Throwable e) {
+        future.completeExceptionally(e);
+    }
+}
@@ -0,0 +1,141 @@
+package crossway.http.client;
+
+import crossway.struct.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 所有连接池共用的 IO 线程
+ * <p>
+ * 连接、写请求、读响应以及超时检查都在这一个线程上完成，连接池的状态只在该线程上修改，因此不需要加锁。
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+final class HttpIoLoop implements Runnable {
+
+    /**
+     * 超时检查的间隔（毫秒）
+     */
+    private static final long TICK = 50;
+
+    private static volatile HttpIoLoop instance;
+
+    private final Selector                 selector;
+    private final Queue<Runnable>          tasks      = new ConcurrentLinkedQueue<>();
+    private final Set<ConnectionPool>      pools      = new LinkedHashSet<>();
+    private final ByteBuffer               readBuffer = ByteBuffer.allocate(16 * 1024);
+    private final Thread                   thread;
+
+    private HttpIoLoop() {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.thread = new NamedThreadFactory("http-io", true).newThread(this);
+        this.thread.start();
+    }
+
+    static HttpIoLoop getInstance() {
+        HttpIoLoop loop = instance;
+        if (loop == null) {
+            synchronized (HttpIoLoop.class) {
+                loop = instance;
+                if (loop == null) {
+                    loop = new HttpIoLoop();
+                    instance = loop;
+                }
+            }
+        }
+        return loop;
+    }
+
+    /**
+     * 在 IO 线程上执行
+     *
+     * @param task
+     *     任务
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    void addPool(ConnectionPool pool) {
+        execute(() -> pools.add(pool));
+    }
+
+    void removePool(ConnectionPool pool) {
+        pools.remove(pool);
+    }
+
+    SelectionKey register(SocketChannel channel, int ops, HttpConnection connection) throws ClosedChannelException {
+        return channel.register(selector, ops, connection);
+    }
+
+    /**
+     * IO 线程上共用的读缓冲区，数据在返回前已经被解析器复制走
+     *
+     * @return 读缓冲区
+     */
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    @Override
+    public void run() {
+        long lastTick = System.currentTimeMillis();
+        while (true) {
+            try {
+                selector.select(TICK);
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    ((HttpConnection) key.attachment()).handle(key);
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastTick >= TICK) {
+                    lastTick = now;
+                    for (ConnectionPool pool : new ArrayList<>(pools)) {
+                        pool.expire(now);
+                    }
+                }
+            } catch (Throwable e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Unexpected error in http io loop", e);
+                }
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                if (log.isErrorEnabled()) {
+                    log.error("Unexpected error in http io task", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package crossway.http.client;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * HTTP 响应
+ *
+ * @author iamcyw
+ **/
+public final class HttpResponse {
+
+    private final int                 status;
+    private final Map<String, String> headers;
+    private final byte[]              body;
+
+    HttpResponse(int status, Map<String, String> headers, byte[] body) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * 响应头，名称都是小写的
+     *
+     * @return 响应头
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,236 @@
+package crossway.http.client;
+
+import crossway.struct.UnsafeByteArrayOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 增量的 HTTP/1.x 响应解析，每次收到数据时调用 {@link #feed(ByteBuffer)}
+ * <p>
+ * 支持 Content-Length、chunked 以及读到连接关闭为止三种响应体。
+ *
+ * @author iamcyw
+ **/
+final class HttpResponseParser {
+
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    private enum State {
+        HEAD, FIXED, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER, UNTIL_CLOSE, DONE
+    }
+
+    private final UnsafeByteArrayOutputStream head = new UnsafeByteArrayOutputStream(256);
+    private final UnsafeByteArrayOutputStream line = new UnsafeByteArrayOutputStream(32);
+
+    private UnsafeByteArrayOutputStream body;
+    private State                       state;
+    private boolean                     headRequest;
+    private int                         status;
+    private Map<String, String>         headers;
+    private long                        remaining;
+    private boolean                     keepAlive;
+    private boolean                     received;
+
+    void reset(boolean headRequest) {
+        this.headRequest = headRequest;
+        this.state = State.HEAD;
+        this.head.reset();
+        this.line.reset();
+        this.body = null;
+        this.headers = null;
+        this.status = 0;
+        this.remaining = 0;
+        this.keepAlive = false;
+        this.received = false;
+    }
+
+    /**
+     * 解析收到的数据
+     *
+     * @param buffer
+     *     数据
+     *
+     * @return 响应是否完整
+     * @throws IOException
+     *     响应格式错误
+     */
+    boolean feed(ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining()) {
+            received = true;
+        }
+        while (buffer.hasRemaining() && state != State.DONE) {
+            switch (state) {
+                case HEAD:
+                    readHead(buffer);
+                    break;
+                case FIXED:
+                case CHUNK_DATA:
+                    int n = (int) Math.min(remaining, buffer.remaining());
+                    body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), n);
+                    buffer.position(buffer.position() + n);
+                    remaining -= n;
+                    if (remaining == 0) {
+                        state = state == State.FIXED ? State.DONE : State.CHUNK_END;
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    String size = readLine(buffer);
+                    if (size != null) {
+                        int ext = size.indexOf(';');
+                        try {
+                            remaining = Long.parseLong((ext < 0 ? size : size.substring(0, ext)).trim(), 16);
+                        } catch (NumberFormatException e) {
+                            throw new IOException("Illegal chunk size: " + size);
+                        }
+                        state = remaining == 0 ? State.TRAILER : State.CHUNK_DATA;
+                    }
+                    break;
+                case CHUNK_END:
+                    if (readLine(buffer) != null) {
+                        state = State.CHUNK_SIZE;
+                    }
+                    break;
+                case TRAILER:
+                    String trailer = readLine(buffer);
+                    if (trailer != null && trailer.isEmpty()) {
+                        state = State.DONE;
+                    }
+                    break;
+                case UNTIL_CLOSE:
+                    body.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    buffer.position(buffer.limit());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * 连接被关闭
+     *
+     * @return 响应是否完整
+     */
+    boolean onClose() {
+        if (state == State.UNTIL_CLOSE) {
+            state = State.DONE;
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * 是否已经收到过响应数据，没有收到时请求可以安全地在新连接上重试
+     *
+     * @return 是否收到过数据
+     */
+    boolean isReceived() {
+        return received;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    HttpResponse getResponse() {
+        return new HttpResponse(status, headers, body == null ? new byte[0] : body.toByteArray());
+    }
+
+    private void readHead(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            head.write(b);
+            if (b == '\n' && endsWithEmptyLine()) {
+                parseHead();
+                return;
+            }
+            if (head.size() > MAX_HEAD_SIZE) {
+                throw new IOException("Response head is too large");
+            }
+        }
+    }
+
+    private boolean endsWithEmptyLine() {
+        byte[] bytes = head.toByteBuffer().array();
+        int size = head.size();
+        return (size >= 2 && bytes[size - 2] == '\n') || (size >= 4 && bytes[size - 2] == '\r'
+                                                          && bytes[size - 3] == '\n');
+    }
+
+    private void parseHead() throws IOException {
+        String[] lines = head.toString("ISO-8859-1").split("\r?\n");
+        head.reset();
+        String[] statusLine = lines[0].split(" ", 3);
+        if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/")) {
+            throw new IOException("Illegal status line: " + lines[0]);
+        }
+        try {
+            status = Integer.parseInt(statusLine[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Illegal status line: " + lines[0]);
+        }
+        if (status >= 100 && status < 200) {
+            // 忽略 100-continue 等中间响应
+            return;
+        }
+
+        headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                String name = lines[i].substring(0, colon).trim().toLowerCase();
+                String value = lines[i].substring(colon + 1).trim();
+                String old = headers.put(name, value);
+                if (old != null) {
+                    headers.put(name, old + ", " + value);
+                }
+            }
+        }
+
+        String connection = headers.get("connection");
+        keepAlive = "HTTP/1.1".equals(statusLine[0]) ? !"close".equalsIgnoreCase(connection) :
+                    "keep-alive".equalsIgnoreCase(connection);
+
+        body = new UnsafeByteArrayOutputStream(256);
+        String transferEncoding = headers.get("transfer-encoding");
+        String contentLength = headers.get("content-length");
+        if (headRequest || status == 204 || status == 304) {
+            state = State.DONE;
+        } else if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            try {
+                remaining = Long.parseLong(contentLength);
+            } catch (NumberFormatException e) {
+                throw new IOException("Illegal content length: " + contentLength);
+            }
+            state = remaining == 0 ? State.DONE : State.FIXED;
+        } else {
+            keepAlive = false;
+            state = State.UNTIL_CLOSE;
+        }
+    }
+
+    private String readLine(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                int size = line.size();
+                if (size > 0 && line.toByteBuffer().array()[size - 1] == '\r') {
+                    size--;
+                }
+                String result = new String(line.toByteBuffer().array(), 0, size, "ISO-8859-1");
+                line.reset();
+                return result;
+            }
+            line.write(b);
+            if (line.size() > MAX_HEAD_SIZE) {
+                throw new IOException("Chunk line is too long");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package crossway.http.listen;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import crossway.struct.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 异步的 HTTP 服务端
+ * <p>
+ * 处理线程只负责读取请求并启动处理，返回后即可接收下一个请求；响应在 future 完成时由完成它的线程写出，
+ * 下游再慢也不会占满处理线程。同一个端口上的多个监听器共用一个服务端。
+ *
+ * @author iamcyw
+ **/
+@Slf4j
+public final class AsyncHttpServer {
+
+    private static final ConcurrentMap<Integer, AsyncHttpServer> SERVERS = new ConcurrentHashMap<>();
+
+    private final HttpServer      server;
+    private final ExecutorService executor;
+
+    private AsyncHttpServer(int port, int threads) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("http-listener-" + port, true));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * 获取端口上的服务端，不存在时创建并启动
+     *
+     * @param port
+     *     端口，0表示随机端口
+     * @param threads
+     *     处理线程数
+     *
+     * @return 服务端
+     */
+    public static AsyncHttpServer getOrCreate(int port, int threads) {
+        if (port == 0) {
+            AsyncHttpServer server = new AsyncHttpServer(0, threads);
+            SERVERS.put(server.getPort(), server);
+            return server;
+        }
+        return SERVERS.computeIfAbsent(port, p -> new AsyncHttpServer(p, threads));
+    }
+
+    /**
+     * 注册处理器
+     *
+     * @param path
+     *     路径
+     * @param method
+     *     请求方法，为空时不限制
+     * @param handler
+     *     处理器，负责写出响应；返回的 future 完成后关闭请求
+     */
+    public void bind(String path, String method, Function<HttpExchange, CompletableFuture<?>> handler) {
+        server.createContext(path, exchange -> {
+            if (method != null && !method.equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                exchange.close();
+                return;
+            }
+            CompletableFuture<?> future;
+            try {
+                future = handler.apply(exchange);
+            } catch (Throwable e) {
+                fail(exchange, e);
+                return;
+            }
+            future.whenComplete((result, e) -> {
+                if (e != null) {
+                    fail(exchange, e);
+                } else {
+                    exchange.close();
+                }
+            });
+        });
+    }
+
+    private static void fail(HttpExchange exchange, Throwable e) {
+        if (log.isWarnEnabled()) {
+            log.warn("Failed to handle http request " + exchange.getRequestURI(), e);
+        }
+        try {
+            byte[] body = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(500, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException | RuntimeException ignore) { // NOPMD
+            // 响应头已经发出
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 停止服务端
+     */
+    public void stop() {
+        SERVERS.remove(getPort(), this);
+        server.stop(0);
+        executor.shutdown();
+    }
+}
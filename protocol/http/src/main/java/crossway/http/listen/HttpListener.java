@@ -1,48 +1,272 @@
 package crossway.http.listen;
 
+import com.sun.net.httpserver.HttpExchange;
+import crossway.codec.NodeReader;
+import crossway.codec.NodeWriter;
+import crossway.codec.RawPayload;
 import crossway.codec.Serializer;
 import crossway.config.ListenerConfig;
 import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
 import crossway.ext.api.Extension;
+import crossway.impl.codec.node.NodeFactory;
 import crossway.listen.Listener;
+import crossway.utils.ExceptionUtils;
+import crossway.utils.IOUtils;
 import crossway.utils.StringUtils;
 import spark.Request;
 import spark.Response;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import static spark.Spark.get;
 import static spark.Spark.post;
 
+/**
+ * HTTP 监听器
+ * <p>
+ * 默认使用 Spark，请求线程等待转发结果；参数 mode 为 async 时使用 {@link AsyncHttpServer}，
+ * 请求线程在交出请求后立即返回，响应在转发完成时写出。async 模式的参数：
+ * <ul>
+ * <li>port：监听端口，默认 4567</li>
+ * <li>path：监听路径，默认 /</li>
+ * <li>threads：处理线程数，默认 CPU 核数</li>
+ * </ul>
+ * 请求体以原始字节交给管道，不修改消息体时原样转发，见 {@link RawPayload}。
+ * <p>
+ * 参数 batch 为 true 时，按行分隔的多个值或顶层数组中的每个元素作为单独的请求并行转发，响应按记录顺序写成一个数组，
+ * 失败的记录写为 error 对象，见 {@link #writeRecord(NodeWriter, CrossWayResponse)}；batchWindow 为同时处理的最大记录数，
+ * 默认 64。请求体边读边解析，响应边完成边写出，需要序列化器支持流式写出（覆盖了
+ * {@link Serializer#writer(OutputStream, Map)}），否则在创建监听器时报错。
+ * <p>
+ * 错误响应的状态码：被限流拒绝为 429，业务线程池已满为 503，其它为 500。
+ *
+ * @author iamcyw
+ **/
 @Extension("http")
 public class HttpListener extends Listener {
+
+    public static final String PARAM_MODE    = "mode";
+    public static final String PARAM_PORT    = "port";
+    public static final String PARAM_PATH    = "path";
+    public static final String PARAM_THREADS = "threads";
+
+    public static final String PARAM_BATCH        = "batch";
+    public static final String PARAM_BATCH_WINDOW = "batchWindow";
+
+    public static final String MODE_ASYNC = "async";
+
     public HttpListener(ListenerConfig config) {
         super(config);
         init();
     }
 
     private void init() {
+        if (isBatch() && !isStreaming(getSerializer())) {
+            throw ExceptionUtils.buildRuntime(PARAM_BATCH, "true",
+                                              "serializer " + getSerializeType() + " does not support streaming output");
+        }
         String action = getConfig().getParameter("action");
-        if (StringUtils.equalsIgnoreCase(action, "post")) {
+        if (StringUtils.equalsIgnoreCase(getConfig().getParameter(PARAM_MODE), MODE_ASYNC)) {
+            String method = StringUtils.isEmpty(action) ? null : action.toUpperCase();
+            AsyncHttpServer.getOrCreate(Integer.parseInt(getParameter(PARAM_PORT, "4567")),
+                                        Integer.parseInt(getParameter(PARAM_THREADS, String.valueOf(
+                                            Runtime.getRuntime().availableProcessors()))))
+                           .bind(getParameter(PARAM_PATH, "/"), method, this::handleAsync);
+        } else if (StringUtils.equalsIgnoreCase(action, "post")) {
             post("", this::handle);
         } else if (StringUtils.equalsIgnoreCase(action, "get")) {
             get("", this::handle);
         }
     }
 
-    private Object handle(Request request, Response response) {
-        return getConfig().getTransport().apply(() -> {
-            Serializer serializer = getSerializer();
+    private String getParameter(String key, String defaultValue) {
+        String value = getConfig().getParameter(key);
+        return StringUtils.isEmpty(value) ? defaultValue : value;
+    }
 
-            CrossWayRequest crossWayRequest = new CrossWayRequest();
-            crossWayRequest.setData(serializer.encode(request.body(), null));
-            return crossWayRequest;
-        }).thenApplyAsync(crossWayResponse -> {
+    private boolean isBatch() {
+        return Boolean.parseBoolean(getConfig().getParameter(PARAM_BATCH));
+    }
+
+    /**
+     * 序列化器是否覆盖了 {@link Serializer#writer(OutputStream, Map)}，默认实现不支持流式写出
+     */
+    static boolean isStreaming(Serializer serializer) {
+        try {
+            return serializer.getClass().getMethod("writer", OutputStream.class, Map.class).getDeclaringClass()
+                   != Serializer.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private Object handle(Request request, Response response) throws IOException {
+        if (isBatch()) {
+            handleBatch(request.raw().getInputStream(), response.raw().getOutputStream()).join();
+            return "";
+        }
+        CrossWayRequest crossWayRequest = new CrossWayRequest();
+        crossWayRequest.setPayload(new RawPayload(request.bodyAsBytes(), getSerializeType()));
+        try {
+            CrossWayResponse crossWayResponse = getConfig().getTransport().apply(() -> crossWayRequest).join();
             if (crossWayResponse.isError()) {
+                response.status(errorStatus(crossWayResponse));
                 return crossWayResponse.getError();
             }
-            return getSerializer().decode(crossWayResponse.getData(), null);
-        }).join();
+            // 直接写到 socket 输出，不生成中间字符串
+            writeData(crossWayResponse, response.raw().getOutputStream());
+            return "";
+        } finally {
+            crossWayRequest.complete();
+        }
+    }
+
+    /**
+     * 异步处理，返回的 future 在响应写出后完成
+     *
+     * @param exchange
+     *     请求
+     *
+     * @return 写出响应的 future
+     */
+    private CompletableFuture<Void> handleAsync(HttpExchange exchange) {
+        if (isBatch()) {
+            try {
+                exchange.sendResponseHeaders(200, 0);
+                return handleBatch(exchange.getRequestBody(), exchange.getResponseBody());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        byte[] body;
+        try {
+            body = IOUtils.readAll(exchange.getRequestBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CrossWayRequest crossWayRequest = new CrossWayRequest();
+        crossWayRequest.setPayload(new RawPayload(body, getSerializeType()));
+        return getConfig().getTransport().apply(CompletableFuture.completedFuture(crossWayRequest))
+                          .thenAccept(response -> write(exchange, response))
+                          .whenComplete((ignore, e) -> crossWayRequest.complete());
     }
 
+    /**
+     * 逐条转发请求体中的记录，响应按顺序写成数组
+     *
+     * @param in
+     *     请求体
+     * @param out
+     *     响应体
+     *
+     * @return 数组写完后完成
+     */
+    private CompletableFuture<Void> handleBatch(InputStream in, OutputStream out) throws IOException {
+        NodeReader reader = getSerializer().reader(in, null);
+        NodeWriter writer = getSerializer().writer(out, null);
+        writer.writeStartArray();
+        int window = Integer.parseInt(getParameter(PARAM_BATCH_WINDOW, "64"));
+        return getConfig().getTransport().applyBatch(reader, window, response -> {
+            try {
+                writeRecord(writer, response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).thenRun(() -> {
+            try {
+                writer.writeEndArray();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 写出批量响应中的一条记录，失败的记录写成 {@code {"error": {"type": 错误类型, "status": 状态码, "message": 错误信息}}}，
+     * 与正常返回 null 的记录区分
+     *
+     * @param writer
+     *     响应数组
+     * @param response
+     *     记录的响应
+     */
+    static void writeRecord(NodeWriter writer, CrossWayResponse response) throws IOException {
+        if (!response.isError()) {
+            writer.writeValue(response.getData());
+            return;
+        }
+        writer.writeStartObject();
+        writer.writeFieldName("error");
+        writer.writeStartObject();
+        Exception error = response.getError();
+        if (error instanceof CrossWayException) {
+            writer.writeField("type", NodeFactory.instance.numberNode(((CrossWayException) error).getErrorType()));
+        }
+        writer.writeField("status", NodeFactory.instance.numberNode(errorStatus(response)));
+        if (response.getErrorMsg() != null) {
+            writer.writeField("message", NodeFactory.instance.textNode(response.getErrorMsg()));
+        }
+        writer.writeEndObject();
+        writer.writeEndObject();
+    }
+
+    private void write(HttpExchange exchange, CrossWayResponse response) {
+        try {
+            if (response.isError()) {
+                byte[] error = String.valueOf(response.getErrorMsg()).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(errorStatus(response), error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+            // 长度未知，使用 chunked 编码直接写出
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            writeData(response, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 错误响应的 HTTP 状态码
+     *
+     * @param response
+     *     错误响应
+     *
+     * @return {@link WayErrorType#SERVER_LIMIT} 为 429，因线程池已满被拒绝时为 503，其它为 500
+     */
+    static int errorStatus(CrossWayResponse response) {
+        Exception error = response.getError();
+        if (error instanceof CrossWayException
+            && ((CrossWayException) error).getErrorType() == WayErrorType.SERVER_LIMIT) {
+            return error.getCause() instanceof RejectedExecutionException ? 503 : 429;
+        }
+        return 500;
+    }
+
+    /**
+     * 写出响应数据，序列化类型相同的原始字节直接写出
+     */
+    private void writeData(CrossWayResponse response, OutputStream out) throws IOException {
+        RawPayload payload = response.getPayload();
+        if (payload != null && payload.isType(getSerializeType())) {
+            out.write(payload.getBytes());
+        } else {
+            getSerializer().decode(response.getData(), response.getContext(), out);
+        }
+    }
 
     @Override
     protected String getDefaultSerializeType() {
@@ -1,16 +1,77 @@
 package crossway.http.send;
 
+import crossway.codec.RawPayload;
 import crossway.config.SenderConfig;
 import crossway.core.request.CrossWayRequest;
 import crossway.core.response.CrossWayResponse;
 import crossway.exception.CrossWayException;
+import crossway.exception.CrossWayRuntimeException;
+import crossway.exception.WayErrorType;
 import crossway.ext.api.Extension;
+import crossway.http.client.ConnectionPool;
+import crossway.http.client.HttpResponse;
 import crossway.send.Send;
+import crossway.struct.UnsafeByteArrayOutputStream;
+import crossway.utils.StringUtils;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 基于 NIO 连接池的 HTTP 发送器
+ * <p>
+ * 路由参数：
+ * <ul>
+ * <li>url：目标地址，必填</li>
+ * <li>method：请求方法，默认 POST</li>
+ * <li>timeout：请求超时（毫秒），默认 3000</li>
+ * <li>connect.timeout：连接超时（毫秒），默认 1000</li>
+ * <li>max.connections：最大连接数，即同时进行中的请求数，默认 64</li>
+ * <li>max.pending：排队的最大请求数，默认 1024</li>
+ * <li>idle.timeout：空闲连接保持时间（毫秒），默认 60000</li>
+ * <li>content.type：请求体类型，默认 application/json;charset=UTF-8</li>
+ * </ul>
+ *
+ * @author iamcyw
+ **/
 @Extension("http")
 public class HttpSender extends Send {
+
+    public static final String PARAM_URL             = "url";
+    public static final String PARAM_METHOD          = "method";
+    public static final String PARAM_TIMEOUT         = "timeout";
+    public static final String PARAM_CONNECT_TIMEOUT = "connect.timeout";
+    public static final String PARAM_MAX_CONNECTIONS = "max.connections";
+    public static final String PARAM_MAX_PENDING     = "max.pending";
+    public static final String PARAM_IDLE_TIMEOUT    = "idle.timeout";
+    public static final String PARAM_CONTENT_TYPE    = "content.type";
+
+    private final ConnectionPool pool;
+    private final String         method;
+    private final long           timeout;
+    private final String         contentType;
+
     protected HttpSender(SenderConfig senderConfig) {
         super(senderConfig);
+        String url = senderConfig.getParameter(PARAM_URL);
+        if (StringUtils.isEmpty(url)) {
+            throw new CrossWayRuntimeException("Parameter url of http sender " + senderConfig.getId() + " is empty");
+        }
+        this.method = getParameter(PARAM_METHOD, "POST").toUpperCase();
+        this.timeout = Long.parseLong(getParameter(PARAM_TIMEOUT, "3000"));
+        this.contentType = getParameter(PARAM_CONTENT_TYPE, "application/json;charset=UTF-8");
+        this.pool = new ConnectionPool(URI.create(url), Integer.parseInt(getParameter(PARAM_MAX_CONNECTIONS, "64")),
+                                       Integer.parseInt(getParameter(PARAM_MAX_PENDING, "1024")),
+                                       Long.parseLong(getParameter(PARAM_CONNECT_TIMEOUT, "1000")),
+                                       Long.parseLong(getParameter(PARAM_IDLE_TIMEOUT, "60000")));
+    }
+
+    private String getParameter(String key, String defaultValue) {
+        String value = getConfig().getParameter(key);
+        return StringUtils.isEmpty(value) ? defaultValue : value;
     }
 
     @Override
@@ -20,12 +81,91 @@ public class HttpSender extends Send {
 
     @Override
     public CrossWayResponse invoke(CrossWayRequest request) throws CrossWayException {
-        String message = (String) getSerializer().decode(request.getData(), null);
+        return invokeAsync(request).join();
+    }
 
+    /**
+     * 异步发送，等待响应期间不占用线程；响应在发送配置的业务线程池上解析，不占用 IO 线程。
+     * 业务线程池已满时不在 IO 线程上解析，直接返回 {@link WayErrorType#SERVER_LIMIT} 错误响应
+     *
+     * @param request
+     *     请求
+     *
+     * @return 响应
+     */
+    @Override
+    public CompletableFuture<CrossWayResponse> invokeAsync(CrossWayRequest request) {
+        ByteBuffer body;
+        try {
+            body = toBody(request);
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<CrossWayResponse> future = new CompletableFuture<>();
+            future.complete(error(e.getMessage(), e));
+            return future;
+        }
+        return pool.send(method, body, contentType, timeout).handleAsync((response, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                return error(cause.getMessage(), cause);
+            }
+            return toResponse(response);
+        }, getConfig().getExecutor()).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            CrossWayResponse response = new CrossWayResponse();
+            response.setErrorMsg("Executor of " + getConfig().getId() + " is full");
+            response.setError(new CrossWayException(WayErrorType.SERVER_LIMIT, response.getErrorMsg(), cause));
+            return response;
+        });
+    }
 
-        return null;
+    /**
+     * 关闭连接池，排队中的请求以错误响应结束
+     */
+    @Override
+    public void destroy() {
+        pool.close();
+    }
 
+    /**
+     * 请求体，序列化类型相同的原始字节直接发送
+     */
+    private ByteBuffer toBody(CrossWayRequest request) throws IOException {
+        RawPayload payload = request.getPayload();
+        if (payload != null && payload.isType(getSerializeType())) {
+            return ByteBuffer.wrap(payload.getBytes());
+        }
+        UnsafeByteArrayOutputStream body = new UnsafeByteArrayOutputStream(256);
+        getSerializer().decode(request.getData(), null, body);
+        return body.toByteBuffer();
     }
 
+    private CrossWayResponse toResponse(HttpResponse httpResponse) {
+        if (!httpResponse.isSuccess()) {
+            return error("Http status " + httpResponse.getStatus() + " from " + pool.getTarget(), null);
+        }
+        CrossWayResponse response = new CrossWayResponse();
+        byte[] body = httpResponse.getBody();
+        if (body.length > 0) {
+            // 使用时再解码
+            response.setPayload(new RawPayload(body, getSerializeType()));
+        }
+        return response;
+    }
 
+    private CrossWayResponse error(String message, Throwable cause) {
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg(message);
+        response.setError(cause == null ? new CrossWayException(WayErrorType.SERVER_SEND, message) :
+                          new CrossWayException(WayErrorType.SERVER_SEND, message, cause));
+        return response;
+    }
+
+    /**
+     * 连接池，用于监控
+     *
+     * @return 连接池
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
 }
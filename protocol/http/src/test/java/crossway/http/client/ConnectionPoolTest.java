@@ -0,0 +1,124 @@
+package crossway.http.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author iamcyw
+ **/
+public class ConnectionPoolTest {
+
+    private HttpServer  server;
+    private Set<String> clients;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        clients = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/echo", exchange -> {
+            clients.add(exchange.getRemoteAddress().toString());
+            byte[] body = readAll(exchange.getRequestBody());
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/chunked", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("hello ".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                out.write("world".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ignore) { // NOPMD
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    @Test
+    public void testKeepAlive() {
+        ConnectionPool pool = new ConnectionPool(uri("/echo"), 2, 100, 1000, 60000);
+        for (int i = 0; i < 5; i++) {
+            HttpResponse response = pool.send("POST", ByteBuffer.wrap(("hello" + i).getBytes(StandardCharsets.UTF_8)),
+                                              "text/plain", 3000).join();
+            Assertions.assertEquals(200, response.getStatus());
+            Assertions.assertEquals("hello" + i, new String(response.getBody(), StandardCharsets.UTF_8));
+        }
+        // 顺序请求复用同一个连接
+        Assertions.assertEquals(1, clients.size());
+
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pool.send("POST", ByteBuffer.wrap(new byte[]{'x'}), "text/plain", 3000));
+        }
+        for (CompletableFuture<HttpResponse> future : futures) {
+            Assertions.assertEquals("x", new String(future.join().getBody(), StandardCharsets.UTF_8));
+        }
+        Assertions.assertTrue(clients.size() <= 2);
+        pool.close();
+    }
+
+    @Test
+    public void testChunked() {
+        ConnectionPool pool = new ConnectionPool(uri("/chunked"), 1, 10, 1000, 60000);
+        HttpResponse response = pool.send("GET", null, null, 3000).join();
+        Assertions.assertEquals("hello world", new String(response.getBody(), StandardCharsets.UTF_8));
+        pool.close();
+    }
+
+    @Test
+    public void testTimeout() {
+        ConnectionPool pool = new ConnectionPool(uri("/slow"), 1, 10, 1000, 60000);
+        CompletionException e = Assertions.assertThrows(CompletionException.class,
+                                                        () -> pool.send("GET", null, null, 200).join());
+        Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        pool.close();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package crossway.http.listen;
+
+import crossway.http.client.ConnectionPool;
+import crossway.http.client.HttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author iamcyw
+ **/
+public class AsyncHttpServerTest {
+
+    @Test
+    public void testSlowHandlerDoesNotHoldThread() {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        AsyncHttpServer server = AsyncHttpServer.getOrCreate(0, 1);
+        server.bind("/slow", "GET", exchange -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                try {
+                    byte[] body = "done".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                    future.complete(null);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }, 300, TimeUnit.MILLISECONDS);
+            return future;
+        });
+        ConnectionPool pool = new ConnectionPool(URI.create("http://127.0.0.1:" + server.getPort() + "/slow"), 8, 10,
+                                                 1000, 60000);
+        try {
+            long start = System.currentTimeMillis();
+            List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.send("GET", null, null, 5000));
+            }
+            for (CompletableFuture<HttpResponse> future : futures) {
+                Assertions.assertEquals("done", new String(future.join().getBody(), StandardCharsets.UTF_8));
+            }
+            // 只有一个处理线程，串行处理需要 2400ms
+            Assertions.assertTrue(System.currentTimeMillis() - start < 1500);
+
+            Assertions.assertEquals(405, pool.send("POST", null, null, 5000).join().getStatus());
+        } finally {
+            pool.close();
+            server.stop();
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package crossway.http.listen;
+
+import crossway.codec.NodeWriter;
+import crossway.codec.Serializer;
+import crossway.codec.node.Node;
+import crossway.core.response.CrossWayResponse;
+import crossway.exception.CrossWayException;
+import crossway.exception.WayErrorType;
+import crossway.impl.codec.node.NodeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @author iamcyw
+ **/
+public class HttpListenerTest {
+
+    @Test
+    public void testErrorStatus() {
+        Assertions.assertEquals(429, HttpListener.errorStatus(
+            error(new CrossWayException(WayErrorType.SERVER_LIMIT, "Rate limit exceeded"))));
+        Assertions.assertEquals(503, HttpListener.errorStatus(
+            error(new CrossWayException(WayErrorType.SERVER_LIMIT, "full", new RejectedExecutionException()))));
+        Assertions.assertEquals(500, HttpListener.errorStatus(
+            error(new CrossWayException(WayErrorType.SERVER_SEND, "timeout"))));
+    }
+
+    @Test
+    public void testStreamingSerializer() {
+        Assertions.assertFalse(HttpListener.isStreaming(new TreeSerializer()));
+        Assertions.assertTrue(HttpListener.isStreaming(new TreeSerializer() {
+            @Override
+            public NodeWriter writer(OutputStream out, Map<String, Object> context) {
+                return null;
+            }
+        }));
+    }
+
+    @Test
+    public void testBatchRecordError() throws IOException {
+        RecordingWriter writer = new RecordingWriter();
+        CrossWayResponse ok = new CrossWayResponse();
+        ok.setData(NodeFactory.instance.textNode("ok"));
+        HttpListener.writeRecord(writer, ok);
+        HttpListener.writeRecord(writer, error(new CrossWayException(WayErrorType.SERVER_LIMIT, "limited")));
+        HttpListener.writeRecord(writer, new CrossWayResponse());
+        // 失败的记录与返回 null 的记录可以区分
+        Assertions.assertEquals("ok,{error:{type:190,status:429,message:limited}},null", writer.toString());
+    }
+
+    /**
+     * 按调用顺序记录写出的内容
+     */
+    private static class RecordingWriter implements NodeWriter {
+        private final StringBuilder out = new StringBuilder();
+
+        @Override
+        public void writeStartObject() {
+            separate();
+            out.append('{');
+        }
+
+        @Override
+        public void writeEndObject() {
+            out.append('}');
+        }
+
+        @Override
+        public void writeStartArray() {
+            separate();
+            out.append('[');
+        }
+
+        @Override
+        public void writeEndArray() {
+            out.append(']');
+        }
+
+        @Override
+        public void writeFieldName(String name) {
+            separate();
+            out.append(name).append(':');
+        }
+
+        @Override
+        public void writeValue(Node value) {
+            separate();
+            out.append(value == null ? "null" : value.asText());
+        }
+
+        private void separate() {
+            if (out.length() > 0 && "{[:".indexOf(out.charAt(out.length() - 1)) < 0) {
+                out.append(',');
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+
+    private static class TreeSerializer implements Serializer {
+        @Override
+        public Node encode(Object object, Map<String, Object> context) {
+            return null;
+        }
+
+        @Override
+        public Object decode(Node data, Map<String, Object> context) {
+            return null;
+        }
+    }
+
+    private static CrossWayResponse error(CrossWayException e) {
+        CrossWayResponse response = new CrossWayResponse();
+        response.setErrorMsg(e.getMessage());
+        response.setError(e);
+        return response;
+    }
+}
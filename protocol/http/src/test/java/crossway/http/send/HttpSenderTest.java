@@ -0,0 +1,44 @@
+package crossway.http.send;
+
+import crossway.codec.RawPayload;
+import crossway.config.SenderConfig;
+import crossway.core.request.CrossWayRequest;
+import crossway.core.response.CrossWayResponse;
+import crossway.send.Send;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author iamcyw
+ **/
+public class HttpSenderTest {
+
+    @Test
+    public void testSenderPerConfig() {
+        Send first = config("test-http-first", "http://127.0.0.1:1/a").refer();
+        Send second = config("test-http-second", "http://127.0.0.1:1/b").refer();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("127.0.0.1:1", ((HttpSender) second).getPool().getTarget());
+        first.destroy();
+        second.destroy();
+    }
+
+    @Test
+    public void testDestroyClosesPool() {
+        Send send = config("test-http-destroy", "http://127.0.0.1:1/").refer();
+        send.destroy();
+        CrossWayRequest request = new CrossWayRequest();
+        request.setPayload(new RawPayload("{}".getBytes(StandardCharsets.UTF_8), "json"));
+        CrossWayResponse response = send.invokeAsync(request).join();
+        Assertions.assertTrue(response.isError());
+        Assertions.assertTrue(response.getErrorMsg().contains("closed"), response.getErrorMsg());
+    }
+
+    private static SenderConfig config(String id, String url) {
+        SenderConfig config = new SenderConfig().setId(id).setParameter(HttpSender.PARAM_URL, url);
+        config.setProtocol("http");
+        return config;
+    }
+}